@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * AIMD concurrency limiter for the calls to the database. While the latency
+ * stays close to the lowest observed one the limit grows by one per limit
+ * calls, when the latency climbs over latencyTolerance times that baseline
+ * (or a call fails) the limit is multiplied by backoffRatio.
+ *
+ * The baseline is kept per kind of call (getColumns, getIndexInfo, a catalog
+ * query, ...), a slow kind of call is not compared with a fast one. Every
+ * execute is one round trip; readers that make several round trips in one
+ * operation pass each of them through the limiter.
+ *
+ * maxInFlight and maxCallsPerSecond are hard caps, the adaptive limit never
+ * goes over them. The limit only matters when several threads share the
+ * instance: give the same one to the readers working in parallel over the
+ * same database (ShardedDatabaseReader per endpoint, DependencyClosureReader,
+ * DataProfiler, WarmupDatabaseReader and the DatabaseReader they use).
+ */
+public class AdaptiveLimiter {
+
+	public static final String DEFAULT_KIND = "call";
+
+	private final int minLimit;
+	private final int maxInFlight;
+	private final double maxCallsPerSecond;
+
+	private double latencyTolerance = 2.0;
+	private double backoffRatio = 0.9;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+
+	private double limit;
+	private int inFlight;
+	private final Map<String, double[]> baselines = new HashMap<>();
+	private long nextPermitNanos;
+
+	/**
+	 *
+	 * @param initialLimit
+	 * @param maxInFlight hard cap of concurrent calls
+	 * @param maxCallsPerSecond hard cap of calls per second, 0 or less unlimited
+	 */
+	public AdaptiveLimiter(int initialLimit, int maxInFlight, double maxCallsPerSecond) {
+		if(maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be greater than 0");
+		this.minLimit = 1;
+		this.maxInFlight = maxInFlight;
+		this.maxCallsPerSecond = maxCallsPerSecond;
+		this.limit = Math.max(minLimit, Math.min(initialLimit, maxInFlight));
+		this.nextPermitNanos = System.nanoTime();
+	}
+
+	public <T> T execute(SqlCall<T> call) throws SQLException {
+		return execute(DEFAULT_KIND, call);
+	}
+
+	/**
+	 * Executes one round trip
+	 * @param kind kind of call, its latency is compared with the baseline of the same kind
+	 * @param call
+	 * @return
+	 * @throws SQLException
+	 */
+	public <T> T execute(String kind, SqlCall<T> call) throws SQLException {
+
+		acquire();
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			T result = call.call();
+			failed = false;
+			return result;
+		}finally {
+			release(kind, System.nanoTime() - start, failed);
+		}
+	}
+
+	/**
+	 * Executes the call through the limiter, or directly when it is null
+	 * @param limiter
+	 * @param kind
+	 * @param call
+	 * @return
+	 * @throws SQLException
+	 */
+	public static <T> T execute(AdaptiveLimiter limiter, String kind, SqlCall<T> call) throws SQLException {
+		return limiter == null ? call.call() : limiter.execute(kind, call);
+	}
+
+	private void acquire() throws SQLException {
+
+		long waitUntil;
+		lock.lock();
+		try {
+			while(inFlight >= (int) limit) {
+				released.await();
+			}
+			inFlight++;
+
+			waitUntil = 0;
+			if(maxCallsPerSecond > 0) {
+				long now = System.nanoTime();
+				long slot = Math.max(now, nextPermitNanos);
+				nextPermitNanos = slot + (long) (TimeUnit.SECONDS.toNanos(1) / maxCallsPerSecond);
+				waitUntil = slot;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for the database limiter", e);
+		} finally {
+			lock.unlock();
+		}
+
+		long sleep = waitUntil - System.nanoTime();
+		if(waitUntil > 0 && sleep > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(sleep);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				release(null, 0, true);
+				throw new SQLException("Interrupted while waiting for the database limiter", e);
+			}
+		}
+	}
+
+	private void release(String kind, long latencyNanos, boolean failed) {
+
+		lock.lock();
+		try {
+			inFlight--;
+			if(failed) {
+				limit = Math.max(minLimit, limit * backoffRatio);
+			}else {
+				double[] baseline = baselines.computeIfAbsent(kind, (k) -> new double[] {-1});
+				if(baseline[0] < 0 || latencyNanos < baseline[0])
+					baseline[0] = latencyNanos;
+				else
+					//lets the baseline follow a permanent change of the database
+					baseline[0] += (latencyNanos - baseline[0]) * 0.01;
+
+				if(latencyNanos <= baseline[0] * latencyTolerance)
+					limit = Math.min(maxInFlight, limit + 1.0 / limit);
+				else
+					limit = Math.max(minLimit, limit * backoffRatio);
+			}
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getLimit() {
+		lock.lock();
+		try {
+			return (int) limit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getInFlight() {
+		lock.lock();
+		try {
+			return inFlight;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Lowest latency of the kind of call, the one the others are compared with
+	 * @param kind
+	 * @return nanoseconds, -1 when there was no call of the kind
+	 */
+	public long getBaselineNanos(String kind) {
+		lock.lock();
+		try {
+			double[] baseline = baselines.get(kind);
+			return baseline == null ? -1 : (long) baseline[0];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	public double getMaxCallsPerSecond() {
+		return maxCallsPerSecond;
+	}
+
+	public double getLatencyTolerance() {
+		return latencyTolerance;
+	}
+
+	public void setLatencyTolerance(double latencyTolerance) {
+		this.latencyTolerance = latencyTolerance;
+	}
+
+	public double getBackoffRatio() {
+		return backoffRatio;
+	}
+
+	public void setBackoffRatio(double backoffRatio) {
+		this.backoffRatio = backoffRatio;
+	}
+}
@@ -0,0 +1,470 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.PkContraint;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Reads columns, primary keys and imported keys of many tables at once.
+ * The table names are split in chunks and every chunk is read with one
+ * catalog view query per kind (CatalogQueries). Databases without those
+ * queries use one DatabaseMetaData call per table and kind.
+ *
+ * The results are keyed by the table name as the caller gave it.
+ */
+public class BatchMetadataReader {
+
+	public static final int DEFAULT_CHUNK_SIZE = 500;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private AdaptiveLimiter limiter;
+
+	public BatchMetadataReader() {
+	}
+
+	public BatchMetadataReader(int chunkSize) {
+		setChunkSize(chunkSize);
+	}
+
+	/**
+	 * Columns with pk and fk information, the same as
+	 * IDatabaseReader.getTableColumnMetaData for each table
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return table name, columns in ordinal order
+	 * @throws SQLException
+	 */
+	public Map<String, List<Column>> readColumnMetaData(Connection con, String catalog, String schema,
+														Collection<String> tableNames) throws SQLException {
+
+		Map<String, List<Column>> columns = readColumns(con, catalog, schema, tableNames);
+		Map<String, PkContraint> pks = readPrimaryKeys(con, catalog, schema, tableNames);
+		Map<String, List<FkContraint>> fks = readImportedKeys(con, catalog, schema, tableNames);
+
+		for (Map.Entry<String, List<Column>> entry : columns.entrySet()) {
+			PkContraint pk = pks.get(entry.getKey());
+			Map<String, String> fkColumns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for (FkContraint fk : fks.getOrDefault(entry.getKey(), new ArrayList<>())) {
+				for (ImportedKey importedKey : fk.getImportedKey()) {
+					fkColumns.putIfAbsent(importedKey.getFkColumnName(), importedKey.getPkTableName());
+				}
+			}
+			for (Column column : entry.getValue()) {
+				column.setPk(pk != null && pk.getListField().contains(column.getName()));
+				column.setFk(fkColumns.containsKey(column.getName()));
+				if(column.isFk()) column.setFktablename(fkColumns.get(column.getName()));
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 *
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return table name, columns in ordinal order
+	 * @throws SQLException
+	 */
+	public Map<String, List<Column>> readColumns(Connection con, String catalog, String schema,
+												 Collection<String> tableNames) throws SQLException {
+
+		Map<String, TreeMap<Integer, Column>> ordered = new LinkedHashMap<>();
+		for (String tableName : tableNames) ordered.put(tableName, new TreeMap<>());
+
+		TypeRegistry typeRegistry = TypeRegistry.of(con);
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		String sql = CatalogQueries.columns(dialect);
+		if(sql == null) {
+			DatabaseMetaData databaseMetaData = con.getMetaData();
+			for (String tableName : tableNames) {
+				try (ResultSet rs = call("getColumns", () -> databaseMetaData.getColumns(catalog, schema, tableName, "%"))) {
+					while(rs.next()) {
+						if(!tableName.equalsIgnoreCase(rs.getString("TABLE_NAME"))) continue;
+						Column column = newColumn(typeRegistry, tableName, rs.getString("COLUMN_NAME"), rs.getString("TYPE_NAME"), rs.getInt("DATA_TYPE"),
+								rs.getInt("COLUMN_SIZE"), rs.getInt("DECIMAL_DIGITS"), "YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")),
+								"YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")), rs.getString("COLUMN_DEF"), rs.getString("REMARKS"));
+						ordered.get(tableName).put(rs.getInt("ORDINAL_POSITION"), column);
+					}
+				}
+			}
+		}else {
+			Map<String, String> requested = requested(tableNames);
+			for (List<String> chunk : chunks(con, tableNames)) {
+				try (ResultSet rs = query(con, dialect, catalog, schema, sql, chunk, "columns")) {
+					while(rs.next()) {
+						//in order, the Oracle default is a LONG
+						String tableName = requested.get(rs.getString(1));
+						String columnName = rs.getString(2);
+						int position = rs.getInt(3);
+						String typeName = baseTypeName(rs.getString(4));
+						//LONGTEXT of MySQL is 4294967295, out of the range of getInt
+						int precision = (int) Math.min(rs.getLong(5), Integer.MAX_VALUE);
+						int scale = rs.getInt(6);
+						boolean nullable = isYes(rs.getString(7));
+						boolean autoIncrement = isYes(rs.getString(8));
+						String defaultValue = rs.getString(9);
+						String comment = rs.getString(10);
+						if(tableName == null) continue;
+						ordered.get(tableName).put(position, newColumn(typeRegistry, tableName, columnName, typeName, typeRegistry.sqlType(typeName),
+								precision, scale, nullable, autoIncrement, defaultValue, comment));
+					}
+				}
+			}
+		}
+
+		Map<String, List<Column>> result = new LinkedHashMap<>();
+		for (Map.Entry<String, TreeMap<Integer, Column>> entry : ordered.entrySet()) {
+			result.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+		}
+		return result;
+	}
+
+	/**
+	 * Comments of the tables and views, also the existence check of the
+	 * requested tables
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return table name, comment (may be null); tables that do not exist are not in the map
+	 * @throws SQLException
+	 */
+	public Map<String, String> readTableComments(Connection con, String catalog, String schema,
+												 Collection<String> tableNames) throws SQLException {
+
+		Map<String, String> result = new LinkedHashMap<>();
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		String sql = CatalogQueries.tableComments(dialect);
+		if(sql == null) {
+			DatabaseMetaData databaseMetaData = con.getMetaData();
+			for (String tableName : tableNames) {
+				try (ResultSet rs = call("getTables", () -> databaseMetaData.getTables(catalog, schema, tableName, new String[]{"TABLE","VIEW"}))) {
+					while(rs.next()) {
+						if(tableName.equalsIgnoreCase(rs.getString("TABLE_NAME"))) result.putIfAbsent(tableName, rs.getString("REMARKS"));
+					}
+				}
+			}
+		}else {
+			Map<String, String> requested = requested(tableNames);
+			for (List<String> chunk : chunks(con, tableNames)) {
+				try (ResultSet rs = query(con, dialect, catalog, schema, sql, chunk, "tableComments")) {
+					while(rs.next()) {
+						String tableName = requested.get(rs.getString(1));
+						if(tableName != null) result.putIfAbsent(tableName, rs.getString(2));
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return table name, primary key; tables without pk are not in the map
+	 * @throws SQLException
+	 */
+	public Map<String, PkContraint> readPrimaryKeys(Connection con, String catalog, String schema,
+													Collection<String> tableNames) throws SQLException {
+
+		Map<String, TreeMap<Integer, String>> ordered = new LinkedHashMap<>();
+		Map<String, String> pkNames = new HashMap<>();
+
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		String sql = CatalogQueries.primaryKeys(dialect);
+		if(sql == null) {
+			DatabaseMetaData databaseMetaData = con.getMetaData();
+			for (String tableName : tableNames) {
+				try (ResultSet rs = call("getPrimaryKeys", () -> databaseMetaData.getPrimaryKeys(catalog, schema, tableName))) {
+					while(rs.next()) {
+						ordered.computeIfAbsent(tableName, (k) -> new TreeMap<>()).put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+						pkNames.putIfAbsent(tableName, rs.getString("PK_NAME"));
+					}
+				}
+			}
+		}else {
+			Map<String, String> requested = requested(tableNames);
+			for (List<String> chunk : chunks(con, tableNames)) {
+				try (ResultSet rs = query(con, dialect, catalog, schema, sql, chunk, "primaryKeys")) {
+					while(rs.next()) {
+						String tableName = requested.get(rs.getString(1));
+						if(tableName == null) continue;
+						ordered.computeIfAbsent(tableName, (k) -> new TreeMap<>()).put(rs.getInt(3), rs.getString(2));
+						pkNames.putIfAbsent(tableName, rs.getString(4));
+					}
+				}
+			}
+		}
+
+		Map<String, PkContraint> result = new LinkedHashMap<>();
+		for (Map.Entry<String, TreeMap<Integer, String>> entry : ordered.entrySet()) {
+			PkContraint pk = new PkContraint();
+			pk.setName(pkNames.get(entry.getKey()));
+			pk.getListField().addAll(entry.getValue().values());
+			result.put(entry.getKey(), pk);
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return table name, fk contraints grouped by fk name
+	 * @throws SQLException
+	 */
+	public Map<String, List<FkContraint>> readImportedKeys(Connection con, String catalog, String schema,
+														   Collection<String> tableNames) throws SQLException {
+		return readKeys(con, catalog, schema, tableNames, false);
+	}
+
+	/**
+	 *
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames referenced tables
+	 * @return referenced table name, fk contraints of the tables that reference it
+	 * @throws SQLException
+	 */
+	public Map<String, List<FkContraint>> readExportedKeys(Connection con, String catalog, String schema,
+														   Collection<String> tableNames) throws SQLException {
+		return readKeys(con, catalog, schema, tableNames, true);
+	}
+
+	private Map<String, List<FkContraint>> readKeys(Connection con, String catalog, String schema,
+													Collection<String> tableNames, boolean exported) throws SQLException {
+
+		Map<String, Map<String, FkContraint>> grouped = new LinkedHashMap<>();
+
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		String sql = exported ? CatalogQueries.exportedKeys(dialect) : CatalogQueries.importedKeys(dialect);
+		if(sql == null) {
+			DatabaseMetaData databaseMetaData = con.getMetaData();
+			for (String tableName : tableNames) {
+				try (ResultSet rs = call(exported ? "getExportedKeys" : "getImportedKeys", () -> exported ? databaseMetaData.getExportedKeys(catalog, schema, tableName) :
+														  databaseMetaData.getImportedKeys(catalog, schema, tableName))) {
+					while(rs.next()) {
+						addImportedKey(grouped, tableName, exported ? rs.getString(DatabaseReader.FKTABLE_NAME) : tableName, rs.getString(DatabaseReader.FK_NAME),
+								rs.getString(DatabaseReader.PKTABLE_NAME), rs.getString(DatabaseReader.PKCOLUMN_NAME),
+								rs.getString(DatabaseReader.FKCOLUMN_NAME), rs.getString("KEY_SEQ"), rs.getString("UPDATE_RULE"),
+								rs.getString(DatabaseReader.DELETE_RULE));
+					}
+				}
+			}
+		}else {
+			Map<String, String> requested = requested(tableNames);
+			for (List<String> chunk : chunks(con, tableNames)) {
+				try (ResultSet rs = query(con, dialect, catalog, schema, sql, chunk, exported ? "exportedKeys" : "importedKeys")) {
+					while(rs.next()) {
+						String tableName = requested.get(rs.getString(exported ? 3 : 1));
+						if(tableName == null) continue;
+						addImportedKey(grouped, tableName, exported ? rs.getString(1) : tableName, rs.getString(6), rs.getString(3), rs.getString(4), rs.getString(2),
+								rs.getString(5), CatalogQueries.ruleCode(rs.getString(7)), CatalogQueries.ruleCode(rs.getString(8)));
+					}
+				}
+			}
+		}
+
+		Map<String, List<FkContraint>> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Map<String, FkContraint>> entry : grouped.entrySet()) {
+			result.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+		}
+		return result;
+	}
+
+	private void addImportedKey(Map<String, Map<String, FkContraint>> grouped, String tableName, String fkTableName,
+								String fkName, String pkTableName, String pkColumnName, String fkColumnName, String keySeq,
+								String updateRule, String deleteRule) {
+
+		Map<String, FkContraint> tableFks = grouped.computeIfAbsent(tableName, (k) -> new LinkedHashMap<>());
+		//the exported keys of several tables can have the same name
+		String key = fkTableName + "." + (fkName != null ? fkName : "->" + pkTableName);
+		FkContraint fkContraint = tableFks.get(key);
+		if(fkContraint == null) {
+			fkContraint = new FkContraint();
+			fkContraint.setFkName(fkName);
+			fkContraint.setFkTableName(fkTableName);
+			fkContraint.setPkTableName(pkTableName);
+			tableFks.put(key, fkContraint);
+		}
+		ImportedKey importedKey = new ImportedKey();
+		importedKey.setPkTableName(pkTableName);
+		importedKey.setPkColumnName(pkColumnName);
+		importedKey.setFkColumnName(fkColumnName);
+		importedKey.setKeySeq(keySeq);
+		importedKey.setUpdateRule(updateRule);
+		importedKey.setDeleteRule(deleteRule);
+		fkContraint.getImportedKey().add(importedKey);
+	}
+
+	private Column newColumn(TypeRegistry typeRegistry, String tableName, String name, String typeName, int sqlType, int precision, int scale,
+							 boolean nullable, boolean autoIncrement, String defaultValue, String comment) {
+
+		Column column = new Column();
+		column.setTable(tableName);
+		column.setName(name);
+		column.setLabel(name);
+		column.setType(typeName);
+		column.setJavaSqlType(sqlType);
+		column.setJavaType(typeRegistry.javaType(sqlType, typeName));
+		column.setPrecision(precision);
+		column.setScale(scale);
+		column.setNullable(nullable);
+		column.setAutoIncrement(autoIncrement);
+		column.setDefaultValue(defaultValue);
+		column.setComment(comment);
+		return column;
+	}
+
+	private ResultSet query(Connection con, DatabaseDialect dialect, String catalog, String schema,
+							String sql, List<String> chunk, String kind) throws SQLException {
+
+		String catalogSchema = dialect.resolveSchema(con, catalog, schema);
+		PreparedStatement ps = con.prepareStatement(CatalogQueries.expand(sql, chunk.size()));
+		try {
+			ps.setString(1, catalogSchema);
+			for (int i = 0; i < chunk.size(); i++) {
+				ps.setString(i + 2, chunk.get(i));
+			}
+			ResultSet rs = call(kind, ps::executeQuery);
+			ps.closeOnCompletion();
+			return rs;
+		} catch (SQLException e) {
+			ps.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Names to send in the IN lists, split by chunkSize. Every name goes as it
+	 * was given and also in the case the database stores the identifiers.
+	 * @param con
+	 * @param tableNames
+	 * @return
+	 * @throws SQLException
+	 */
+	private List<List<String>> chunks(Connection con, Collection<String> tableNames) throws SQLException {
+		return chunks(con, tableNames, chunkSize);
+	}
+
+	static List<List<String>> chunks(Connection con, Collection<String> tableNames, int chunkSize) throws SQLException {
+
+		DatabaseMetaData databaseMetaData = con.getMetaData();
+		boolean upper = databaseMetaData.storesUpperCaseIdentifiers();
+		boolean lower = databaseMetaData.storesLowerCaseIdentifiers();
+
+		Set<String> names = new LinkedHashSet<>();
+		for (String tableName : tableNames) {
+			names.add(tableName);
+			if(upper) names.add(tableName.toUpperCase());
+			if(lower) names.add(tableName.toLowerCase());
+		}
+
+		List<List<String>> chunks = new ArrayList<>();
+		List<String> chunk = new ArrayList<>();
+		for (String name : names) {
+			chunk.add(name);
+			if(chunk.size() == chunkSize) {
+				chunks.add(chunk);
+				chunk = new ArrayList<>();
+			}
+		}
+		if(!chunk.isEmpty()) chunks.add(chunk);
+		return chunks;
+	}
+
+	private Map<String, String> requested(Collection<String> tableNames) {
+		Map<String, String> requested = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (String tableName : tableNames) requested.putIfAbsent(tableName, tableName);
+		return requested;
+	}
+
+	/**
+	 * Oracle gives TIMESTAMP(6) or INTERVAL DAY(2) TO SECOND(6)
+	 * @param typeName
+	 * @return
+	 */
+	private String baseTypeName(String typeName) {
+		if(typeName == null) return null;
+		int index = typeName.indexOf('(');
+		return index < 0 ? typeName : typeName.substring(0, index).trim();
+	}
+
+	private boolean isYes(String value) {
+		return "YES".equalsIgnoreCase(value) || "Y".equalsIgnoreCase(value) || "TRUE".equalsIgnoreCase(value) || "1".equals(value);
+	}
+
+	private <T> T call(String kind, SqlCall<T> call) throws SQLException {
+		return AdaptiveLimiter.execute(limiter, kind, call);
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Table names per query. Oracle does not accept more than 1000 IN values.
+	 * @param chunkSize
+	 */
+	public void setChunkSize(int chunkSize) {
+		if(chunkSize < 1) throw new IllegalArgumentException("chunkSize must be greater than 0");
+		this.chunkSize = chunkSize;
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	public void setLimiter(AdaptiveLimiter limiter) {
+		this.limiter = limiter;
+	}
+}
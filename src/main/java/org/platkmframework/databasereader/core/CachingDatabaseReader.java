@@ -0,0 +1,359 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * IDatabaseReader decorator that keeps the metadata in memory. The entries
+ * are keyed by url, user, catalog, schema and table; the connection part is
+ * read once per connection, see connectionChanged.
+ *
+ * When the wrapped reader is a CheckedDatabaseReader a failed read is not
+ * kept, it is reported by the wrapped reader and the caller gets an empty
+ * list. Empty results are kept for negativeTtlMillis, a table created after
+ * the read is seen without an invalidate. Every call returns its own copy of
+ * the tables and columns, a caller can not change the cached ones.
+ */
+public class CachingDatabaseReader implements IDatabaseReader {
+
+	public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+	public static final int  DEFAULT_MAX_SIZE   = 1000;
+	public static final long DEFAULT_NEGATIVE_TTL_MILLIS = 30 * 1000L;
+
+	private final IDatabaseReader databaseReader;
+	private final MetadataCache<MetadataKey, List<?>> cache;
+	private long negativeTtlMillis = DEFAULT_NEGATIVE_TTL_MILLIS;
+
+	public CachingDatabaseReader(IDatabaseReader databaseReader) {
+		this(databaseReader, DEFAULT_TTL_MILLIS, DEFAULT_MAX_SIZE);
+	}
+
+	public CachingDatabaseReader(IDatabaseReader databaseReader, long ttlMillis, int maxSize) {
+		this.databaseReader = databaseReader;
+		this.cache = new MetadataCache<>(ttlMillis, maxSize);
+	}
+
+	@Override
+	public List<Table> getMetadata(Connection con) {
+		return getMetadata(con, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<Table> getMetadata(Connection con, String table) {
+		return copyTables((List<Table>) load(key(con, table, MetadataKind.TABLES), table,
+				(checked) -> checked.readMetadata(con, table), () -> databaseReader.getMetadata(con, table)));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> getTablePksContraints(Connection con, String table) {
+		return new ArrayList<>((List<String>) load(key(con, table, MetadataKind.PKS), table,
+				(checked) -> checked.readTablePksContraints(con, table), () -> databaseReader.getTablePksContraints(con, table)));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<Column> getTableColumnMetaData(Connection con, String tablename) {
+		return copyColumns((List<Column>) load(key(con, tablename, MetadataKind.COLUMNS), tablename,
+				(checked) -> checked.readTableColumnMetaData(con, tablename), () -> databaseReader.getTableColumnMetaData(con, tablename)));
+	}
+
+	/**
+	 * The cached tables are served from memory, the rest are read in one
+	 * batch and cached one by one
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Map<String, List<Column>> getTableColumnMetaData(Connection con, Collection<String> tableNames) {
+
+		Map<String, List<Column>> result = new LinkedHashMap<>();
+		List<String> missing = new ArrayList<>();
+		for (String tableName : tableNames) {
+			List<Column> columns = (List<Column>) cache.getIfPresent(key(con, tableName, MetadataKind.COLUMNS));
+			if(columns == null) missing.add(tableName);
+			result.put(tableName, columns == null ? null : copyColumns(columns));
+		}
+
+		if(!missing.isEmpty()) {
+			Map<String, List<Column>> loaded;
+			boolean failed = false;
+			if(databaseReader instanceof CheckedDatabaseReader) {
+				CheckedDatabaseReader checked = (CheckedDatabaseReader) databaseReader;
+				try {
+					loaded = checked.readTableColumnMetaData(con, missing);
+				} catch (SQLException e) {
+					checked.readFailed(null, e);
+					loaded = new LinkedHashMap<>();
+					failed = true;
+				}
+			}else {
+				loaded = databaseReader.getTableColumnMetaData(con, missing);
+			}
+			for (String tableName : missing) {
+				List<Column> columns = loaded.getOrDefault(tableName, new ArrayList<>());
+				if(!failed) cache.put(key(con, tableName, MetadataKind.COLUMNS), columns, ttl(columns));
+				result.put(tableName, copyColumns(columns));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes every entry of the table, any connection
+	 * @param table
+	 */
+	public void invalidate(String table) {
+		cache.invalidateIf((k) -> (table == null ? k.table == null : table.equalsIgnoreCase(k.table)));
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * The connection changed its catalog or schema, its next key is read again
+	 * @param con
+	 */
+	public void connectionChanged(Connection con) {
+		ConnectionKey.forget(con);
+	}
+
+	public long getHits() {
+		return cache.getHits();
+	}
+
+	public long getMisses() {
+		return cache.getMisses();
+	}
+
+	public long getEvictions() {
+		return cache.getEvictions();
+	}
+
+	public double getHitRatio() {
+		return cache.getHitRatio();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public IDatabaseReader getDatabaseReader() {
+		return databaseReader;
+	}
+
+	public long getNegativeTtlMillis() {
+		return negativeTtlMillis;
+	}
+
+	/**
+	 * Time to live of the empty results, 0 or less never expires
+	 * @param negativeTtlMillis
+	 */
+	public void setNegativeTtlMillis(long negativeTtlMillis) {
+		this.negativeTtlMillis = negativeTtlMillis;
+	}
+
+	private MetadataKey key(Connection con, String table, MetadataKind kind) {
+		return new MetadataKey(ConnectionKey.of(con), table, kind);
+	}
+
+	/**
+	 * Cached value, or the one read by the wrapped reader. The checked read
+	 * is used when the wrapped reader has it, its failure is not kept.
+	 */
+	private List<?> load(MetadataKey key, String table, CheckedRead checkedRead, Supplier<List<?>> read) {
+
+		if(!(databaseReader instanceof CheckedDatabaseReader)) {
+			return cache.get(key, read, (value) -> value != null, this::ttl);
+		}
+
+		CheckedDatabaseReader checked = (CheckedDatabaseReader) databaseReader;
+		try {
+			return cache.get(key, () -> {
+				try {
+					return checkedRead.read(checked);
+				} catch (SQLException e) {
+					throw new ReadFailedException(e);
+				}
+			}, (value) -> value != null, this::ttl);
+		} catch (ReadFailedException e) {
+			checked.readFailed(table, e.getCause());
+			return new ArrayList<>();
+		}
+	}
+
+	private long ttl(List<?> value) {
+		return value.isEmpty() ? negativeTtlMillis : cache.getTtlMillis();
+	}
+
+	static List<Table> copyTables(List<Table> tables) {
+		List<Table> copy = new ArrayList<>(tables.size());
+		for (Table table : tables) copy.add(copy(table));
+		return copy;
+	}
+
+	static List<Column> copyColumns(List<Column> columns) {
+		List<Column> copy = new ArrayList<>(columns.size());
+		for (Column column : columns) copy.add(copy(column));
+		return copy;
+	}
+
+	static Table copy(Table table) {
+
+		Table copy = new Table();
+		copy.setName(table.getName());
+		copy.setType(table.getType());
+		copy.setComment(table.getComment());
+		if(table.getPkContraint() != null) {
+			PkContraint pk = new PkContraint();
+			pk.setName(table.getPkContraint().getName());
+			pk.getListField().addAll(table.getPkContraint().getListField());
+			copy.setPkContraint(pk);
+		}
+		for (Column column : table.getColumn()) copy.getColumn().add(copy(column));
+		for (IndexContraint index : table.getIndexContraint()) {
+			IndexContraint indexCopy = new IndexContraint();
+			indexCopy.setName(index.getName());
+			indexCopy.setType(index.getType());
+			indexCopy.setOrderType(index.getOrderType());
+			indexCopy.getColumns().addAll(index.getColumns());
+			copy.getIndexContraint().add(indexCopy);
+		}
+		for (FkContraint fk : table.getFkContraint()) {
+			FkContraint fkCopy = new FkContraint();
+			fkCopy.setFkName(fk.getFkName());
+			fkCopy.setFkTableName(fk.getFkTableName());
+			fkCopy.setPkTableName(fk.getPkTableName());
+			for (ImportedKey key : fk.getImportedKey()) {
+				ImportedKey keyCopy = new ImportedKey();
+				keyCopy.setPkTableName(key.getPkTableName());
+				keyCopy.setPkColumnName(key.getPkColumnName());
+				keyCopy.setFkColumnName(key.getFkColumnName());
+				keyCopy.setKeySeq(key.getKeySeq());
+				keyCopy.setUpdateRule(key.getUpdateRule());
+				keyCopy.setDeleteRule(key.getDeleteRule());
+				keyCopy.setNullable(key.isNullable());
+				keyCopy.setUnique(key.isUnique());
+				keyCopy.setPk(key.isPk());
+				fkCopy.getImportedKey().add(keyCopy);
+			}
+			copy.getFkContraint().add(fkCopy);
+		}
+		return copy;
+	}
+
+	static Column copy(Column column) {
+		Column copy = new Column();
+		copy.setName(column.getName());
+		copy.setLabel(column.getLabel());
+		copy.setTable(column.getTable());
+		copy.setType(column.getType());
+		copy.setJavaType(column.getJavaType());
+		copy.setJavaSqlType(column.getJavaSqlType());
+		copy.setPrecision(column.getPrecision());
+		copy.setScale(column.getScale());
+		copy.setNullable(column.isNullable());
+		copy.setPk(column.isPk());
+		copy.setFk(column.isFk());
+		copy.setUnique(column.isUnique());
+		copy.setAutoIncrement(column.isAutoIncrement());
+		copy.setFktablename(column.getFktablename());
+		copy.setComment(column.getComment());
+		copy.setDefaultValue(column.getDefaultValue());
+		return copy;
+	}
+
+	private enum MetadataKind { TABLES, PKS, COLUMNS }
+
+	private interface CheckedRead {
+		List<?> read(CheckedDatabaseReader checked) throws SQLException;
+	}
+
+	/**
+	 * Carries the failure of a checked read through the cache loader, the
+	 * cache does not keep it and the waiting callers get it too
+	 */
+	private static final class ReadFailedException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		ReadFailedException(SQLException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized SQLException getCause() {
+			return (SQLException) super.getCause();
+		}
+	}
+
+	private static final class MetadataKey {
+
+		private final ConnectionKey connection;
+		private final String table;
+		private final MetadataKind kind;
+		private final int hash;
+
+		MetadataKey(ConnectionKey connection, String table, MetadataKind kind) {
+			this.connection = connection;
+			this.table = table;
+			this.kind = kind;
+			this.hash = Objects.hash(connection, table, kind);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+			if(!(obj instanceof MetadataKey)) return false;
+			MetadataKey other = (MetadataKey) obj;
+			return kind == other.kind &&
+					Objects.equals(connection, other.connection) &&
+					Objects.equals(table, other.table);
+		}
+	}
+
+}
@@ -0,0 +1,451 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.Collections;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Catalog view queries used to read several tables in one round trip.
+ * The first parameter is always the schema and IN_LIST is replaced by
+ * the placeholders of the table names. null means the dialect has no
+ * query and the reader must use DatabaseMetaData.
+ */
+public final class CatalogQueries {
+
+	public static final String IN_LIST = "{IN}";
+
+	private CatalogQueries() {
+	}
+
+	/**
+	 * Columns: table, column, ordinal position, type name, precision, scale,
+	 * nullable (YES/Y), auto increment (YES), default value, comment.
+	 * The Oracle query needs 12c or later (IDENTITY_COLUMN), DATA_DEFAULT is
+	 * a LONG so the columns of a row must be read in order.
+	 * @param dialect
+	 * @return
+	 */
+	public static String columns(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+			return "SELECT TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION, DATA_TYPE, " +
+				   "COALESCE(CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, DATETIME_PRECISION), NUMERIC_SCALE, " +
+				   "IS_NULLABLE, IS_IDENTITY, COLUMN_DEFAULT, REMARKS " +
+				   "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (" + IN_LIST + ")";
+		case POSTGRESQL:
+			//numeric_precision of integer and float types is in bits, getColumns gives decimal digits
+			return "SELECT table_name, column_name, ordinal_position, udt_name, " +
+				   "CASE WHEN numeric_precision_radix = 2 THEN CASE udt_name WHEN 'int2' THEN 5 WHEN 'int4' THEN 10 " +
+				   "WHEN 'int8' THEN 19 WHEN 'float4' THEN 8 WHEN 'float8' THEN 17 ELSE numeric_precision END " +
+				   "ELSE COALESCE(character_maximum_length, numeric_precision, datetime_precision) END, numeric_scale, " +
+				   "is_nullable, CASE WHEN is_identity = 'YES' OR column_default LIKE 'nextval(%' THEN 'YES' ELSE 'NO' END, " +
+				   "column_default, col_description(format('%I.%I', table_schema, table_name)::regclass, ordinal_position) " +
+				   "FROM information_schema.columns WHERE table_schema = ? AND table_name IN (" + IN_LIST + ")";
+		case MYSQL:
+			return "SELECT TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION, DATA_TYPE, " +
+				   "COALESCE(CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, DATETIME_PRECISION), NUMERIC_SCALE, " +
+				   "IS_NULLABLE, CASE WHEN EXTRA LIKE '%auto_increment%' THEN 'YES' ELSE 'NO' END, " +
+				   "COLUMN_DEFAULT, COLUMN_COMMENT " +
+				   "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (" + IN_LIST + ")";
+		case ORACLE:
+			return "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.COLUMN_ID, c.DATA_TYPE, " +
+				   "COALESCE(c.DATA_PRECISION, NULLIF(c.CHAR_LENGTH, 0), c.DATA_LENGTH), c.DATA_SCALE, " +
+				   "c.NULLABLE, c.IDENTITY_COLUMN, c.DATA_DEFAULT, m.COMMENTS " +
+				   "FROM ALL_TAB_COLUMNS c LEFT JOIN ALL_COL_COMMENTS m ON m.OWNER = c.OWNER " +
+				   "AND m.TABLE_NAME = c.TABLE_NAME AND m.COLUMN_NAME = c.COLUMN_NAME " +
+				   "WHERE c.OWNER = ? AND c.TABLE_NAME IN (" + IN_LIST + ")";
+		case SQLSERVER:
+			return "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.ORDINAL_POSITION, c.DATA_TYPE, " +
+				   "COALESCE(c.CHARACTER_MAXIMUM_LENGTH, c.NUMERIC_PRECISION, c.DATETIME_PRECISION), c.NUMERIC_SCALE, " +
+				   "c.IS_NULLABLE, CASE WHEN COLUMNPROPERTY(OBJECT_ID(QUOTENAME(c.TABLE_SCHEMA) + '.' + QUOTENAME(c.TABLE_NAME)), " +
+				   "c.COLUMN_NAME, 'IsIdentity') = 1 THEN 'YES' ELSE 'NO' END, c.COLUMN_DEFAULT, CAST(ep.value AS NVARCHAR(4000)) " +
+				   "FROM INFORMATION_SCHEMA.COLUMNS c LEFT JOIN sys.extended_properties ep ON ep.class = 1 " +
+				   "AND ep.major_id = OBJECT_ID(QUOTENAME(c.TABLE_SCHEMA) + '.' + QUOTENAME(c.TABLE_NAME)) " +
+				   "AND ep.minor_id = COLUMNPROPERTY(ep.major_id, c.COLUMN_NAME, 'ColumnId') AND ep.name = 'MS_Description' " +
+				   "WHERE c.TABLE_SCHEMA = ? AND c.TABLE_NAME IN (" + IN_LIST + ")";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Tables and views: table, comment. A table that is not in the result
+	 * does not exist.
+	 * @param dialect
+	 * @return
+	 */
+	public static String tableComments(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+			return "SELECT TABLE_NAME, REMARKS FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (" + IN_LIST + ")";
+		case POSTGRESQL:
+			return "SELECT c.relname, obj_description(c.oid, 'pg_class') " +
+				   "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+				   "WHERE n.nspname = ? AND c.relkind IN ('r', 'p', 'v', 'm', 'f') AND c.relname IN (" + IN_LIST + ")";
+		case MYSQL:
+			return "SELECT TABLE_NAME, CASE WHEN TABLE_TYPE = 'VIEW' THEN NULL ELSE TABLE_COMMENT END " +
+				   "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (" + IN_LIST + ")";
+		case ORACLE:
+			return "SELECT TABLE_NAME, COMMENTS FROM ALL_TAB_COMMENTS WHERE OWNER = ? AND TABLE_NAME IN (" + IN_LIST + ")";
+		case SQLSERVER:
+			return "SELECT o.name, CAST(ep.value AS NVARCHAR(4000)) " +
+				   "FROM sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+				   "LEFT JOIN sys.extended_properties ep ON ep.class = 1 AND ep.major_id = o.object_id " +
+				   "AND ep.minor_id = 0 AND ep.name = 'MS_Description' " +
+				   "WHERE o.type IN ('U', 'V') AND s.name = ? AND o.name IN (" + IN_LIST + ")";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Primary keys: table, column, key sequence, constraint name
+	 * @param dialect
+	 * @return
+	 */
+	public static String primaryKeys(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+		case POSTGRESQL:
+		case MYSQL:
+		case SQLSERVER:
+			return "SELECT tc.TABLE_NAME, k.COLUMN_NAME, k.ORDINAL_POSITION, tc.CONSTRAINT_NAME " +
+				   "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k " +
+				   "ON k.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND k.CONSTRAINT_NAME = tc.CONSTRAINT_NAME AND k.TABLE_NAME = tc.TABLE_NAME " +
+				   "WHERE tc.CONSTRAINT_TYPE = 'PRIMARY KEY' AND tc.TABLE_SCHEMA = ? AND tc.TABLE_NAME IN (" + IN_LIST + ")";
+		case ORACLE:
+			return "SELECT c.TABLE_NAME, cc.COLUMN_NAME, cc.POSITION, c.CONSTRAINT_NAME " +
+				   "FROM ALL_CONSTRAINTS c JOIN ALL_CONS_COLUMNS cc ON cc.OWNER = c.OWNER AND cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME " +
+				   "WHERE c.CONSTRAINT_TYPE = 'P' AND c.OWNER = ? AND c.TABLE_NAME IN (" + IN_LIST + ")";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Imported keys: fk table, fk column, pk table, pk column, key sequence,
+	 * fk name, update rule, delete rule
+	 * @param dialect
+	 * @return
+	 */
+	public static String importedKeys(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+			return "SELECT k.TABLE_NAME, k.COLUMN_NAME, p.TABLE_NAME, p.COLUMN_NAME, k.ORDINAL_POSITION, k.CONSTRAINT_NAME, " +
+				   "rc.UPDATE_RULE, rc.DELETE_RULE " +
+				   "FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc " +
+				   "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k ON k.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA AND k.CONSTRAINT_NAME = rc.CONSTRAINT_NAME " +
+				   "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE p ON p.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA " +
+				   "AND p.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME AND p.ORDINAL_POSITION = k.POSITION_IN_UNIQUE_CONSTRAINT " +
+				   "WHERE k.TABLE_SCHEMA = ? AND k.TABLE_NAME IN (" + IN_LIST + ")";
+		case POSTGRESQL:
+			return postgresqlKeys("fn.nspname = ? AND ft.relname IN (" + IN_LIST + ")");
+		case MYSQL:
+			return "SELECT k.TABLE_NAME, k.COLUMN_NAME, k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME, k.ORDINAL_POSITION, " +
+				   "k.CONSTRAINT_NAME, rc.UPDATE_RULE, rc.DELETE_RULE " +
+				   "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE k LEFT JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc " +
+				   "ON rc.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND rc.CONSTRAINT_NAME = k.CONSTRAINT_NAME AND rc.TABLE_NAME = k.TABLE_NAME " +
+				   "WHERE k.REFERENCED_TABLE_NAME IS NOT NULL AND k.TABLE_SCHEMA = ? AND k.TABLE_NAME IN (" + IN_LIST + ")";
+		case ORACLE:
+			return "SELECT c.TABLE_NAME, cc.COLUMN_NAME, p.TABLE_NAME, pc.COLUMN_NAME, cc.POSITION, c.CONSTRAINT_NAME, " +
+				   "NULL, c.DELETE_RULE " +
+				   "FROM ALL_CONSTRAINTS c JOIN ALL_CONS_COLUMNS cc ON cc.OWNER = c.OWNER AND cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME " +
+				   "JOIN ALL_CONSTRAINTS p ON p.OWNER = c.R_OWNER AND p.CONSTRAINT_NAME = c.R_CONSTRAINT_NAME " +
+				   "JOIN ALL_CONS_COLUMNS pc ON pc.OWNER = p.OWNER AND pc.CONSTRAINT_NAME = p.CONSTRAINT_NAME AND pc.POSITION = cc.POSITION " +
+				   "WHERE c.CONSTRAINT_TYPE = 'R' AND c.OWNER = ? AND c.TABLE_NAME IN (" + IN_LIST + ")";
+		case SQLSERVER:
+			return "SELECT ft.name, fc.name, pt.name, pc.name, fkc.constraint_column_id, fk.name, " +
+				   "fk.update_referential_action_desc, fk.delete_referential_action_desc " +
+				   "FROM sys.foreign_keys fk JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id " +
+				   "JOIN sys.tables ft ON ft.object_id = fk.parent_object_id JOIN sys.schemas s ON s.schema_id = ft.schema_id " +
+				   "JOIN sys.columns fc ON fc.object_id = fkc.parent_object_id AND fc.column_id = fkc.parent_column_id " +
+				   "JOIN sys.tables pt ON pt.object_id = fk.referenced_object_id " +
+				   "JOIN sys.columns pc ON pc.object_id = fkc.referenced_object_id AND pc.column_id = fkc.referenced_column_id " +
+				   "WHERE s.name = ? AND ft.name IN (" + IN_LIST + ")";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Keys of pg_constraint. The names of the foreign keys are unique only
+	 * per table in PostgreSQL, and a foreign key can reference a unique
+	 * index without constraint, so INFORMATION_SCHEMA cannot join them.
+	 * conkey and confkey are unnested together, the same position is one
+	 * column pair.
+	 * @param filter condition with the schema and the IN list
+	 * @return
+	 */
+	private static String postgresqlKeys(String filter) {
+		return "SELECT ft.relname, fa.attname, pt.relname, pa.attname, k.n, con.conname, " +
+			   rule("con.confupdtype") + ", " + rule("con.confdeltype") + " " +
+			   "FROM pg_constraint con JOIN pg_class ft ON ft.oid = con.conrelid JOIN pg_namespace fn ON fn.oid = ft.relnamespace " +
+			   "JOIN pg_class pt ON pt.oid = con.confrelid JOIN pg_namespace pn ON pn.oid = pt.relnamespace " +
+			   "CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(fkattnum, pkattnum, n) " +
+			   "JOIN pg_attribute fa ON fa.attrelid = con.conrelid AND fa.attnum = k.fkattnum " +
+			   "JOIN pg_attribute pa ON pa.attrelid = con.confrelid AND pa.attnum = k.pkattnum " +
+			   "WHERE con.contype = 'f' AND " + filter;
+	}
+
+	private static String rule(String column) {
+		return "CASE " + column + " WHEN 'c' THEN 'CASCADE' WHEN 'r' THEN 'RESTRICT' WHEN 'n' THEN 'SET NULL' " +
+			   "WHEN 'd' THEN 'SET DEFAULT' ELSE 'NO ACTION' END";
+	}
+
+	/**
+	 * Exported keys, the same columns as importedKeys but the IN list filters
+	 * the referenced (pk) table
+	 * @param dialect
+	 * @return
+	 */
+	public static String exportedKeys(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+			return "SELECT k.TABLE_NAME, k.COLUMN_NAME, p.TABLE_NAME, p.COLUMN_NAME, k.ORDINAL_POSITION, k.CONSTRAINT_NAME, " +
+				   "rc.UPDATE_RULE, rc.DELETE_RULE " +
+				   "FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc " +
+				   "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k ON k.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA AND k.CONSTRAINT_NAME = rc.CONSTRAINT_NAME " +
+				   "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE p ON p.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA " +
+				   "AND p.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME AND p.ORDINAL_POSITION = k.POSITION_IN_UNIQUE_CONSTRAINT " +
+				   "WHERE p.TABLE_SCHEMA = ? AND p.TABLE_NAME IN (" + IN_LIST + ")";
+		case POSTGRESQL:
+			return postgresqlKeys("pn.nspname = ? AND pt.relname IN (" + IN_LIST + ")");
+		case MYSQL:
+			return "SELECT k.TABLE_NAME, k.COLUMN_NAME, k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME, k.ORDINAL_POSITION, " +
+				   "k.CONSTRAINT_NAME, rc.UPDATE_RULE, rc.DELETE_RULE " +
+				   "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE k LEFT JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc " +
+				   "ON rc.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND rc.CONSTRAINT_NAME = k.CONSTRAINT_NAME AND rc.TABLE_NAME = k.TABLE_NAME " +
+				   "WHERE k.REFERENCED_TABLE_SCHEMA = ? AND k.REFERENCED_TABLE_NAME IN (" + IN_LIST + ")";
+		case ORACLE:
+			return "SELECT c.TABLE_NAME, cc.COLUMN_NAME, p.TABLE_NAME, pc.COLUMN_NAME, cc.POSITION, c.CONSTRAINT_NAME, " +
+				   "NULL, c.DELETE_RULE " +
+				   "FROM ALL_CONSTRAINTS c JOIN ALL_CONS_COLUMNS cc ON cc.OWNER = c.OWNER AND cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME " +
+				   "JOIN ALL_CONSTRAINTS p ON p.OWNER = c.R_OWNER AND p.CONSTRAINT_NAME = c.R_CONSTRAINT_NAME " +
+				   "JOIN ALL_CONS_COLUMNS pc ON pc.OWNER = p.OWNER AND pc.CONSTRAINT_NAME = p.CONSTRAINT_NAME AND pc.POSITION = cc.POSITION " +
+				   "WHERE c.CONSTRAINT_TYPE = 'R' AND p.OWNER = ? AND p.TABLE_NAME IN (" + IN_LIST + ")";
+		case SQLSERVER:
+			return "SELECT ft.name, fc.name, pt.name, pc.name, fkc.constraint_column_id, fk.name, " +
+				   "fk.update_referential_action_desc, fk.delete_referential_action_desc " +
+				   "FROM sys.foreign_keys fk JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id " +
+				   "JOIN sys.tables ft ON ft.object_id = fk.parent_object_id " +
+				   "JOIN sys.columns fc ON fc.object_id = fkc.parent_object_id AND fc.column_id = fkc.parent_column_id " +
+				   "JOIN sys.tables pt ON pt.object_id = fk.referenced_object_id JOIN sys.schemas s ON s.schema_id = pt.schema_id " +
+				   "JOIN sys.columns pc ON pc.object_id = fkc.referenced_object_id AND pc.column_id = fkc.referenced_column_id " +
+				   "WHERE s.name = ? AND pt.name IN (" + IN_LIST + ")";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Unique and check constraints of the schema: table, constraint name,
+	 * type (UNIQUE/CHECK), column, column position, check expression.
+	 * Every parameter is the schema.
+	 * @param dialect
+	 * @return
+	 */
+	public static String constraints(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+		case MYSQL:
+			return "SELECT tc.TABLE_NAME, tc.CONSTRAINT_NAME, tc.CONSTRAINT_TYPE, k.COLUMN_NAME, k.ORDINAL_POSITION, cc.CHECK_CLAUSE " +
+				   "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+				   "LEFT JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k ON k.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA " +
+				   "AND k.CONSTRAINT_NAME = tc.CONSTRAINT_NAME AND k.TABLE_NAME = tc.TABLE_NAME " +
+				   "LEFT JOIN INFORMATION_SCHEMA.CHECK_CONSTRAINTS cc ON cc.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA " +
+				   "AND cc.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+				   "WHERE tc.CONSTRAINT_TYPE IN ('UNIQUE', 'CHECK') AND tc.TABLE_SCHEMA = ?";
+		case POSTGRESQL:
+			return "SELECT rel.relname, con.conname, CASE con.contype WHEN 'u' THEN 'UNIQUE' ELSE 'CHECK' END, " +
+				   "att.attname, k.ord, CASE WHEN con.contype = 'c' THEN pg_get_constraintdef(con.oid) END " +
+				   "FROM pg_constraint con JOIN pg_class rel ON rel.oid = con.conrelid " +
+				   "JOIN pg_namespace n ON n.oid = rel.relnamespace " +
+				   "LEFT JOIN LATERAL unnest(con.conkey) WITH ORDINALITY AS k(attnum, ord) ON true " +
+				   "LEFT JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = k.attnum " +
+				   "WHERE con.contype IN ('u', 'c') AND n.nspname = ?";
+		case ORACLE:
+			return "SELECT c.TABLE_NAME, c.CONSTRAINT_NAME, CASE c.CONSTRAINT_TYPE WHEN 'U' THEN 'UNIQUE' ELSE 'CHECK' END, " +
+				   "cc.COLUMN_NAME, cc.POSITION, c.SEARCH_CONDITION " +
+				   "FROM ALL_CONSTRAINTS c LEFT JOIN ALL_CONS_COLUMNS cc ON cc.OWNER = c.OWNER AND cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME " +
+				   "WHERE c.CONSTRAINT_TYPE IN ('U', 'C') AND c.OWNER = ?";
+		case SQLSERVER:
+			return "SELECT t.name, kc.name, 'UNIQUE', c.name, ic.key_ordinal, NULL " +
+				   "FROM sys.key_constraints kc JOIN sys.tables t ON t.object_id = kc.parent_object_id " +
+				   "JOIN sys.schemas s ON s.schema_id = t.schema_id " +
+				   "JOIN sys.index_columns ic ON ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id " +
+				   "JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id " +
+				   "WHERE kc.type = 'UQ' AND s.name = ? " +
+				   "UNION ALL " +
+				   "SELECT t.name, ck.name, 'CHECK', c.name, 1, ck.definition " +
+				   "FROM sys.check_constraints ck JOIN sys.tables t ON t.object_id = ck.parent_object_id " +
+				   "JOIN sys.schemas s ON s.schema_id = t.schema_id " +
+				   "LEFT JOIN sys.columns c ON c.object_id = ck.parent_object_id AND c.column_id = ck.parent_column_id " +
+				   "WHERE s.name = ?";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Unique constraints only, same columns as constraints, through the
+	 * standard INFORMATION_SCHEMA views. Used when the constraints query
+	 * fails, for example a MySQL older than 8.0.16 without CHECK_CONSTRAINTS.
+	 * @param dialect
+	 * @return
+	 */
+	public static String uniqueConstraints(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+		case POSTGRESQL:
+		case MYSQL:
+		case SQLSERVER:
+			return "SELECT tc.TABLE_NAME, tc.CONSTRAINT_NAME, tc.CONSTRAINT_TYPE, k.COLUMN_NAME, k.ORDINAL_POSITION, NULL " +
+				   "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+				   "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k ON k.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA " +
+				   "AND k.CONSTRAINT_NAME = tc.CONSTRAINT_NAME AND k.TABLE_NAME = tc.TABLE_NAME " +
+				   "WHERE tc.CONSTRAINT_TYPE = 'UNIQUE' AND tc.TABLE_SCHEMA = ?";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Tables of the schema: name, a value that changes when the ddl of the
+	 * table changes. Oracle and SQL Server give the last ddl time, the others
+	 * a signature of the columns computed by the database, one row per table.
+	 * @param dialect
+	 * @return
+	 */
+	public static String tableSignatures(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+			return "SELECT TABLE_NAME, LISTAGG(COLUMN_NAME || ':' || DATA_TYPE || ':' || " +
+				   "COALESCE(CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, 0) || ':' || COALESCE(NUMERIC_SCALE, 0) || ':' || " +
+				   "IS_NULLABLE || ':' || COALESCE(COLUMN_DEFAULT, ''), ',') WITHIN GROUP (ORDER BY ORDINAL_POSITION) " +
+				   "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = ? GROUP BY TABLE_NAME";
+		case POSTGRESQL:
+			return "SELECT c.relname, md5(string_agg(a.attname || ':' || format_type(a.atttypid, a.atttypmod) || ':' || " +
+				   "a.attnotnull || ':' || COALESCE(pg_get_expr(d.adbin, d.adrelid), ''), ',' ORDER BY a.attnum)) " +
+				   "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+				   "JOIN pg_attribute a ON a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped " +
+				   "LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum " +
+				   "WHERE n.nspname = ? AND c.relkind IN ('r', 'p', 'v', 'm', 'f') GROUP BY c.relname";
+		case MYSQL:
+			return "SELECT TABLE_NAME, CONCAT(COUNT(*), ':', SUM(CRC32(CONCAT_WS(':', ORDINAL_POSITION, COLUMN_NAME, " +
+				   "COLUMN_TYPE, IS_NULLABLE, IFNULL(COLUMN_DEFAULT, ''))))) " +
+				   "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = ? GROUP BY TABLE_NAME";
+		case ORACLE:
+			return "SELECT OBJECT_NAME, TO_CHAR(LAST_DDL_TIME, 'YYYYMMDDHH24MISS') " +
+				   "FROM ALL_OBJECTS WHERE OWNER = ? AND OBJECT_TYPE IN ('TABLE', 'VIEW')";
+		case SQLSERVER:
+			return "SELECT o.name, CONVERT(VARCHAR(30), o.modify_date, 126) " +
+				   "FROM sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id WHERE s.name = ? AND o.type IN ('U', 'V')";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Sequences of the schema: name, start value, increment, min value,
+	 * max value, cycle (YES/Y/1)
+	 * @param dialect
+	 * @return
+	 */
+	public static String sequences(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+			return "SELECT SEQUENCE_NAME, START_VALUE, INCREMENT, MINIMUM_VALUE, MAXIMUM_VALUE, CYCLE_OPTION " +
+				   "FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = ?";
+		case POSTGRESQL:
+			return "SELECT sequence_name, start_value, increment, minimum_value, maximum_value, cycle_option " +
+				   "FROM information_schema.sequences WHERE sequence_schema = ?";
+		case ORACLE:
+			return "SELECT SEQUENCE_NAME, NULL, INCREMENT_BY, MIN_VALUE, MAX_VALUE, CYCLE_FLAG " +
+				   "FROM ALL_SEQUENCES WHERE SEQUENCE_OWNER = ?";
+		case SQLSERVER:
+			return "SELECT sq.name, CAST(sq.start_value AS VARCHAR(40)), CAST(sq.increment AS VARCHAR(40)), " +
+				   "CAST(sq.minimum_value AS VARCHAR(40)), CAST(sq.maximum_value AS VARCHAR(40)), sq.is_cycling " +
+				   "FROM sys.sequences sq JOIN sys.schemas s ON s.schema_id = sq.schema_id WHERE s.name = ?";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Synonyms of the schema: name, qualified target
+	 * @param dialect
+	 * @return
+	 */
+	public static String synonyms(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case ORACLE:
+			return "SELECT SYNONYM_NAME, TABLE_OWNER || '.' || TABLE_NAME || CASE WHEN DB_LINK IS NULL THEN '' ELSE '@' || DB_LINK END " +
+				   "FROM ALL_SYNONYMS WHERE OWNER = ?";
+		case SQLSERVER:
+			return "SELECT sy.name, sy.base_object_name " +
+				   "FROM sys.synonyms sy JOIN sys.schemas s ON s.schema_id = sy.schema_id WHERE s.name = ?";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces IN_LIST by the placeholders of size parameters
+	 * @param sql
+	 * @param size
+	 * @return
+	 */
+	public static String expand(String sql, int size) {
+		return sql.replace(IN_LIST, String.join(", ", Collections.nCopies(size, "?")));
+	}
+
+	/**
+	 * DatabaseMetaData code of a referential action given by its name
+	 * (CASCADE, SET NULL, ...). Codes are kept as text like getImportedKeys.
+	 * @param rule
+	 * @return
+	 */
+	public static String ruleCode(String rule) {
+
+		if(rule == null) return null;
+		switch (rule.trim().toUpperCase().replace('_', ' ')) {
+		case "CASCADE":     return String.valueOf(java.sql.DatabaseMetaData.importedKeyCascade);
+		case "RESTRICT":    return String.valueOf(java.sql.DatabaseMetaData.importedKeyRestrict);
+		case "SET NULL":    return String.valueOf(java.sql.DatabaseMetaData.importedKeySetNull);
+		case "NO ACTION":   return String.valueOf(java.sql.DatabaseMetaData.importedKeyNoAction);
+		case "SET DEFAULT": return String.valueOf(java.sql.DatabaseMetaData.importedKeySetDefault);
+		default:            return rule;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * IDatabaseReader whose reads can also throw the failure instead of
+ * returning an empty list, so a decorator can tell a table without rows
+ * from a failed read. readFailed reports the failure the way the
+ * IDatabaseReader methods do.
+ */
+public interface CheckedDatabaseReader extends IDatabaseReader {
+
+	List<Table> readMetadata(Connection con, String table) throws SQLException;
+
+	List<String> readTablePksContraints(Connection con, String table) throws SQLException;
+
+	List<Column> readTableColumnMetaData(Connection con, String tableName) throws SQLException;
+
+	/**
+	 * @param con
+	 * @param tableNames
+	 * @return table name as it was given, columns; every table is in the map
+	 * @throws SQLException
+	 */
+	Map<String, List<Column>> readTableColumnMetaData(Connection con, Collection<String> tableNames) throws SQLException;
+
+	/**
+	 * A checked read failed, tableName is null when it was not about one table
+	 * @param tableName
+	 * @param ex
+	 */
+	void readFailed(String tableName, SQLException ex);
+
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.regex.Pattern;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Predicate over the rows of a ColumnarCatalog. evaluate writes one long
+ * per 64 rows for the words from (inclusive) to (exclusive); out[0] is the
+ * word from. The comparisons build the bits without branches and and, or
+ * and not work on whole words.
+ */
+@FunctionalInterface
+public interface ColumnFilter {
+
+	void evaluate(ColumnarCatalog catalog, int from, int to, long[] out);
+
+	static ColumnFilter all() {
+		return (catalog, from, to, out) -> {
+			for (int i = 0; i < to - from; i++) out[i] = -1L;
+		};
+	}
+
+	static ColumnFilter pk() {
+		return (catalog, from, to, out) -> System.arraycopy(catalog.pk, from, out, 0, to - from);
+	}
+
+	static ColumnFilter fk() {
+		return (catalog, from, to, out) -> System.arraycopy(catalog.fk, from, out, 0, to - from);
+	}
+
+	static ColumnFilter nullable() {
+		return (catalog, from, to, out) -> System.arraycopy(catalog.nullable, from, out, 0, to - from);
+	}
+
+	static ColumnFilter unique() {
+		return (catalog, from, to, out) -> System.arraycopy(catalog.unique, from, out, 0, to - from);
+	}
+
+	static ColumnFilter autoIncrement() {
+		return (catalog, from, to, out) -> System.arraycopy(catalog.autoIncrement, from, out, 0, to - from);
+	}
+
+	/**
+	 * First column of an index or of the primary key, see ColumnarCatalog
+	 * for the indexes that count
+	 * @return
+	 */
+	static ColumnFilter indexed() {
+		return (catalog, from, to, out) -> System.arraycopy(catalog.indexed, from, out, 0, to - from);
+	}
+
+	/**
+	 * java.sql.Types code is one of the given
+	 * @param types
+	 * @return
+	 */
+	static ColumnFilter sqlType(int... types) {
+		int[] values = types.clone();
+		return (catalog, from, to, out) -> {
+			int[] sqlType = catalog.sqlType;
+			for (int w = from; w < to; w++) {
+				int base = w << 6;
+				int limit = Math.min(64, catalog.size() - base);
+				long bits = 0;
+				for (int j = 0; j < limit; j++) {
+					int type = sqlType[base + j];
+					long match = 0;
+					for (int value : values) match |= type == value ? 1L : 0L;
+					bits |= match << j;
+				}
+				out[w - from] = bits;
+			}
+		};
+	}
+
+	static ColumnFilter precisionGreaterThan(int value) {
+		return greaterThan(value, true);
+	}
+
+	static ColumnFilter precisionLessThan(int value) {
+		return not(greaterThan(value - 1, true));
+	}
+
+	static ColumnFilter scaleGreaterThan(int value) {
+		return greaterThan(value, false);
+	}
+
+	private static ColumnFilter greaterThan(int value, boolean precision) {
+		return (catalog, from, to, out) -> {
+			int[] values = precision ? catalog.precision : catalog.scale;
+			for (int w = from; w < to; w++) {
+				int base = w << 6;
+				int limit = Math.min(64, catalog.size() - base);
+				long bits = 0;
+				for (int j = 0; j < limit; j++) {
+					bits |= (values[base + j] > value ? 1L : 0L) << j;
+				}
+				out[w - from] = bits;
+			}
+		};
+	}
+
+	/**
+	 * Database type name, ignoring the case
+	 * @param typeName
+	 * @return
+	 */
+	static ColumnFilter typeName(String typeName) {
+		return (catalog, from, to, out) -> equalsId(catalog.typeName, catalog.typeNames.find(typeName), catalog, from, to, out);
+	}
+
+	/**
+	 * Columns of the table, ignoring the case
+	 * @param tableName
+	 * @return
+	 */
+	static ColumnFilter table(String tableName) {
+		return (catalog, from, to, out) -> equalsId(catalog.table, catalog.tables.find(tableName), catalog, from, to, out);
+	}
+
+	/**
+	 * Column name matches the pattern. The pattern is tested once per name
+	 * of the dictionary, not once per row.
+	 * @param pattern
+	 * @return
+	 */
+	static ColumnFilter nameMatches(Pattern pattern) {
+		return (catalog, from, to, out) -> {
+			long[] matching = new long[(catalog.names.size() + 63) >>> 6];
+			for (int id = 0; id < catalog.names.size(); id++) {
+				String value = catalog.names.value(id);
+				if(value != null && pattern.matcher(value).matches()) matching[id >>> 6] |= 1L << id;
+			}
+			int[] name = catalog.name;
+			for (int w = from; w < to; w++) {
+				int base = w << 6;
+				int limit = Math.min(64, catalog.size() - base);
+				long bits = 0;
+				for (int j = 0; j < limit; j++) {
+					int id = name[base + j];
+					bits |= ((matching[id >>> 6] >>> id) & 1L) << j;
+				}
+				out[w - from] = bits;
+			}
+		};
+	}
+
+	static ColumnFilter not(ColumnFilter filter) {
+		return (catalog, from, to, out) -> {
+			filter.evaluate(catalog, from, to, out);
+			for (int i = 0; i < to - from; i++) out[i] = ~out[i];
+		};
+	}
+
+	static ColumnFilter and(ColumnFilter... filters) {
+		return (catalog, from, to, out) -> {
+			filters[0].evaluate(catalog, from, to, out);
+			long[] other = new long[to - from];
+			for (int f = 1; f < filters.length; f++) {
+				filters[f].evaluate(catalog, from, to, other);
+				for (int i = 0; i < other.length; i++) out[i] &= other[i];
+			}
+		};
+	}
+
+	static ColumnFilter or(ColumnFilter... filters) {
+		return (catalog, from, to, out) -> {
+			filters[0].evaluate(catalog, from, to, out);
+			long[] other = new long[to - from];
+			for (int f = 1; f < filters.length; f++) {
+				filters[f].evaluate(catalog, from, to, other);
+				for (int i = 0; i < other.length; i++) out[i] |= other[i];
+			}
+		};
+	}
+
+	private static void equalsId(int[] ids, int id, ColumnarCatalog catalog, int from, int to, long[] out) {
+		for (int w = from; w < to; w++) {
+			int base = w << 6;
+			int limit = Math.min(64, catalog.size() - base);
+			long bits = 0;
+			for (int j = 0; j < limit; j++) {
+				bits |= (ids[base + j] == id ? 1L : 0L) << j;
+			}
+			out[w - from] = bits;
+		}
+	}
+}
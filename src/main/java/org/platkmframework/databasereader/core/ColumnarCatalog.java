@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.IndexInfo;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Column oriented copy of a DataBase for questions over every column of
+ * the model. Each column of the model is a row: the table, column and type
+ * names are ids of a dictionary, sqlType, precision and scale are int
+ * arrays and pk, fk, nullable, unique, autoIncrement and indexed are
+ * bitsets of 64 rows per long.
+ *
+ * A ColumnFilter is evaluated 64 rows at a time and gives a bitset.
+ * Models with more than one segment (SEGMENT_WORDS * 64 rows) are
+ * evaluated in parallel by segment. For example, the nullable VARCHAR
+ * columns over 4000 without index:
+ *
+ *   catalog.qualifiedNames(ColumnFilter.and(ColumnFilter.sqlType(Types.VARCHAR),
+ *        ColumnFilter.precisionGreaterThan(4000), ColumnFilter.nullable(), ColumnFilter.not(ColumnFilter.indexed())))
+ *
+ * indexed means the column is the first column of an index or of the
+ * primary key, the ones that can support a single column foreign key.
+ * The model of DatabaseReader has only the unique indexes, give the
+ * indexes of IndexReader with non unique ones to of(DataBase, Map) so the
+ * non unique indexes count too:
+ *
+ *   ColumnarCatalog.of(dataBase, new IndexReader(true).readSchemaIndexes(con, catalog, schema))
+ *
+ * The catalog does not change, build a new one when the model changes.
+ */
+public final class ColumnarCatalog {
+
+	public static final int SEGMENT_WORDS = 1024;
+
+	private final int size;
+	private final int words;
+
+	final int[] table;
+	final int[] name;
+	final int[] typeName;
+	final int[] sqlType;
+	final int[] precision;
+	final int[] scale;
+
+	final long[] pk;
+	final long[] fk;
+	final long[] nullable;
+	final long[] unique;
+	final long[] autoIncrement;
+	final long[] indexed;
+
+	final Dictionary tables = new Dictionary();
+	final Dictionary names = new Dictionary();
+	final Dictionary typeNames = new Dictionary();
+
+	private ColumnarCatalog(int size) {
+		this.size = size;
+		this.words = (size + 63) >>> 6;
+		table = new int[size];
+		name = new int[size];
+		typeName = new int[size];
+		sqlType = new int[size];
+		precision = new int[size];
+		scale = new int[size];
+		pk = new long[words];
+		fk = new long[words];
+		nullable = new long[words];
+		unique = new long[words];
+		autoIncrement = new long[words];
+		indexed = new long[words];
+	}
+
+	/**
+	 * Catalog of the model, indexed comes from the IndexContraint of the
+	 * tables (unique indexes when the model comes from DatabaseReader) and
+	 * the primary keys
+	 * @param dataBase
+	 * @return
+	 */
+	public static ColumnarCatalog of(DataBase dataBase) {
+		return of(dataBase, null);
+	}
+
+	/**
+	 * Catalog of the model with the indexes read apart, for example the
+	 * unique and non unique ones of IndexReader.readSchemaIndexes
+	 * @param dataBase
+	 * @param indexes table name (case insensitive), indexes; null uses only the model
+	 * @return
+	 */
+	public static ColumnarCatalog of(DataBase dataBase, Map<String, List<IndexInfo>> indexes) {
+
+		Map<String, List<IndexInfo>> tableIndexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		if(indexes != null) tableIndexes.putAll(indexes);
+
+		List<Table> list = dataBase.getTables() == null ? new ArrayList<>() : dataBase.getTables();
+		int size = 0;
+		for (Table table : list) size += table.getColumn().size();
+
+		ColumnarCatalog catalog = new ColumnarCatalog(size);
+		int row = 0;
+		for (Table table : list) {
+			int tableId = catalog.tables.id(table.getName());
+
+			Set<String> leading = new HashSet<>();
+			for (IndexContraint index : table.getIndexContraint()) {
+				if(!index.getColumns().isEmpty()) leading.add(index.getColumns().get(0).toUpperCase(Locale.ROOT));
+			}
+			List<IndexInfo> infos = table.getName() == null ? null : tableIndexes.get(table.getName());
+			if(infos != null) {
+				for (IndexInfo index : infos) {
+					if(!index.getColumns().isEmpty()) leading.add(index.getColumns().get(0).toUpperCase(Locale.ROOT));
+				}
+			}
+			if(table.getPkContraint() != null && !table.getPkContraint().getListField().isEmpty()) {
+				leading.add(table.getPkContraint().getListField().get(0).toUpperCase(Locale.ROOT));
+			}
+			Set<String> fkColumns = new HashSet<>();
+			for (FkContraint fkContraint : table.getFkContraint()) {
+				for (ImportedKey key : fkContraint.getImportedKey()) {
+					if(key.getFkColumnName() != null) fkColumns.add(key.getFkColumnName().toUpperCase(Locale.ROOT));
+				}
+			}
+
+			for (Column column : table.getColumn()) {
+				String upper = column.getName() == null ? "" : column.getName().toUpperCase(Locale.ROOT);
+				catalog.table[row] = tableId;
+				catalog.name[row] = catalog.names.id(column.getName());
+				catalog.typeName[row] = catalog.typeNames.id(column.getType());
+				catalog.sqlType[row] = column.getJavaSqlType();
+				catalog.precision[row] = column.getPrecision();
+				catalog.scale[row] = column.getScale();
+				set(catalog.pk, row, column.isPk());
+				set(catalog.fk, row, column.isFk() || fkColumns.contains(upper));
+				set(catalog.nullable, row, column.isNullable());
+				set(catalog.unique, row, column.isUnique());
+				set(catalog.autoIncrement, row, column.isAutoIncrement());
+				set(catalog.indexed, row, leading.contains(upper));
+				row++;
+			}
+		}
+		return catalog;
+	}
+
+	private static void set(long[] bits, int row, boolean value) {
+		if(value) bits[row >>> 6] |= 1L << row;
+	}
+
+	/**
+	 * Rows (columns of the model) that match the filter
+	 * @param filter
+	 * @return bitset, bit i is row i
+	 */
+	public long[] select(ColumnFilter filter) {
+
+		long[] result = new long[words];
+		int segments = (words + SEGMENT_WORDS - 1) / SEGMENT_WORDS;
+		if(segments <= 1) {
+			filter.evaluate(this, 0, words, result);
+		}else {
+			IntStream.range(0, segments).parallel().forEach((segment) -> {
+				int from = segment * SEGMENT_WORDS;
+				int to = Math.min(words, from + SEGMENT_WORDS);
+				long[] part = new long[to - from];
+				filter.evaluate(this, from, to, part);
+				System.arraycopy(part, 0, result, from, part.length);
+			});
+		}
+		//not() sets the bits after the last row
+		if((size & 63) != 0) result[words - 1] &= (1L << size) - 1;
+		return result;
+	}
+
+	public int count(ColumnFilter filter) {
+		int count = 0;
+		for (long word : select(filter)) count += Long.bitCount(word);
+		return count;
+	}
+
+	public int[] rows(ColumnFilter filter) {
+		long[] bits = select(filter);
+		int count = 0;
+		for (long word : bits) count += Long.bitCount(word);
+		int[] rows = new int[count];
+		int index = 0;
+		for (int w = 0; w < bits.length; w++) {
+			long word = bits[w];
+			while(word != 0) {
+				rows[index++] = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 *
+	 * @param filter
+	 * @return table.column of the matching rows
+	 */
+	public List<String> qualifiedNames(ColumnFilter filter) {
+		List<String> result = new ArrayList<>();
+		for (int row : rows(filter)) result.add(tableName(row) + "." + columnName(row));
+		return result;
+	}
+
+	/**
+	 * Number of rows, the columns of every table
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	public String tableName(int row) {
+		return tables.value(table[row]);
+	}
+
+	public String columnName(int row) {
+		return names.value(name[row]);
+	}
+
+	public String typeName(int row) {
+		return typeNames.value(typeName[row]);
+	}
+
+	public int sqlType(int row) {
+		return sqlType[row];
+	}
+
+	public int precision(int row) {
+		return precision[row];
+	}
+
+	public int scale(int row) {
+		return scale[row];
+	}
+
+	public boolean isPk(int row) {
+		return (pk[row >>> 6] & (1L << row)) != 0;
+	}
+
+	public boolean isFk(int row) {
+		return (fk[row >>> 6] & (1L << row)) != 0;
+	}
+
+	public boolean isNullable(int row) {
+		return (nullable[row >>> 6] & (1L << row)) != 0;
+	}
+
+	public boolean isUnique(int row) {
+		return (unique[row >>> 6] & (1L << row)) != 0;
+	}
+
+	public boolean isAutoIncrement(int row) {
+		return (autoIncrement[row >>> 6] & (1L << row)) != 0;
+	}
+
+	public boolean isIndexed(int row) {
+		return (indexed[row >>> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 * Names by id. Lookups by name ignore the case, the values keep the case
+	 * of the first time they were added.
+	 */
+	static final class Dictionary {
+
+		private final List<String> values = new ArrayList<>();
+		private final Map<String, Integer> ids = new HashMap<>();
+
+		int id(String value) {
+			String key = value == null ? null : value.toUpperCase(Locale.ROOT);
+			Integer id = ids.get(key);
+			if(id == null) {
+				id = values.size();
+				values.add(value);
+				ids.put(key, id);
+			}
+			return id;
+		}
+
+		/**
+		 *
+		 * @param value
+		 * @return -1 when the value is not in the dictionary
+		 */
+		int find(String value) {
+			Integer id = ids.get(value == null ? null : value.toUpperCase(Locale.ROOT));
+			return id == null ? -1 : id;
+		}
+
+		String value(int id) {
+			return values.get(id);
+		}
+
+		int size() {
+			return values.size();
+		}
+	}
+}
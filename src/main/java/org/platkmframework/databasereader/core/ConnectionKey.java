@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Url, user, catalog and schema of a connection, the part of the cache keys
+ * that says which database the metadata comes from. getSchema() is a query
+ * on some drivers (PostgreSQL, SQL Server), so the key is read once per
+ * connection and kept while the connection is alive. A connection that
+ * changes its catalog or schema must be forgotten.
+ */
+final class ConnectionKey {
+
+	private static final Map<Connection, ConnectionKey> KEYS = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final String url;
+	private final String user;
+	private final String catalog;
+	private final String schema;
+	private final int hash;
+
+	private ConnectionKey(String url, String user, String catalog, String schema) {
+		this.url = url;
+		this.user = user;
+		this.catalog = catalog;
+		this.schema = schema;
+		this.hash = Objects.hash(url, user, catalog, schema);
+	}
+
+	static ConnectionKey of(Connection con) {
+
+		ConnectionKey key = KEYS.get(con);
+		if(key != null) return key;
+
+		String url = null;
+		String user = null;
+		String catalog = null;
+		String schema = null;
+		try {
+			DatabaseMetaData databaseMetaData = con.getMetaData();
+			url = databaseMetaData.getURL();
+			user = databaseMetaData.getUserName();
+			catalog = con.getCatalog();
+			try {
+				schema = con.getSchema();
+			} catch (AbstractMethodError e) {
+				//old drivers without getSchema, the url and catalog are enough
+			}
+		} catch (SQLException ex) {
+			//not kept, the next call tries again
+			Logger.getLogger(ConnectionKey.class.getName()).log(Level.FINE, null, ex);
+			return new ConnectionKey(url, user, catalog, schema);
+		}
+		key = new ConnectionKey(url, user, catalog, schema);
+		KEYS.put(con, key);
+		return key;
+	}
+
+	/**
+	 * The next key of the connection is read again
+	 * @param con
+	 */
+	static void forget(Connection con) {
+		KEYS.remove(con);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) return true;
+		if(!(obj instanceof ConnectionKey)) return false;
+		ConnectionKey other = (ConnectionKey) obj;
+		return Objects.equals(url, other.url) &&
+				Objects.equals(user, other.user) &&
+				Objects.equals(catalog, other.catalog) &&
+				Objects.equals(schema, other.schema);
+	}
+
+	@Override
+	public String toString() {
+		return url + "|" + user + "|" + catalog + "|" + schema;
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import org.platkmframework.databasereader.model.ConstraintInfo;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Reads the unique and check constraints of a whole schema with one
+ * catalog query. When the query of the dialect fails (old versions without
+ * the views, missing grants) only the unique constraints are read with the
+ * standard INFORMATION_SCHEMA query, and when that fails too or the
+ * dialect has no query the result is empty. There is no call per table.
+ *
+ * Oracle keeps NOT NULL as check constraints, they are left out unless
+ * includeNotNullChecks is true; the nullability is already in Column.
+ */
+public class ConstraintReader {
+
+	private static final Pattern NOT_NULL_CHECK = Pattern.compile("^\\(?\\s*\"?[\\w$#]+\"?\\s+IS\\s+NOT\\s+NULL\\s*\\)?$", Pattern.CASE_INSENSITIVE);
+
+	private boolean includeNotNullChecks = false;
+	private AdaptiveLimiter limiter;
+
+	/**
+	 * Constraints of every table of the schema
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @return table name (case insensitive), constraints ordered by name
+	 */
+	public Map<String, List<ConstraintInfo>> readSchemaConstraints(Connection con, String catalog, String schema) {
+
+		DatabaseDialect dialect;
+		String resolvedSchema;
+		try {
+			dialect = DatabaseDialect.of(con);
+			resolvedSchema = dialect.resolveSchema(con, catalog, schema);
+		} catch (SQLException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+			return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		}
+
+		String sql = CatalogQueries.constraints(dialect);
+		if(sql != null) {
+			try {
+				return query(con, sql, resolvedSchema);
+			} catch (SQLException e) {
+				Logger.getLogger(this.getClass().getName()).log(Level.WARNING, "Check constraints not available, reading unique constraints only: " + e.getMessage());
+			}
+		}
+
+		sql = CatalogQueries.uniqueConstraints(dialect);
+		if(sql != null) {
+			try {
+				return query(con, sql, resolvedSchema);
+			} catch (SQLException e) {
+				Logger.getLogger(this.getClass().getName()).log(Level.WARNING, "Unique constraints not available: " + e.getMessage());
+			}
+		}
+		return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	}
+
+	private Map<String, List<ConstraintInfo>> query(Connection con, String sql, String schema) throws SQLException {
+
+		Map<String, ConstraintBuilder> constraints = new LinkedHashMap<>();
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			int parameters = (int) sql.chars().filter((c) -> c == '?').count();
+			for (int i = 1; i <= parameters; i++) ps.setString(i, schema);
+			try (ResultSet rs = AdaptiveLimiter.execute(limiter, "constraints", ps::executeQuery)) {
+				while(rs.next()) {
+					String tableName = rs.getString(1);
+					String name = rs.getString(2);
+					String type = rs.getString(3);
+					String columnName = rs.getString(4);
+					int position = rs.getInt(5);
+					String expression = rs.getString(6);
+
+					ConstraintBuilder builder = constraints.get(tableName + "\n" + name);
+					if(builder == null) {
+						builder = new ConstraintBuilder();
+						builder.info.setTableName(tableName);
+						builder.info.setName(name);
+						builder.info.setType(type == null ? null : type.trim().toUpperCase());
+						builder.info.setExpression(expression(expression));
+						constraints.put(tableName + "\n" + name, builder);
+					}
+					//check constraints have no position, the columns keep the order of the rows
+					if(columnName != null) builder.columns.computeIfAbsent(position, (k) -> new ArrayList<>()).add(columnName);
+				}
+			}
+		}
+
+		Map<String, List<ConstraintInfo>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (ConstraintBuilder builder : constraints.values()) {
+			ConstraintInfo info = builder.info;
+			if(ConstraintInfo.CHECK.equals(info.getType()) && !includeNotNullChecks &&
+					info.getExpression() != null && NOT_NULL_CHECK.matcher(info.getExpression()).matches()) continue;
+			for (List<String> columnNames : builder.columns.values()) {
+				for (String columnName : columnNames) {
+					if(!info.getColumns().contains(columnName)) info.getColumns().add(columnName);
+				}
+			}
+			result.computeIfAbsent(info.getTableName(), (k) -> new ArrayList<>()).add(info);
+		}
+		for (List<ConstraintInfo> tableConstraints : result.values()) {
+			tableConstraints.sort((a, b) -> String.valueOf(a.getName()).compareTo(String.valueOf(b.getName())));
+		}
+		return result;
+	}
+
+	/**
+	 * pg_get_constraintdef gives CHECK (...), the other databases only the condition
+	 */
+	private static String expression(String expression) {
+		if(expression == null) return null;
+		String trimmed = expression.trim();
+		if(trimmed.regionMatches(true, 0, "CHECK", 0, 5) && trimmed.length() > 5 &&
+				(trimmed.charAt(5) == ' ' || trimmed.charAt(5) == '(')) trimmed = trimmed.substring(5).trim();
+		return trimmed;
+	}
+
+	public boolean isIncludeNotNullChecks() {
+		return includeNotNullChecks;
+	}
+
+	public void setIncludeNotNullChecks(boolean includeNotNullChecks) {
+		this.includeNotNullChecks = includeNotNullChecks;
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * Each round trip goes through the limiter, null to call the database directly
+	 * @param limiter
+	 */
+	public void setLimiter(AdaptiveLimiter limiter) {
+		this.limiter = limiter;
+	}
+
+	private static final class ConstraintBuilder {
+
+		private final ConstraintInfo info = new ConstraintInfo();
+		private final Map<Integer, List<String>> columns = new TreeMap<>();
+	}
+}
@@ -18,9 +18,15 @@
  *******************************************************************************/
 package org.platkmframework.databasereader.core;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import org.platkmframework.databasereader.model.ConstraintInfo;
 import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.RoutineInfo;
+import org.platkmframework.databasereader.model.SequenceInfo;
+import org.platkmframework.databasereader.model.SynonymInfo;
 import org.platkmframework.databasereader.model.Table;
  
 
@@ -37,6 +43,10 @@ public class DataBase {
 
     private String name;
     private List<Table> tables; 
+    private List<RoutineInfo> routines;
+    private List<SequenceInfo> sequences;
+    private List<SynonymInfo> synonyms;
+    private Map<String, List<ConstraintInfo>> constraints;
 
     DataBase(String catalogo) {
         this.name = catalogo;
@@ -51,6 +61,65 @@ public class DataBase {
         this.tables = tables;
     }
 
+    /**
+     * Procedures and functions, null when they were not read
+     * @return 
+     */
+    public List<RoutineInfo> getRoutines() {
+        return routines;
+    }
+
+    public void setRoutines(List<RoutineInfo> routines) {
+        this.routines = routines;
+    }
+
+    /**
+     * null when they were not read
+     * @return 
+     */
+    public List<SequenceInfo> getSequences() {
+        return sequences;
+    }
+
+    public void setSequences(List<SequenceInfo> sequences) {
+        this.sequences = sequences;
+    }
+
+    /**
+     * null when they were not read
+     * @return 
+     */
+    public List<SynonymInfo> getSynonyms() {
+        return synonyms;
+    }
+
+    public void setSynonyms(List<SynonymInfo> synonyms) {
+        this.synonyms = synonyms;
+    }
+
+    /**
+     * Unique and check constraints by table name, null when they were not read
+     * @return 
+     */
+    public Map<String, List<ConstraintInfo>> getConstraints() {
+        return constraints;
+    }
+
+    public void setConstraints(Map<String, List<ConstraintInfo>> constraints) {
+        this.constraints = constraints;
+    }
+
+    /**
+     * 
+     * @param tableName
+     * @return unique and check constraints of the table, empty when there are none
+     */
+    public List<ConstraintInfo> getConstraints(final String tableName) {
+        if(constraints == null) return new ArrayList<>();
+        List<ConstraintInfo> tableConstraints = constraints.get(tableName);
+        return tableConstraints == null ? new ArrayList<>() : tableConstraints;
+    }
+
     public String getName() {
         return name;
     }
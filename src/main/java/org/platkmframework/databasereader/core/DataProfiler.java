@@ -0,0 +1,365 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.ColumnProfile;
+import org.platkmframework.databasereader.model.Table;
+import org.platkmframework.databasereader.model.TableProfile;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Data profile of the columns of a DataBase read by DatabaseReader. The
+ * tables are profiled in parallel on a fixed pool, each worker with its own
+ * connection. PostgreSQL, SQL Server and Oracle read a sample of the table
+ * (TABLESAMPLE / SAMPLE), the other databases read up to maxRows rows.
+ *
+ * Every column keeps a HyperLogLog and a QuantileSketch, the memory per
+ * column does not depend on the rows. The time budget is global: the tables
+ * not started when it ends are not profiled and the running ones stop with
+ * what they have read (complete = false).
+ *
+ * The sample queries can go through an AdaptiveLimiter, the same one of the
+ * DatabaseReader when both work on the database at the same time.
+ */
+public class DataProfiler {
+
+	private final ConnectionSource connectionSource;
+	private int threads = 4;
+	private double samplePercent = 10;
+	private int maxRows = 100000;
+	private long timeBudgetMillis = TimeUnit.MINUTES.toMillis(5);
+	private AdaptiveLimiter limiter;
+
+	public DataProfiler(ConnectionSource connectionSource) {
+		this.connectionSource = connectionSource;
+	}
+
+	/**
+	 * Profiles of the tables of the database, in the order of its tables
+	 * @param dataBase
+	 * @return
+	 * @throws DataBaseReaderException when the profiling is interrupted
+	 */
+	public List<TableProfile> profile(DataBase dataBase) throws DataBaseReaderException {
+
+		long deadline = System.currentTimeMillis() + timeBudgetMillis;
+		List<Table> tables = dataBase.getTables() == null ? new ArrayList<>() : dataBase.getTables();
+		ThreadLocal<Connection> connections = new ThreadLocal<>();
+		List<Connection> opened = new ArrayList<>();
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threads, (r) -> {
+			Thread thread = new Thread(r, "data-profiler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		List<Future<TableProfile>> futures = new ArrayList<>();
+		List<TableProfile> profiles = new ArrayList<>();
+		try {
+			for (Table table : tables) {
+				futures.add(executorService.submit(() -> {
+					if(System.currentTimeMillis() >= deadline) return notProfiled(table, "Time budget exhausted");
+					Connection con = connections.get();
+					if(con == null) {
+						con = connectionSource.getConnection();
+						connections.set(con);
+						synchronized (opened) {
+							opened.add(con);
+						}
+					}
+					return profile(con, table, deadline);
+				}));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				long wait = Math.max(1, deadline - System.currentTimeMillis());
+				try {
+					profiles.add(futures.get(i).get(wait, TimeUnit.MILLISECONDS));
+				} catch (TimeoutException e) {
+					futures.get(i).cancel(true);
+					profiles.add(notProfiled(tables.get(i), "Time budget exhausted"));
+				} catch (ExecutionException e) {
+					Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e.getCause());
+					profiles.add(notProfiled(tables.get(i), String.valueOf(e.getCause().getMessage())));
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataBaseReaderException("Profiling interrupted");
+		} finally {
+			executorService.shutdownNow();
+			try {
+				executorService.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			synchronized (opened) {
+				for (Connection con : opened) {
+					try {
+						con.close();
+					} catch (SQLException e) {
+						Logger.getLogger(this.getClass().getName()).log(Level.FINE, null, e);
+					}
+				}
+			}
+		}
+		return profiles;
+	}
+
+	/**
+	 * Profile of one table with the connection of the caller
+	 * @param con
+	 * @param table
+	 * @param deadline System.currentTimeMillis() when it must stop
+	 * @return
+	 * @throws SQLException
+	 */
+	public TableProfile profile(Connection con, Table table, long deadline) throws SQLException {
+
+		TableProfile tableProfile = new TableProfile();
+		tableProfile.setTableName(table.getName());
+
+		List<Column> columns = new ArrayList<>();
+		for (Column column : table.getColumn()) {
+			if(!isLob(column.getJavaSqlType())) columns.add(column);
+		}
+		if(columns.isEmpty()) {
+			tableProfile.setComplete(true);
+			return tableProfile;
+		}
+
+		String quote = con.getMetaData().getIdentifierQuoteString();
+		quote = quote == null || quote.trim().isEmpty() ? "" : quote.trim();
+		StringBuilder sql = new StringBuilder("SELECT ");
+		for (int i = 0; i < columns.size(); i++) {
+			if(i > 0) sql.append(", ");
+			sql.append(quote).append(columns.get(i).getName()).append(quote);
+		}
+		sql.append(" FROM ").append(quote).append(table.getName()).append(quote);
+		String sample = sampleClause(DatabaseDialect.of(con));
+		if(sample != null) {
+			sql.append(' ').append(sample);
+			tableProfile.setSampled(true);
+		}
+
+		Accumulator[] accumulators = new Accumulator[columns.size()];
+		for (int i = 0; i < accumulators.length; i++) accumulators[i] = new Accumulator();
+
+		long rows = 0;
+		boolean complete = true;
+		try (Statement st = con.createStatement()) {
+			st.setMaxRows(maxRows);
+			st.setFetchSize(1000);
+			int seconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(deadline - System.currentTimeMillis()));
+			st.setQueryTimeout(seconds);
+			try (ResultSet rs = AdaptiveLimiter.execute(limiter, "profile", () -> st.executeQuery(sql.toString()))) {
+				while(rs.next()) {
+					for (int i = 0; i < accumulators.length; i++) {
+						accumulators[i].add(rs.getObject(i + 1));
+					}
+					rows++;
+					if((rows & 0x3FF) == 0 && (System.currentTimeMillis() >= deadline || Thread.currentThread().isInterrupted())) {
+						complete = false;
+						break;
+					}
+				}
+			}
+			if(complete && sample == null && rows == maxRows) tableProfile.setSampled(true);
+		} catch (SQLException e) {
+			if(rows == 0) throw e;
+			//timeout after some rows, keep what was read
+			complete = false;
+		}
+
+		tableProfile.setRowsRead(rows);
+		tableProfile.setComplete(complete);
+		for (int i = 0; i < accumulators.length; i++) {
+			tableProfile.getColumns().add(accumulators[i].toProfile(table.getName(), columns.get(i).getName(), rows));
+		}
+		return tableProfile;
+	}
+
+	/**
+	 * Sample clause of the dialect for samplePercent
+	 * @param dialect
+	 * @return null when the dialect has no sampling or samplePercent is 100 or more
+	 */
+	protected String sampleClause(DatabaseDialect dialect) {
+		if(samplePercent >= 100) return null;
+		switch (dialect) {
+		case POSTGRESQL:
+			return "TABLESAMPLE SYSTEM (" + samplePercent + ")";
+		case SQLSERVER:
+			return "TABLESAMPLE (" + samplePercent + " PERCENT)";
+		case ORACLE:
+			return "SAMPLE (" + samplePercent + ")";
+		default:
+			return null;
+		}
+	}
+
+	private boolean isLob(int sqlType) {
+		switch (sqlType) {
+		case Types.BLOB:
+		case Types.CLOB:
+		case Types.NCLOB:
+		case Types.LONGVARBINARY:
+		case Types.LONGVARCHAR:
+		case Types.LONGNVARCHAR:
+		case Types.SQLXML:
+		case Types.ARRAY:
+		case Types.STRUCT:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private TableProfile notProfiled(Table table, String error) {
+		TableProfile tableProfile = new TableProfile();
+		tableProfile.setTableName(table.getName());
+		tableProfile.setError(error);
+		return tableProfile;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		if(threads <= 0) throw new IllegalArgumentException("threads must be greater than 0");
+		this.threads = threads;
+	}
+
+	public double getSamplePercent() {
+		return samplePercent;
+	}
+
+	/**
+	 * Percent of the table read where the dialect can sample, 100 reads every row
+	 * @param samplePercent
+	 */
+	public void setSamplePercent(double samplePercent) {
+		if(samplePercent <= 0) throw new IllegalArgumentException("samplePercent must be greater than 0");
+		this.samplePercent = samplePercent;
+	}
+
+	public int getMaxRows() {
+		return maxRows;
+	}
+
+	/**
+	 * Rows read per table at most, also with sampling
+	 * @param maxRows
+	 */
+	public void setMaxRows(int maxRows) {
+		this.maxRows = maxRows;
+	}
+
+	public long getTimeBudgetMillis() {
+		return timeBudgetMillis;
+	}
+
+	public void setTimeBudget(long timeBudget, TimeUnit unit) {
+		this.timeBudgetMillis = unit.toMillis(timeBudget);
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * Limiter of the sample queries, null (default) does not limit them
+	 * @param limiter
+	 */
+	public void setLimiter(AdaptiveLimiter limiter) {
+		this.limiter = limiter;
+	}
+
+	/**
+	 * Sketches of one column
+	 */
+	private static final class Accumulator {
+
+		private final HyperLogLog distinct = new HyperLogLog(12);
+		private final QuantileSketch lengths = new QuantileSketch();
+		private long nulls;
+		private Comparable<Object> min;
+		private Comparable<Object> max;
+		private boolean comparable = true;
+
+		@SuppressWarnings("unchecked")
+		void add(Object value) {
+			if(value == null) {
+				nulls++;
+				return;
+			}
+			distinct.add(value);
+			lengths.add(value instanceof byte[] ? ((byte[]) value).length : String.valueOf(value).length());
+
+			if(!comparable) return;
+			if(!(value instanceof Comparable) || (min != null && min.getClass() != value.getClass())) {
+				comparable = false;
+				min = null;
+				max = null;
+				return;
+			}
+			Comparable<Object> c = (Comparable<Object>) value;
+			if(min == null || c.compareTo(min) < 0) min = c;
+			if(max == null || c.compareTo(max) > 0) max = c;
+		}
+
+		ColumnProfile toProfile(String tableName, String columnName, long rows) {
+			ColumnProfile profile = new ColumnProfile();
+			profile.setTableName(tableName);
+			profile.setColumnName(columnName);
+			profile.setRowCount(rows);
+			profile.setNullCount(nulls);
+			profile.setDistinctCount(Math.min(distinct.estimate(), rows - nulls));
+			profile.setMin(min == null ? null : String.valueOf(min));
+			profile.setMax(max == null ? null : String.valueOf(max));
+			profile.setMinLength(lengths.getMin());
+			profile.setMaxLength(lengths.getMax());
+			profile.setAvgLength(lengths.getMean());
+			profile.setMedianLength(lengths.quantile(0.5));
+			profile.setP90Length(lengths.quantile(0.9));
+			profile.setP99Length(lengths.quantile(0.99));
+			return profile;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Databases with catalog views the readers know how to query in bulk.
+ * GENERIC uses only the standard DatabaseMetaData calls.
+ */
+public enum DatabaseDialect {
+
+	H2,
+	POSTGRESQL,
+	MYSQL,
+	ORACLE,
+	SQLSERVER,
+	GENERIC;
+
+	public static DatabaseDialect of(Connection con) throws SQLException {
+		return of(con.getMetaData());
+	}
+
+	public static DatabaseDialect of(DatabaseMetaData databaseMetaData) throws SQLException {
+
+		String product = databaseMetaData.getDatabaseProductName();
+		if(product == null) return GENERIC;
+		product = product.toLowerCase();
+
+		if(product.contains("h2")) return H2;
+		if(product.contains("postgres")) return POSTGRESQL;
+		if(product.contains("mysql") || product.contains("mariadb")) return MYSQL;
+		if(product.contains("oracle")) return ORACLE;
+		if(product.contains("microsoft sql server")) return SQLSERVER;
+		return GENERIC;
+	}
+
+	/**
+	 * Schema used by the catalog views when the caller does not give one.
+	 * MySQL keeps the tables in the catalog, not in the schema.
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @return
+	 * @throws SQLException
+	 */
+	public String resolveSchema(Connection con, String catalog, String schema) throws SQLException {
+
+		if(this == MYSQL) return catalog != null ? catalog : con.getCatalog();
+		if(schema != null) return schema;
+		try {
+			return con.getSchema();
+		} catch (AbstractMethodError e) {
+			return null;
+		}
+	}
+}
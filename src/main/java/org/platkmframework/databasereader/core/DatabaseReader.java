@@ -19,7 +19,7 @@
 package org.platkmframework.databasereader.core;
 
 
-
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -31,9 +31,12 @@ import java.sql.Statement;
 import java.util.ArrayList; 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List; 
 import java.util.Map; 
 import java.util.Properties; 
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,8 +44,10 @@ import org.platkmframework.databasereader.model.Column;
 import org.platkmframework.databasereader.model.FkContraint;
 import org.platkmframework.databasereader.model.ImportedKey;
 import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.IndexInfo;
 import org.platkmframework.databasereader.model.PkContraint;
 import org.platkmframework.databasereader.model.Table;
+import org.platkmframework.databasereader.model.TableSnapshot;
 
 /**
  *   Author: 
@@ -59,7 +64,7 @@ import org.platkmframework.databasereader.model.Table;
  *   - tienen una estructura con informacion particular
  *     de cada tabla
  */
-public class DatabaseReader  implements IDatabaseReader{
+public class DatabaseReader  implements CheckedDatabaseReader{
 
 //    public static final String ASSOCIATION_TYPE_MANY_TO_MANY = "MANY-TO-MANY";
 //    public static final String ASSOCIATION_TYPE_MANY_TO_ONE  = "MANY-TO-ONE";
@@ -108,6 +113,32 @@ public class DatabaseReader  implements IDatabaseReader{
     List<String> excludedTables = null;
 
 	private String log;
+	
+	private ScanCheckpoint checkpoint;
+	
+	private AdaptiveLimiter limiter;
+	
+	private IndexReader indexReader = new IndexReader();
+	
+	private QueryShapeReader queryShapeReader = new QueryShapeReader();
+	
+	private boolean useTypeRegistry = true;
+	
+	private boolean batchSelectedTables = true;
+	
+	private RoutineReader routineReader;
+	
+	private ConstraintReader constraintReader;
+	
+	private boolean recordMetadataCalls = true;
+	
+	private int exportChunkSize = 100;
+	
+	private final List<ScanListener> listeners = new CopyOnWriteArrayList<>();
+	
+	private volatile ScanProgress progress;
+	
+	private boolean scanning;
     
     public DatabaseReader() {
         this.con =null;
@@ -156,46 +187,54 @@ public class DatabaseReader  implements IDatabaseReader{
     								String tabla, String[] types,
     								List<String> listSelectedTablesNames) throws ClassNotFoundException, SQLException, InstantiationException, DataBaseReaderException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException{
 
+    	beginScan(0);
+    	try {
     	  	 
-    	progressInfo("Estableciendo conexion a base de datos...");
+	    	phase("Estableciendo conexion a base de datos...");
         
-    	DataBase dataBase = new DataBase(catalogo);
+	    	DataBase dataBase = new DataBase(catalogo);
         
-        progressInfo("Conexion establecida...");
+	        phase("Conexion establecida...");
         
-        List<Table> listTablesName;
-
-        if(listSelectedTablesNames!=null && !listSelectedTablesNames.isEmpty())
-        {
-        	listTablesName = new ArrayList<>();
-        	String tableType = "TABLE";
-        	for (int i = 0; i < listSelectedTablesNames.size(); i++) 
-        	{
-        		String tableName = listSelectedTablesNames.get(i); 
-        		Table table = new Table();
-        		table.setName(tableName);
-        		table.setType(tableType);
-        		listTablesName.add(table);
-			}
-        }else
-            listTablesName = readTablesName(con, catalogo,esquema, tabla, types, excludedTables);
+	        List<Table> listTablesName;
+
+	        if(listSelectedTablesNames!=null && !listSelectedTablesNames.isEmpty())
+	        {
+	        	listTablesName = new ArrayList<>();
+	        	String tableType = "TABLE";
+	        	for (int i = 0; i < listSelectedTablesNames.size(); i++) 
+	        	{
+	        		String tableName = listSelectedTablesNames.get(i); 
+	        		Table table = new Table();
+	        		table.setName(tableName);
+	        		table.setType(tableType);
+	        		listTablesName.add(table);
+				}
+	        }else
+	            listTablesName = readTablesName(con, catalogo,esquema, tabla, types, excludedTables);
         
    
-        progressInfo("Comienzo de lectura de la informacion...");
+	        phase("Comienzo de lectura de la informacion...");
         
-        List<Table>  tables = tablesProcess(listTablesName, catalogo );
+	        List<Table>  tables = batchSelected(listSelectedTablesNames) ?
+	        		selectedTablesProcess(listTablesName, catalogo, esquema) : tablesProcess(listTablesName, catalogo, esquema);
 
-        progressInfo("Lectura de la informacion finalizada...");
+	        phase("Lectura de la informacion finalizada...");
         
-        dataBase.setTables(tables); 
-        dataBase.setName(con.getCatalog());
+	        dataBase.setTables(tables); 
+	        dataBase.setName(con.getCatalog());
+	        readRoutines(dataBase, catalogo, esquema);
+	        readConstraints(dataBase, catalogo, esquema);
         
-        progressInfo("Cerrando la conexion...");
-        con.close();
-        
-        progressInfo("Proceso de lectura finalizado...");
+	        phase("Proceso de lectura finalizado...");
 
-        return dataBase;
+	        return dataBase;
+        
+    	}finally {
+    		//the connection is closed also when the read fails
+    		closeQuietly();
+    		endScan();
+    	}
 
     }
     
@@ -206,68 +245,134 @@ public class DatabaseReader  implements IDatabaseReader{
 			String tabla, String[] types,
 			List<String> listSelectedTablesNames) throws ClassNotFoundException, SQLException, InstantiationException, DataBaseReaderException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException{
 
+			beginScan(0);
+			try {
 
-			progressInfo("Estableciendo conexion a base de datos...");
+				phase("Estableciendo conexion a base de datos...");
 			
-			DataBase dataBase = new DataBase(catalogo);
+				DataBase dataBase = new DataBase(catalogo);
 			
-			Class.forName(driver).getDeclaredConstructor().newInstance();
-			con = DriverManager.getConnection(url, user, password);
+				Class.forName(driver).getDeclaredConstructor().newInstance();
+				con = DriverManager.getConnection(url, user, password);
 			
-			progressInfo("Conexion establecida...");
+				phase("Conexion establecida...");
 			
-			List<Table> listTablesName;
-			
-			if(listSelectedTablesNames!=null && listSelectedTablesNames.size()>0)
-			{
-			listTablesName = new ArrayList<>();
-			String tableType = "TABLE";
-			for (int i = 0; i < listSelectedTablesNames.size(); i++) 
-			{
-			String tableName = listSelectedTablesNames.get(i); 
-			Table table = new Table();
-			table.setName(tableName);
-			table.setType(tableType);
-			listTablesName.add(table);
-			}
-			}else
-			listTablesName = readTablesName(con, catalogo,esquema, tabla, types, excludedTables);
+				List<Table> listTablesName;
 			
+				if(listSelectedTablesNames!=null && listSelectedTablesNames.size()>0)
+				{
+				listTablesName = new ArrayList<>();
+				String tableType = "TABLE";
+				for (int i = 0; i < listSelectedTablesNames.size(); i++) 
+				{
+				String tableName = listSelectedTablesNames.get(i); 
+				Table table = new Table();
+				table.setName(tableName);
+				table.setType(tableType);
+				listTablesName.add(table);
+				}
+				}else
+				listTablesName = readTablesName(con, catalogo,esquema, tabla, types, excludedTables);
 			
-			progressInfo("Comienzo de lectura de la informacion...");
 			
-			List<Table>  tables = tablesProcess(listTablesName, catalogo );
+				phase("Comienzo de lectura de la informacion...");
 			
-			progressInfo("Lectura de la informacion finalizada...");
+				List<Table>  tables = batchSelected(listSelectedTablesNames) ?
+						selectedTablesProcess(listTablesName, catalogo, esquema) : tablesProcess(listTablesName, catalogo, esquema);
 			
-			dataBase.setTables(tables); 
-			dataBase.setName(con.getCatalog());
+				phase("Lectura de la informacion finalizada...");
 			
-			progressInfo("Cerrando la conexion...");
-			con.close();
+				dataBase.setTables(tables); 
+				dataBase.setName(con.getCatalog());
+				readRoutines(dataBase, catalogo, esquema);
+				readConstraints(dataBase, catalogo, esquema);
 			
-			progressInfo("Proceso de lectura finalizado...");
+				phase("Proceso de lectura finalizado...");
 			
-			return dataBase;
+				return dataBase;
 			
+			}finally {
+				//the connection is closed also when the read fails
+				closeQuietly();
+				endScan();
+			}
 	}
     
+    /**
+     * processDatabase as an immutable snapshot, it can be cached and shared
+     * between threads without copies
+     * @see #processDatabase(String, String, String, String[], List)
+     */
+    public SchemaSnapshot processSnapshot(String catalogo, String esquema,
+    								String tabla, String[] types,
+    								List<String> listSelectedTablesNames) throws ClassNotFoundException, SQLException, InstantiationException, DataBaseReaderException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException{
+    	
+    	return SchemaSnapshot.of(processDatabase(catalogo, esquema, tabla, types, listSelectedTablesNames));
+    }
+    
+    /**
+     * New snapshot with only the tables of the events read again, for example
+     * the events of a SchemaWatcher. Dropped tables are removed, added and
+     * altered tables are read with selectedTablesProcess and replaced with
+     * withTable, the other tables are shared with the given snapshot.
+     * The connection stays open.
+     * @param snapshot
+     * @param catalogo
+     * @param esquema
+     * @param events
+     * @return the given snapshot when there is no change
+     * @throws DataBaseReaderException
+     */
+    public SchemaSnapshot refreshSnapshot(SchemaSnapshot snapshot, String catalogo, String esquema,
+    									  Collection<SchemaChangeEvent> events) throws DataBaseReaderException {
+    	
+    	//the last event of a table wins
+    	Map<String, SchemaChangeEvent> lastEvents = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    	for (SchemaChangeEvent event : events) lastEvents.put(event.getTableName(), event);
+    	
+    	List<Table> changed = new ArrayList<>();
+    	for (SchemaChangeEvent event : lastEvents.values()) {
+    		if(event.getType() == SchemaChangeEvent.Type.TABLE_DROPPED) {
+    			snapshot = snapshot.withoutTable(event.getTableName());
+    			continue;
+    		}
+    		TableSnapshot previous = snapshot.getTable(event.getTableName());
+    		Table table = new Table();
+    		table.setName(event.getTableName());
+    		table.setType(previous != null && previous.getType() != null ? previous.getType() : "TABLE");
+    		changed.add(table);
+    	}
+    	if(changed.isEmpty()) return snapshot;
+    	
+    	for (Table table : selectedTablesProcess(changed, catalogo, esquema)) {
+    		snapshot = snapshot.withTable(table);
+    	}
+    	return snapshot;
+    }
+    
     public List<Table> readTables(String schemaPattern, String tableNamePattern,
     							  String tabla, String[] types) throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException
     {
     	
-    	progressInfo("Estableciendo conexion a base de datos...");
+    	boolean ownScan = !scanning;
+    	if(ownScan) beginScan(0);
+    	try {
+    	
+	    	phase("Estableciendo conexion a base de datos...");
         
-        progressInfo("Conexion establecida...");
+	        phase("Conexion establecida...");
         
-        progressInfo("Comienzo de lectura de la informacion...");
+	        phase("Comienzo de lectura de la informacion...");
         
-        List<Table> tables = readBasicTableInfo(con, schemaPattern, tableNamePattern, tabla, types);
+	        List<Table> tables = readBasicTableInfo(con, schemaPattern, tableNamePattern, tabla, types);
          
-        progressInfo("Proceso de lectura finalizado...");
+	        phase("Proceso de lectura finalizado...");
 
-        return  tables;
+	        return  tables;
         
+    	}finally {
+    		if(ownScan) endScan();
+    	}
     }
 
  
@@ -278,90 +383,53 @@ public class DatabaseReader  implements IDatabaseReader{
      * @return  
      */
     protected List<Table> tablesProcess(List<Table> listTablesName, String catalogo) throws DataBaseReaderException {
+    	return tablesProcess(listTablesName, catalogo, null);
+    }
 
+    /**
+     * 
+     * @param listTablesName
+     * @param catalogo
+     * @param esquema with catalogo identifies the journal of the checkpoint
+     * @return
+     * @throws DataBaseReaderException
+     */
+    protected List<Table> tablesProcess(List<Table> listTablesName, String catalogo, String esquema) throws DataBaseReaderException {
+
+    	boolean ownScan = !scanning;
+    	if(ownScan) beginScan(listTablesName.size());
+    	else progress.setTotal(listTablesName.size());
+    	try {
+    		return checkpoint != null ? checkpointTablesProcess(listTablesName, catalogo, esquema) : tablesRead(listTablesName);
+    	}finally {
+    		if(ownScan) endScan();
+    	}
+    }
+    
+    private List<Table> tablesRead(List<Table> listTablesName) throws DataBaseReaderException {
+    	
         List<Table> tableList = new ArrayList<>();
+        String tableName = null;
  
         try{
           
-            progressInfo("Loading tables" );
+            phase("Loading tables" );
   
-            DatabaseMetaData databaseMetaData = con.getMetaData();
+            DatabaseMetaData databaseMetaData = metaData(con);
             int total = listTablesName.size();
             int proccessed = 0;
             for (Table table : listTablesName)
             {
+               checkCancelled();
+               tableName = table.getName();
                  
                //progress information
                progressInfo("Table: " + table.getName() );
                progressInfo("Processed " + proccessed + " of " + total);
                
-               PkContraint pkContraint = tablePks(con,table.getName());
-               List<IndexContraint> listIndexContraint = indexFields(con,table.getName(),con.getCatalog());
-              
-               //se busca la informacion por medio de una sentencia sql nativa
-               //q no devuelve nada, pero lo que hace falta es la estructura
-               //o la metadata. Todas las conexion son a bases de datos relacionales
-               //con que tengan como base SQL Natvie
-               Statement st = con.createStatement();
-               
-               //ResultSet rsTable1 = con.getMetaData().getTypeInfo();
-//                while (rsTable1.next()) {                    
-//                   System.out.println(rsTable1.getString(1) + "-" +  rsTable1.getString(10));
-//                }
-               
-               
-               //ResultSet rsTable = st.executeQuery("SELECT * FROM " + (StringUtils.isEmpty(con.getCatalog())?tableName:con.getSchema()Catalog() + "." + tableName )+ " WHERE 1=2");
-               ResultSet rsTable = st.executeQuery("SELECT * FROM " +   table.getName()  + " WHERE 1=2");
-               ResultSetMetaData resultSetMetaData = rsTable.getMetaData();
-      
-               
-                //comentario
-                ResultSet resultSetTable = databaseMetaData.getTables(null, null, table.getName(), new String[]{"TABLE","VIEW"});
-                if(resultSetTable!=null){
-                    while(resultSetTable.next()){
-                        String comment = resultSetTable.getString(5);
-                        table.setComment(comment);
-                    }
-                }               
-               
-
-               for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
-                    //fields
-                    Column column = new Column();
-                    column.setName(resultSetMetaData.getColumnName(i));
-                    column.setNullable(ResultSetMetaData.columnNullable ==  resultSetMetaData.isNullable(i));
-                    column.setPk(pkContraint!=null && pkContraint.getListField().contains(resultSetMetaData.getColumnName(i)));
-                    column.setAutoIncrement(resultSetMetaData.isAutoIncrement(i)); 
-                    column.setType(resultSetMetaData.getColumnTypeName(i));
-                    column.setJavaType(resultSetMetaData.getColumnClassName(i));
-                    column.setJavaSqlType(resultSetMetaData.getColumnType(i)); 
-                    column.setUnique((pkContraint!=null && pkContraint.getListField().contains(resultSetMetaData.getColumnName(i))) ||
-                         (existUniqueColumn(listIndexContraint,resultSetMetaData.getColumnName(i))));
-
-                    column.setPrecision(resultSetMetaData.getPrecision(i));
-                    column.setScale(resultSetMetaData.getScale(i));
-                    
-                    //comentario
-                    ResultSet resultSetColumn = databaseMetaData.getColumns(null, null, table.getName(), column.getName());
-                    if(resultSetColumn!=null){
-                        while(resultSetColumn.next()){
-                            String comment = resultSetColumn.getString(12);
-                            column.setComment(comment);
-                            column.setDefaultValue(resultSetColumn.getString(13));
-                        }
-                    }
-                    
-                    table.getColumn().add(column);
-
-               }
-               
-               table.setPkContraint(pkContraint);
-               table.getIndexContraint().addAll(listIndexContraint);
-               
-               //PROCESANDO LAS FOREING KEYS
-               table.getFkContraint().addAll(tableFks(table));
-               
-               tableList.add(table);
+               long start = tableStarted(tableName);
+               tableList.add(tableProcess(databaseMetaData, table));
+               tableFinished(tableName, start);
                
                proccessed++;
             }    
@@ -369,17 +437,440 @@ public class DatabaseReader  implements IDatabaseReader{
             progressInfo("Processed " + proccessed + " of " + total);
 
         }catch(SQLException e){
-        	progressInfo(e.getMessage());
+        	error(tableName, e);
             throw new DataBaseReaderException(e.getMessage());
         }
  
         return tableList;
 
     }
+    
+    /**
+     * Reads columns, pk, indexes and fks of one table
+     * @param databaseMetaData
+     * @param table
+     * @return
+     * @throws SQLException
+     */
+    protected Table tableProcess(DatabaseMetaData databaseMetaData, Table table) throws SQLException {
+    	
+        PkContraint pkContraint = tablePks(con,table.getName());
+        List<IndexContraint> listIndexContraint = indexFields(con,table.getName(),con.getCatalog());
+       
+        //se busca la informacion por medio de una sentencia sql nativa
+        //q no devuelve nada, pero lo que hace falta es la estructura
+        //o la metadata. Todas las conexion son a bases de datos relacionales
+        //con que tengan como base SQL Natvie
+        Statement st = con.createStatement();
+        
+        //ResultSet rsTable = st.executeQuery("SELECT * FROM " + (StringUtils.isEmpty(con.getCatalog())?tableName:con.getSchema()Catalog() + "." + tableName )+ " WHERE 1=2");
+        TableReadEvent probeEvent = TableReadEvent.start(TableReadEvent.PROBE, table.getName());
+        ResultSet rsTable = limited("probe", () -> st.executeQuery("SELECT * FROM " +   table.getName()  + " WHERE 1=2"));
+        ResultSetMetaData resultSetMetaData = rsTable.getMetaData();
+        probeEvent.finish(resultSetMetaData.getColumnCount());
+        TypeRegistry typeRegistry = typeRegistry(con);
+
+        
+         //comentario
+         ResultSet resultSetTable = limited("getTables", () -> databaseMetaData.getTables(null, null, table.getName(), new String[]{"TABLE","VIEW"}));
+         if(resultSetTable!=null){
+             while(resultSetTable.next()){
+                 String comment = resultSetTable.getString(5);
+                 table.setComment(comment);
+             }
+         }               
+        
+
+        for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
+             //fields
+             Column column = new Column();
+             column.setName(resultSetMetaData.getColumnName(i));
+             column.setNullable(ResultSetMetaData.columnNullable ==  resultSetMetaData.isNullable(i));
+             column.setPk(pkContraint!=null && pkContraint.getListField().contains(resultSetMetaData.getColumnName(i)));
+             column.setAutoIncrement(resultSetMetaData.isAutoIncrement(i)); 
+             columnType(column, resultSetMetaData, i, typeRegistry);
+             column.setUnique((pkContraint!=null && pkContraint.getListField().contains(resultSetMetaData.getColumnName(i))) ||
+                  (existUniqueColumn(listIndexContraint,resultSetMetaData.getColumnName(i))));
+
+             column.setPrecision(resultSetMetaData.getPrecision(i));
+             column.setScale(resultSetMetaData.getScale(i));
+             
+             //comentario
+             ResultSet resultSetColumn = limited("getColumns", () -> databaseMetaData.getColumns(null, null, table.getName(), column.getName()));
+             if(resultSetColumn!=null){
+                 while(resultSetColumn.next()){
+                     String comment = resultSetColumn.getString(12);
+                     column.setComment(comment);
+                     column.setDefaultValue(resultSetColumn.getString(13));
+                 }
+             }
+             
+             table.getColumn().add(column);
+
+        }
+        
+        table.setPkContraint(pkContraint);
+        table.getIndexContraint().addAll(listIndexContraint);
+        
+        //PROCESANDO LAS FOREING KEYS
+        table.getFkContraint().addAll(tableFks(table));
+        
+        return table;
+    }
+    
+    /**
+     * tablesProcess for an explicit table list. Columns, primary keys, foreign
+     * keys and unique indexes are read by chunks of tables with one catalog
+     * query per chunk (BatchMetadataReader) instead of several calls by table
+     * and column.
+     * @param listTablesName
+     * @param catalogo
+     * @param esquema
+     * @return
+     * @throws DataBaseReaderException
+     */
+    protected List<Table> selectedTablesProcess(List<Table> listTablesName, String catalogo, String esquema) throws DataBaseReaderException {
+    	
+    	boolean ownScan = !scanning;
+    	if(ownScan) beginScan(listTablesName.size());
+    	else progress.setTotal(listTablesName.size());
+    	
+    	try {
+    		checkCancelled();
+    		phase("Loading " + listTablesName.size() + " selected tables by chunks");
+    		
+    		String catalog = catalogo != null ? catalogo : con.getCatalog();
+    		return readChunk(listTablesName, catalog, esquema);
+    		
+    	}catch(SQLException e){
+    		error(null, e);
+    		throw new DataBaseReaderException(e.getMessage());
+    	}finally {
+    		if(ownScan) endScan();
+    	}
+    }
+    
+    /**
+     * Reads the tables with one catalog query per kind for all of them. The
+     * scan can be cancelled between the queries, and the time of the queries
+     * is shared by the tables of the chunk in tableFinished.
+     * @param listTablesName
+     * @param catalog
+     * @param esquema
+     * @return
+     * @throws SQLException
+     * @throws DataBaseReaderException when the scan is cancelled or a table does not exist
+     */
+    private List<Table> readChunk(List<Table> listTablesName, String catalog, String esquema) throws SQLException, DataBaseReaderException {
+    	
+    	List<Table> tableList = new ArrayList<>();
+    	List<String> tableNames = new ArrayList<>();
+    	for (Table table : listTablesName) tableNames.add(table.getName());
+    	
+    	long chunkStart = System.nanoTime();
+    	BatchMetadataReader batchMetadataReader = new BatchMetadataReader();
+    	batchMetadataReader.setLimiter(limiter);
+    	Map<String, String> comments = batchMetadataReader.readTableComments(recorded(con), catalog, esquema, tableNames);
+    	for (String tableName : tableNames) {
+    		if(!comments.containsKey(tableName)) throw new DataBaseReaderException("Table not found: " + tableName);
+    	}
+    	checkCancelled();
+    	Map<String, List<Column>> columns = batchMetadataReader.readColumns(recorded(con), catalog, esquema, tableNames);
+    	checkCancelled();
+    	Map<String, PkContraint> pks = batchMetadataReader.readPrimaryKeys(recorded(con), catalog, esquema, tableNames);
+    	checkCancelled();
+    	Map<String, List<FkContraint>> fks = batchMetadataReader.readImportedKeys(recorded(con), catalog, esquema, tableNames);
+    	checkCancelled();
+    	Map<String, List<IndexInfo>> indexes = indexReader.readIndexes(recorded(con), catalog, esquema, tableNames);
+    	//the bulk queries are of the whole chunk, each table takes its share
+    	long share = listTablesName.isEmpty() ? 0 : (System.nanoTime() - chunkStart) / listTablesName.size();
+    	
+    	for (Table table : listTablesName) {
+    		checkCancelled();
+    		long start = tableStarted(table.getName());
+    		if(start != 0) start -= share;
+    		
+    		PkContraint pkContraint = pks.get(table.getName());
+    		List<IndexContraint> listIndexContraint = new ArrayList<>();
+    		for (IndexInfo index : indexes.getOrDefault(table.getName(), new ArrayList<>())) {
+    			if(index.isUnique()) listIndexContraint.add(IndexReader.toIndexContraint(index));
+    		}
+    		
+    		table.setComment(comments.get(table.getName()));
+    		for (Column column : columns.getOrDefault(table.getName(), new ArrayList<>())) {
+    			column.setPk(pkContraint != null && pkContraint.getListField().contains(column.getName()));
+    			column.setUnique(column.isPk() || existUniqueColumn(listIndexContraint, column.getName()));
+    			table.getColumn().add(column);
+    		}
+    		table.setPkContraint(pkContraint);
+    		table.getIndexContraint().addAll(listIndexContraint);
+    		
+    		//mismas marcas en los campos que tableFks
+    		for (FkContraint fkContraint : fks.getOrDefault(table.getName(), new ArrayList<>())) {
+    			for (ImportedKey importedKey : fkContraint.getImportedKey()) {
+    				for (Column column : table.getColumn()) {
+    					if(column.getName().equals(importedKey.getFkColumnName())) {
+    						column.setFk(true);
+    						importedKey.setNullable(column.isNullable());
+    						importedKey.setUnique(column.isNullable());
+    						importedKey.setPk(column.isPk());
+    						break;
+    					}
+    				}
+    			}
+    			table.getFkContraint().add(fkContraint);
+    		}
+    		
+    		tableList.add(table);
+    		tableFinished(table.getName(), start);
+    	}
+    	return tableList;
+    }
+    
+    /**
+     * Reads the tables by chunks of exportChunkSize and gives each one to the
+     * writer as soon as its chunk is read, the DataBase is never complete in
+     * memory. Each chunk reads only its own tables, indexes and comments
+     * included. Routines, sequences, synonyms and check constraints are
+     * not exported. The connection stays open. When the export fails
+     * before finish, writer.abort releases what the writer holds.
+     * @param catalogo
+     * @param esquema
+     * @param tabla table name pattern, null for all
+     * @param types
+     * @param writer
+     * @throws DataBaseReaderException
+     * @throws IOException when the writer fails, the scan stops
+     */
+    public void exportDatabase(String catalogo, String esquema, String tabla, String[] types, SchemaWriter writer) throws DataBaseReaderException, IOException {
+    	
+    	List<Table> listTablesName = readTablesName(con, catalogo, esquema, tabla, types, excludedTables);
+    	beginScan(listTablesName.size());
+    	boolean finished = false;
+    	try {
+    		String catalog = catalogo != null ? catalogo : con.getCatalog();
+    		
+    		writer.begin(catalog);
+    		phase("Exporting " + listTablesName.size() + " tables by chunks");
+    		for (int i = 0; i < listTablesName.size(); i += exportChunkSize) {
+    			checkCancelled();
+    			List<Table> chunk = listTablesName.subList(i, Math.min(i + exportChunkSize, listTablesName.size()));
+    			for (Table table : readChunk(chunk, catalog, esquema)) {
+    				writer.writeTable(table);
+    			}
+    			//only the names stay in the list
+    			for (int j = 0; j < chunk.size(); j++) {
+    				Table name = new Table();
+    				name.setName(chunk.get(j).getName());
+    				chunk.set(j, name);
+    			}
+    		}
+    		writer.finish();
+    		finished = true;
+    		
+    	}catch(SQLException e){
+    		error(null, e);
+    		throw new DataBaseReaderException(e.getMessage());
+    	}finally {
+    		if(!finished) writer.abort();
+    		endScan();
+    	}
+    }
+    
+    /**
+     * Routines, sequences and synonyms of the schema when a routineReader is set
+     * @param dataBase
+     * @param catalogo
+     * @param esquema
+     * @throws DataBaseReaderException
+     */
+    private void readRoutines(DataBase dataBase, String catalogo, String esquema) throws DataBaseReaderException {
+    	if(routineReader == null) return;
+    	phase("Lectura de procedimientos, funciones y secuencias...");
+    	try {
+    		routineReader.read(recorded(con), catalogo, esquema, dataBase);
+    	} catch (SQLException e) {
+    		Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+    		throw new DataBaseReaderException(e.getMessage());
+    	}
+    }
+    
+    /**
+     * Unique and check constraints of the schema when a constraintReader is
+     * set, one query for all the tables
+     * @param dataBase
+     * @param catalogo
+     * @param esquema
+     * @throws DataBaseReaderException
+     */
+    private void readConstraints(DataBase dataBase, String catalogo, String esquema) throws DataBaseReaderException {
+    	if(constraintReader == null) return;
+    	phase("Lectura de restricciones unique y check...");
+    	dataBase.setConstraints(constraintReader.readSchemaConstraints(recorded(con), catalogo, esquema));
+    }
+    
+    private boolean batchSelected(List<String> listSelectedTablesNames) {
+    	return batchSelectedTables && checkpoint == null && listSelectedTablesNames != null && !listSelectedTablesNames.isEmpty();
+    }
+    
+    /**
+     * tablesProcess with checkpoint. The tables already in the journal are
+     * not read again, each new table is appended to the journal and the
+     * tables with errors are retried at the end with backoff. The journal
+     * of another url, user, catalog, schema or table list is discarded.
+     * @param listTablesName
+     * @param catalogo
+     * @param esquema
+     * @return
+     * @throws DataBaseReaderException
+     */
+    protected List<Table> checkpointTablesProcess(List<Table> listTablesName, String catalogo, String esquema) throws DataBaseReaderException {
+    	
+    	ScanCheckpoint.Scan scan;
+    	try {
+    		List<String> tableNames = new ArrayList<>();
+    		for (Table table : listTablesName) tableNames.add(table.getName());
+    		scan = ScanCheckpoint.Scan.of(con, catalogo, esquema, tableNames);
+    	} catch (SQLException e) {
+    		throw new DataBaseReaderException("Checkpoint scan could not be identified: " + e.getMessage());
+    	}
+    	Map<String, Table> completed = checkpoint.loadCompleted(scan);
+    	checkpoint.open(scan, !completed.isEmpty());
+    	
+    	Map<String, Table> result = new HashMap<>();
+    	Map<String, String> errors = new LinkedHashMap<>();
+    	int total = listTablesName.size();
+    	int proccessed = 0;
+    	boolean finished = false;
+    	try {
+    		phase("Loading tables, " + completed.size() + " from checkpoint");
+    		
+	    	for (Table table : listTablesName) {
+	    		checkCancelled();
+	    		Table done = completed.get(table.getName());
+	    		if(done == null) {
+	    			progressInfo("Table: " + table.getName() );
+	    			long start = tableStarted(table.getName());
+	    			done = checkpointTableProcess(table, errors);
+	    			if(done != null) tableFinished(table.getName(), start);
+	    		}else {
+	    			progress.tableProcessed();
+	    		}
+	    		if(done != null) result.put(table.getName(), done);
+	    		proccessed++;
+	    		progressInfo("Processed " + proccessed + " of " + total);
+			}
+	    	
+	    	for (int retry = 1; retry <= checkpoint.getMaxRetries() && !errors.isEmpty(); retry++) {
+	    		
+	    		phase("Retrying " + errors.size() + " tables, attempt " + retry);
+	    		try {
+					Thread.sleep(checkpoint.backoffMillis(retry));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new DataBaseReaderException("Scan interrupted");
+				}
+	    		ensureConnection();
+	    		
+	    		for (String tableName : new ArrayList<>(errors.keySet())) {
+	    			checkCancelled();
+	    			long start = tableStarted(tableName);
+	    			Table table = listTablesName.stream().filter((t)->t.getName().equals(tableName)).findFirst().get();
+	    			Table retried = new Table();
+	    			retried.setName(table.getName());
+	    			retried.setType(table.getType());
+	    			retried = checkpointTableProcess(retried, errors);
+	    			if(retried != null) {
+	    				tableFinished(tableName, start);
+	    				result.put(tableName, retried);
+	    				errors.remove(tableName);
+	    			}
+				}
+			}
+	    	
+	    	for (Map.Entry<String, String> error : errors.entrySet()) {
+	    		checkpoint.addFailure(new ScanCheckpoint.TableFailure(error.getKey(), checkpoint.getMaxRetries() + 1, error.getValue()));
+	    		Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Table {0} could not be read: {1}", new Object[]{error.getKey(), error.getValue()});
+			}
+	    	finished = true;
+	    	
+    	}finally {
+    		checkpoint.close(finished);
+    	}
+    	
+    	List<Table> tableList = new ArrayList<>();
+    	for (Table table : listTablesName) {
+    		Table done = result.get(table.getName());
+    		if(done != null) tableList.add(done);
+		}
+    	return tableList;
+    }
+    
+    private Table checkpointTableProcess(Table table, Map<String, String> errors) throws DataBaseReaderException {
+    	SQLException failure;
+    	try {
+    		return checkpointTableRead(table, errors);
+    	}catch(SQLException e){
+    		failure = e;
+    	}
+    	//a broken connection would fail every remaining table, it is replaced and the table read again
+    	if(ensureConnection()) {
+    		Table again = new Table();
+    		again.setName(table.getName());
+    		again.setType(table.getType());
+    		try {
+    			return checkpointTableRead(again, errors);
+    		}catch(SQLException e){
+    			failure = e;
+    		}
+    	}
+    	error(table.getName(), failure);
+    	errors.put(table.getName(), failure.getMessage());
+    	return null;
+    }
+    
+    private Table checkpointTableRead(Table table, Map<String, String> errors) throws SQLException, DataBaseReaderException {
+    	Table done = tableProcess(metaData(con), table);
+    	checkpoint.append(done);
+    	errors.remove(table.getName());
+    	return done;
+    }
+    
+    /**
+     * Opens a new connection from the checkpoint connection source when the
+     * current one is no longer valid
+     * @return true when the connection was replaced
+     */
+    private boolean ensureConnection() {
+    	
+    	if(checkpoint.getConnectionSource() == null) return false;
+    	boolean valid;
+    	try {
+    		valid = con != null && con.isValid(5);
+    	} catch (SQLException e) {
+    		valid = false;
+    	}
+    	if(valid) return false;
+    	
+    	try {
+    		if(con != null) con.close();
+    	} catch (SQLException e) {
+    		//the connection is already broken
+    	}
+    	try {
+    		con = checkpoint.getConnectionSource().getConnection();
+    		return true;
+    	} catch (SQLException ex) {
+    		error(null, ex);
+    		Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
+    		return false;
+    	}
+    }
 
  
     /**
-     * 
+     * A column is unique by itself only with a unique index of that single
+     * column, a column of a composite unique index can repeat values
      * @param listUniqueInfo
      * @param columnName
      * @return 
@@ -391,7 +882,7 @@ public class DatabaseReader  implements IDatabaseReader{
         if(listUniqueInfo!=null){
             for (IndexContraint uniqueContraint : listUniqueInfo) {
              
-                if(uniqueContraint.getColumns().contains(columnName)){
+                if(uniqueContraint.getColumns().size() == 1 && uniqueContraint.getColumns().contains(columnName)){
                     existe = true;
                     break;
                 }
@@ -415,8 +906,8 @@ public class DatabaseReader  implements IDatabaseReader{
 
         try {
  
-            DatabaseMetaData databaseMetaData = customCon.getMetaData(); 
-            ResultSet rs = (databaseMetaData.getTables(catalog, schemaPattern , tableNamePattern,types));
+            DatabaseMetaData databaseMetaData = metaData(customCon); 
+            ResultSet rs = limited("getTables", () -> databaseMetaData.getTables(catalog, schemaPattern , tableNamePattern,types));
             
             while(rs.next()){
                 String tableName = rs.getString(3);
@@ -436,7 +927,7 @@ public class DatabaseReader  implements IDatabaseReader{
             rs.close();
 
         } catch (SQLException ex) {
-        	progressInfo(ex.getMessage());
+        	error(null, ex);
             Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
         }
 
@@ -450,14 +941,33 @@ public class DatabaseReader  implements IDatabaseReader{
 			 						String tableNamePattern,  String[] types){
 			
 		List<Table> tables = new ArrayList<>();
+		try {
+			readBasicTableInfo(tables, customCon, catalog, schemaPattern, tableNamePattern, types);
+		} catch (SQLException ex) {
+			error(null, ex);
+			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
+		}
+		return tables;
+			
+	} 
+
+    /**
+     * Adds the tables to the list while they are read, a failure keeps the
+     * ones read before it
+     */
+    protected void readBasicTableInfo(List<Table> tables, Connection customCon, String catalog,  String schemaPattern, 
+			 						String tableNamePattern,  String[] types) throws SQLException{
+			
+		TableReadEvent event = TableReadEvent.start(TableReadEvent.READ_BASIC_TABLE_INFO, tableNamePattern);
 		try {
 		
-			DatabaseMetaData databaseMetaData = customCon.getMetaData(); 
-			ResultSet rs = (databaseMetaData.getTables(catalog, schemaPattern , tableNamePattern, types));
+			DatabaseMetaData databaseMetaData = metaData(customCon); 
+			ResultSet rs = limited("getTables", () -> databaseMetaData.getTables(catalog, schemaPattern , tableNamePattern, types));
 			
 			Statement st = customCon.createStatement();
             ResultSet rsTable;
             ResultSetMetaData resultSetMetaData;
+            TypeRegistry typeRegistry = typeRegistry(customCon);
              
             List<String> pks;
             List<ImportedKey> fks;
@@ -473,11 +983,13 @@ public class DatabaseReader  implements IDatabaseReader{
 					table.setType(tableType);
 					tables.add(table);
 					
-					rsTable = st.executeQuery("SELECT * FROM " +   table.getName()  + " WHERE 1=2");
+					TableReadEvent probeEvent = TableReadEvent.start(TableReadEvent.PROBE, tableName);
+					rsTable = limited("probe", () -> st.executeQuery("SELECT * FROM " +   table.getName()  + " WHERE 1=2"));
                     resultSetMetaData = rsTable.getMetaData(); 
+                    probeEvent.finish(resultSetMetaData.getColumnCount());
                     
-                    pks = getTablePksContraints(customCon, tableName);
-                    fks = getSimpleTableFksColumInfo(customCon, tableName);
+                    pks = readTablePksContraints(customCon, tableName);
+                    fks = readSimpleTableFksColumInfo(customCon, tableName);
                     
                     for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
                     	Column column = new Column();
@@ -486,14 +998,12 @@ public class DatabaseReader  implements IDatabaseReader{
                     	column.setScale(resultSetMetaData.getScale(i));
                     	column.setPrecision(resultSetMetaData.getPrecision(i));
                     	column.setTable(table.getName());
-                    	column.setType(resultSetMetaData.getColumnTypeName(i)); 
                     	column.setPk(pks.contains(column.getName()));
                     	importedKey = fks.stream().filter((c)->(c.getFkColumnName().equalsIgnoreCase(column.getName()))).findFirst().orElse(null);
                     	column.setFk(importedKey != null);
                     	if(column.isFk()) column.setFktablename(importedKey.getPkTableName());
                     	column.setAutoIncrement(resultSetMetaData.isAutoIncrement(i)); 
-                    	column.setJavaSqlType(resultSetMetaData.getColumnType(i)); 
-                    	column.setJavaType(resultSetMetaData.getColumnClassName(i));
+                    	columnType(column, resultSetMetaData, i, typeRegistry);
                     	column.setNullable(ResultSetMetaData.columnNullable ==  resultSetMetaData.isNullable(i));
 	                    
 	                    table.getColumn().add(column);
@@ -510,11 +1020,9 @@ public class DatabaseReader  implements IDatabaseReader{
 			}
 			rs.close();
 		
-		} catch (SQLException ex) {
-			progressInfo(ex.getMessage());
-			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
+		} finally {
+			event.finish(tables.size());
 		}
-		return tables;
 			
 	} 
 
@@ -532,10 +1040,10 @@ public class DatabaseReader  implements IDatabaseReader{
         String pkName= null;
         try {
  
-            DatabaseMetaData databaseMetaData = con.getMetaData();
+            DatabaseMetaData databaseMetaData = metaData(con);
 
             //ResultSet rsTablePK = databaseMetaData.getPrimaryKeys(database.getUser(), null, tableName);
-            ResultSet rsTablePK = databaseMetaData.getPrimaryKeys(null, null, tableName);
+            ResultSet rsTablePK = limited("getPrimaryKeys", () -> databaseMetaData.getPrimaryKeys(null, null, tableName));
             
             while(rsTablePK.next()){
 
@@ -550,7 +1058,7 @@ public class DatabaseReader  implements IDatabaseReader{
             
         } catch (SQLException ex) 
         {
-        	progressInfo(ex.getMessage());
+        	error(tableName, ex);
             Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
             
         }
@@ -574,7 +1082,8 @@ public class DatabaseReader  implements IDatabaseReader{
 
 	/**
      * busca los indices de una tabla, esta informacion brinda
-     * datos de indices de pk, indices de unique
+     * datos de indices de pk, indices de unique.
+     * Las columnas quedan en el orden de la posicion ordinal
      * @param con
      * @param tableName
      * @param dataBaseName
@@ -583,40 +1092,20 @@ public class DatabaseReader  implements IDatabaseReader{
     protected List<IndexContraint> indexFields(Connection con, String tableName,
                                                 String dataBaseName ){
 
-        Map<String, IndexContraint> mapUnique = new HashMap<>();
+        List<IndexContraint> listUniqueContraint = new ArrayList<>();
         try {
-            DatabaseMetaData databaseMetaData = con.getMetaData();
-
-            ResultSet rs = databaseMetaData.getIndexInfo(dataBaseName, null, tableName, true, false);
-            while(rs.next()){
-                 String indexName = rs.getString("INDEX_NAME");
-                 String columnName = rs.getString(COLUMN_NAME);
-                 String indexType = rs.getString("TYPE");//1 es pk, //3 es unique
-                 
-                 if(isNotEmpty(indexName) && isNotEmpty(columnName)){
-                    IndexContraint uniqueContraint =  mapUnique.get(indexName);
-                    if(uniqueContraint==null){
-                        uniqueContraint = new IndexContraint();
-                        uniqueContraint.setName(indexName);
-                        uniqueContraint.setType(indexType);
-                        uniqueContraint.setOrderType("ASC_OR_DES");
-                        mapUnique.put(indexName, uniqueContraint);
-                    }
-                    uniqueContraint.getColumns().add(columnName);
-                }
-            }
-            rs.close();
+        	
+            List<IndexInfo> indexes = indexReader.readIndexes(recorded(con), dataBaseName, null, tableName);
+            for (IndexInfo index : indexes) {
+            	//existUniqueColumn trata todas las IndexContraint como unique
+            	if(index.isUnique())
+            		listUniqueContraint.add(IndexReader.toIndexContraint(index));
+			}
 
         } catch ( SQLException ex) {
-        	progressInfo(ex.getMessage());
+        	error(tableName, ex);
              Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
         }
-
-        List<IndexContraint> listUniqueContraint = new ArrayList<>();
-         
-        if(mapUnique.size()>0){
-            listUniqueContraint.addAll(mapUnique.values());
-        }
          
         return listUniqueContraint;
         
@@ -652,31 +1141,33 @@ public class DatabaseReader  implements IDatabaseReader{
 //    }
 
  
-    private boolean isNotEmpty(String columnName) {
-		return (columnName !=null && "".equals(columnName.trim())); 
-	}
     
     
     
     protected List<ImportedKey> getSimpleTableFksColumInfo(Connection con,String tableName){
     	
-    	List<ImportedKey> result = new ArrayList<>();
         try {
-
-            DatabaseMetaData databaseMetaData = con.getMetaData();
-            ResultSet foreignKeys = databaseMetaData.getImportedKeys(null, null, tableName);
-            ImportedKey importedKey;
-            while (foreignKeys.next()) {
-            	importedKey = new ImportedKey();
-            	importedKey.setPkTableName(foreignKeys.getString("PKTABLE_NAME")); 
-            	importedKey.setFkColumnName(foreignKeys.getString("FKCOLUMN_NAME"));
-            	result.add(importedKey);
-            }
+        	return readSimpleTableFksColumInfo(con, tableName);
         } catch (SQLException ex) {
-        	progressInfo(ex.getMessage());
+        	error(tableName, ex);
             Logger.getLogger(DatabaseReader.class.getSimpleName()).log(Level.SEVERE, null, ex);
         }
         
+        return new ArrayList<>();
+    }
+
+    protected List<ImportedKey> readSimpleTableFksColumInfo(Connection con,String tableName) throws SQLException{
+    	
+    	List<ImportedKey> result = new ArrayList<>();
+        DatabaseMetaData databaseMetaData = metaData(con);
+        ResultSet foreignKeys = limited("getImportedKeys", () -> databaseMetaData.getImportedKeys(null, null, tableName));
+        ImportedKey importedKey;
+        while (foreignKeys.next()) {
+        	importedKey = new ImportedKey();
+        	importedKey.setPkTableName(foreignKeys.getString("PKTABLE_NAME")); 
+        	importedKey.setFkColumnName(foreignKeys.getString("FKCOLUMN_NAME"));
+        	result.add(importedKey);
+        }
         return result;
     }
 
@@ -692,8 +1183,8 @@ public class DatabaseReader  implements IDatabaseReader{
         
         try {
 
-            DatabaseMetaData databaseMetaData = con.getMetaData();
-            ResultSet foreignKeys = databaseMetaData.getImportedKeys(null, null, tableName);
+            DatabaseMetaData databaseMetaData = metaData(con);
+            ResultSet foreignKeys = limited("getImportedKeys", () -> databaseMetaData.getImportedKeys(null, null, tableName));
             FkContraint fkContraint;
             while (foreignKeys.next()) {
                 
@@ -722,7 +1213,7 @@ public class DatabaseReader  implements IDatabaseReader{
                 mapFKs.get(pkTableName).getImportedKey().add(importedKey);
             } 
         } catch (SQLException ex) {
-        	progressInfo(ex.getMessage());
+        	error(tableName, ex);
             Logger.getLogger(DatabaseReader.class.getSimpleName()).log(Level.SEVERE, null, ex);
         }
 
@@ -742,7 +1233,7 @@ public class DatabaseReader  implements IDatabaseReader{
 
         List<FkContraint> relationList = new ArrayList<>();
          
-        DatabaseMetaData databaseMetaData = con.getMetaData();
+        DatabaseMetaData databaseMetaData = metaData(con);
             
             
         String tableName = table.getName();
@@ -761,7 +1252,7 @@ public class DatabaseReader  implements IDatabaseReader{
         String fkName; 
 
         //informacion sobre las llaves foraneas de la tabla tableName
-        ResultSet rs = databaseMetaData.getImportedKeys(null, null, tableName);
+        ResultSet rs = limited("getImportedKeys", () -> databaseMetaData.getImportedKeys(null, null, tableName));
 
         //por cada informacion de foreing key de la tabla que se esta
         //procesando en estos momentos ->tableName
@@ -944,6 +1435,76 @@ public class DatabaseReader  implements IDatabaseReader{
 		log = msg;  
 	
     }
+    
+    public void addScanListener(ScanListener listener) {
+    	listeners.add(listener);
+    }
+    
+    public void removeScanListener(ScanListener listener) {
+    	listeners.remove(listener);
+    }
+    
+    /**
+     * Progress of the current or last scan, null before the first one
+     * @return
+     */
+    public ScanProgress getProgress() {
+    	return progress;
+    }
+    
+    protected ScanProgress beginScan(int total) {
+    	ScanProgress scan = new ScanProgress(total);
+    	progress = scan;
+    	scanning = true;
+    	for (ScanListener listener : listeners) listener.scanStarted(scan);
+    	return scan;
+    }
+    
+    protected void endScan() {
+    	scanning = false;
+    	for (ScanListener listener : listeners) listener.scanFinished(progress);
+    }
+    
+    protected void phase(String phase) {
+    	progressInfo(phase);
+    	//out of a scan there is no progress to inform
+    	if(progress == null) return;
+    	for (ScanListener listener : listeners) listener.phaseChanged(progress, phase);
+    }
+    
+    /**
+     * 
+     * @param tableName
+     * @return start time, 0 when there are no listeners
+     */
+    protected long tableStarted(String tableName) {
+    	if(listeners.isEmpty()) return 0;
+    	for (ScanListener listener : listeners) listener.tableStarted(progress, tableName);
+    	return System.nanoTime();
+    }
+    
+    protected void tableFinished(String tableName, long start) {
+    	progress.tableProcessed();
+    	if(listeners.isEmpty()) return;
+    	long duration = start == 0 ? 0 : System.nanoTime() - start;
+    	for (ScanListener listener : listeners) listener.tableFinished(progress, tableName, duration);
+    }
+    
+    /**
+     * Informs an error, the progress is null when it happens out of a scan
+     * @param tableName
+     * @param ex
+     */
+    protected void error(String tableName, Exception ex) {
+    	progressInfo(ex.getMessage());
+    	for (ScanListener listener : listeners) listener.error(progress, tableName, ex);
+    }
+    
+    protected void checkCancelled() throws DataBaseReaderException {
+    	if(scanning && progress != null && progress.isCancelled()) {
+    		throw new DataBaseReaderException("Scan cancelled after " + progress.getProcessed() + " of " + progress.getTotal() + " tables");
+    	}
+    }
 
 
 	/**
@@ -1054,10 +1615,10 @@ public class DatabaseReader  implements IDatabaseReader{
 
         try {
 
-            DatabaseMetaData databaseMetaData = con.getMetaData();
+            DatabaseMetaData databaseMetaData = metaData(con);
 
             //ResultSet rs = databaseMetaData.getExportedKeys(database.getUser(), null, tableName);
-            ResultSet rs = databaseMetaData.getExportedKeys(null, null, tableName);
+            ResultSet rs = limited("getExportedKeys", () -> databaseMetaData.getExportedKeys(null, null, tableName));
 
 
             result =  processImported_Exported_Keys(FKTABLE_NAME,rs);
@@ -1065,7 +1626,7 @@ public class DatabaseReader  implements IDatabaseReader{
             rs.close(); 
 
          } catch ( Exception ex) {
-        	progressInfo(ex.getMessage());
+        	error(tableName, ex);
             Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
         }
 
@@ -1074,6 +1635,69 @@ public class DatabaseReader  implements IDatabaseReader{
     }
 
 
+	/**
+	 * Sets type, java type and sql type of a column of the probe query. With the
+	 * type registry the driver is asked for the type code, for the type name
+	 * when the driver has more than one name for that code, and for the java
+	 * class once per type
+	 * @param column
+	 * @param resultSetMetaData
+	 * @param i
+	 * @param typeRegistry null asks the driver for everything
+	 * @throws SQLException
+	 */
+	protected void columnType(Column column, ResultSetMetaData resultSetMetaData, int i, TypeRegistry typeRegistry) throws SQLException {
+		
+		int sqlType = resultSetMetaData.getColumnType(i);
+		column.setJavaSqlType(sqlType);
+		if(typeRegistry == null) {
+			column.setType(resultSetMetaData.getColumnTypeName(i));
+			column.setJavaType(resultSetMetaData.getColumnClassName(i));
+			return;
+		}
+		String typeName = typeRegistry.typeName(sqlType);
+		column.setType(typeName != null ? typeName : resultSetMetaData.getColumnTypeName(i));
+		column.setJavaType(typeRegistry.javaType(sqlType, column.getType(), resultSetMetaData, i));
+	}
+	
+	/**
+	 * DatabaseMetaData of the connection, with a MetadataCallEvent for each
+	 * call when recordMetadataCalls is true
+	 * @param customCon
+	 * @return
+	 * @throws SQLException
+	 */
+	protected DatabaseMetaData metaData(Connection customCon) throws SQLException {
+		DatabaseMetaData databaseMetaData = customCon.getMetaData();
+		return recordMetadataCalls ? MetadataCallRecorder.wrap(databaseMetaData) : databaseMetaData;
+	}
+
+	/**
+	 * Connection for the readers that call getMetaData themselves (IndexReader,
+	 * BatchMetadataReader, RoutineReader, ConstraintReader), with the metadata
+	 * of metaData(customCon)
+	 * @param customCon
+	 * @return
+	 */
+	protected Connection recorded(Connection customCon) {
+		return recordMetadataCalls ? MetadataCallRecorder.wrap(customCon) : customCon;
+	}
+
+	/**
+	 * 
+	 * @param customCon
+	 * @return the registry of the driver, null when it is disabled or can not be loaded
+	 */
+	protected TypeRegistry typeRegistry(Connection customCon) {
+		if(!useTypeRegistry) return null;
+		try {
+			return TypeRegistry.of(customCon);
+		} catch (SQLException ex) {
+			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
+			return null;
+		}
+	}
+	
 	public String getLog() {
 		return log;
 	}
@@ -1084,31 +1708,51 @@ public class DatabaseReader  implements IDatabaseReader{
 		return getMetadata(con, null);
 	}
 	
+	@Override
 	public List<Table> getMetadata(Connection con, String table) { 
 		return readBasicTableInfo( con, null, null, table,new String[]{"TABLE"});
 	}
 	
+	@Override
+	public List<Table> readMetadata(Connection con, String table) throws SQLException { 
+		List<Table> tables = new ArrayList<>();
+		readBasicTableInfo(tables, con, null, null, table,new String[]{"TABLE"});
+		return tables;
+	}
+	
 	@Override
 	public List<Column> getTableColumnMetaData(Connection con, String tableName) {
+		
+		try {
+			return readTableColumnMetaData(con, tableName);
+		} catch (SQLException ex) {
+			readFailed(tableName, ex);
+		}
+		return new ArrayList<Column>();
+		
+	}
+	
+	@Override
+	public List<Column> readTableColumnMetaData(Connection con, String tableName) throws SQLException {
 		  
 		List<Column> columns = new ArrayList<Column>();
+		TableReadEvent event = TableReadEvent.start(TableReadEvent.GET_TABLE_COLUMN_METADATA, tableName);
 		try {
 			
 			Statement st = con.createStatement();
-			ResultSet rsTable = st.executeQuery("SELECT * FROM " +   tableName  + " WHERE 1=2");
+			ResultSet rsTable = limited("probe", () -> st.executeQuery("SELECT * FROM " +   tableName  + " WHERE 1=2"));
 			ResultSetMetaData resultSetMetaData = rsTable.getMetaData();
+			TypeRegistry typeRegistry = typeRegistry(con);
 			
-			List<String>  pks = getTablePksContraints(con, tableName);
-			List<ImportedKey> fks = getSimpleTableFksColumInfo(con, tableName);
+			List<String>  pks = readTablePksContraints(con, tableName);
+			List<ImportedKey> fks = readSimpleTableFksColumInfo(con, tableName);
 			ImportedKey importedKey;
 			
 			for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
             	Column column = new Column();
                 column.setName(resultSetMetaData.getColumnName(i)); 
                 column.setAutoIncrement(resultSetMetaData.isAutoIncrement(i)); 
-                column.setType(resultSetMetaData.getColumnTypeName(i)); 
-                column.setJavaSqlType(resultSetMetaData.getColumnType(i)); 
-                column.setJavaType(resultSetMetaData.getColumnClassName(i));
+                columnType(column, resultSetMetaData, i, typeRegistry);
                 column.setNullable(ResultSetMetaData.columnNullable ==  resultSetMetaData.isNullable(i));
                 column.setPrecision(resultSetMetaData.getPrecision(i));
                 column.setScale(resultSetMetaData.getScale(i));
@@ -1120,39 +1764,252 @@ public class DatabaseReader  implements IDatabaseReader{
                 columns.add(column);
             }
 		
-		} catch (SQLException ex) {
-			progressInfo(ex.getMessage());
-			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
+		} finally {
+			event.finish(columns.size());
 		}
+		return columns;
+		
+	}
+	
+	/**
+	 * Columns of many tables with chunked catalog queries, the pk and fk
+	 * information is read once for the whole batch
+	 */
+	@Override
+	public Map<String, List<Column>> getTableColumnMetaData(Connection con, Collection<String> tableNames) {
 		
+		try {
+			return readTableColumnMetaData(con, tableNames);
+		} catch (SQLException ex) {
+			readFailed(null, ex);
+		}
+		Map<String, List<Column>> columns = new LinkedHashMap<>();
+		for (String tableName : tableNames) {
+			columns.put(tableName, new ArrayList<>());
+		}
 		return columns;
+	}
+	
+	@Override
+	public Map<String, List<Column>> readTableColumnMetaData(Connection con, Collection<String> tableNames) throws SQLException {
 		
+		BatchMetadataReader batchMetadataReader = new BatchMetadataReader();
+		batchMetadataReader.setLimiter(limiter);
+		Map<String, List<Column>> columns = new LinkedHashMap<>(batchMetadataReader.readColumnMetaData(recorded(con), con.getCatalog(), null, tableNames));
+		for (String tableName : tableNames) {
+			columns.putIfAbsent(tableName, new ArrayList<>());
+		}
+		return columns;
+	}
+	
+	/**
+	 * Columns of the result of any sql, the statement is prepared but not
+	 * executed and the shape is cached
+	 * @param con
+	 * @param sql
+	 * @return
+	 * @throws DataBaseReaderException
+	 */
+	public List<Column> getQueryColumnMetaData(Connection con, String sql) throws DataBaseReaderException {
+		return queryShapeReader.getQueryColumnMetaData(con, sql);
 	}
 	
     @Override
 	public List<String> getTablePksContraints(Connection con, String table) { 
 		
-		List<String> list = new ArrayList<>();
 		try {
-			ResultSet rs = con.getMetaData().getPrimaryKeys(null, null, table);
-			while (rs.next()){
-				list.add(rs.getString("COLUMN_NAME"));
-			}
+			return readTablePksContraints(con, table);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
+		return new ArrayList<>();
+	 
+	}
+
+    @Override
+	public List<String> readTablePksContraints(Connection con, String table) throws SQLException { 
+		
+		List<String> list = new ArrayList<>();
+		ResultSet rs = limited("getPrimaryKeys", () -> metaData(con).getPrimaryKeys(null, null, table));
+		while (rs.next()){
+			list.add(rs.getString("COLUMN_NAME"));
+		}
 		return list;
 	 
 	}
 
+	@Override
+	public void readFailed(String tableName, SQLException ex) {
+		error(tableName, ex);
+		Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, ex);
+	}
+
+	public ScanCheckpoint getCheckpoint() {
+		return checkpoint;
+	}
+
+	/**
+	 * Enables the checkpoint mode of tablesProcess, null disables it
+	 * @param checkpoint
+	 */
+	public void setCheckpoint(ScanCheckpoint checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * Limiter for the metadata calls and probe queries, it can be shared by
+	 * readers working in parallel over the same database. The index, routine
+	 * and constraint readers that had the previous limiter (or none) get it
+	 * too. null disables it
+	 * @param limiter
+	 */
+	public void setLimiter(AdaptiveLimiter limiter) {
+		AdaptiveLimiter previous = this.limiter;
+		this.limiter = limiter;
+		if(indexReader != null && indexReader.getLimiter() == previous) indexReader.setLimiter(limiter);
+		if(routineReader != null && routineReader.getLimiter() == previous) routineReader.setLimiter(limiter);
+		if(constraintReader != null && constraintReader.getLimiter() == previous) constraintReader.setLimiter(limiter);
+	}
+	
+	/**
+	 * Executes one round trip through the limiter, when there is one
+	 * @param call
+	 * @return
+	 * @throws SQLException
+	 */
+	protected <T> T limited(SqlCall<T> call) throws SQLException {
+		return limited(AdaptiveLimiter.DEFAULT_KIND, call);
+	}
+
+	/**
+	 * Executes one round trip through the limiter, the latency is compared
+	 * with the baseline of its kind
+	 * @param kind
+	 * @param call
+	 * @return
+	 * @throws SQLException
+	 */
+	protected <T> T limited(String kind, SqlCall<T> call) throws SQLException {
+		return AdaptiveLimiter.execute(limiter, kind, call);
+	}
+
+	public IndexReader getIndexReader() {
+		return indexReader;
+	}
+
+	public void setIndexReader(IndexReader indexReader) {
+		if(indexReader != null && indexReader.getLimiter() == null) indexReader.setLimiter(limiter);
+		this.indexReader = indexReader;
+	}
+
+	public boolean isBatchSelectedTables() {
+		return batchSelectedTables;
+	}
+
+	/**
+	 * false reads the selected tables of processDatabase one by one, as the
+	 * complete schema is read
+	 * @param batchSelectedTables
+	 */
+	public void setBatchSelectedTables(boolean batchSelectedTables) {
+		this.batchSelectedTables = batchSelectedTables;
+	}
+
+	public RoutineReader getRoutineReader() {
+		return routineReader;
+	}
+
+	/**
+	 * With a routineReader processDatabase also reads the routines, sequences
+	 * and synonyms of the schema, null (default) reads only the tables
+	 * @param routineReader
+	 */
+	public void setRoutineReader(RoutineReader routineReader) {
+		if(routineReader != null && routineReader.getLimiter() == null) routineReader.setLimiter(limiter);
+		this.routineReader = routineReader;
+	}
+
+	public int getExportChunkSize() {
+		return exportChunkSize;
+	}
+
+	/**
+	 * Tables read at once by exportDatabase, the most tables in memory
+	 * @param exportChunkSize
+	 */
+	public void setExportChunkSize(int exportChunkSize) {
+		if(exportChunkSize <= 0) throw new IllegalArgumentException("exportChunkSize must be greater than 0");
+		this.exportChunkSize = exportChunkSize;
+	}
+
+	public boolean isRecordMetadataCalls() {
+		return recordMetadataCalls;
+	}
+
+	/**
+	 * false does not wrap DatabaseMetaData, no MetadataCallEvent is emitted.
+	 * The TableReadEvents do not depend on it.
+	 * @param recordMetadataCalls
+	 */
+	public void setRecordMetadataCalls(boolean recordMetadataCalls) {
+		this.recordMetadataCalls = recordMetadataCalls;
+	}
+
+	public ConstraintReader getConstraintReader() {
+		return constraintReader;
+	}
+
+	/**
+	 * With a constraintReader processDatabase also reads the unique and check
+	 * constraints, see DataBase.getConstraints(String). null (default) does not
+	 * read them.
+	 * @param constraintReader
+	 */
+	public void setConstraintReader(ConstraintReader constraintReader) {
+		if(constraintReader != null && constraintReader.getLimiter() == null) constraintReader.setLimiter(limiter);
+		this.constraintReader = constraintReader;
+	}
+
+	public boolean isUseTypeRegistry() {
+		return useTypeRegistry;
+	}
+
+	/**
+	 * false takes the type name and java class of every column from the driver
+	 * @param useTypeRegistry
+	 */
+	public void setUseTypeRegistry(boolean useTypeRegistry) {
+		this.useTypeRegistry = useTypeRegistry;
+	}
+
+	public QueryShapeReader getQueryShapeReader() {
+		return queryShapeReader;
+	}
+
+	public void setQueryShapeReader(QueryShapeReader queryShapeReader) {
+		this.queryShapeReader = queryShapeReader;
+	}
+
 	public void close() throws SQLException {
 		if(con != null) con.close();
 	}
 
+	private void closeQuietly() {
+		try {
+			close();
+		} catch (SQLException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.FINE, null, e);
+		}
+	}
+
 	public boolean schemaExists(String schema) throws SQLException {
 		
 		boolean exists = false;
-        try (ResultSet resultSet = con.getMetaData().getCatalogs()) {
+        try (ResultSet resultSet = metaData(con).getCatalogs()) {
             while (resultSet.next()) {
                 // Get the database name, which is at position 1
                 if( schema.equalsIgnoreCase(resultSet.getString(1))){
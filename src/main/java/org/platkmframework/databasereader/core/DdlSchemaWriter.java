@@ -0,0 +1,432 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DatabaseMetaData;
+import java.sql.JDBCType;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Writes CREATE TABLE, CREATE UNIQUE INDEX and ALTER TABLE ... FOREIGN KEY
+ * statements for the dialect while the tables come. The foreign keys are
+ * written after all the tables, so a key can reference a table that comes
+ * later; until then they wait in a temporary file and not in memory.
+ *
+ * Identifiers are quoted when they are not simple names, are reserved
+ * words or are not in the case the dialect folds unquoted names to (upper
+ * for Oracle and H2, lower for PostgreSQL), so the created names are the
+ * read ones. Views are written as a comment, their definition is not read.
+ * Types are the database type names with the length of the text, binary
+ * and decimal types; serial types and the SQL Server " identity" suffix are
+ * written as their integer type with the identity of the dialect.
+ *
+ * Only tables, primary keys, unique indexes and foreign keys are written.
+ * Routines, sequences, synonyms and check constraints are not: exportDatabase
+ * does not read them and the routine bodies are never read.
+ */
+public class DdlSchemaWriter implements SchemaWriter {
+
+	private static final Pattern SIMPLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+	/** 'text', N'text', X'00', b'1' */
+	private static final Pattern LITERAL = Pattern.compile("(?s)[A-Za-z]{0,2}'.*'");
+	private static final Pattern NUMBER = Pattern.compile("[+-]?(\\d+(\\.\\d*)?|\\.\\d+)([eE][+-]?\\d+)?");
+
+	/** Reserved words of SQL and of the dialects, upper case */
+	private static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+			"ALL", "ALTER", "AND", "ANY", "AS", "ASC", "BETWEEN", "BY", "CASE", "CAST", "CHECK", "COLUMN", "COMMENT",
+			"CONSTRAINT", "CREATE", "CROSS", "CURRENT", "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP",
+			"CURRENT_USER", "DATE", "DEFAULT", "DELETE", "DESC", "DISTINCT", "DROP", "ELSE", "END", "EXCEPT",
+			"EXISTS", "FALSE", "FETCH", "FILE", "FOR", "FOREIGN", "FROM", "FULL", "GRANT", "GROUP", "HAVING",
+			"IDENTITY", "IN", "INDEX", "INNER", "INSERT", "INTERSECT", "INTERVAL", "INTO", "IS", "JOIN", "KEY",
+			"LEFT", "LEVEL", "LIKE", "LIMIT", "MINUS", "MODE", "NATURAL", "NOT", "NULL", "NUMBER", "OFFSET", "ON",
+			"OPTION", "OR", "ORDER", "OUTER", "PRIMARY", "RANGE", "REFERENCES", "RIGHT", "ROW", "ROWNUM", "ROWS",
+			"SELECT", "SESSION", "SET", "SIZE", "SOME", "TABLE", "THEN", "TIME", "TIMESTAMP", "TO", "TRUE",
+			"UID", "UNION", "UNIQUE", "UPDATE", "USER", "USING", "VALUE", "VALUES", "VIEW", "WHEN", "WHERE", "WITH"));
+
+	/** Default values that are expressions without parentheses, upper case */
+	private static final Set<String> DEFAULT_KEYWORDS = new HashSet<>(Arrays.asList(
+			"NULL", "TRUE", "FALSE", "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP", "LOCALTIME",
+			"LOCALTIMESTAMP", "CURRENT_USER", "SYSDATE", "SYSTIMESTAMP", "USER"));
+
+	private final Writer out;
+	private final DatabaseDialect dialect;
+	private boolean includeIndexes = true;
+	private boolean includeComments = true;
+
+	private Path foreignKeysFile;
+	private Writer foreignKeys;
+
+	public DdlSchemaWriter(OutputStream out, DatabaseDialect dialect) {
+		this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024), dialect);
+	}
+
+	public DdlSchemaWriter(Writer out, DatabaseDialect dialect) {
+		this.out = out;
+		this.dialect = dialect;
+	}
+
+	@Override
+	public void begin(String databaseName) throws IOException {
+		out.write("-- " + (databaseName == null ? "" : databaseName) + " (" + dialect + ")\n\n");
+	}
+
+	@Override
+	public void writeTable(Table table) throws IOException {
+
+		if(table.getType() != null && table.getType().toUpperCase().contains("VIEW")) {
+			out.write("-- view " + table.getName() + "\n\n");
+			return;
+		}
+
+		String tableName = quote(table.getName());
+		out.write("CREATE TABLE ");
+		out.write(tableName);
+		out.write(" (");
+		boolean first = true;
+		for (Column column : table.getColumn()) {
+			out.write(first ? "\n\t" : ",\n\t");
+			first = false;
+			column(column);
+		}
+
+		PkContraint pk = table.getPkContraint();
+		if(pk != null && !pk.getListField().isEmpty()) {
+			out.write(first ? "\n\t" : ",\n\t");
+			if(pk.getName() != null && !pk.getName().trim().isEmpty()) {
+				out.write("CONSTRAINT ");
+				out.write(quote(pk.getName()));
+				out.write(' ');
+			}
+			out.write("PRIMARY KEY (");
+			out.write(joinNames(pk.getListField()));
+			out.write(')');
+		}
+		out.write("\n)");
+		if(includeComments && dialect == DatabaseDialect.MYSQL && table.getComment() != null) {
+			out.write(" COMMENT=" + literal(table.getComment()));
+		}
+		out.write(";\n");
+
+		if(includeComments) comments(table, tableName);
+		if(includeIndexes) indexes(table, tableName, pk);
+		out.write('\n');
+
+		for (FkContraint fk : table.getFkContraint()) foreignKey(tableName, fk);
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if(foreignKeys != null) {
+			foreignKeys.close();
+			try (BufferedReader in = Files.newBufferedReader(foreignKeysFile, StandardCharsets.UTF_8)) {
+				char[] buffer = new char[8192];
+				int read;
+				while((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+			} finally {
+				Files.deleteIfExists(foreignKeysFile);
+				foreignKeys = null;
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Closes and deletes the temporary file of the foreign keys
+	 */
+	@Override
+	public void abort() {
+		if(foreignKeysFile == null) return;
+		try {
+			if(foreignKeys != null) foreignKeys.close();
+		} catch (IOException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.FINE, null, e);
+		}
+		try {
+			Files.deleteIfExists(foreignKeysFile);
+		} catch (IOException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.WARNING, null, e);
+		}
+		foreignKeys = null;
+		foreignKeysFile = null;
+	}
+
+	private void column(Column column) throws IOException {
+
+		out.write(quote(column.getName()));
+		out.write(' ');
+		out.write(type(column));
+		if(column.isAutoIncrement()) {
+			out.write(identity());
+		}else if(column.getDefaultValue() != null && !column.getDefaultValue().trim().isEmpty()) {
+			out.write(" DEFAULT ");
+			out.write(defaultValue(column.getDefaultValue().trim()));
+		}
+		if(!column.isNullable()) out.write(" NOT NULL");
+		if(includeComments && dialect == DatabaseDialect.MYSQL && column.getComment() != null) {
+			out.write(" COMMENT " + literal(column.getComment()));
+		}
+	}
+
+	/**
+	 * Type name of the column with its length or precision and scale
+	 * @param column
+	 * @return
+	 */
+	protected String type(Column column) {
+
+		String name = column.getType();
+		if(name == null || name.trim().isEmpty()) {
+			try {
+				name = JDBCType.valueOf(column.getJavaSqlType()).getName();
+			} catch (IllegalArgumentException e) {
+				name = "VARCHAR";
+			}
+		}
+		name = baseType(name.trim());
+		if(name.indexOf('(') >= 0 || column.getPrecision() <= 0) return name;
+
+		switch (column.getJavaSqlType()) {
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.BINARY:
+		case Types.VARBINARY:
+			//unbounded text (PostgreSQL text, SQL Server max) reports the max int
+			if(column.getPrecision() >= Integer.MAX_VALUE / 2) return dialect == DatabaseDialect.SQLSERVER ? name + "(max)" : name;
+			return name + "(" + column.getPrecision() + ")";
+		case Types.DECIMAL:
+		case Types.NUMERIC:
+			return column.getScale() > 0 ? name + "(" + column.getPrecision() + ", " + column.getScale() + ")" :
+										   name + "(" + column.getPrecision() + ")";
+		default:
+			return name;
+		}
+	}
+
+	/**
+	 * Integer type of the auto increment types, the column gets the identity
+	 * of the dialect: PostgreSQL serial, SQL Server "int identity"
+	 * @param name
+	 * @return
+	 */
+	private static String baseType(String name) {
+		String lower = name.toLowerCase(Locale.ROOT);
+		if(lower.endsWith(" identity")) return name.substring(0, name.length() - " identity".length()).trim();
+		switch (lower) {
+		case "smallserial":
+		case "serial2":
+			return "smallint";
+		case "serial":
+		case "serial4":
+			return "integer";
+		case "bigserial":
+		case "serial8":
+			return "bigint";
+		default:
+			return name;
+		}
+	}
+
+	/**
+	 * The default as it was read when it is an expression, a number, a
+	 * literal or a keyword; otherwise a text literal. MySQL gives the text
+	 * defaults without quotes.
+	 * @param value
+	 * @return
+	 */
+	protected String defaultValue(String value) {
+		if(value.indexOf('(') >= 0 || value.contains("::") || LITERAL.matcher(value).matches() ||
+				NUMBER.matcher(value).matches() || DEFAULT_KEYWORDS.contains(value.toUpperCase(Locale.ROOT))) return value;
+		return literal(value);
+	}
+
+	private String identity() {
+		switch (dialect) {
+		case MYSQL:     return " AUTO_INCREMENT";
+		case SQLSERVER: return " IDENTITY(1,1)";
+		default:        return " GENERATED BY DEFAULT AS IDENTITY";
+		}
+	}
+
+	private void comments(Table table, String tableName) throws IOException {
+
+		if(dialect != DatabaseDialect.POSTGRESQL && dialect != DatabaseDialect.ORACLE && dialect != DatabaseDialect.H2) return;
+		if(table.getComment() != null) {
+			out.write("COMMENT ON TABLE " + tableName + " IS " + literal(table.getComment()) + ";\n");
+		}
+		for (Column column : table.getColumn()) {
+			if(column.getComment() == null) continue;
+			out.write("COMMENT ON COLUMN " + tableName + "." + quote(column.getName()) + " IS " + literal(column.getComment()) + ";\n");
+		}
+	}
+
+	/**
+	 * Unique indexes, except the one of the primary key
+	 */
+	private void indexes(Table table, String tableName, PkContraint pk) throws IOException {
+		for (IndexContraint index : table.getIndexContraint()) {
+			if(index.getName() == null || index.getColumns().isEmpty()) continue;
+			if(pk != null && index.getColumns().equals(pk.getListField())) continue;
+			out.write("CREATE UNIQUE INDEX " + quote(index.getName()) + " ON " + tableName + " (" + joinNames(index.getColumns()) + ");\n");
+		}
+	}
+
+	private void foreignKey(String tableName, FkContraint fk) throws IOException {
+
+		List<ImportedKey> keys = new ArrayList<>(fk.getImportedKey());
+		if(keys.isEmpty()) return;
+		keys.sort(Comparator.comparingInt(DdlSchemaWriter::keySeq));
+
+		if(foreignKeys == null) {
+			foreignKeysFile = Files.createTempFile("platkm-fk", ".sql");
+			foreignKeys = Files.newBufferedWriter(foreignKeysFile, StandardCharsets.UTF_8);
+		}
+
+		List<String> columns = new ArrayList<>();
+		List<String> pkColumns = new ArrayList<>();
+		for (ImportedKey key : keys) {
+			columns.add(key.getFkColumnName());
+			pkColumns.add(key.getPkColumnName());
+		}
+		String pkTable = fk.getPkTableName() != null ? fk.getPkTableName() : keys.get(0).getPkTableName();
+
+		StringBuilder sql = new StringBuilder("ALTER TABLE ").append(tableName).append(" ADD ");
+		if(fk.getFkName() != null && !fk.getFkName().trim().isEmpty()) sql.append("CONSTRAINT ").append(quote(fk.getFkName())).append(' ');
+		sql.append("FOREIGN KEY (").append(joinNames(columns)).append(") REFERENCES ").append(quote(pkTable))
+		   .append(" (").append(joinNames(pkColumns)).append(')');
+		String delete = rule(keys.get(0).getDeleteRule());
+		if(delete != null) sql.append(" ON DELETE ").append(delete);
+		String update = rule(keys.get(0).getUpdateRule());
+		if(update != null && dialect != DatabaseDialect.ORACLE) sql.append(" ON UPDATE ").append(update);
+		foreignKeys.write(sql.append(";\n").toString());
+	}
+
+	/**
+	 * Referential action of a DatabaseMetaData code or name, null for the
+	 * default (no action, restrict)
+	 */
+	private static String rule(String rule) {
+		String code = CatalogQueries.ruleCode(rule);
+		if(code == null) return null;
+		if(code.equals(String.valueOf(DatabaseMetaData.importedKeyCascade))) return "CASCADE";
+		if(code.equals(String.valueOf(DatabaseMetaData.importedKeySetNull))) return "SET NULL";
+		if(code.equals(String.valueOf(DatabaseMetaData.importedKeySetDefault))) return "SET DEFAULT";
+		return null;
+	}
+
+	private static int keySeq(ImportedKey key) {
+		try {
+			return key.getKeySeq() == null ? 0 : Integer.parseInt(key.getKeySeq().trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private String joinNames(List<String> names) {
+		StringBuilder joined = new StringBuilder();
+		for (String name : names) {
+			if(joined.length() > 0) joined.append(", ");
+			joined.append(quote(name));
+		}
+		return joined.toString();
+	}
+
+	/**
+	 * The name as it is when it is simple, not reserved and in the case the
+	 * dialect folds to, otherwise quoted for the dialect
+	 * @param name
+	 * @return
+	 */
+	protected String quote(String name) {
+		if(name == null || SIMPLE_NAME.matcher(name).matches() && !RESERVED.contains(name.toUpperCase(Locale.ROOT)) &&
+				!caseSensitive(name)) return name;
+		switch (dialect) {
+		case MYSQL:     return "`" + name.replace("`", "``") + "`";
+		case SQLSERVER: return "[" + name.replace("]", "]]") + "]";
+		default:        return "\"" + name.replace("\"", "\"\"") + "\"";
+		}
+	}
+
+	/**
+	 * The unquoted name would be folded to another case by the dialect
+	 */
+	private boolean caseSensitive(String name) {
+		switch (dialect) {
+		case ORACLE:
+		case H2:
+			return !name.equals(name.toUpperCase(Locale.ROOT));
+		case POSTGRESQL:
+			return !name.equals(name.toLowerCase(Locale.ROOT));
+		default:
+			return false;
+		}
+	}
+
+	private static String literal(String value) {
+		return "'" + value.replace("'", "''") + "'";
+	}
+
+	public boolean isIncludeIndexes() {
+		return includeIndexes;
+	}
+
+	public void setIncludeIndexes(boolean includeIndexes) {
+		this.includeIndexes = includeIndexes;
+	}
+
+	public boolean isIncludeComments() {
+		return includeComments;
+	}
+
+	public void setIncludeComments(boolean includeComments) {
+		this.includeComments = includeComments;
+	}
+}
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Reads only the tables reachable over foreign keys from some root tables.
+ * The walk is breadth first: the keys of every level are read in batches
+ * (BatchMetadataReader), the chunks of a level in parallel, and the tables
+ * not seen before are the next level. It stops when a level finds no new
+ * table or at the max depth. The columns and primary keys of the closure
+ * are read the same way at the end.
+ *
+ * Indexes are not read, processDatabase with getClosure as the selected
+ * tables gives the complete tables.
+ *
+ * With a limiter the parallel batches share it, and with it the concurrency
+ * of the other readers that use the same limiter.
+ */
+public class DependencyClosureReader {
+
+	private final ConnectionSource connectionSource;
+	private int parallelism = 4;
+	private int chunkSize = 100;
+	private boolean followExportedKeys;
+	private AdaptiveLimiter limiter;
+
+	/**
+	 *
+	 * @param connectionSource every parallel batch takes its own connection
+	 */
+	public DependencyClosureReader(ConnectionSource connectionSource) {
+		this.connectionSource = connectionSource;
+	}
+
+	/**
+	 * Tables of the closure
+	 * @param catalog
+	 * @param schema
+	 * @param roots
+	 * @param maxDepth foreign key hops from the roots, less than 0 has no limit
+	 * @return table names ordered by depth, the roots first
+	 * @throws DataBaseReaderException
+	 */
+	public List<String> getClosure(String catalog, String schema, Collection<String> roots, int maxDepth) throws DataBaseReaderException {
+		return new ArrayList<>(walk(catalog, schema, roots, maxDepth, new TreeMap<>(String.CASE_INSENSITIVE_ORDER)).keySet());
+	}
+
+	/**
+	 * Tables of the closure with columns, primary key and foreign keys
+	 * @param catalog
+	 * @param schema
+	 * @param roots
+	 * @param maxDepth foreign key hops from the roots, less than 0 has no limit
+	 * @return
+	 * @throws DataBaseReaderException
+	 */
+	public DataBase readClosure(String catalog, String schema, Collection<String> roots, int maxDepth) throws DataBaseReaderException {
+
+		Map<String, List<FkContraint>> importedKeys = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		Map<String, Integer> closure = walk(catalog, schema, roots, maxDepth, importedKeys);
+		List<String> tableNames = new ArrayList<>(closure.keySet());
+
+		List<String> missingKeys = new ArrayList<>();
+		for (String tableName : tableNames) {
+			if(!importedKeys.containsKey(tableName)) missingKeys.add(tableName);
+		}
+
+		Map<String, List<Column>> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		Map<String, PkContraint> pks = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		try (Batches batches = new Batches()) {
+			columns.putAll(batches.run(tableNames, (reader, con, chunk) -> reader.readColumns(con, catalog, schema, chunk)));
+			pks.putAll(batches.run(tableNames, (reader, con, chunk) -> reader.readPrimaryKeys(con, catalog, schema, chunk)));
+			importedKeys.putAll(batches.run(missingKeys, (reader, con, chunk) -> reader.readImportedKeys(con, catalog, schema, chunk)));
+		}
+
+		List<Table> tables = new ArrayList<>();
+		for (String tableName : tableNames) {
+			Table table = new Table();
+			table.setName(tableName);
+			table.setType("TABLE");
+			PkContraint pk = pks.get(tableName);
+			table.setPkContraint(pk);
+			List<FkContraint> fks = importedKeys.getOrDefault(tableName, new ArrayList<>());
+			table.getFkContraint().addAll(fks);
+
+			Map<String, String> fkColumns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for (FkContraint fk : fks) {
+				fk.getImportedKey().forEach((k) -> fkColumns.putIfAbsent(k.getFkColumnName(), k.getPkTableName()));
+			}
+			for (Column column : columns.getOrDefault(tableName, new ArrayList<>())) {
+				column.setPk(pk != null && pk.getListField().contains(column.getName()));
+				column.setUnique(column.isPk());
+				column.setFk(fkColumns.containsKey(column.getName()));
+				if(column.isFk()) column.setFktablename(fkColumns.get(column.getName()));
+				table.getColumn().add(column);
+			}
+			tables.add(table);
+		}
+
+		DataBase dataBase = new DataBase(catalog);
+		dataBase.setTables(tables);
+		return dataBase;
+	}
+
+	/**
+	 *
+	 * @param importedKeys receives the imported keys read by the walk
+	 * @return table name, depth; in walk order
+	 */
+	private Map<String, Integer> walk(String catalog, String schema, Collection<String> roots, int maxDepth,
+									  Map<String, List<FkContraint>> importedKeys) throws DataBaseReaderException {
+
+		Set<String> visited = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		Map<String, Integer> closure = new LinkedHashMap<>();
+		List<String> frontier = new ArrayList<>();
+		for (String root : roots) {
+			if(visited.add(root)) {
+				frontier.add(root);
+				closure.put(root, 0);
+			}
+		}
+
+		try (Batches batches = new Batches()) {
+			for (int depth = 0; !frontier.isEmpty() && (maxDepth < 0 || depth < maxDepth); depth++) {
+
+				Map<String, List<FkContraint>> imported = batches.run(frontier, (reader, con, chunk) -> reader.readImportedKeys(con, catalog, schema, chunk));
+				importedKeys.putAll(imported);
+				for (String tableName : frontier) importedKeys.putIfAbsent(tableName, new ArrayList<>());
+
+				List<String> next = new ArrayList<>();
+				for (List<FkContraint> fks : imported.values()) {
+					for (FkContraint fk : fks) {
+						if(fk.getPkTableName() != null && visited.add(fk.getPkTableName())) next.add(fk.getPkTableName());
+					}
+				}
+				if(followExportedKeys) {
+					Map<String, List<FkContraint>> exported = batches.run(frontier, (reader, con, chunk) -> reader.readExportedKeys(con, catalog, schema, chunk));
+					for (List<FkContraint> fks : exported.values()) {
+						for (FkContraint fk : fks) {
+							if(fk.getFkTableName() != null && visited.add(fk.getFkTableName())) next.add(fk.getFkTableName());
+						}
+					}
+				}
+
+				for (String tableName : next) closure.put(tableName, depth + 1);
+				frontier = next;
+			}
+		}
+		return closure;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		if(parallelism <= 0) throw new IllegalArgumentException("parallelism must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Tables per parallel batch
+	 * @param chunkSize
+	 */
+	public void setChunkSize(int chunkSize) {
+		if(chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be greater than 0");
+		this.chunkSize = chunkSize;
+	}
+
+	public boolean isFollowExportedKeys() {
+		return followExportedKeys;
+	}
+
+	/**
+	 * true also follows the tables that reference a table of the closure
+	 * @param followExportedKeys
+	 */
+	public void setFollowExportedKeys(boolean followExportedKeys) {
+		this.followExportedKeys = followExportedKeys;
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * Limiter of the batch queries, null (default) does not limit them
+	 * @param limiter
+	 */
+	public void setLimiter(AdaptiveLimiter limiter) {
+		this.limiter = limiter;
+	}
+
+	private interface BatchCall<V> {
+		Map<String, V> read(BatchMetadataReader reader, Connection con, List<String> chunk) throws SQLException;
+	}
+
+	/**
+	 * Pool of threads and connections of one read
+	 */
+	private final class Batches implements AutoCloseable {
+
+		private final ExecutorService executorService = Executors.newFixedThreadPool(parallelism, (r) -> {
+			Thread thread = new Thread(r, "dependency-closure-reader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		private final BlockingQueue<Connection> connections = new LinkedBlockingQueue<>();
+
+		<V> Map<String, V> run(List<String> tableNames, BatchCall<V> batchCall) throws DataBaseReaderException {
+
+			List<Future<Map<String, V>>> futures = new ArrayList<>();
+			for (int i = 0; i < tableNames.size(); i += chunkSize) {
+				List<String> chunk = new ArrayList<>(tableNames.subList(i, Math.min(i + chunkSize, tableNames.size())));
+				futures.add(executorService.submit(() -> {
+					Connection con = connections.poll();
+					if(con == null) con = connectionSource.getConnection();
+					try {
+						BatchMetadataReader reader = new BatchMetadataReader(chunkSize);
+						reader.setLimiter(limiter);
+						return batchCall.read(reader, con, chunk);
+					} finally {
+						connections.add(con);
+					}
+				}));
+			}
+
+			Map<String, V> result = new LinkedHashMap<>();
+			try {
+				for (Future<Map<String, V>> future : futures) {
+					result.putAll(future.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DataBaseReaderException("Closure read interrupted");
+			} catch (ExecutionException e) {
+				Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e.getCause());
+				throw new DataBaseReaderException(String.valueOf(e.getCause().getMessage()));
+			}
+			return result;
+		}
+
+		@Override
+		public void close() {
+			executorService.shutdownNow();
+			try {
+				executorService.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			Connection con;
+			while((con = connections.poll()) != null) {
+				try {
+					con.close();
+				} catch (SQLException e) {
+					Logger.getLogger(this.getClass().getName()).log(Level.FINE, null, e);
+				}
+			}
+		}
+	}
+}
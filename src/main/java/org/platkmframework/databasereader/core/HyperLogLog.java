@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * HyperLogLog distinct count estimate. The memory is 2^precision bytes
+ * whatever the number of values; the standard error is about
+ * 1.04 / sqrt(2^precision), 0.8% with the default precision 14.
+ */
+public class HyperLogLog {
+
+	public static final int DEFAULT_PRECISION = 14;
+
+	private final int precision;
+	private final byte[] registers;
+
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	public HyperLogLog(int precision) {
+		if(precision < 4 || precision > 18) throw new IllegalArgumentException("precision must be between 4 and 18");
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	public void add(Object value) {
+		if(value == null) return;
+		addHash(hash(value instanceof byte[] ? (byte[]) value : String.valueOf(value).getBytes(StandardCharsets.UTF_8)));
+	}
+
+	public void addHash(long hash) {
+		int index = (int) (hash >>> (64 - precision));
+		long rest = (hash << precision) | (1L << (precision - 1));
+		int rank = Long.numberOfLeadingZeros(rest) + 1;
+		if(rank > registers[index]) registers[index] = (byte) rank;
+	}
+
+	/**
+	 * Adds the values of other, both must have the same precision
+	 * @param other
+	 */
+	public void merge(HyperLogLog other) {
+		if(other.precision != precision) throw new IllegalArgumentException("Different precision");
+		for (int i = 0; i < registers.length; i++) {
+			if(other.registers[i] > registers[i]) registers[i] = other.registers[i];
+		}
+	}
+
+	public long estimate() {
+
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if(register == 0) zeros++;
+		}
+		double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+		double estimate = alpha * m * m / sum;
+		//small range correction, linear counting
+		if(estimate <= 2.5 * m && zeros > 0) estimate = m * Math.log((double) m / zeros);
+		return Math.round(estimate);
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * 64 bit FNV-1a with the murmur3 finalizer
+	 * @param bytes
+	 * @return
+	 */
+	static long hash(byte[] bytes) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : bytes) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
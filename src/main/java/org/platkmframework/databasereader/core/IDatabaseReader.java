@@ -19,7 +19,11 @@
 package org.platkmframework.databasereader.core;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.platkmframework.databasereader.model.Column;
 import org.platkmframework.databasereader.model.Table;
@@ -28,8 +32,40 @@ public interface IDatabaseReader {
 	
 	List<Table> getMetadata(Connection con);
 	
+	/**
+	 * Tables whose name is table, every table when it is null. The default
+	 * filters getMetadata(con), implementations should read only the table.
+	 * @param con
+	 * @param table
+	 * @return
+	 */
+	default List<Table> getMetadata(Connection con, String table) {
+		List<Table> tables = getMetadata(con);
+		if(table == null) return tables;
+		List<Table> result = new ArrayList<>();
+		for (Table t : tables) {
+			if(table.equalsIgnoreCase(t.getName())) result.add(t);
+		}
+		return result;
+	}
+	
 	public List<String> getTablePksContraints(Connection con, String table);
 
 	List<Column> getTableColumnMetaData(Connection con, String tablename);
+	
+	/**
+	 * Columns of several tables. The default reads them one by one,
+	 * implementations should read all of them in a few round trips.
+	 * @param con
+	 * @param tableNames
+	 * @return table name as it was given, columns; every table is in the map
+	 */
+	default Map<String, List<Column>> getTableColumnMetaData(Connection con, Collection<String> tableNames) {
+		Map<String, List<Column>> columns = new LinkedHashMap<>();
+		for (String tableName : tableNames) {
+			columns.put(tableName, getTableColumnMetaData(con, tableName));
+		}
+		return columns;
+	}
 
 }
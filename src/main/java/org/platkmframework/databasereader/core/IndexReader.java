@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.IndexInfo;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Reads the indexes of the tables. getIndexInfo is called with approximate=true
+ * by default, with false some drivers (Oracle) analyze the table to compute
+ * exact statistics. Non unique indexes are optional.
+ *
+ * For H2, PostgreSQL, MySQL, Oracle and SQL Server readSchemaIndexes uses one
+ * catalog query for the whole schema, the other databases use getIndexInfo
+ * per table.
+ */
+public class IndexReader {
+
+	private boolean approximate = true;
+	private boolean includeNonUnique = false;
+	private AdaptiveLimiter limiter;
+
+	public IndexReader() {
+	}
+
+	public IndexReader(boolean includeNonUnique) {
+		this.includeNonUnique = includeNonUnique;
+	}
+
+	/**
+	 * Indexes of one table through getIndexInfo
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param tableName
+	 * @return
+	 * @throws SQLException
+	 */
+	public List<IndexInfo> readIndexes(Connection con, String catalog, String schema, String tableName) throws SQLException {
+
+		Map<String, IndexBuilder> indexes = new LinkedHashMap<>();
+		DatabaseMetaData databaseMetaData = con.getMetaData();
+		try (ResultSet rs = AdaptiveLimiter.execute(limiter, "getIndexInfo", () -> databaseMetaData.getIndexInfo(catalog, schema, tableName, !includeNonUnique, approximate))) {
+			while(rs.next()) {
+				//statistics rows have no index
+				if(rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) continue;
+				addRow(indexes, rs.getString("TABLE_NAME"), rs.getString("INDEX_NAME"), !rs.getBoolean("NON_UNIQUE"),
+						rs.getString("TYPE"), rs.getString(DatabaseReader.COLUMN_NAME), rs.getInt("ORDINAL_POSITION"),
+						!"D".equalsIgnoreCase(rs.getString("ASC_OR_DESC")));
+			}
+		}
+		List<IndexInfo> result = new ArrayList<>();
+		for (List<IndexInfo> tableIndexes : build(indexes).values()) {
+			result.addAll(tableIndexes);
+		}
+		return result;
+	}
+
+	/**
+	 * Indexes of every table of the schema, grouped by table name
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @return
+	 * @throws SQLException
+	 */
+	public Map<String, List<IndexInfo>> readSchemaIndexes(Connection con, String catalog, String schema) throws SQLException {
+
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		String sql = schemaIndexQuery(dialect);
+		if(sql == null) return readSchemaIndexesByTable(con, catalog, schema);
+
+		Map<String, IndexBuilder> indexes = new LinkedHashMap<>();
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setString(1, dialect.resolveSchema(con, catalog, schema));
+			try (ResultSet rs = AdaptiveLimiter.execute(limiter, "indexes", ps::executeQuery)) {
+				while(rs.next()) {
+					boolean unique = isTrue(rs.getString(3));
+					if(!unique && !includeNonUnique) continue;
+					addRow(indexes, rs.getString(1), rs.getString(2), unique, String.valueOf(DatabaseMetaData.tableIndexOther), rs.getString(4), rs.getInt(5),
+							!isDescending(rs.getString(6)));
+				}
+			}
+		}
+		return build(indexes);
+	}
+
+	/**
+	 * Indexes of some tables. With a bulk query of the dialect it is one round
+	 * trip per chunk of BatchMetadataReader.DEFAULT_CHUNK_SIZE tables that
+	 * reads only those tables, otherwise one getIndexInfo per table.
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return table name as it was given, indexes; every table is in the map
+	 * @throws SQLException
+	 */
+	public Map<String, List<IndexInfo>> readIndexes(Connection con, String catalog, String schema,
+													Collection<String> tableNames) throws SQLException {
+
+		Map<String, List<IndexInfo>> result = new LinkedHashMap<>();
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		String sql = tableIndexQuery(dialect);
+		if(sql == null) {
+			for (String tableName : tableNames) {
+				result.put(tableName, readIndexes(con, catalog, schema, tableName));
+			}
+			return result;
+		}
+
+		String resolvedSchema = dialect.resolveSchema(con, catalog, schema);
+		Map<String, IndexBuilder> indexes = new LinkedHashMap<>();
+		for (List<String> chunk : BatchMetadataReader.chunks(con, tableNames, BatchMetadataReader.DEFAULT_CHUNK_SIZE)) {
+			try (PreparedStatement ps = con.prepareStatement(CatalogQueries.expand(sql, chunk.size()))) {
+				ps.setString(1, resolvedSchema);
+				for (int i = 0; i < chunk.size(); i++) ps.setString(i + 2, chunk.get(i));
+				try (ResultSet rs = AdaptiveLimiter.execute(limiter, "indexes", ps::executeQuery)) {
+					while(rs.next()) {
+						boolean unique = isTrue(rs.getString(3));
+						if(!unique && !includeNonUnique) continue;
+						addRow(indexes, rs.getString(1), rs.getString(2), unique, String.valueOf(DatabaseMetaData.tableIndexOther), rs.getString(4), rs.getInt(5),
+								!isDescending(rs.getString(6)));
+					}
+				}
+			}
+		}
+
+		Map<String, List<IndexInfo>> tableIndexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		tableIndexes.putAll(build(indexes));
+		for (String tableName : tableNames) {
+			result.put(tableName, tableIndexes.getOrDefault(tableName, new ArrayList<>()));
+		}
+		return result;
+	}
+
+	private Map<String, List<IndexInfo>> readSchemaIndexesByTable(Connection con, String catalog, String schema) throws SQLException {
+
+		List<String> tables = new ArrayList<>();
+		DatabaseMetaData databaseMetaData = con.getMetaData();
+		try (ResultSet rs = AdaptiveLimiter.execute(limiter, "getTables", () -> databaseMetaData.getTables(catalog, schema, "%", new String[]{"TABLE"}))) {
+			while(rs.next()) {
+				tables.add(rs.getString(3));
+			}
+		}
+		Map<String, List<IndexInfo>> result = new LinkedHashMap<>();
+		for (String tableName : tables) {
+			result.put(tableName, readIndexes(con, catalog, schema, tableName));
+		}
+		return result;
+	}
+
+	/**
+	 * Query of the dialect with the columns: table, index, unique, column,
+	 * ordinal position, descending. One parameter, the schema.
+	 * @param dialect
+	 * @return null when the dialect has no bulk query
+	 */
+	protected String schemaIndexQuery(DatabaseDialect dialect) {
+
+		switch (dialect) {
+		case H2:
+			return "SELECT TABLE_NAME, INDEX_NAME, IS_UNIQUE, COLUMN_NAME, ORDINAL_POSITION, ORDERING_SPECIFICATION " +
+				   "FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE TABLE_SCHEMA = ?";
+		case POSTGRESQL:
+			return "SELECT t.relname, i.relname, ix.indisunique, a.attname, k.n, " +
+				   "CASE WHEN (ix.indoption[k.n - 1] & 1) = 1 THEN 'D' ELSE 'A' END " +
+				   "FROM pg_index ix JOIN pg_class t ON t.oid = ix.indrelid JOIN pg_class i ON i.oid = ix.indexrelid " +
+				   "JOIN pg_namespace ns ON ns.oid = t.relnamespace " +
+				   "CROSS JOIN LATERAL unnest(ix.indkey) WITH ORDINALITY AS k(attnum, n) " +
+				   "JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum " +
+				   "WHERE ns.nspname = ?";
+		case MYSQL:
+			return "SELECT TABLE_NAME, INDEX_NAME, CASE WHEN NON_UNIQUE = 0 THEN 1 ELSE 0 END, COLUMN_NAME, SEQ_IN_INDEX, COLLATION " +
+				   "FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = ?";
+		case ORACLE:
+			return "SELECT c.TABLE_NAME, c.INDEX_NAME, CASE WHEN i.UNIQUENESS = 'UNIQUE' THEN 1 ELSE 0 END, c.COLUMN_NAME, c.COLUMN_POSITION, c.DESCEND " +
+				   "FROM ALL_IND_COLUMNS c JOIN ALL_INDEXES i ON i.OWNER = c.INDEX_OWNER AND i.INDEX_NAME = c.INDEX_NAME " +
+				   "WHERE c.TABLE_OWNER = ?";
+		case SQLSERVER:
+			return "SELECT t.name, i.name, i.is_unique, c.name, ic.key_ordinal, ic.is_descending_key " +
+				   "FROM sys.indexes i JOIN sys.tables t ON t.object_id = i.object_id " +
+				   "JOIN sys.schemas s ON s.schema_id = t.schema_id " +
+				   "JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id " +
+				   "JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id " +
+				   "WHERE s.name = ? AND ic.key_ordinal > 0";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * schemaIndexQuery restricted to the tables of CatalogQueries.IN_LIST,
+	 * the parameters are the schema and then the table names
+	 * @param dialect
+	 * @return null when the dialect has no bulk query
+	 */
+	protected String tableIndexQuery(DatabaseDialect dialect) {
+
+		String sql = schemaIndexQuery(dialect);
+		if(sql == null) return null;
+		switch (dialect) {
+		case H2:
+		case MYSQL:
+			return sql + " AND TABLE_NAME IN (" + CatalogQueries.IN_LIST + ")";
+		case POSTGRESQL:
+			return sql + " AND t.relname IN (" + CatalogQueries.IN_LIST + ")";
+		case ORACLE:
+			return sql + " AND c.TABLE_NAME IN (" + CatalogQueries.IN_LIST + ")";
+		case SQLSERVER:
+			return sql + " AND t.name IN (" + CatalogQueries.IN_LIST + ")";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * IndexContraint of the table model. The order type is ASC or DESC, or the
+	 * order of each column separated by comma when they are mixed.
+	 * @param index
+	 * @return
+	 */
+	public static IndexContraint toIndexContraint(IndexInfo index) {
+
+		IndexContraint indexContraint = new IndexContraint();
+		indexContraint.setName(index.getName());
+		indexContraint.setType(index.getType());
+		indexContraint.getColumns().addAll(index.getColumns());
+
+		boolean allAsc = !index.getAscending().contains(Boolean.FALSE);
+		boolean allDesc = !index.getAscending().contains(Boolean.TRUE);
+		if(allAsc) {
+			indexContraint.setOrderType("ASC");
+		}else if(allDesc) {
+			indexContraint.setOrderType("DESC");
+		}else {
+			StringBuilder orderType = new StringBuilder();
+			for (Boolean asc : index.getAscending()) {
+				if(orderType.length() > 0) orderType.append(",");
+				orderType.append(asc ? "ASC" : "DESC");
+			}
+			indexContraint.setOrderType(orderType.toString());
+		}
+		return indexContraint;
+	}
+
+	private void addRow(Map<String, IndexBuilder> indexes, String tableName, String indexName, boolean unique,
+						String type, String columnName, int position, boolean ascending) {
+
+		if(indexName == null || columnName == null) return;
+		String key = tableName + "." + indexName;
+		IndexBuilder builder = indexes.get(key);
+		if(builder == null) {
+			builder = new IndexBuilder();
+			builder.index.setTableName(tableName);
+			builder.index.setName(indexName);
+			builder.index.setUnique(unique);
+			builder.index.setType(type);
+			indexes.put(key, builder);
+		}
+		builder.columns.put(position, new Object[]{columnName, ascending});
+	}
+
+	private Map<String, List<IndexInfo>> build(Map<String, IndexBuilder> indexes) {
+
+		Map<String, List<IndexInfo>> result = new LinkedHashMap<>();
+		for (IndexBuilder builder : indexes.values()) {
+			for (Object[] column : builder.columns.values()) {
+				builder.index.getColumns().add((String) column[0]);
+				builder.index.getAscending().add((Boolean) column[1]);
+			}
+			result.computeIfAbsent(builder.index.getTableName(), (k) -> new ArrayList<>()).add(builder.index);
+		}
+		return result;
+	}
+
+	private static boolean isTrue(String value) {
+		return value != null && ("1".equals(value) || "true".equalsIgnoreCase(value) || "t".equalsIgnoreCase(value) || "yes".equalsIgnoreCase(value));
+	}
+
+	private static boolean isDescending(String value) {
+		return value != null && ("D".equalsIgnoreCase(value) || "DESC".equalsIgnoreCase(value) || isTrue(value));
+	}
+
+	public boolean isApproximate() {
+		return approximate;
+	}
+
+	public void setApproximate(boolean approximate) {
+		this.approximate = approximate;
+	}
+
+	public boolean isIncludeNonUnique() {
+		return includeNonUnique;
+	}
+
+	public void setIncludeNonUnique(boolean includeNonUnique) {
+		this.includeNonUnique = includeNonUnique;
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * Each round trip goes through the limiter, null to call the database directly
+	 * @param limiter
+	 */
+	public void setLimiter(AdaptiveLimiter limiter) {
+		this.limiter = limiter;
+	}
+
+	private static final class IndexBuilder {
+		private final IndexInfo index = new IndexInfo();
+		private final TreeMap<Integer, Object[]> columns = new TreeMap<>();
+	}
+}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Writes the tables as JSON while they come, without building a tree:
+ * {"name": ..., "tables": [{table}, ...]}. Null values are left out. The
+ * only memory used is the buffer of the writer. Routines, sequences,
+ * synonyms and check constraints are not in the output, see SchemaWriter.
+ */
+public class JsonSchemaWriter implements SchemaWriter {
+
+	private final Writer out;
+	private boolean firstTable;
+
+	public JsonSchemaWriter(OutputStream out) {
+		this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024));
+	}
+
+	public JsonSchemaWriter(Writer out) {
+		this.out = out;
+	}
+
+	@Override
+	public void begin(String databaseName) throws IOException {
+		out.write("{\"name\":");
+		string(databaseName);
+		out.write(",\"tables\":[");
+		firstTable = true;
+	}
+
+	@Override
+	public void writeTable(Table table) throws IOException {
+
+		if(!firstTable) out.write(',');
+		firstTable = false;
+
+		out.write("\n{");
+		boolean first = field("name", table.getName(), true);
+		first = field("type", table.getType(), first);
+		first = field("comment", table.getComment(), first);
+
+		PkContraint pk = table.getPkContraint();
+		if(pk != null) {
+			name("primaryKey", first);
+			out.write('{');
+			boolean firstPk = field("name", pk.getName(), true);
+			name("columns", firstPk);
+			strings(pk.getListField());
+			out.write('}');
+			first = false;
+		}
+
+		name("columns", first);
+		out.write('[');
+		for (int i = 0; i < table.getColumn().size(); i++) {
+			if(i > 0) out.write(',');
+			column(table.getColumn().get(i));
+		}
+		out.write(']');
+
+		name("indexes", false);
+		out.write('[');
+		for (int i = 0; i < table.getIndexContraint().size(); i++) {
+			if(i > 0) out.write(',');
+			IndexContraint index = table.getIndexContraint().get(i);
+			out.write('{');
+			boolean firstIndex = field("name", index.getName(), true);
+			firstIndex = field("type", index.getType(), firstIndex);
+			firstIndex = field("order", index.getOrderType(), firstIndex);
+			name("columns", firstIndex);
+			strings(index.getColumns());
+			out.write('}');
+		}
+		out.write(']');
+
+		name("foreignKeys", false);
+		out.write('[');
+		for (int i = 0; i < table.getFkContraint().size(); i++) {
+			if(i > 0) out.write(',');
+			foreignKey(table.getFkContraint().get(i));
+		}
+		out.write("]}");
+	}
+
+	@Override
+	public void finish() throws IOException {
+		out.write("\n]}\n");
+		out.flush();
+	}
+
+	private void column(Column column) throws IOException {
+		out.write('{');
+		field("name", column.getName(), true);
+		name("javaSqlType", column.getName() == null);
+		out.write(Integer.toString(column.getJavaSqlType()));
+		field("type", column.getType(), false);
+		field("javaType", column.getJavaType(), false);
+		number("precision", column.getPrecision());
+		number("scale", column.getScale());
+		bool("nullable", column.isNullable());
+		bool("autoIncrement", column.isAutoIncrement());
+		bool("pk", column.isPk());
+		bool("fk", column.isFk());
+		bool("unique", column.isUnique());
+		field("fkTable", column.getFktablename(), false);
+		field("defaultValue", column.getDefaultValue(), false);
+		field("comment", column.getComment(), false);
+		out.write('}');
+	}
+
+	private void foreignKey(FkContraint fk) throws IOException {
+		out.write('{');
+		boolean first = field("name", fk.getFkName(), true);
+		first = field("pkTable", fk.getPkTableName(), first);
+		name("columns", first);
+		out.write('[');
+		List<ImportedKey> keys = fk.getImportedKey();
+		for (int i = 0; i < keys.size(); i++) {
+			if(i > 0) out.write(',');
+			ImportedKey key = keys.get(i);
+			out.write('{');
+			boolean firstKey = field("column", key.getFkColumnName(), true);
+			firstKey = field("pkTable", key.getPkTableName(), firstKey);
+			firstKey = field("pkColumn", key.getPkColumnName(), firstKey);
+			firstKey = field("keySeq", key.getKeySeq(), firstKey);
+			firstKey = field("updateRule", key.getUpdateRule(), firstKey);
+			field("deleteRule", key.getDeleteRule(), firstKey);
+			out.write('}');
+		}
+		out.write("]}");
+	}
+
+	/**
+	 *
+	 * @return true when nothing was written, the next field is still the first
+	 */
+	private boolean field(String name, String value, boolean first) throws IOException {
+		if(value == null) return first;
+		name(name, first);
+		string(value);
+		return false;
+	}
+
+	private void number(String name, int value) throws IOException {
+		name(name, false);
+		out.write(Integer.toString(value));
+	}
+
+	private void bool(String name, boolean value) throws IOException {
+		name(name, false);
+		out.write(value ? "true" : "false");
+	}
+
+	private void name(String name, boolean first) throws IOException {
+		if(!first) out.write(',');
+		out.write('"');
+		out.write(name);
+		out.write("\":");
+	}
+
+	private void strings(List<String> values) throws IOException {
+		out.write('[');
+		for (int i = 0; i < values.size(); i++) {
+			if(i > 0) out.write(',');
+			string(values.get(i));
+		}
+		out.write(']');
+	}
+
+	private void string(String value) throws IOException {
+		if(value == null) {
+			out.write("null");
+			return;
+		}
+		out.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':  out.write("\\\""); break;
+			case '\\': out.write("\\\\"); break;
+			case '\n': out.write("\\n"); break;
+			case '\r': out.write("\\r"); break;
+			case '\t': out.write("\\t"); break;
+			default:
+				if(c < 0x20) {
+					out.write(String.format("\\u%04x", (int) c));
+				}else {
+					out.write(c);
+				}
+			}
+		}
+		out.write('"');
+	}
+}
@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Size bounded LRU cache with time to live. Concurrent misses over the
+ * same key wait for the first loader instead of loading again. An entry can
+ * have its own time to live, e.g. a shorter one for an empty result.
+ */
+public class MetadataCache<K, V> {
+
+	private final long ttlMillis;
+	private final int maxSize;
+	private final Map<K, Entry<V>> entries;
+
+	private final AtomicLong hits      = new AtomicLong();
+	private final AtomicLong misses    = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 *
+	 * @param ttlMillis time to live, 0 or less never expires
+	 * @param maxSize max entries before evicting the least recently used
+	 */
+	public MetadataCache(long ttlMillis, final int maxSize) {
+		if(maxSize <= 0) throw new IllegalArgumentException("maxSize must be greater than 0");
+		this.ttlMillis = ttlMillis;
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				if(size() > MetadataCache.this.maxSize) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached value or loads it. Only one thread loads a missing key,
+	 * the others wait for its result.
+	 * @param key
+	 * @param loader
+	 * @return
+	 */
+	public V get(K key, Supplier<V> loader) {
+		return get(key, loader, (value) -> true);
+	}
+
+	/**
+	 * Like get(key, loader), but a loaded value that is not cacheable is
+	 * returned to the waiting threads and not kept
+	 * @param key
+	 * @param loader
+	 * @param cacheable
+	 * @return
+	 */
+	public V get(K key, Supplier<V> loader, Predicate<V> cacheable) {
+		return get(key, loader, cacheable, (value) -> ttlMillis);
+	}
+
+	/**
+	 * Like get(key, loader, cacheable), the loaded value is kept for the time
+	 * to live given by ttl, 0 or less never expires
+	 * @param key
+	 * @param loader
+	 * @param cacheable
+	 * @param ttl
+	 * @return
+	 */
+	public V get(K key, Supplier<V> loader, Predicate<V> cacheable, ToLongFunction<V> ttl) {
+
+		Entry<V> entry;
+		boolean owner = false;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if(entry != null && entry.isExpired()) {
+				entries.remove(key);
+				entry = null;
+			}
+			if(entry == null) {
+				entry = new Entry<>();
+				entries.put(key, entry);
+				owner = true;
+			}
+		}
+
+		if(!owner) {
+			hits.incrementAndGet();
+			return entry.await();
+		}
+
+		misses.incrementAndGet();
+		V value;
+		try {
+			value = loader.get();
+		}catch (Throwable e) {
+			synchronized (entries) {
+				entries.remove(key, entry);
+			}
+			entry.fail(e);
+			throw e;
+		}
+		if(!cacheable.test(value)) {
+			synchronized (entries) {
+				entries.remove(key, entry);
+			}
+		}
+		entry.complete(value, ttl.applyAsLong(value));
+		return value;
+	}
+
+	/**
+	 * The loaded value, null when it is missing, expired or still loading
+	 * @param key
+	 * @return
+	 */
+	public V getIfPresent(K key) {
+		synchronized (entries) {
+			Entry<V> entry = entries.get(key);
+			if(entry == null || !entry.isLoaded() || entry.isExpired()) {
+				misses.incrementAndGet();
+				return null;
+			}
+			hits.incrementAndGet();
+			return entry.await();
+		}
+	}
+
+	public void put(K key, V value) {
+		put(key, value, ttlMillis);
+	}
+
+	/**
+	 * Keeps the value with its own time to live, 0 or less never expires
+	 * @param key
+	 * @param value
+	 * @param ttlMillis
+	 */
+	public void put(K key, V value, long ttlMillis) {
+		Entry<V> entry = new Entry<>();
+		entry.complete(value, ttlMillis);
+		synchronized (entries) {
+			entries.put(key, entry);
+		}
+	}
+
+	public void invalidate(K key) {
+		synchronized (entries) {
+			entries.remove(key);
+		}
+	}
+
+	public void invalidateIf(Predicate<K> predicate) {
+		synchronized (entries) {
+			entries.keySet().removeIf(predicate);
+		}
+	}
+
+	public void invalidateAll() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public double getHitRatio() {
+		long h = hits.get();
+		long total = h + misses.get();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	public long getTtlMillis() {
+		return ttlMillis;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	private static final class Entry<V> {
+
+		private final CompletableFuture<V> future = new CompletableFuture<>();
+		private volatile long loadedAt = -1;
+		private volatile long ttlMillis;
+
+		void complete(V value, long ttlMillis) {
+			this.ttlMillis = ttlMillis;
+			loadedAt = System.currentTimeMillis();
+			future.complete(value);
+		}
+
+		void fail(Throwable e) {
+			future.completeExceptionally(e);
+		}
+
+		boolean isLoaded() {
+			return future.isDone() && !future.isCompletedExceptionally();
+		}
+
+		boolean isExpired() {
+			return ttlMillis > 0 && loadedAt >= 0 && System.currentTimeMillis() - loadedAt > ttlMillis;
+		}
+
+		V await() {
+			try {
+				return future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			} catch (ExecutionException e) {
+				if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				if(e.getCause() instanceof Error) throw (Error) e.getCause();
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Flight Recorder event of one DatabaseMetaData call that returns a
+ * ResultSet. The duration goes from the call to the last row read or the
+ * close of the ResultSet. See MetadataCallRecorder.
+ */
+@Name("org.platkmframework.databasereader.MetadataCall")
+@Label("Metadata Call")
+@Category({"PlatKM", "Database Reader"})
+@Description("DatabaseMetaData call and the read of its rows")
+@StackTrace(false)
+@Threshold("10 ms")
+public class MetadataCallEvent extends Event {
+
+	@Label("Method")
+	String method;
+
+	@Label("Table")
+	@Description("Table name or pattern of the call, null when it has none")
+	String tableName;
+
+	@Label("Rows")
+	long rowCount;
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public long getRowCount() {
+		return rowCount;
+	}
+}
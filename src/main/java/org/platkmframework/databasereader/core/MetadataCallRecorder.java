@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * DatabaseMetaData wrapper that emits a MetadataCallEvent for every call
+ * returning a ResultSet. The event ends when next() returns false or the
+ * ResultSet is closed, whichever comes first, so it has the rows read. When
+ * Flight Recorder does not record the event the ResultSet is not wrapped
+ * and the only cost is the proxy call.
+ *
+ * The readers that take a Connection (IndexReader, BatchMetadataReader,
+ * RoutineReader...) get a connection from wrap(Connection), its
+ * getMetaData gives the wrapped DatabaseMetaData.
+ */
+public final class MetadataCallRecorder {
+
+	private MetadataCallRecorder() {
+	}
+
+	public static DatabaseMetaData wrap(DatabaseMetaData databaseMetaData) {
+		if(databaseMetaData == null || Proxy.isProxyClass(databaseMetaData.getClass()) &&
+				Proxy.getInvocationHandler(databaseMetaData) instanceof MetaDataHandler) return databaseMetaData;
+		return (DatabaseMetaData) Proxy.newProxyInstance(DatabaseMetaData.class.getClassLoader(),
+				new Class<?>[]{DatabaseMetaData.class}, new MetaDataHandler(databaseMetaData));
+	}
+
+	/**
+	 * Connection whose getMetaData is wrapped, the other calls go to the connection
+	 * @param con
+	 * @return
+	 */
+	public static Connection wrap(Connection con) {
+		if(con == null || Proxy.isProxyClass(con.getClass()) &&
+				Proxy.getInvocationHandler(con) instanceof ConnectionHandler) return con;
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[]{Connection.class}, new ConnectionHandler(con));
+	}
+
+	/**
+	 * Table argument of the call: the third of the calls with catalog, schema
+	 * and table (getColumns, getPrimaryKeys, getIndexInfo...)
+	 */
+	private static String tableName(Method method, Object[] args) {
+		if(args == null || args.length < 3 || !(args[2] instanceof String)) return null;
+		Class<?>[] types = method.getParameterTypes();
+		return types[0] == String.class && types[1] == String.class ? (String) args[2] : null;
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static final class ConnectionHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "getMetaData": return wrap(target.getMetaData());
+			case "equals":      return proxy == args[0];
+			case "hashCode":    return System.identityHashCode(proxy);
+			default:            return MetadataCallRecorder.invoke(target, method, args);
+			}
+		}
+	}
+
+	private static final class MetaDataHandler implements InvocationHandler {
+
+		private final DatabaseMetaData target;
+
+		MetaDataHandler(DatabaseMetaData target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			if(!ResultSet.class.equals(method.getReturnType())) return MetadataCallRecorder.invoke(target, method, args);
+
+			MetadataCallEvent event = new MetadataCallEvent();
+			if(!event.isEnabled()) return MetadataCallRecorder.invoke(target, method, args);
+
+			event.method = method.getName();
+			event.tableName = tableName(method, args);
+			event.begin();
+			ResultSet rs;
+			try {
+				rs = (ResultSet) MetadataCallRecorder.invoke(target, method, args);
+			} catch (Throwable e) {
+				event.end();
+				if(event.shouldCommit()) event.commit();
+				throw e;
+			}
+			if(rs == null) {
+				event.end();
+				if(event.shouldCommit()) event.commit();
+				return null;
+			}
+			return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, new ResultSetHandler(rs, event));
+		}
+	}
+
+	private static final class ResultSetHandler implements InvocationHandler {
+
+		private final ResultSet target;
+		private final MetadataCallEvent event;
+		private boolean finished;
+
+		ResultSetHandler(ResultSet target, MetadataCallEvent event) {
+			this.target = target;
+			this.event = event;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			String name = method.getName();
+			if(name.equals("next")) {
+				boolean next = (Boolean) MetadataCallRecorder.invoke(target, method, args);
+				if(next) event.rowCount++;
+				else finish();
+				return next;
+			}
+			if(name.equals("close")) finish();
+			return MetadataCallRecorder.invoke(target, method, args);
+		}
+
+		private void finish() {
+			if(finished) return;
+			finished = true;
+			event.end();
+			if(event.shouldCommit()) event.commit();
+		}
+	}
+}
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * IDatabaseReader over a MetadataServer. The connection parameters are not
+ * used, the metadata comes from the server. Every response is kept with its
+ * ETag and the next request is conditional, a 304 decodes the kept body
+ * again so the callers never share table instances.
+ */
+public class MetadataClient implements IDatabaseReader {
+
+	private final String baseUrl;
+	private int connectTimeoutMillis = 5000;
+	private int readTimeoutMillis = 30000;
+
+	private final Map<String, Cached> responses = new ConcurrentHashMap<>();
+
+	/**
+	 *
+	 * @param baseUrl server url with the context, as http://host:8080/metadata
+	 */
+	public MetadataClient(String baseUrl) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+	}
+
+	@Override
+	public List<Table> getMetadata(Connection con) {
+		return getMetadata(con, null);
+	}
+
+	@Override
+	public List<Table> getMetadata(Connection con, String table) {
+		try {
+			if(table == null) return fetch("/database");
+			return fetch("/tables/" + URLEncoder.encode(table, "UTF-8").replace("+", "%20"));
+		} catch (IOException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+			return new ArrayList<>();
+		}
+	}
+
+	@Override
+	public List<String> getTablePksContraints(Connection con, String table) {
+		List<String> list = new ArrayList<>();
+		for (Table found : getMetadata(con, table)) {
+			if(found.getPkContraint() != null) list.addAll(found.getPkContraint().getListField());
+		}
+		return list;
+	}
+
+	@Override
+	public List<Column> getTableColumnMetaData(Connection con, String tablename) {
+		List<Column> columns = new ArrayList<>();
+		for (Table table : getMetadata(con, tablename)) {
+			columns.addAll(columns(table));
+		}
+		return columns;
+	}
+
+	/**
+	 * One request for the whole snapshot, conditional when it was fetched before
+	 */
+	@Override
+	public Map<String, List<Column>> getTableColumnMetaData(Connection con, Collection<String> tableNames) {
+
+		Map<String, Table> tables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (Table table : getMetadata(con)) tables.put(table.getName(), table);
+
+		Map<String, List<Column>> columns = new LinkedHashMap<>();
+		for (String tableName : tableNames) {
+			Table table = tables.get(tableName);
+			columns.put(tableName, table == null ? new ArrayList<>() : columns(table));
+		}
+		return columns;
+	}
+
+	/**
+	 * Columns with the fk flags, the server keeps them in the fk constraints
+	 */
+	private List<Column> columns(Table table) {
+		Map<String, String> fkColumns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (FkContraint fk : table.getFkContraint()) {
+			for (ImportedKey importedKey : fk.getImportedKey()) {
+				fkColumns.putIfAbsent(importedKey.getFkColumnName(), importedKey.getPkTableName());
+			}
+		}
+		List<Column> columns = new ArrayList<>(table.getColumn());
+		for (Column column : columns) {
+			if(fkColumns.containsKey(column.getName())) {
+				column.setFk(true);
+				column.setFktablename(fkColumns.get(column.getName()));
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * Drops the kept responses, the next requests are not conditional
+	 */
+	public void clear() {
+		responses.clear();
+	}
+
+	/**
+	 *
+	 * @param path
+	 * @return the tables of the response, empty when the server does not have it
+	 * @throws IOException
+	 */
+	private List<Table> fetch(String path) throws IOException {
+
+		Cached cached = responses.get(path);
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		try {
+			connection.setConnectTimeout(connectTimeoutMillis);
+			connection.setReadTimeout(readTimeoutMillis);
+			connection.setRequestProperty("Accept-Encoding", "gzip");
+			if(cached != null) connection.setRequestProperty("If-None-Match", cached.etag);
+
+			int status = connection.getResponseCode();
+			if(status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) return decode(cached.body, path);
+			if(status == HttpURLConnection.HTTP_NOT_FOUND) {
+				responses.remove(path);
+				return new ArrayList<>();
+			}
+			if(status != HttpURLConnection.HTTP_OK)
+				throw new IOException("Metadata server answered " + status + " for " + path);
+
+			InputStream in = connection.getInputStream();
+			if("gzip".equalsIgnoreCase(connection.getContentEncoding())) in = new GZIPInputStream(in);
+			byte[] body;
+			try {
+				body = readAll(in);
+			} finally {
+				in.close();
+			}
+			List<Table> tables = decode(body, path);
+			String etag = connection.getHeaderField("ETag");
+			if(etag != null) responses.put(path, new Cached(etag, body));
+			return tables;
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	private List<Table> decode(byte[] bytes, String path) throws IOException {
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		if(in.readInt() != MetadataServer.MAGIC) throw new IOException("Not a metadata server response");
+		int version = in.readInt();
+		if(version != TableCodec.VERSION) throw new IOException("Unsupported metadata version " + version);
+
+		List<Table> tables = new ArrayList<>();
+		if(path.equals("/database")) {
+			TableCodec.readString(in);
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) tables.add(TableCodec.readTable(in));
+		}else {
+			tables.add(TableCodec.readTable(in));
+		}
+		return tables;
+	}
+
+	private byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+		return out.toByteArray();
+	}
+
+	public int getConnectTimeoutMillis() {
+		return connectTimeoutMillis;
+	}
+
+	public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+		this.connectTimeoutMillis = connectTimeoutMillis;
+	}
+
+	public int getReadTimeoutMillis() {
+		return readTimeoutMillis;
+	}
+
+	public void setReadTimeoutMillis(int readTimeoutMillis) {
+		this.readTimeoutMillis = readTimeoutMillis;
+	}
+
+	private static final class Cached {
+
+		private final String etag;
+		private final byte[] body;
+
+		Cached(String etag, byte[] body) {
+			this.etag = etag;
+			this.body = body;
+		}
+	}
+}
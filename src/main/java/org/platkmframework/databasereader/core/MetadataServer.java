@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import org.platkmframework.databasereader.model.Table;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Embeddable http endpoint that reads the schema once and serves it to many
+ * processes, so only this one touches the database.
+ *
+ *   GET {context}/database        every table
+ *   GET {context}/tables/{name}   one table
+ *
+ * The bodies are the TableCodec binary form, gzip when the client accepts
+ * it. The ETag is a hash of the encoded structure, the gzip body has its own
+ * ETag ("...-gz"); a request with an If-None-Match of either form gets 304
+ * without body. MetadataClient is the client.
+ */
+public class MetadataServer {
+
+	public static final int MAGIC = 0x504B4453;
+	public static final String CONTENT_TYPE = "application/x-platkm-metadata";
+
+	private final ConnectionSource connectionSource;
+	private final String catalog;
+	private final String schema;
+	private final String[] types;
+	private final String context;
+
+	private HttpServer server;
+	private ExecutorService executorService;
+	private volatile Snapshot snapshot;
+
+	/**
+	 *
+	 * @param connectionSource connection of the shared reader, it is closed after each read
+	 * @param catalog
+	 * @param schema
+	 * @param types table types, null reads every type
+	 * @param context path prefix, as "/metadata"
+	 */
+	public MetadataServer(ConnectionSource connectionSource, String catalog, String schema, String[] types, String context) {
+		this.connectionSource = connectionSource;
+		this.catalog = catalog;
+		this.schema = schema;
+		this.types = types;
+		String path = context == null ? "" : context.trim();
+		if(path.endsWith("/")) path = path.substring(0, path.length() - 1);
+		if(!path.isEmpty() && !path.startsWith("/")) path = "/" + path;
+		this.context = path;
+	}
+
+	/**
+	 * Starts listening, the schema is read with the first request or refresh
+	 * @param address
+	 * @param threads
+	 * @throws IOException
+	 */
+	public synchronized void start(InetSocketAddress address, int threads) throws IOException {
+		if(server != null) return;
+		server = HttpServer.create(address, 0);
+		executorService = Executors.newFixedThreadPool(threads, (r) -> {
+			Thread thread = new Thread(r, "metadata-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executorService);
+		server.createContext(context.isEmpty() ? "/" : context + "/", this::handle);
+		server.start();
+	}
+
+	public synchronized void stop() {
+		if(server == null) return;
+		server.stop(0);
+		executorService.shutdownNow();
+		server = null;
+		executorService = null;
+	}
+
+	/**
+	 * Port where it is listening, useful when it was started with port 0
+	 * @return
+	 */
+	public synchronized int getPort() {
+		return server == null ? -1 : server.getAddress().getPort();
+	}
+
+	/**
+	 * Reads the schema again. The ETags of the tables without changes stay the same.
+	 * @throws DataBaseReaderException
+	 */
+	public synchronized void refresh() throws DataBaseReaderException {
+		try {
+			Connection con = connectionSource.getConnection();
+			DataBase dataBase = newReader(con).processDatabase(catalog, schema, null, types, null);
+			snapshot = new Snapshot(dataBase);
+		} catch (DataBaseReaderException e) {
+			throw e;
+		} catch (Exception e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+			throw new DataBaseReaderException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Reader for each refresh, it closes the connection when it finishes
+	 * @param con
+	 * @return
+	 */
+	protected DatabaseReader newReader(Connection con) {
+		return new DatabaseReader(con);
+	}
+
+	private Snapshot snapshot() throws DataBaseReaderException {
+		Snapshot current = snapshot;
+		if(current == null) {
+			synchronized (this) {
+				if(snapshot == null) refresh();
+				current = snapshot;
+			}
+		}
+		return current;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+
+		try {
+			if(!"GET".equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().set("Allow", "GET");
+				send(exchange, 405, null, null, false);
+				return;
+			}
+
+			String path = exchange.getRequestURI().getRawPath().substring(context.length());
+			Snapshot current = snapshot();
+			Body body;
+			if("/database".equals(path)) {
+				body = current.database;
+			}else if(path.startsWith("/tables/")) {
+				String tableName = URLDecoder.decode(path.substring("/tables/".length()), "UTF-8");
+				body = current.tables.get(tableName);
+			}else {
+				body = null;
+			}
+
+			boolean gzip = acceptsGzip(exchange);
+			if(body == null) {
+				send(exchange, 404, null, null, gzip);
+			}else if(matches(exchange.getRequestHeaders().getFirst("If-None-Match"), body)) {
+				send(exchange, 304, body.etag(gzip), null, gzip);
+			}else {
+				send(exchange, 200, body.etag(gzip), body, gzip);
+			}
+		} catch (DataBaseReaderException | RuntimeException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+			send(exchange, 500, null, null, false);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * The If-None-Match has the ETag of the body or of its gzip form, the
+	 * same structure whatever encoding the client got it in
+	 */
+	private boolean matches(String ifNoneMatch, Body body) {
+		if(ifNoneMatch == null) return false;
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if(value.startsWith("W/")) value = value.substring(2);
+			if(value.equals("*") || value.equals(body.etag(false)) || value.equals(body.etag(true))) return true;
+		}
+		return false;
+	}
+
+	private static boolean acceptsGzip(HttpExchange exchange) {
+		String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+		return acceptEncoding != null && acceptEncoding.contains("gzip");
+	}
+
+	private void send(HttpExchange exchange, int status, String etag, Body body, boolean gzip) throws IOException {
+
+		if(etag != null) exchange.getResponseHeaders().set("ETag", etag);
+		if(body == null) {
+			exchange.sendResponseHeaders(status, -1);
+			return;
+		}
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+		byte[] bytes = body.data;
+		if(gzip) {
+			exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+			bytes = body.gzip();
+		}
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Encoded tables of one read of the schema
+	 */
+	private static final class Snapshot {
+
+		private final Body database;
+		private final Map<String, Body> tables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+		Snapshot(DataBase dataBase) throws IOException {
+
+			List<Table> list = dataBase.getTables() == null ? Collections.emptyList() : dataBase.getTables();
+			Map<String, byte[]> encoded = new LinkedHashMap<>();
+			for (Table table : list) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(bytes);
+				TableCodec.writeTable(out, table);
+				out.flush();
+				encoded.put(table.getName(), bytes.toByteArray());
+			}
+
+			ByteArrayOutputStream all = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(all);
+			header(out);
+			TableCodec.writeString(out, dataBase.getName());
+			out.writeInt(encoded.size());
+			List<byte[]> structure = new ArrayList<>();
+			for (Map.Entry<String, byte[]> entry : encoded.entrySet()) {
+				out.write(entry.getValue());
+				structure.add(entry.getValue());
+
+				ByteArrayOutputStream single = new ByteArrayOutputStream();
+				DataOutputStream singleOut = new DataOutputStream(single);
+				header(singleOut);
+				singleOut.write(entry.getValue());
+				singleOut.flush();
+				tables.put(entry.getKey(), new Body(single.toByteArray(), etag(Collections.singletonList(entry.getValue()))));
+			}
+			out.flush();
+			database = new Body(all.toByteArray(), etag(structure));
+		}
+
+		private static void header(DataOutputStream out) throws IOException {
+			out.writeInt(MAGIC);
+			out.writeInt(TableCodec.VERSION);
+		}
+
+		/**
+		 * Strong ETag from the sha-256 of the encoded tables
+		 */
+		private static String etag(List<byte[]> structure) {
+			try {
+				MessageDigest digest = MessageDigest.getInstance("SHA-256");
+				for (byte[] bytes : structure) digest.update(bytes);
+				byte[] hash = digest.digest();
+				StringBuilder etag = new StringBuilder("\"");
+				for (int i = 0; i < 16; i++) {
+					etag.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+				}
+				return etag.append('"').toString();
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static final class Body {
+
+		private final byte[] data;
+		private final String etag;
+		private final String gzipEtag;
+		private volatile byte[] gzip;
+
+		Body(byte[] data, String etag) {
+			this.data = data;
+			this.etag = etag;
+			this.gzipEtag = etag.substring(0, etag.length() - 1) + "-gz\"";
+		}
+
+		/**
+		 * A strong ETag is of one representation, the gzip body has its own
+		 */
+		String etag(boolean gzip) {
+			return gzip ? gzipEtag : etag;
+		}
+
+		byte[] gzip() throws IOException {
+			byte[] compressed = gzip;
+			if(compressed == null) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+					out.write(data);
+				}
+				compressed = bytes.toByteArray();
+				gzip = compressed;
+			}
+			return compressed;
+		}
+	}
+}
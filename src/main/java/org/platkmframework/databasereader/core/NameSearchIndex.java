@@ -0,0 +1,458 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Search index of table and column names. The names, lower case, are in a
+ * radix tree (a trie with the single child chains merged in one edge): the
+ * table name, the column name and table.column for every column.
+ *
+ * prefix walks the tree to the prefix and returns the shortest names
+ * first, stopping at the limit. fuzzy walks the tree with the rows of the
+ * edit distance table and cuts every branch that is already over the max
+ * edits. update replaces the names of one table; the replaced entries are
+ * only marked as removed until they are more than the live ones, then the
+ * tree is built again.
+ */
+public class NameSearchIndex {
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private Node root = new Node("");
+	private final List<Entry> entries = new ArrayList<>();
+	private final BitSet removed = new BitSet();
+	private int removedCount;
+	private final Map<String, int[]> tableEntries = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+	public NameSearchIndex() {
+	}
+
+	public NameSearchIndex(DataBase dataBase) {
+		if(dataBase.getTables() != null) {
+			for (Table table : dataBase.getTables()) update(table);
+		}
+	}
+
+	/**
+	 * Adds the table and its columns, replacing them when the table was indexed
+	 * @param table
+	 */
+	public void update(Table table) {
+		List<String> columns = new ArrayList<>();
+		for (Column column : table.getColumn()) columns.add(column.getName());
+		update(table.getName(), columns);
+	}
+
+	public void update(String tableName, List<String> columnNames) {
+		lock.writeLock().lock();
+		try {
+			removeEntries(tableName);
+			List<Integer> ids = new ArrayList<>();
+			ids.add(add(tableName, null, tableName));
+			for (String columnName : columnNames) {
+				if(columnName == null) continue;
+				int id = add(tableName, columnName, columnName);
+				ids.add(id);
+				root.insert(normalize(tableName + "." + columnName), id);
+			}
+			tableEntries.put(tableName, ids.stream().mapToInt(Integer::intValue).toArray());
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(String tableName) {
+		lock.writeLock().lock();
+		try {
+			removeEntries(tableName);
+			tableEntries.remove(tableName);
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Live table and column entries
+	 * @return
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return entries.size() - removedCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Prefix hits, then fuzzy hits when there are less than limit. The fuzzy
+	 * search allows 1 edit up to 5 characters and 2 after.
+	 * @param query
+	 * @param limit
+	 * @return
+	 */
+	public List<Hit> search(String query, int limit) {
+		List<Hit> hits = prefix(query, limit);
+		String normalized = normalize(query);
+		if(hits.size() >= limit || normalized.length() < 3) return hits;
+
+		Set<Hit> all = new LinkedHashSet<>(hits);
+		for (Hit hit : fuzzy(query, normalized.length() <= 5 ? 1 : 2, limit)) {
+			if(all.size() >= limit) break;
+			all.add(hit);
+		}
+		return new ArrayList<>(all);
+	}
+
+	/**
+	 * Names that start with the query, the shortest first
+	 * @param query
+	 * @param limit
+	 * @return
+	 */
+	public List<Hit> prefix(String query, int limit) {
+
+		String key = normalize(query);
+		List<Hit> hits = new ArrayList<>();
+		Set<Integer> seen = new LinkedHashSet<>();
+		lock.readLock().lock();
+		try {
+			Node node = root;
+			int i = 0;
+			int depth = 0;
+			while(i < key.length()) {
+				Node child = node.child(key.charAt(i));
+				if(child == null) return hits;
+				int n = Math.min(child.label.length(), key.length() - i);
+				if(!child.label.regionMatches(0, key, i, n)) return hits;
+				i += n;
+				depth += child.label.length();
+				node = child;
+			}
+
+			PriorityQueue<Object[]> queue = new PriorityQueue<>(Comparator.comparingInt((Object[] o) -> (Integer) o[0]));
+			queue.add(new Object[]{depth, node});
+			while(!queue.isEmpty() && hits.size() < limit) {
+				Object[] next = queue.poll();
+				int length = (Integer) next[0];
+				Node current = (Node) next[1];
+				for (int k = 0; k < current.idCount && hits.size() < limit; k++) {
+					int id = current.ids[k];
+					if(removed.get(id) || !seen.add(id)) continue;
+					double score = length == key.length() ? 1.0 : 0.5 + 0.5 * key.length() / length;
+					hits.add(entries.get(id).hit(score, 0));
+				}
+				for (Node child : current.children) {
+					queue.add(new Object[]{length + child.label.length(), child});
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return hits;
+	}
+
+	/**
+	 * Names within maxEdits edits (insert, delete, replace) of the query, the
+	 * closest first
+	 * @param query
+	 * @param maxEdits
+	 * @param limit
+	 * @return
+	 */
+	public List<Hit> fuzzy(String query, int maxEdits, int limit) {
+
+		String key = normalize(query);
+		List<int[]> found = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			int[] row = new int[key.length() + 1];
+			for (int i = 0; i < row.length; i++) row[i] = i;
+			for (Node child : root.children) {
+				walk(child, key, row, maxEdits, 0, found);
+			}
+
+			found.sort(Comparator.comparingInt((int[] f) -> f[1]).thenComparingInt((int[] f) -> f[2]));
+			List<Hit> hits = new ArrayList<>();
+			Set<Integer> seen = new LinkedHashSet<>();
+			for (int[] f : found) {
+				if(hits.size() >= limit) break;
+				if(removed.get(f[0]) || !seen.add(f[0])) continue;
+				hits.add(entries.get(f[0]).hit(0.5 - 0.2 * f[1], f[1]));
+			}
+			return hits;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param found id, distance, name length
+	 */
+	private void walk(Node node, String key, int[] previous, int maxEdits, int length, List<int[]> found) {
+
+		int[] row = previous;
+		for (int c = 0; c < node.label.length(); c++) {
+			char ch = node.label.charAt(c);
+			int[] current = new int[row.length];
+			current[0] = row[0] + 1;
+			int min = current[0];
+			for (int i = 1; i < row.length; i++) {
+				int cost = key.charAt(i - 1) == ch ? 0 : 1;
+				current[i] = Math.min(Math.min(current[i - 1] + 1, row[i] + 1), row[i - 1] + cost);
+				if(current[i] < min) min = current[i];
+			}
+			if(min > maxEdits) return;
+			row = current;
+		}
+		length += node.label.length();
+
+		int distance = row[row.length - 1];
+		if(distance <= maxEdits) {
+			for (int k = 0; k < node.idCount; k++) found.add(new int[]{node.ids[k], distance, length});
+		}
+		for (Node child : node.children) {
+			walk(child, key, row, maxEdits, length, found);
+		}
+	}
+
+	private int add(String tableName, String columnName, String name) {
+		int id = entries.size();
+		entries.add(new Entry(tableName, columnName));
+		root.insert(normalize(name), id);
+		return id;
+	}
+
+	private void removeEntries(String tableName) {
+		int[] ids = tableEntries.get(tableName);
+		if(ids == null) return;
+		for (int id : ids) {
+			if(!removed.get(id)) {
+				removed.set(id);
+				removedCount++;
+			}
+		}
+	}
+
+	/**
+	 * Builds the tree again when the removed entries are more than the live ones
+	 */
+	private void compactIfNeeded() {
+		if(removedCount < 1024 || removedCount <= entries.size() - removedCount) return;
+
+		List<Entry> live = new ArrayList<>();
+		for (int id = 0; id < entries.size(); id++) {
+			if(!removed.get(id)) live.add(entries.get(id));
+		}
+		Map<String, List<String>> tables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (Entry entry : live) {
+			List<String> columns = tables.computeIfAbsent(entry.tableName, (k) -> new ArrayList<>());
+			if(entry.columnName != null) columns.add(entry.columnName);
+		}
+
+		root = new Node("");
+		entries.clear();
+		removed.clear();
+		removedCount = 0;
+		tableEntries.clear();
+		for (Map.Entry<String, List<String>> table : tables.entrySet()) {
+			update(table.getKey(), table.getValue());
+		}
+	}
+
+	static String normalize(String name) {
+		return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * One search result, columnName is null for a table
+	 */
+	public static final class Hit {
+
+		private final String tableName;
+		private final String columnName;
+		private final double score;
+		private final int distance;
+
+		public Hit(String tableName, String columnName, double score, int distance) {
+			this.tableName = tableName;
+			this.columnName = columnName;
+			this.score = score;
+			this.distance = distance;
+		}
+
+		public String getTableName() {
+			return tableName;
+		}
+
+		public String getColumnName() {
+			return columnName;
+		}
+
+		/**
+		 * 1 exact name, between 0.5 and 1 prefix, 0.5 or less fuzzy
+		 * @return
+		 */
+		public double getScore() {
+			return score;
+		}
+
+		/**
+		 * Edits of a fuzzy hit, 0 for the prefix hits
+		 * @return
+		 */
+		public int getDistance() {
+			return distance;
+		}
+
+		public boolean isTable() {
+			return columnName == null;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Hit)) return false;
+			Hit other = (Hit) obj;
+			return tableName.equals(other.tableName) &&
+				   (columnName == null ? other.columnName == null : columnName.equals(other.columnName));
+		}
+
+		@Override
+		public int hashCode() {
+			return tableName.hashCode() * 31 + (columnName == null ? 0 : columnName.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return columnName == null ? tableName : tableName + "." + columnName;
+		}
+	}
+
+	private static final class Entry {
+
+		private final String tableName;
+		private final String columnName;
+
+		Entry(String tableName, String columnName) {
+			this.tableName = tableName;
+			this.columnName = columnName;
+		}
+
+		Hit hit(double score, int distance) {
+			return new Hit(tableName, columnName, score, distance);
+		}
+	}
+
+	/**
+	 * Radix tree node, the children are sorted by the first character of their label
+	 */
+	private static final class Node {
+
+		private static final Node[] NO_CHILDREN = new Node[0];
+		private static final int[] NO_IDS = new int[0];
+
+		private String label;
+		private char[] firstChars = new char[0];
+		private Node[] children = NO_CHILDREN;
+		private int[] ids = NO_IDS;
+		private int idCount;
+
+		Node(String label) {
+			this.label = label;
+		}
+
+		Node child(char c) {
+			int index = Arrays.binarySearch(firstChars, c);
+			return index < 0 ? null : children[index];
+		}
+
+		void insert(String key, int id) {
+			Node node = this;
+			int i = 0;
+			while(true) {
+				if(i == key.length()) {
+					node.addId(id);
+					return;
+				}
+				int index = Arrays.binarySearch(node.firstChars, key.charAt(i));
+				if(index < 0) {
+					Node child = new Node(key.substring(i));
+					child.addId(id);
+					node.addChild(-index - 1, child);
+					return;
+				}
+				Node child = node.children[index];
+				int common = 0;
+				int max = Math.min(child.label.length(), key.length() - i);
+				while(common < max && child.label.charAt(common) == key.charAt(i + common)) common++;
+				if(common < child.label.length()) {
+					Node middle = new Node(child.label.substring(0, common));
+					child.label = child.label.substring(common);
+					middle.addChild(0, child);
+					node.children[index] = middle;
+					child = middle;
+				}
+				node = child;
+				i += common;
+			}
+		}
+
+		private void addChild(int position, Node child) {
+			char[] chars = new char[firstChars.length + 1];
+			Node[] nodes = new Node[children.length + 1];
+			System.arraycopy(firstChars, 0, chars, 0, position);
+			System.arraycopy(children, 0, nodes, 0, position);
+			chars[position] = child.label.charAt(0);
+			nodes[position] = child;
+			System.arraycopy(firstChars, position, chars, position + 1, firstChars.length - position);
+			System.arraycopy(children, position, nodes, position + 1, children.length - position);
+			firstChars = chars;
+			children = nodes;
+		}
+
+		private void addId(int id) {
+			if(idCount == ids.length) ids = Arrays.copyOf(ids, Math.max(2, idCount * 2));
+			ids[idCount++] = id;
+		}
+	}
+}
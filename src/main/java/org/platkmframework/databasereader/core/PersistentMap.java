@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Immutable hash map, a hash array mapped trie. put and remove copy only
+ * the nodes of the path to the key, the new map shares the rest with the
+ * old one. Safe to share between threads without locks. Keys and values
+ * can not be null.
+ */
+public final class PersistentMap<K, V> {
+
+	private static final Object NOT_FOUND = new Object();
+
+	private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+	private final Node root;
+	private final int size;
+
+	private PersistentMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentMap<K, V> empty() {
+		return (PersistentMap<K, V>) EMPTY;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(K key) {
+		if(root == null) return null;
+		Object value = root.find(0, hash(key), key);
+		return value == NOT_FOUND ? null : (V) value;
+	}
+
+	public boolean containsKey(K key) {
+		return root != null && root.find(0, hash(key), key) != NOT_FOUND;
+	}
+
+	/**
+	 * New map with the key
+	 * @param key
+	 * @param value
+	 * @return this when the key already has the same value
+	 */
+	public PersistentMap<K, V> put(K key, V value) {
+		if(key == null || value == null) throw new NullPointerException("Null key or value");
+		boolean[] added = new boolean[1];
+		Node start = root == null ? BitmapNode.EMPTY : root;
+		Node newRoot = start.assoc(0, hash(key), key, value, added);
+		if(newRoot == root) return this;
+		return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 * New map without the key
+	 * @param key
+	 * @return this when the key is not in the map
+	 */
+	public PersistentMap<K, V> remove(K key) {
+		if(!containsKey(key)) return this;
+		Node newRoot = root.without(0, hash(key), key);
+		return new PersistentMap<>(newRoot, size - 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		if(root != null) root.forEach((BiConsumer<Object, Object>) action);
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static int bitpos(int hash, int shift) {
+		return 1 << ((hash >>> shift) & 31);
+	}
+
+	private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+		int hash1 = hash(key1);
+		if(hash1 == hash2) return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+		boolean[] added = new boolean[1];
+		return BitmapNode.EMPTY.assoc(shift, hash1, key1, value1, added).assoc(shift, hash2, key2, value2, added);
+	}
+
+	private interface Node {
+		Node assoc(int shift, int hash, Object key, Object value, boolean[] added);
+		Node without(int shift, int hash, Object key);
+		Object find(int shift, int hash, Object key);
+		void forEach(BiConsumer<Object, Object> action);
+	}
+
+	/**
+	 * Pairs key, value; a null key means the value is a sub node
+	 */
+	private static final class BitmapNode implements Node {
+
+		static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+		private final int bitmap;
+		private final Object[] array;
+
+		BitmapNode(int bitmap, Object[] array) {
+			this.bitmap = bitmap;
+			this.array = array;
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		public Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+			int bit = bitpos(hash, shift);
+			int idx = index(bit);
+			if((bitmap & bit) != 0) {
+				Object keyOrNull = array[2 * idx];
+				Object valueOrNode = array[2 * idx + 1];
+				if(keyOrNull == null) {
+					Node node = ((Node) valueOrNode).assoc(shift + 5, hash, key, value, added);
+					return node == valueOrNode ? this : copyAndSet(2 * idx + 1, node);
+				}
+				if(key.equals(keyOrNull)) {
+					return value == valueOrNode ? this : copyAndSet(2 * idx + 1, value);
+				}
+				added[0] = true;
+				Object[] copy = array.clone();
+				copy[2 * idx] = null;
+				copy[2 * idx + 1] = createNode(shift + 5, keyOrNull, valueOrNode, hash, key, value);
+				return new BitmapNode(bitmap, copy);
+			}
+			added[0] = true;
+			int n = Integer.bitCount(bitmap);
+			Object[] copy = new Object[2 * (n + 1)];
+			System.arraycopy(array, 0, copy, 0, 2 * idx);
+			copy[2 * idx] = key;
+			copy[2 * idx + 1] = value;
+			System.arraycopy(array, 2 * idx, copy, 2 * (idx + 1), 2 * (n - idx));
+			return new BitmapNode(bitmap | bit, copy);
+		}
+
+		@Override
+		public Node without(int shift, int hash, Object key) {
+			int bit = bitpos(hash, shift);
+			if((bitmap & bit) == 0) return this;
+			int idx = index(bit);
+			Object keyOrNull = array[2 * idx];
+			Object valueOrNode = array[2 * idx + 1];
+			if(keyOrNull == null) {
+				Node node = ((Node) valueOrNode).without(shift + 5, hash, key);
+				if(node == valueOrNode) return this;
+				if(node != null) return copyAndSet(2 * idx + 1, node);
+			}else if(!key.equals(keyOrNull)) {
+				return this;
+			}
+			if(bitmap == bit) return null;
+			Object[] copy = new Object[array.length - 2];
+			System.arraycopy(array, 0, copy, 0, 2 * idx);
+			System.arraycopy(array, 2 * (idx + 1), copy, 2 * idx, copy.length - 2 * idx);
+			return new BitmapNode(bitmap ^ bit, copy);
+		}
+
+		@Override
+		public Object find(int shift, int hash, Object key) {
+			int bit = bitpos(hash, shift);
+			if((bitmap & bit) == 0) return NOT_FOUND;
+			int idx = index(bit);
+			Object keyOrNull = array[2 * idx];
+			Object valueOrNode = array[2 * idx + 1];
+			if(keyOrNull == null) return ((Node) valueOrNode).find(shift + 5, hash, key);
+			return key.equals(keyOrNull) ? valueOrNode : NOT_FOUND;
+		}
+
+		@Override
+		public void forEach(BiConsumer<Object, Object> action) {
+			for (int i = 0; i < array.length; i += 2) {
+				if(array[i] == null) ((Node) array[i + 1]).forEach(action);
+				else action.accept(array[i], array[i + 1]);
+			}
+		}
+
+		private BitmapNode copyAndSet(int i, Object value) {
+			Object[] copy = array.clone();
+			copy[i] = value;
+			return new BitmapNode(bitmap, copy);
+		}
+	}
+
+	/**
+	 * Keys with the same hash
+	 */
+	private static final class CollisionNode implements Node {
+
+		private final int hash;
+		private final Object[] array;
+
+		CollisionNode(int hash, Object[] array) {
+			this.hash = hash;
+			this.array = array;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < array.length; i += 2) {
+				if(key.equals(array[i])) return i;
+			}
+			return -1;
+		}
+
+		@Override
+		public Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+			if(hash != this.hash) {
+				//different hash, goes one level down in a bitmap node
+				return new BitmapNode(bitpos(this.hash, shift), new Object[]{null, this}).assoc(shift, hash, key, value, added);
+			}
+			int i = indexOf(key);
+			if(i >= 0) {
+				if(array[i + 1] == value) return this;
+				Object[] copy = array.clone();
+				copy[i + 1] = value;
+				return new CollisionNode(hash, copy);
+			}
+			added[0] = true;
+			Object[] copy = Arrays.copyOf(array, array.length + 2);
+			copy[array.length] = key;
+			copy[array.length + 1] = value;
+			return new CollisionNode(hash, copy);
+		}
+
+		@Override
+		public Node without(int shift, int hash, Object key) {
+			int i = indexOf(key);
+			if(i < 0) return this;
+			if(array.length == 2) return null;
+			Object[] copy = new Object[array.length - 2];
+			System.arraycopy(array, 0, copy, 0, i);
+			System.arraycopy(array, i + 2, copy, i, copy.length - i);
+			return new CollisionNode(hash, copy);
+		}
+
+		@Override
+		public Object find(int shift, int hash, Object key) {
+			int i = indexOf(key);
+			return i < 0 ? NOT_FOUND : array[i + 1];
+		}
+
+		@Override
+		public void forEach(BiConsumer<Object, Object> action) {
+			for (int i = 0; i < array.length; i += 2) {
+				action.accept(array[i], array[i + 1]);
+			}
+		}
+	}
+}
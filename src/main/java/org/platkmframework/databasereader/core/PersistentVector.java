@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Immutable vector, a 32-way trie. set and append copy only the nodes of
+ * the path to the element (log32 n arrays), the new vector shares the rest
+ * with the old one. Safe to share between threads without locks.
+ */
+public final class PersistentVector<E> implements Iterable<E> {
+
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+
+	private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, new Object[0]);
+
+	private final int size;
+	private final int shift;
+	private final Object[] root;
+
+	private PersistentVector(int size, int shift, Object[] root) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentVector<E> empty() {
+		return (PersistentVector<E>) EMPTY;
+	}
+
+	public static <E> PersistentVector<E> of(Collection<? extends E> values) {
+		PersistentVector<E> vector = empty();
+		for (E value : values) vector = vector.append(value);
+		return vector;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		checkIndex(index);
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return (E) node[index & MASK];
+	}
+
+	/**
+	 * New vector with the element at index replaced
+	 * @param index
+	 * @param value
+	 * @return
+	 */
+	public PersistentVector<E> set(int index, E value) {
+		checkIndex(index);
+		return new PersistentVector<>(size, shift, set(shift, root, index, value));
+	}
+
+	/**
+	 * New vector with the element added at the end
+	 * @param value
+	 * @return
+	 */
+	public PersistentVector<E> append(E value) {
+		long capacity = 1L << (shift + BITS);
+		if(size == capacity) {
+			Object[] newRoot = new Object[]{root, path(shift, value)};
+			return new PersistentVector<>(size + 1, shift + BITS, newRoot);
+		}
+		return new PersistentVector<>(size + 1, shift, append(shift, root, size, value));
+	}
+
+	/**
+	 * Unmodifiable list view, no copy
+	 * @return
+	 */
+	public List<E> asList() {
+		return new AbstractList<E>() {
+			@Override
+			public E get(int index) {
+				return PersistentVector.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return asList().iterator();
+	}
+
+	private static Object[] set(int level, Object[] node, int index, Object value) {
+		Object[] copy = node.clone();
+		if(level == 0) {
+			copy[index & MASK] = value;
+		}else {
+			int sub = (index >>> level) & MASK;
+			copy[sub] = set(level - BITS, (Object[]) node[sub], index, value);
+		}
+		return copy;
+	}
+
+	private static Object[] append(int level, Object[] node, int index, Object value) {
+		if(level == 0) {
+			Object[] copy = Arrays.copyOf(node, node.length + 1);
+			copy[node.length] = value;
+			return copy;
+		}
+		int sub = (index >>> level) & MASK;
+		if(sub < node.length) {
+			Object[] copy = node.clone();
+			copy[sub] = append(level - BITS, (Object[]) node[sub], index, value);
+			return copy;
+		}
+		Object[] copy = Arrays.copyOf(node, node.length + 1);
+		copy[sub] = path(level - BITS, value);
+		return copy;
+	}
+
+	private static Object[] path(int level, Object value) {
+		return level == 0 ? new Object[]{value} : new Object[]{path(level - BITS, value)};
+	}
+
+	private void checkIndex(int index) {
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+	}
+}
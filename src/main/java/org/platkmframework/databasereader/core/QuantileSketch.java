@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Quantiles of non negative values with relative error, the values are
+ * counted in logarithmic buckets (the DDSketch idea). The buckets are a
+ * fixed array that covers every long, so the memory does not grow with
+ * the number of values.
+ */
+public class QuantileSketch {
+
+	public static final double DEFAULT_RELATIVE_ACCURACY = 0.02;
+
+	private final double gamma;
+	private final double logGamma;
+	private final long[] buckets;
+	private long zeroCount;
+	private long count;
+	private long sum;
+	private long min = Long.MAX_VALUE;
+	private long max = Long.MIN_VALUE;
+
+	public QuantileSketch() {
+		this(DEFAULT_RELATIVE_ACCURACY);
+	}
+
+	/**
+	 *
+	 * @param relativeAccuracy between 0 and 1, 0.02 gives quantiles within 2% of the real value
+	 */
+	public QuantileSketch(double relativeAccuracy) {
+		if(relativeAccuracy <= 0 || relativeAccuracy >= 1) throw new IllegalArgumentException("relativeAccuracy must be between 0 and 1");
+		this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+		this.logGamma = Math.log(gamma);
+		this.buckets = new long[index(Long.MAX_VALUE) + 1];
+	}
+
+	public void add(long value) {
+		if(value < 0) throw new IllegalArgumentException("Negative value " + value);
+		if(value == 0) zeroCount++;
+		else buckets[index(value)]++;
+		count++;
+		sum += value;
+		if(value < min) min = value;
+		if(value > max) max = value;
+	}
+
+	/**
+	 *
+	 * @param q between 0 and 1
+	 * @return the estimate, 0 when there are no values
+	 */
+	public long quantile(double q) {
+
+		if(count == 0) return 0;
+		long rank = (long) Math.floor(q * (count - 1));
+		if(rank < zeroCount) return 0;
+		long seen = zeroCount;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if(seen > rank) {
+				long value = Math.round(2 * Math.pow(gamma, i) / (gamma + 1));
+				return Math.max(min, Math.min(max, value));
+			}
+		}
+		return max;
+	}
+
+	private int index(long value) {
+		return (int) Math.ceil(Math.log(value) / logGamma);
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	public long getMax() {
+		return count == 0 ? 0 : max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.platkmframework.databasereader.model.Column;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Result shape of any sql, parameterized or not, through
+ * PreparedStatement.getMetaData(). The statement is prepared but never
+ * executed. The shapes are cached by normalized sql and connection
+ * (url, user, catalog and schema), a repeated lookup does not touch the
+ * database. The connection part of the key is read once per connection,
+ * see connectionChanged.
+ */
+public class QueryShapeReader {
+
+	public static final int DEFAULT_MAX_SIZE = 2000;
+
+	private final MetadataCache<ShapeKey, List<Column>> cache;
+
+	public QueryShapeReader() {
+		this(0, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 *
+	 * @param ttlMillis 0 or less never expires
+	 * @param maxSize
+	 */
+	public QueryShapeReader(long ttlMillis, int maxSize) {
+		this.cache = new MetadataCache<>(ttlMillis, maxSize);
+	}
+
+	/**
+	 * Columns of the result of the sql
+	 * @param con
+	 * @param sql
+	 * @return
+	 * @throws DataBaseReaderException when the driver can not describe the sql
+	 */
+	public List<Column> getQueryColumnMetaData(Connection con, String sql) throws DataBaseReaderException {
+
+		ShapeKey key = new ShapeKey(ConnectionKey.of(con), normalize(sql));
+		try {
+			return Collections.unmodifiableList(CachingDatabaseReader.copyColumns(cache.get(key, () -> describe(con, sql))));
+		} catch (ShapeException e) {
+			throw new DataBaseReaderException(e.getMessage());
+		}
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * The connection changed its catalog or schema, its next key is read again
+	 * @param con
+	 */
+	public void connectionChanged(Connection con) {
+		ConnectionKey.forget(con);
+	}
+
+	public long getHits() {
+		return cache.getHits();
+	}
+
+	public long getMisses() {
+		return cache.getMisses();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	private List<Column> describe(Connection con, String sql) {
+
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ResultSetMetaData resultSetMetaData = ps.getMetaData();
+			if(resultSetMetaData == null)
+				throw new ShapeException("The driver does not describe the result before executing: " + sql);
+
+			List<Column> columns = new ArrayList<>();
+			for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
+				Column column = new Column();
+				column.setName(resultSetMetaData.getColumnName(i));
+				column.setLabel(resultSetMetaData.getColumnLabel(i));
+				column.setTable(resultSetMetaData.getTableName(i));
+				column.setAutoIncrement(resultSetMetaData.isAutoIncrement(i));
+				column.setType(resultSetMetaData.getColumnTypeName(i));
+				column.setJavaSqlType(resultSetMetaData.getColumnType(i));
+				column.setJavaType(resultSetMetaData.getColumnClassName(i));
+				column.setNullable(ResultSetMetaData.columnNullable == resultSetMetaData.isNullable(i));
+				column.setPrecision(resultSetMetaData.getPrecision(i));
+				column.setScale(resultSetMetaData.getScale(i));
+				columns.add(column);
+			}
+			return columns;
+		} catch (SQLException e) {
+			throw new ShapeException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Collapses the white space and comments out of the literals and quoted
+	 * identifiers, and drops the last semicolon
+	 * @param sql
+	 * @return
+	 */
+	static String normalize(String sql) {
+
+		StringBuilder normalized = new StringBuilder(sql.length());
+		char quote = 0;
+		boolean pendingSpace = false;
+		int length = sql.length();
+		for (int i = 0; i < length; i++) {
+			char c = sql.charAt(i);
+			if(quote != 0) {
+				normalized.append(c);
+				if(c == quote) quote = 0;
+				continue;
+			}
+			if(c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+				while(i < length && sql.charAt(i) != '\n') i++;
+				pendingSpace = true;
+				continue;
+			}
+			if(c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+				int end = sql.indexOf("*/", i + 2);
+				i = end < 0 ? length : end + 1;
+				pendingSpace = true;
+				continue;
+			}
+			if(Character.isWhitespace(c)) {
+				pendingSpace = true;
+				continue;
+			}
+			if(pendingSpace && normalized.length() > 0) normalized.append(' ');
+			pendingSpace = false;
+			if(c == '\'' || c == '"' || c == '`') quote = c;
+			normalized.append(c);
+		}
+		int last = normalized.length() - 1;
+		if(last >= 0 && normalized.charAt(last) == ';') normalized.setLength(last);
+		return normalized.toString();
+	}
+
+	private static final class ShapeKey {
+
+		private final ConnectionKey connection;
+		private final String sql;
+		private final int hash;
+
+		ShapeKey(ConnectionKey connection, String sql) {
+			this.connection = connection;
+			this.sql = sql;
+			this.hash = Objects.hash(connection, sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+			if(!(obj instanceof ShapeKey)) return false;
+			ShapeKey other = (ShapeKey) obj;
+			return Objects.equals(connection, other.connection) && Objects.equals(sql, other.sql);
+		}
+	}
+
+	private static final class ShapeException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		ShapeException(String message) {
+			super(message);
+		}
+	}
+}
@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.platkmframework.databasereader.model.RoutineInfo;
+import org.platkmframework.databasereader.model.RoutineParameter;
+import org.platkmframework.databasereader.model.SequenceInfo;
+import org.platkmframework.databasereader.model.SynonymInfo;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Reads the procedures, functions, sequences and synonyms of a schema.
+ * getProcedures, getFunctions, getProcedureColumns and getFunctionColumns
+ * are called once for the whole schema and the parameters are grouped by
+ * the specific name of the routine, there is no call per routine.
+ * Sequences and synonyms use the catalog query of the dialect, a dialect
+ * without query gives an empty list.
+ */
+public class RoutineReader {
+
+	private boolean includeRoutines = true;
+	private boolean includeSequences = true;
+	private boolean includeSynonyms = true;
+	private AdaptiveLimiter limiter;
+
+	/**
+	 * Reads the enabled objects and sets them in the dataBase
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param dataBase
+	 * @throws SQLException
+	 */
+	public void read(Connection con, String catalog, String schema, DataBase dataBase) throws SQLException {
+		if(includeRoutines) dataBase.setRoutines(readRoutines(con, catalog, schema));
+		if(includeSequences) dataBase.setSequences(readSequences(con, catalog, schema));
+		if(includeSynonyms) dataBase.setSynonyms(readSynonyms(con, catalog, schema));
+	}
+
+	/**
+	 * Procedures and functions with their parameters, four metadata calls
+	 * for the whole schema. Drivers that return the functions in getProcedures
+	 * too (PostgreSQL) give each routine once, as FUNCTION.
+	 * @param con
+	 * @param catalog
+	 * @param schema null for the schema of the connection, as readSequences
+	 * @return
+	 * @throws SQLException
+	 */
+	public List<RoutineInfo> readRoutines(Connection con, String catalog, String schema) throws SQLException {
+
+		DatabaseMetaData databaseMetaData = con.getMetaData();
+		String resolvedSchema = DatabaseDialect.of(con).resolveSchema(con, catalog, schema);
+		Map<String, RoutineInfo> routines = new LinkedHashMap<>();
+
+		try (ResultSet rs = AdaptiveLimiter.execute(limiter, "getProcedures", () -> databaseMetaData.getProcedures(catalog, resolvedSchema, "%"))) {
+			while(rs.next()) {
+				String name = rs.getString("PROCEDURE_NAME");
+				String kind = rs.getShort("PROCEDURE_TYPE") == DatabaseMetaData.procedureReturnsResult ?
+								RoutineInfo.FUNCTION : RoutineInfo.PROCEDURE;
+				addRoutine(routines, name, specificName(rs, name), kind, rs.getString("REMARKS"));
+			}
+		}
+
+		boolean functions = true;
+		try (ResultSet rs = AdaptiveLimiter.execute(limiter, "getFunctions", () -> databaseMetaData.getFunctions(catalog, resolvedSchema, "%"))) {
+			while(rs.next()) {
+				String name = rs.getString("FUNCTION_NAME");
+				addRoutine(routines, name, specificName(rs, name), RoutineInfo.FUNCTION, rs.getString("REMARKS"));
+			}
+		} catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+			functions = false;
+		}
+
+		try (ResultSet rs = AdaptiveLimiter.execute(limiter, "getProcedureColumns", () -> databaseMetaData.getProcedureColumns(catalog, resolvedSchema, "%", "%"))) {
+			while(rs.next()) {
+				RoutineInfo routine = routines.get(specificName(rs, rs.getString("PROCEDURE_NAME")));
+				if(routine == null) continue;
+				routine.getParameters().add(newParameter(rs, procedureMode(rs.getShort("COLUMN_TYPE")),
+								rs.getShort("NULLABLE") == DatabaseMetaData.procedureNullable));
+			}
+		}
+
+		if(functions) {
+			Map<String, List<RoutineParameter>> functionParameters = new LinkedHashMap<>();
+			try (ResultSet rs = AdaptiveLimiter.execute(limiter, "getFunctionColumns", () -> databaseMetaData.getFunctionColumns(catalog, resolvedSchema, "%", "%"))) {
+				while(rs.next()) {
+					String key = specificName(rs, rs.getString("FUNCTION_NAME"));
+					functionParameters.computeIfAbsent(key, (k) -> new ArrayList<>()).add(newParameter(rs,
+							functionMode(rs.getShort("COLUMN_TYPE")), rs.getShort("NULLABLE") == DatabaseMetaData.functionNullable));
+				}
+			} catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+				//getProcedureColumns already gave what the driver knows
+			}
+			//the driver may give the same parameters in both calls
+			for (Map.Entry<String, List<RoutineParameter>> entry : functionParameters.entrySet()) {
+				RoutineInfo routine = routines.get(entry.getKey());
+				if(routine != null && routine.getParameters().isEmpty()) routine.setParameters(entry.getValue());
+			}
+		}
+
+		List<RoutineInfo> result = new ArrayList<>(routines.values());
+		for (RoutineInfo routine : result) {
+			routine.getParameters().sort(Comparator.comparingInt(RoutineParameter::getPosition));
+		}
+		return result;
+	}
+
+	/**
+	 * Sequences of the schema through the catalog query of the dialect
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @return empty when the dialect has no query
+	 * @throws SQLException
+	 */
+	public List<SequenceInfo> readSequences(Connection con, String catalog, String schema) throws SQLException {
+
+		List<SequenceInfo> sequences = new ArrayList<>();
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		String sql = CatalogQueries.sequences(dialect);
+		if(sql == null) return sequences;
+
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setString(1, dialect.resolveSchema(con, catalog, schema));
+			try (ResultSet rs = AdaptiveLimiter.execute(limiter, "sequences", ps::executeQuery)) {
+				while(rs.next()) {
+					SequenceInfo sequence = new SequenceInfo();
+					sequence.setName(rs.getString(1));
+					sequence.setStartValue(toLong(rs.getString(2)));
+					sequence.setIncrement(toLong(rs.getString(3)));
+					sequence.setMinValue(toLong(rs.getString(4)));
+					sequence.setMaxValue(toLong(rs.getString(5)));
+					sequence.setCycle(isTrue(rs.getString(6)));
+					sequences.add(sequence);
+				}
+			}
+		}
+		return sequences;
+	}
+
+	/**
+	 * Synonyms of the schema through the catalog query of the dialect
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @return empty when the dialect has no query
+	 * @throws SQLException
+	 */
+	public List<SynonymInfo> readSynonyms(Connection con, String catalog, String schema) throws SQLException {
+
+		List<SynonymInfo> synonyms = new ArrayList<>();
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		String sql = CatalogQueries.synonyms(dialect);
+		if(sql == null) return synonyms;
+
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setString(1, dialect.resolveSchema(con, catalog, schema));
+			try (ResultSet rs = AdaptiveLimiter.execute(limiter, "synonyms", ps::executeQuery)) {
+				while(rs.next()) {
+					SynonymInfo synonym = new SynonymInfo();
+					synonym.setName(rs.getString(1));
+					synonym.setTarget(rs.getString(2));
+					synonyms.add(synonym);
+				}
+			}
+		}
+		return synonyms;
+	}
+
+	private void addRoutine(Map<String, RoutineInfo> routines, String name, String specificName, String kind, String remarks) {
+
+		RoutineInfo routine = routines.get(specificName);
+		if(routine == null) {
+			routine = new RoutineInfo();
+			routine.setName(name);
+			routine.setSpecificName(specificName);
+			routine.setRemarks(remarks);
+			routines.put(specificName, routine);
+		}
+		if(routine.getKind() == null || RoutineInfo.FUNCTION.equals(kind)) routine.setKind(kind);
+	}
+
+	private RoutineParameter newParameter(ResultSet rs, String mode, boolean nullable) throws SQLException {
+
+		RoutineParameter parameter = new RoutineParameter();
+		parameter.setName(rs.getString("COLUMN_NAME"));
+		parameter.setMode(mode);
+		parameter.setJavaSqlType(rs.getInt("DATA_TYPE"));
+		parameter.setType(rs.getString("TYPE_NAME"));
+		parameter.setPrecision(rs.getInt("PRECISION"));
+		parameter.setScale(rs.getInt("SCALE"));
+		parameter.setNullable(nullable);
+		parameter.setPosition(ordinalPosition(rs));
+		return parameter;
+	}
+
+	/**
+	 * SPECIFIC_NAME is JDBC 4, older drivers only give the name
+	 */
+	private String specificName(ResultSet rs, String name) {
+		try {
+			String specificName = rs.getString("SPECIFIC_NAME");
+			return specificName != null ? specificName : name;
+		} catch (SQLException e) {
+			return name;
+		}
+	}
+
+	private int ordinalPosition(ResultSet rs) {
+		try {
+			return rs.getInt("ORDINAL_POSITION");
+		} catch (SQLException e) {
+			return Integer.MAX_VALUE;
+		}
+	}
+
+	private String procedureMode(short columnType) {
+		switch (columnType) {
+		case DatabaseMetaData.procedureColumnIn:     return "IN";
+		case DatabaseMetaData.procedureColumnInOut:  return "INOUT";
+		case DatabaseMetaData.procedureColumnOut:    return "OUT";
+		case DatabaseMetaData.procedureColumnReturn: return "RETURN";
+		case DatabaseMetaData.procedureColumnResult: return "RESULT";
+		default:                                     return null;
+		}
+	}
+
+	private String functionMode(short columnType) {
+		switch (columnType) {
+		case DatabaseMetaData.functionColumnIn:     return "IN";
+		case DatabaseMetaData.functionColumnInOut:  return "INOUT";
+		case DatabaseMetaData.functionColumnOut:    return "OUT";
+		case DatabaseMetaData.functionReturn:       return "RETURN";
+		case DatabaseMetaData.functionColumnResult: return "RESULT";
+		default:                                    return null;
+		}
+	}
+
+	static Long toLong(String value) {
+		if(value == null || value.trim().isEmpty()) return null;
+		BigDecimal number = new BigDecimal(value.trim());
+		if(number.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) return Long.MAX_VALUE;
+		if(number.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) return Long.MIN_VALUE;
+		return number.longValue();
+	}
+
+	private static boolean isTrue(String value) {
+		return value != null && ("YES".equalsIgnoreCase(value) || "Y".equalsIgnoreCase(value) ||
+								 "1".equals(value) || "true".equalsIgnoreCase(value));
+	}
+
+	public boolean isIncludeRoutines() {
+		return includeRoutines;
+	}
+
+	public void setIncludeRoutines(boolean includeRoutines) {
+		this.includeRoutines = includeRoutines;
+	}
+
+	public boolean isIncludeSequences() {
+		return includeSequences;
+	}
+
+	public void setIncludeSequences(boolean includeSequences) {
+		this.includeSequences = includeSequences;
+	}
+
+	public boolean isIncludeSynonyms() {
+		return includeSynonyms;
+	}
+
+	public void setIncludeSynonyms(boolean includeSynonyms) {
+		this.includeSynonyms = includeSynonyms;
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * Each round trip goes through the limiter, null to call the database directly
+	 * @param limiter
+	 */
+	public void setLimiter(AdaptiveLimiter limiter) {
+		this.limiter = limiter;
+	}
+}
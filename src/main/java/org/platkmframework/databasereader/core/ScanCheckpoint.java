@@ -0,0 +1,368 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Journal of the tables already read by tablesProcess. Every finished table is
+ * appended to the journal, a later run of the same Scan (url, user, catalog,
+ * schema and requested tables) skips them. The journal of any other scan is
+ * discarded.
+ * A table that fails is retried with exponential backoff at the end of the
+ * scan; the ones that still fail are kept in getFailures() instead of
+ * aborting the scan.
+ */
+public class ScanCheckpoint {
+
+	private static final int MAGIC = 0x504B444B; //PKDK
+	private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+
+	private final Path journal;
+	private int maxRetries = 3;
+	private long initialBackoffMillis = 1000;
+	private boolean deleteOnSuccess = true;
+	private ConnectionSource connectionSource;
+
+	private DataOutputStream out;
+	private long validLength;
+	private long lastRecordLength;
+	private final List<TableFailure> failures = new ArrayList<>();
+
+	public ScanCheckpoint(Path journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Reads the tables of a previous run of the same scan. A torn last
+	 * record, the usual result of a crash, is ignored.
+	 * @param scan
+	 * @return table name, table
+	 * @throws DataBaseReaderException
+	 */
+	public Map<String, Table> loadCompleted(Scan scan) throws DataBaseReaderException {
+
+		Map<String, Table> completed = new LinkedHashMap<>();
+		validLength = 0;
+		if(!Files.exists(journal)) return completed;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal)))) {
+			if(in.readInt() != MAGIC || in.readInt() != TableCodec.VERSION || !scan.matches(in)) {
+				Logger.getLogger(this.getClass().getName()).log(Level.INFO, "Checkpoint journal {0} belongs to another scan, it is discarded", journal);
+				return completed;
+			}
+			long position = header(scan).length;
+			while(true) {
+				Table table = readRecord(in);
+				if(table == null) break;
+				completed.put(table.getName(), table);
+				position += lastRecordLength;
+			}
+			validLength = position;
+		} catch (EOFException e) {
+			//empty or torn header, nothing to resume
+		} catch (IOException e) {
+			throw new DataBaseReaderException("Checkpoint journal could not be read: " + e.getMessage());
+		}
+		return completed;
+	}
+
+	/**
+	 * Opens the journal for append. The torn tail of a previous run is cut
+	 * first. When there is nothing to resume the journal starts again with
+	 * the header of the scan.
+	 * @param scan
+	 * @param resume
+	 * @throws DataBaseReaderException
+	 */
+	public void open(Scan scan, boolean resume) throws DataBaseReaderException {
+		try {
+			if(journal.getParent() != null) Files.createDirectories(journal.getParent());
+			if(resume && validLength > 0) {
+				try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+					channel.truncate(validLength);
+				}
+				out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(journal,
+						StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+			}else {
+				out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(journal,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)));
+				out.write(header(scan));
+				out.flush();
+			}
+			failures.clear();
+		} catch (IOException e) {
+			throw new DataBaseReaderException("Checkpoint journal could not be opened: " + e.getMessage());
+		}
+	}
+
+	public void append(Table table) throws DataBaseReaderException {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+			TableCodec.writeTable(new DataOutputStream(buffer), table);
+			byte[] data = buffer.toByteArray();
+			CRC32 crc = new CRC32();
+			crc.update(data);
+			out.writeInt(data.length);
+			out.write(data);
+			out.writeLong(crc.getValue());
+			out.flush();
+		} catch (IOException e) {
+			throw new DataBaseReaderException("Checkpoint journal could not be written: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Closes the journal. When the scan finished without failures and
+	 * deleteOnSuccess is on, the journal is removed so the next run starts again.
+	 * A cancelled or broken scan keeps it to be resumed.
+	 * @param finished
+	 */
+	public void close(boolean finished) {
+		try {
+			if(out != null) out.close();
+			out = null;
+			if(finished && deleteOnSuccess && failures.isEmpty()) Files.deleteIfExists(journal);
+		} catch (IOException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.WARNING, null, e);
+		}
+	}
+
+	void addFailure(TableFailure failure) {
+		failures.add(failure);
+	}
+
+	public List<TableFailure> getFailures() {
+		return Collections.unmodifiableList(failures);
+	}
+
+	/**
+	 * Backoff before the given retry, starting at 1
+	 * @param retry
+	 * @return
+	 */
+	public long backoffMillis(int retry) {
+		return initialBackoffMillis * (1L << Math.min(retry - 1, 16));
+	}
+
+	private byte[] header(Scan scan) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream(buffer);
+		header.writeInt(MAGIC);
+		header.writeInt(TableCodec.VERSION);
+		for (String field : scan.fields()) TableCodec.writeString(header, field);
+		header.flush();
+		return buffer.toByteArray();
+	}
+
+	private Table readRecord(DataInputStream in) throws IOException {
+		int length;
+		try {
+			length = in.readInt();
+		} catch (EOFException e) {
+			return null;
+		}
+		if(length < 0 || length > MAX_RECORD_LENGTH) return null;
+		byte[] data = new byte[length];
+		try {
+			in.readFully(data);
+			long expected = in.readLong();
+			CRC32 crc = new CRC32();
+			crc.update(data);
+			if(crc.getValue() != expected) return null;
+		} catch (EOFException e) {
+			return null;
+		}
+		lastRecordLength = 4L + length + 8L;
+		try (InputStream record = new ByteArrayInputStream(data)) {
+			return TableCodec.readTable(new DataInputStream(record));
+		}
+	}
+
+	public Path getJournal() {
+		return journal;
+	}
+
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	public void setMaxRetries(int maxRetries) {
+		this.maxRetries = maxRetries;
+	}
+
+	public long getInitialBackoffMillis() {
+		return initialBackoffMillis;
+	}
+
+	public void setInitialBackoffMillis(long initialBackoffMillis) {
+		this.initialBackoffMillis = initialBackoffMillis;
+	}
+
+	public boolean isDeleteOnSuccess() {
+		return deleteOnSuccess;
+	}
+
+	public void setDeleteOnSuccess(boolean deleteOnSuccess) {
+		this.deleteOnSuccess = deleteOnSuccess;
+	}
+
+	public ConnectionSource getConnectionSource() {
+		return connectionSource;
+	}
+
+	/**
+	 * Used to open a new connection when the current one is no longer valid
+	 * @param connectionSource
+	 */
+	public void setConnectionSource(ConnectionSource connectionSource) {
+		this.connectionSource = connectionSource;
+	}
+
+	/**
+	 * What a journal belongs to: the database (url and user), the catalog,
+	 * the schema and a hash of the requested table names
+	 */
+	public static final class Scan {
+
+		private final String url;
+		private final String user;
+		private final String catalog;
+		private final String schema;
+		private final String tables;
+
+		public Scan(String url, String user, String catalog, String schema, Collection<String> tableNames) {
+			this.url = url;
+			this.user = user;
+			this.catalog = catalog;
+			this.schema = schema;
+			this.tables = hash(tableNames);
+		}
+
+		/**
+		 * Scan of the connection
+		 * @param con
+		 * @param catalog
+		 * @param schema
+		 * @param tableNames
+		 * @return
+		 * @throws SQLException
+		 */
+		public static Scan of(Connection con, String catalog, String schema, Collection<String> tableNames) throws SQLException {
+			DatabaseMetaData databaseMetaData = con.getMetaData();
+			return new Scan(databaseMetaData.getURL(), databaseMetaData.getUserName(), catalog, schema, tableNames);
+		}
+
+		private String[] fields() {
+			return new String[] {url, user, catalog, schema, tables};
+		}
+
+		private boolean matches(DataInputStream in) throws IOException {
+			for (String field : fields()) {
+				if(!Objects.equals(field, TableCodec.readString(in))) return false;
+			}
+			return true;
+		}
+
+		/**
+		 * sha-256 of the names, the order of the request does not matter
+		 */
+		private static String hash(Collection<String> tableNames) {
+			List<String> names = new ArrayList<>(tableNames);
+			Collections.sort(names);
+			try {
+				MessageDigest digest = MessageDigest.getInstance("SHA-256");
+				for (String name : names) digest.update((name + "\n").getBytes(StandardCharsets.UTF_8));
+				StringBuilder hex = new StringBuilder();
+				for (byte b : digest.digest()) hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+				return hex.toString();
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	/**
+	 * Table that could not be read after all the retries
+	 */
+	public static class TableFailure {
+
+		private final String tableName;
+		private final int attempts;
+		private final String message;
+
+		public TableFailure(String tableName, int attempts, String message) {
+			this.tableName = tableName;
+			this.attempts = attempts;
+			this.message = message;
+		}
+
+		public String getTableName() {
+			return tableName;
+		}
+
+		public int getAttempts() {
+			return attempts;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String toString() {
+			return tableName + " (" + attempts + " attempts): " + message;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Structured progress of a DatabaseReader scan. Any listener can stop the
+ * scan with ScanProgress.cancel(), the reader checks it between tables.
+ */
+public interface ScanListener {
+
+	default void scanStarted(ScanProgress progress) {}
+
+	default void phaseChanged(ScanProgress progress, String phase) {}
+
+	default void tableStarted(ScanProgress progress, String tableName) {}
+
+	default void tableFinished(ScanProgress progress, String tableName, long durationNanos) {}
+
+	default void error(ScanProgress progress, String tableName, Exception exception) {}
+
+	default void scanFinished(ScanProgress progress) {}
+
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * State of one scan: processed tables, throughput and estimated remaining time
+ */
+public class ScanProgress {
+
+	private final long startNanos;
+	private volatile int total;
+	private volatile int processed;
+	private volatile boolean cancelled;
+
+	public ScanProgress(int total) {
+		this.startNanos = System.nanoTime();
+		this.total = total;
+	}
+
+	void setTotal(int total) {
+		this.total = total;
+	}
+
+	void tableProcessed() {
+		processed++;
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public int getProcessed() {
+		return processed;
+	}
+
+	public long getElapsedMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Tables per second since the scan started
+	 * @return
+	 */
+	public double getThroughput() {
+		long elapsed = System.nanoTime() - startNanos;
+		return elapsed <= 0 ? 0 : processed * 1_000_000_000d / elapsed;
+	}
+
+	/**
+	 * Remaining time at the current throughput, -1 when it is not known yet
+	 * @return
+	 */
+	public long getEtaMillis() {
+		double throughput = getThroughput();
+		if(processed == 0 || throughput <= 0) return -1;
+		return (long) ((total - processed) * 1000d / throughput);
+	}
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public String toString() {
+		return "Processed " + processed + " of " + total;
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Change detected by the SchemaWatcher over one table
+ */
+public class SchemaChangeEvent {
+
+	public enum Type { TABLE_ADDED, TABLE_DROPPED, TABLE_ALTERED }
+
+	public enum ColumnChangeType { COLUMN_ADDED, COLUMN_DROPPED, COLUMN_MODIFIED }
+
+	private final Type type;
+	private final String tableName;
+	private final List<ColumnChange> columnChanges;
+	private final long detectedAt;
+
+	public SchemaChangeEvent(Type type, String tableName, List<ColumnChange> columnChanges) {
+		this.type = type;
+		this.tableName = tableName;
+		this.columnChanges = columnChanges == null ? Collections.emptyList() : Collections.unmodifiableList(columnChanges);
+		this.detectedAt = System.currentTimeMillis();
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public List<ColumnChange> getColumnChanges() {
+		return columnChanges;
+	}
+
+	public long getDetectedAt() {
+		return detectedAt;
+	}
+
+	@Override
+	public String toString() {
+		return type + " " + tableName + (columnChanges.isEmpty() ? "" : " " + columnChanges);
+	}
+
+	/**
+	 * Column level detail of a TABLE_ALTERED event. The signature contains
+	 * type, size, decimal digits, nullable and default value.
+	 */
+	public static class ColumnChange {
+
+		private final ColumnChangeType type;
+		private final String columnName;
+		private final String oldSignature;
+		private final String newSignature;
+
+		public ColumnChange(ColumnChangeType type, String columnName, String oldSignature, String newSignature) {
+			this.type = type;
+			this.columnName = columnName;
+			this.oldSignature = oldSignature;
+			this.newSignature = newSignature;
+		}
+
+		public ColumnChangeType getType() {
+			return type;
+		}
+
+		public String getColumnName() {
+			return columnName;
+		}
+
+		public String getOldSignature() {
+			return oldSignature;
+		}
+
+		public String getNewSignature() {
+			return newSignature;
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + columnName;
+		}
+	}
+}
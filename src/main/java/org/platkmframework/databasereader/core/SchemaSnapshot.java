@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.platkmframework.databasereader.model.Table;
+import org.platkmframework.databasereader.model.TableSnapshot;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Immutable DataBase. The tables are in a PersistentVector and indexed by
+ * name in a PersistentMap, so withTable copies only the path to that table
+ * and shares the other tables with the previous snapshot. Snapshots can be
+ * cached and read by many threads without locks or defensive copies.
+ */
+public final class SchemaSnapshot {
+
+	private final String name;
+	private final PersistentVector<TableSnapshot> tables;
+	private final PersistentMap<String, Integer> positions;
+
+	private SchemaSnapshot(String name, PersistentVector<TableSnapshot> tables, PersistentMap<String, Integer> positions) {
+		this.name = name;
+		this.tables = tables;
+		this.positions = positions;
+	}
+
+	public static SchemaSnapshot empty(String name) {
+		return new SchemaSnapshot(name, PersistentVector.empty(), PersistentMap.empty());
+	}
+
+	public static SchemaSnapshot of(DataBase dataBase) {
+		SchemaSnapshot snapshot = empty(dataBase.getName());
+		if(dataBase.getTables() != null) {
+			for (Table table : dataBase.getTables()) snapshot = snapshot.withTable(table);
+		}
+		return snapshot;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int size() {
+		return tables.size();
+	}
+
+	/**
+	 * Unmodifiable view of the tables, no copy
+	 * @return
+	 */
+	public List<TableSnapshot> getTables() {
+		return tables.asList();
+	}
+
+	/**
+	 *
+	 * @param tableName case insensitive
+	 * @return null when there is no table with the name
+	 */
+	public TableSnapshot getTable(String tableName) {
+		Integer position = positions.get(key(tableName));
+		return position == null ? null : tables.get(position);
+	}
+
+	/**
+	 * New snapshot with the table replaced, or added at the end when it is new
+	 * @param table
+	 * @return
+	 */
+	public SchemaSnapshot withTable(TableSnapshot table) {
+		String key = key(table.getName());
+		Integer position = positions.get(key);
+		if(position != null) return new SchemaSnapshot(name, tables.set(position, table), positions);
+		return new SchemaSnapshot(name, tables.append(table), positions.put(key, tables.size()));
+	}
+
+	public SchemaSnapshot withTable(Table table) {
+		return withTable(TableSnapshot.of(table));
+	}
+
+	/**
+	 * New snapshot without the table. The tables after it change position,
+	 * so this one rebuilds the vector and the index.
+	 * @param tableName
+	 * @return this when there is no table with the name
+	 */
+	public SchemaSnapshot withoutTable(String tableName) {
+		Integer position = positions.get(key(tableName));
+		if(position == null) return this;
+		SchemaSnapshot snapshot = empty(name);
+		for (int i = 0; i < tables.size(); i++) {
+			if(i != position) snapshot = snapshot.withTable(tables.get(i));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Mutable copy for the code that works with DataBase
+	 * @return
+	 */
+	public DataBase toDataBase() {
+		DataBase dataBase = new DataBase(name);
+		List<Table> list = new ArrayList<>(tables.size());
+		for (TableSnapshot table : tables) list.add(table.toTable());
+		dataBase.setTables(list);
+		return dataBase;
+	}
+
+	private static String key(String tableName) {
+		return tableName == null ? "" : tableName.toUpperCase(Locale.ROOT);
+	}
+}
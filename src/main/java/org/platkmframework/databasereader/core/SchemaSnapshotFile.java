@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Snapshot of a DataBase written at build time (SchemaSnapshotTool) and
+ * loaded at runtime from the classpath, without reading the catalog.
+ *
+ * The file is gzip of: MAGIC, FORMAT_VERSION, TableCodec.VERSION, creation
+ * time, catalog, schema, fingerprint, database name, number of tables and
+ * the tables in TableCodec form. A file of another format or codec
+ * version is rejected, the application must generate it again.
+ *
+ * The fingerprint is a SHA-256 of the columns of the schema, isCurrent
+ * computes it against the live database to know if the snapshot can still
+ * be used. It does not depend on the database product, a snapshot made
+ * with an H2 at build time is current for a PostgreSQL with the same
+ * tables: every column gives its table and column name in upper case, the
+ * family of its java.sql.Types (integer and decimal are one family,
+ * Oracle has only NUMBER), the nullability and the length of the sized
+ * text and binary types. It does not cover numeric precision and scale,
+ * the exact type inside a family (VARCHAR and CLOB, DATE and TIMESTAMP of
+ * Oracle), default values, keys, indexes, constraints, comments, views
+ * text, routines and sequences; a change of only those keeps the snapshot
+ * current.
+ */
+public class SchemaSnapshotFile {
+
+	public static final int MAGIC = 0x504B4446; //PKDF
+	public static final int FORMAT_VERSION = 1;
+	public static final String DEFAULT_RESOURCE = "META-INF/platkmframework/schema.snapshot";
+
+	private final DataBase dataBase;
+	private final String catalog;
+	private final String schema;
+	private final String fingerprint;
+	private final long createdAt;
+
+	public SchemaSnapshotFile(DataBase dataBase, String catalog, String schema, String fingerprint) {
+		this(dataBase, catalog, schema, fingerprint, System.currentTimeMillis());
+	}
+
+	private SchemaSnapshotFile(DataBase dataBase, String catalog, String schema, String fingerprint, long createdAt) {
+		this.dataBase = dataBase;
+		this.catalog = catalog;
+		this.schema = schema;
+		this.fingerprint = fingerprint;
+		this.createdAt = createdAt;
+	}
+
+	/**
+	 * Snapshot in the classpath of the context class loader
+	 * @param resource
+	 * @return null when the resource does not exist
+	 * @throws IOException when the resource is not a snapshot of this version
+	 */
+	public static SchemaSnapshotFile load(String resource) throws IOException {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if(classLoader == null) classLoader = SchemaSnapshotFile.class.getClassLoader();
+		InputStream in = classLoader.getResourceAsStream(resource);
+		if(in == null) return null;
+		try (InputStream resourceIn = in) {
+			return read(resourceIn);
+		}
+	}
+
+	public static SchemaSnapshotFile load(Path file) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			return read(in);
+		}
+	}
+
+	public static SchemaSnapshotFile read(InputStream input) throws IOException {
+
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(input), 64 * 1024));
+		if(in.readInt() != MAGIC) throw new IOException("Not a schema snapshot");
+		int format = in.readInt();
+		if(format != FORMAT_VERSION) throw new IOException("Unsupported schema snapshot format " + format);
+		int codec = in.readInt();
+		if(codec != TableCodec.VERSION) throw new IOException("Unsupported schema snapshot codec version " + codec);
+
+		long createdAt = in.readLong();
+		String catalog = TableCodec.readString(in);
+		String schema = TableCodec.readString(in);
+		String fingerprint = TableCodec.readString(in);
+
+		DataBase dataBase = new DataBase(TableCodec.readString(in));
+		int count = in.readInt();
+		List<Table> tables = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) tables.add(TableCodec.readTable(in));
+		dataBase.setTables(tables);
+		return new SchemaSnapshotFile(dataBase, catalog, schema, fingerprint, createdAt);
+	}
+
+	public void write(Path file) throws IOException {
+		if(file.getParent() != null) Files.createDirectories(file.getParent());
+		try (OutputStream out = Files.newOutputStream(file)) {
+			write(out);
+		}
+	}
+
+	public void write(OutputStream output) throws IOException {
+
+		GZIPOutputStream gzip = new GZIPOutputStream(output);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, 64 * 1024));
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(TableCodec.VERSION);
+		out.writeLong(createdAt);
+		TableCodec.writeString(out, catalog);
+		TableCodec.writeString(out, schema);
+		TableCodec.writeString(out, fingerprint);
+
+		List<Table> tables = dataBase.getTables() == null ? Collections.emptyList() : dataBase.getTables();
+		TableCodec.writeString(out, dataBase.getName());
+		out.writeInt(tables.size());
+		for (Table table : tables) TableCodec.writeTable(out, table);
+		out.flush();
+		gzip.finish();
+	}
+
+	/**
+	 * The fingerprint of the live database is the same as the snapshot one.
+	 * A snapshot without fingerprint is never current.
+	 * @param con
+	 * @return
+	 * @throws SQLException
+	 */
+	public boolean isCurrent(Connection con) throws SQLException {
+		return fingerprint != null && fingerprint.equals(fingerprint(con, catalog, schema));
+	}
+
+	/**
+	 * Hash of the normalized columns of the schema, one getColumns call
+	 * @param con
+	 * @param catalog
+	 * @param schema null for the schema of the connection
+	 * @return
+	 * @throws SQLException
+	 */
+	public static String fingerprint(Connection con, String catalog, String schema) throws SQLException {
+
+		DatabaseDialect dialect = DatabaseDialect.of(con);
+		//MySQL resolves the schema to the catalog
+		String schemaPattern = dialect == DatabaseDialect.MYSQL ? schema : dialect.resolveSchema(con, catalog, schema);
+		List<String> columns = new ArrayList<>();
+		DatabaseMetaData databaseMetaData = con.getMetaData();
+		try (ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, "%", "%")) {
+			while(rs.next()) {
+				columns.add(fingerprintLine(rs.getString("TABLE_NAME"), rs.getString("COLUMN_NAME"), rs.getInt("DATA_TYPE"),
+						"YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")), rs.getLong("COLUMN_SIZE")));
+			}
+		}
+		Collections.sort(columns);
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (String column : columns) digest.update((column + "\n").getBytes(StandardCharsets.UTF_8));
+		StringBuilder fingerprint = new StringBuilder("sha256:");
+		for (byte b : digest.digest()) fingerprint.append(String.format("%02x", b));
+		return fingerprint.toString();
+	}
+
+	/**
+	 * One normalized column of the fingerprint
+	 * @param tableName
+	 * @param columnName
+	 * @param sqlType java.sql.Types
+	 * @param nullable
+	 * @param size COLUMN_SIZE
+	 * @return
+	 */
+	static String fingerprintLine(String tableName, String columnName, int sqlType, boolean nullable, long size) {
+
+		SchemaValidator.Family family = SchemaValidator.family(sqlType);
+		String familyName = family == null ? "OTHER" : family == SchemaValidator.Family.INTEGER ? SchemaValidator.Family.NUMERIC.name() : family.name();
+		long length = 0;
+		//text without limit is reported as 0, null or Integer.MAX_VALUE depending on the driver
+		if(sized(sqlType) && size > 0 && size < Integer.MAX_VALUE) length = size;
+		return upper(tableName) + "|" + upper(columnName) + "|" + familyName + "|" + (nullable ? "NULL" : "NOT NULL") + "|" + length;
+	}
+
+	private static boolean sized(int sqlType) {
+		switch (sqlType) {
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.BINARY:
+		case Types.VARBINARY:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private static String upper(String value) {
+		return value == null ? "" : value.toUpperCase(Locale.ROOT);
+	}
+
+	public DataBase getDataBase() {
+		return dataBase;
+	}
+
+	public String getCatalog() {
+		return catalog;
+	}
+
+	public String getSchema() {
+		return schema;
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public long getCreatedAt() {
+		return createdAt;
+	}
+}
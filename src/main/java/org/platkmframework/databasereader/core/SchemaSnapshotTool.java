@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Build time generator of SchemaSnapshotFile. It reads a database that is
+ * available during the build, usually an embedded H2 created by the
+ * migration scripts, and writes the snapshot in the resources of the
+ * artifact, for example with exec-maven-plugin in generate-resources:
+ *
+ *   java org.platkmframework.databasereader.core.SchemaSnapshotTool
+ *        --url=jdbc:h2:mem:build --user=sa --init=src/main/resources/db/V1__init.sql
+ *        --schema=PUBLIC --output=target/classes/META-INF/platkmframework/schema.snapshot
+ *
+ * Options: url (required), user, password, driver, catalog, schema,
+ * types (comma separated, TABLE by default), init (comma separated sql
+ * scripts run before reading) and output (DEFAULT_RESOURCE under the
+ * current directory by default).
+ */
+public class SchemaSnapshotTool {
+
+	public static void main(String[] args) {
+		try {
+			generate(options(args));
+		} catch (Exception e) {
+			Logger.getLogger(SchemaSnapshotTool.class.getName()).log(Level.SEVERE, null, e);
+			System.err.println("Usage: SchemaSnapshotTool --url=<jdbc url> [--user=] [--password=] [--driver=] " +
+							   "[--catalog=] [--schema=] [--types=TABLE,VIEW] [--init=a.sql,b.sql] [--output=<file>]");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 *
+	 * @param options see the class comment
+	 * @return the written snapshot
+	 * @throws Exception
+	 */
+	public static SchemaSnapshotFile generate(Map<String, String> options) throws Exception {
+
+		String url = options.get("url");
+		if(url == null) throw new DataBaseReaderException("url is required");
+		if(options.get("driver") != null) Class.forName(options.get("driver")).getDeclaredConstructor().newInstance();
+
+		String catalog = options.get("catalog");
+		String schema = options.get("schema");
+		String[] types = options.getOrDefault("types", "TABLE").split(",");
+		Path output = Paths.get(options.getOrDefault("output", SchemaSnapshotFile.DEFAULT_RESOURCE));
+
+		//the reader closes the connection, an in memory database lives until then
+		Connection con = DriverManager.getConnection(url, options.get("user"), options.get("password"));
+		String fingerprint;
+		DataBase dataBase;
+		try {
+			if(options.get("init") != null) {
+				for (String script : options.get("init").split(",")) runScript(con, Paths.get(script.trim()));
+			}
+			fingerprint = SchemaSnapshotFile.fingerprint(con, catalog, schema);
+			dataBase = new DatabaseReader(con).processDatabase(catalog, schema, null, types, null);
+		} finally {
+			if(!con.isClosed()) con.close();
+		}
+
+		SchemaSnapshotFile snapshot = new SchemaSnapshotFile(dataBase, catalog, schema, fingerprint);
+		snapshot.write(output);
+		Logger.getLogger(SchemaSnapshotTool.class.getName()).log(Level.INFO,
+				"Schema snapshot with " + dataBase.getTables().size() + " tables written to " + output.toAbsolutePath());
+		return snapshot;
+	}
+
+	/**
+	 * --name=value pairs
+	 * @param args
+	 * @return
+	 */
+	static Map<String, String> options(String[] args) {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (String arg : args) {
+			if(!arg.startsWith("--") || arg.indexOf('=') < 0) throw new IllegalArgumentException("Invalid option " + arg);
+			int index = arg.indexOf('=');
+			options.put(arg.substring(2, index), arg.substring(index + 1));
+		}
+		return options;
+	}
+
+	/**
+	 * Runs the statements of the script, separated by a ; at the end of a line
+	 * @param con
+	 * @param script
+	 * @throws Exception
+	 */
+	private static void runScript(Connection con, Path script) throws Exception {
+
+		List<String> statements = new ArrayList<>();
+		StringBuilder statement = new StringBuilder();
+		for (String line : Files.readAllLines(script, StandardCharsets.UTF_8)) {
+			String trimmed = line.trim();
+			if(trimmed.isEmpty() || trimmed.startsWith("--")) continue;
+			statement.append(line).append('\n');
+			if(trimmed.endsWith(";")) {
+				statement.setLength(statement.lastIndexOf(";"));
+				statements.add(statement.toString());
+				statement.setLength(0);
+			}
+		}
+		if(statement.toString().trim().length() > 0) statements.add(statement.toString());
+
+		try (Statement st = con.createStatement()) {
+			for (String sql : statements) st.execute(sql);
+		}
+	}
+}
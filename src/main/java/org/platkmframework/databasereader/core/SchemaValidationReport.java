@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Result of SchemaValidator, the differences between the expected tables
+ * and the database. An empty report means the database conforms.
+ */
+public class SchemaValidationReport {
+
+	public enum Kind {
+		MISSING_TABLE,
+		MISSING_COLUMN,
+		TYPE_MISMATCH,
+		LENGTH_TOO_SHORT,
+		NULLABILITY_MISMATCH,
+		PRIMARY_KEY_MISMATCH
+	}
+
+	private final List<Mismatch> mismatches = new ArrayList<>();
+	private int tablesChecked;
+	private int columnsChecked;
+	private long durationMillis;
+
+	public boolean isValid() {
+		return mismatches.isEmpty();
+	}
+
+	public List<Mismatch> getMismatches() {
+		return Collections.unmodifiableList(mismatches);
+	}
+
+	public List<Mismatch> getMismatches(String tableName) {
+		List<Mismatch> result = new ArrayList<>();
+		for (Mismatch mismatch : mismatches) {
+			if(mismatch.getTableName().equalsIgnoreCase(tableName)) result.add(mismatch);
+		}
+		return result;
+	}
+
+	public int getTablesChecked() {
+		return tablesChecked;
+	}
+
+	public int getColumnsChecked() {
+		return columnsChecked;
+	}
+
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	void add(Kind kind, String tableName, String columnName, String expected, String actual) {
+		mismatches.add(new Mismatch(kind, tableName, columnName, expected, actual));
+	}
+
+	void setTablesChecked(int tablesChecked) {
+		this.tablesChecked = tablesChecked;
+	}
+
+	void setColumnsChecked(int columnsChecked) {
+		this.columnsChecked = columnsChecked;
+	}
+
+	void setDurationMillis(long durationMillis) {
+		this.durationMillis = durationMillis;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		text.append(tablesChecked).append(" tables, ").append(columnsChecked).append(" columns checked in ")
+			.append(durationMillis).append(" ms, ").append(mismatches.size()).append(" mismatches");
+		for (Mismatch mismatch : mismatches) {
+			text.append(System.lineSeparator()).append("  ").append(mismatch);
+		}
+		return text.toString();
+	}
+
+	/**
+	 * One difference. columnName is null for a missing table, expected and
+	 * actual describe the value compared (type, length, nullable).
+	 */
+	public static class Mismatch {
+
+		private final Kind kind;
+		private final String tableName;
+		private final String columnName;
+		private final String expected;
+		private final String actual;
+
+		public Mismatch(Kind kind, String tableName, String columnName, String expected, String actual) {
+			this.kind = kind;
+			this.tableName = tableName;
+			this.columnName = columnName;
+			this.expected = expected;
+			this.actual = actual;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		public String getTableName() {
+			return tableName;
+		}
+
+		public String getColumnName() {
+			return columnName;
+		}
+
+		public String getExpected() {
+			return expected;
+		}
+
+		public String getActual() {
+			return actual;
+		}
+
+		@Override
+		public String toString() {
+			String name = columnName == null ? tableName : tableName + "." + columnName;
+			if(expected == null && actual == null) return kind + " " + name;
+			return kind + " " + name + ": expected " + expected + ", found " + actual;
+		}
+	}
+}
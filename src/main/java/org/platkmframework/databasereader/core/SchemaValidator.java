@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Checks that the expected tables (for example the ones of the entities)
+ * exist with their columns, compatible types and nullability, without
+ * reading the whole catalog. Only the expected tables are read, by chunks
+ * with the catalog queries of BatchMetadataReader, so the cost depends on
+ * the expected model and not on the size of the schema.
+ *
+ * In the expected columns a javaSqlType 0 and a null type skip the type
+ * check, a precision 0 skips the length check. Types are compatible when
+ * they are in the same family (integer, decimal, floating point, text,
+ * binary, boolean, date, time, timestamp). A wider integer is accepted for
+ * a narrower one and a decimal without scale for an integer (Oracle
+ * NUMBER). The primary keys are read only when some expected column is pk.
+ *
+ * The nullability is not checked by default: Column.isNullable is false
+ * when the expected model does not set it, every nullable column would be
+ * a mismatch. Enable it with setCheckNullability when the model sets it.
+ */
+public class SchemaValidator {
+
+	private final BatchMetadataReader batchMetadataReader;
+	private boolean checkNullability = false;
+	private boolean checkLength = true;
+
+	public SchemaValidator() {
+		this(new BatchMetadataReader());
+	}
+
+	public SchemaValidator(BatchMetadataReader batchMetadataReader) {
+		this.batchMetadataReader = batchMetadataReader;
+	}
+
+	/**
+	 *
+	 * @param con
+	 * @param catalog
+	 * @param schema
+	 * @param expected tables with the expected columns
+	 * @return
+	 * @throws SQLException
+	 */
+	public SchemaValidationReport validate(Connection con, String catalog, String schema, Collection<Table> expected) throws SQLException {
+
+		long start = System.currentTimeMillis();
+		SchemaValidationReport report = new SchemaValidationReport();
+
+		Map<String, Table> tables = new LinkedHashMap<>();
+		boolean pks = false;
+		for (Table table : expected) {
+			tables.put(table.getName(), table);
+			for (Column column : table.getColumn()) pks |= column.isPk();
+		}
+
+		Map<String, List<Column>> actualColumns = batchMetadataReader.readColumns(con, catalog, schema, tables.keySet());
+		Map<String, PkContraint> actualPks = pks ? batchMetadataReader.readPrimaryKeys(con, catalog, schema, tables.keySet()) : new TreeMap<>();
+
+		int columnsChecked = 0;
+		for (Table table : tables.values()) {
+			List<Column> columns = actualColumns.getOrDefault(table.getName(), new ArrayList<>());
+			if(columns.isEmpty()) {
+				report.add(SchemaValidationReport.Kind.MISSING_TABLE, table.getName(), null, null, null);
+				continue;
+			}
+			Map<String, Column> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for (Column column : columns) byName.put(column.getName(), column);
+			PkContraint pk = actualPks.get(table.getName());
+
+			for (Column column : table.getColumn()) {
+				columnsChecked++;
+				Column actual = byName.get(column.getName());
+				if(actual == null) {
+					report.add(SchemaValidationReport.Kind.MISSING_COLUMN, table.getName(), column.getName(), null, null);
+					continue;
+				}
+				compare(report, table.getName(), column, actual);
+				if(column.isPk() && (pk == null || !containsIgnoreCase(pk.getListField(), actual.getName()))) {
+					report.add(SchemaValidationReport.Kind.PRIMARY_KEY_MISMATCH, table.getName(), column.getName(), "pk", "not pk");
+				}
+			}
+		}
+
+		report.setTablesChecked(tables.size());
+		report.setColumnsChecked(columnsChecked);
+		report.setDurationMillis(System.currentTimeMillis() - start);
+		return report;
+	}
+
+	private void compare(SchemaValidationReport report, String tableName, Column expected, Column actual) {
+
+		if(!compatible(expected, actual)) {
+			report.add(SchemaValidationReport.Kind.TYPE_MISMATCH, tableName, expected.getName(), typeText(expected), typeText(actual));
+		}else if(checkLength && expected.getPrecision() > 0 && actual.getPrecision() > 0 && actual.getPrecision() < expected.getPrecision() &&
+				family(actual.getJavaSqlType()) != Family.INTEGER) {
+			report.add(SchemaValidationReport.Kind.LENGTH_TOO_SHORT, tableName, expected.getName(),
+					String.valueOf(expected.getPrecision()), String.valueOf(actual.getPrecision()));
+		}
+		if(checkNullability && expected.isNullable() != actual.isNullable()) {
+			report.add(SchemaValidationReport.Kind.NULLABILITY_MISMATCH, tableName, expected.getName(),
+					expected.isNullable() ? "nullable" : "not null", actual.isNullable() ? "nullable" : "not null");
+		}
+	}
+
+	/**
+	 * Type check of one column, an expected column without type is always compatible
+	 * @param expected
+	 * @param actual
+	 * @return
+	 */
+	protected boolean compatible(Column expected, Column actual) {
+
+		int expectedType = expected.getJavaSqlType();
+		if(expectedType == 0 || expectedType == Types.OTHER) {
+			if(expected.getType() == null) return true;
+			return expected.getType().equalsIgnoreCase(actual.getType());
+		}
+		int actualType = actual.getJavaSqlType();
+		if(expectedType == actualType) return true;
+
+		Family family = family(expectedType);
+		if(family == Family.INTEGER && family(actualType) == Family.NUMERIC) return actual.getScale() == 0;
+		if(family == null || family != family(actualType)) {
+			//unknown type codes, the names must be the same
+			return expected.getType() != null && expected.getType().equalsIgnoreCase(actual.getType());
+		}
+		if(family == Family.INTEGER) {
+			return integerWidth(actualType) >= integerWidth(expectedType);
+		}
+		return true;
+	}
+
+	enum Family {
+		INTEGER, NUMERIC, FLOATING, TEXT, BINARY, BOOLEAN, DATE, TIME, TIMESTAMP
+	}
+
+	/**
+	 * @param sqlType java.sql.Types
+	 * @return null for the types out of the families
+	 */
+	static Family family(int sqlType) {
+		switch (sqlType) {
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+		case Types.BIGINT:
+			return Family.INTEGER;
+		case Types.NUMERIC:
+		case Types.DECIMAL:
+			return Family.NUMERIC;
+		case Types.REAL:
+		case Types.FLOAT:
+		case Types.DOUBLE:
+			return Family.FLOATING;
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.LONGVARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.LONGNVARCHAR:
+		case Types.CLOB:
+		case Types.NCLOB:
+			return Family.TEXT;
+		case Types.BINARY:
+		case Types.VARBINARY:
+		case Types.LONGVARBINARY:
+		case Types.BLOB:
+			return Family.BINARY;
+		case Types.BIT:
+		case Types.BOOLEAN:
+			return Family.BOOLEAN;
+		case Types.DATE:
+			return Family.DATE;
+		case Types.TIME:
+		case Types.TIME_WITH_TIMEZONE:
+			return Family.TIME;
+		case Types.TIMESTAMP:
+		case Types.TIMESTAMP_WITH_TIMEZONE:
+			return Family.TIMESTAMP;
+		default:
+			return null;
+		}
+	}
+
+	private static int integerWidth(int sqlType) {
+		switch (sqlType) {
+		case Types.TINYINT:  return 1;
+		case Types.SMALLINT: return 2;
+		case Types.INTEGER:  return 4;
+		default:             return 8;
+		}
+	}
+
+	private static String typeText(Column column) {
+		String name = column.getType() != null ? column.getType() : TypeRegistry.defaultJavaType(column.getJavaSqlType());
+		return name + (column.getJavaSqlType() != 0 ? " (" + column.getJavaSqlType() + ")" : "");
+	}
+
+	private static boolean containsIgnoreCase(List<String> names, String name) {
+		if(names == null) return false;
+		for (String value : names) {
+			if(value.equalsIgnoreCase(name)) return true;
+		}
+		return false;
+	}
+
+	public boolean isCheckNullability() {
+		return checkNullability;
+	}
+
+	/**
+	 * Compares Column.isNullable of the expected columns, false by default.
+	 * Enable it only when the expected model sets the nullability of every column.
+	 * @param checkNullability
+	 */
+	public void setCheckNullability(boolean checkNullability) {
+		this.checkNullability = checkNullability;
+	}
+
+	public boolean isCheckLength() {
+		return checkLength;
+	}
+
+	public void setCheckLength(boolean checkLength) {
+		this.checkLength = checkLength;
+	}
+}
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.platkmframework.databasereader.core.SchemaChangeEvent.ColumnChange;
+import org.platkmframework.databasereader.core.SchemaChangeEvent.ColumnChangeType;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Polls the catalog from a single background thread and informs the
+ * listeners about added, dropped and altered tables.
+ *
+ * Each poll makes one getTables call and one query of a per table signal:
+ * the ddl timestamp query when it is given (for example, Oracle
+ * <code>SELECT OBJECT_NAME, LAST_DDL_TIME FROM USER_OBJECTS WHERE OBJECT_TYPE='TABLE'</code>),
+ * otherwise CatalogQueries.tableSignatures of the dialect. The columns are
+ * read again only for the tables whose signal changed. Without a signal
+ * (GENERIC dialect, a schema pattern, or the signal query fails) one schema
+ * wide getColumns call is compared by column signature on every poll.
+ * The first poll only takes the baseline.
+ */
+public class SchemaWatcher {
+
+	private final ConnectionSource connectionSource;
+	private final String catalog;
+	private final String schemaPattern;
+	private final String[] types;
+	private final List<SchemaChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+	private String ddlTimestampQuery;
+	private boolean catalogSignals = true;
+	private Map<String, TableState> snapshot;
+
+	private final Object pollLock = new Object();
+
+	private ScheduledExecutorService executor;
+	private ScheduledFuture<?> scheduledPoll;
+
+	public SchemaWatcher(ConnectionSource connectionSource, String catalog, String schemaPattern, String[] types) {
+		this.connectionSource = connectionSource;
+		this.catalog = catalog;
+		this.schemaPattern = schemaPattern;
+		this.types = types == null ? new String[]{"TABLE"} : types;
+	}
+
+	/**
+	 * Dialect query that returns the table name in the first column and the last
+	 * ddl time in the second one.
+	 * @param ddlTimestampQuery
+	 */
+	public void setDdlTimestampQuery(String ddlTimestampQuery) {
+		this.ddlTimestampQuery = ddlTimestampQuery;
+	}
+
+	/**
+	 * The per table signal of the dialect, CatalogQueries.tableSignatures,
+	 * is used when there is no ddl timestamp query. On by default.
+	 * @param catalogSignals
+	 */
+	public void setCatalogSignals(boolean catalogSignals) {
+		this.catalogSignals = catalogSignals;
+	}
+
+	public boolean isCatalogSignals() {
+		return catalogSignals;
+	}
+
+	public void addListener(SchemaChangeListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(SchemaChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	public synchronized void start(long interval, TimeUnit unit) {
+		if(scheduledPoll != null) throw new IllegalStateException("SchemaWatcher already started");
+		executor = Executors.newSingleThreadScheduledExecutor((r) -> {
+			Thread thread = new Thread(r, "platkm-schema-watcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduledPoll = executor.scheduleWithFixedDelay(this::pollQuietly, 0, interval, unit);
+	}
+
+	public synchronized void stop() {
+		if(scheduledPoll != null) {
+			scheduledPoll.cancel(false);
+			executor.shutdown();
+			scheduledPoll = null;
+			executor = null;
+		}
+	}
+
+	public synchronized boolean isRunning() {
+		return scheduledPoll != null;
+	}
+
+	/**
+	 * Any exception would cancel the scheduled poll, it is logged and the
+	 * next poll tries again
+	 */
+	private void pollQuietly() {
+		try {
+			poll();
+		} catch (SQLException | RuntimeException ex) {
+			Logger.getLogger(this.getClass().getName()).log(Level.WARNING, null, ex);
+		}
+	}
+
+	/**
+	 * Reads the catalog signals, compares them with the previous poll and
+	 * informs the listeners. Polls do not overlap; start, stop and isRunning
+	 * do not wait for a poll in progress.
+	 * @return the detected changes
+	 * @throws SQLException
+	 */
+	public List<SchemaChangeEvent> poll() throws SQLException {
+		synchronized (pollLock) {
+			return doPoll();
+		}
+	}
+
+	private List<SchemaChangeEvent> doPoll() throws SQLException {
+
+		Map<String, TableState> current;
+		try (Connection con = connectionSource.getConnection()) {
+			current = readState(con);
+		}
+
+		List<SchemaChangeEvent> events = new ArrayList<>();
+		if(snapshot != null) {
+			for (Map.Entry<String, TableState> entry : current.entrySet()) {
+				TableState old = snapshot.get(entry.getKey());
+				if(old == null) {
+					events.add(new SchemaChangeEvent(SchemaChangeEvent.Type.TABLE_ADDED, entry.getKey(), null));
+				}else if(!old.sameAs(entry.getValue())) {
+					List<ColumnChange> changes = columnChanges(old.columns, entry.getValue().columns);
+					if(!changes.isEmpty() || entry.getValue().ddlTimestamp != null)
+						events.add(new SchemaChangeEvent(SchemaChangeEvent.Type.TABLE_ALTERED, entry.getKey(), changes));
+				}
+			}
+			for (String tableName : snapshot.keySet()) {
+				if(!current.containsKey(tableName))
+					events.add(new SchemaChangeEvent(SchemaChangeEvent.Type.TABLE_DROPPED, tableName, null));
+			}
+		}
+		snapshot = current;
+
+		for (SchemaChangeEvent event : events) {
+			for (SchemaChangeListener listener : listeners) {
+				try {
+					listener.schemaChanged(event);
+				} catch (RuntimeException ex) {
+					Logger.getLogger(this.getClass().getName()).log(Level.WARNING, null, ex);
+				}
+			}
+		}
+		return events;
+	}
+
+	private Map<String, TableState> readState(Connection con) throws SQLException {
+
+		DatabaseMetaData databaseMetaData = con.getMetaData();
+		Map<String, TableState> current = new LinkedHashMap<>();
+		try (ResultSet rs = databaseMetaData.getTables(catalog, schemaPattern, "%", types)) {
+			while(rs.next()) {
+				current.put(rs.getString(3), new TableState());
+			}
+		}
+
+		if(readSignals(con, databaseMetaData, current)) {
+			if(snapshot == null) {
+				readColumns(databaseMetaData, "%", current);
+			}else {
+				//only the new tables and the tables with a new signal are read again
+				for (Map.Entry<String, TableState> entry : current.entrySet()) {
+					TableState old = snapshot.get(entry.getKey());
+					if(old != null && Objects.equals(old.ddlTimestamp, entry.getValue().ddlTimestamp))
+						entry.getValue().columns = old.columns;
+					else
+						readColumns(databaseMetaData, entry.getKey(), current);
+				}
+			}
+		}else {
+			readColumns(databaseMetaData, "%", current);
+		}
+		return current;
+	}
+
+	/**
+	 * Sets the signal of every table
+	 * @return false when there is no signal and every column must be compared
+	 */
+	private boolean readSignals(Connection con, DatabaseMetaData databaseMetaData, Map<String, TableState> current) throws SQLException {
+
+		if(ddlTimestampQuery != null) {
+			try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(ddlTimestampQuery)) {
+				readSignals(rs, current);
+			}
+			return true;
+		}
+		if(!catalogSignals || (schemaPattern != null && (schemaPattern.indexOf('%') >= 0 || schemaPattern.indexOf('_') >= 0))) return false;
+
+		DatabaseDialect dialect = DatabaseDialect.of(databaseMetaData);
+		String sql = CatalogQueries.tableSignatures(dialect);
+		String schema = dialect.resolveSchema(con, catalog, schemaPattern);
+		if(sql == null || schema == null) return false;
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setString(1, schema);
+			try (ResultSet rs = ps.executeQuery()) {
+				readSignals(rs, current);
+			}
+			return true;
+		} catch (SQLException ex) {
+			//not allowed to read the catalog views, the next polls compare the columns
+			Logger.getLogger(this.getClass().getName()).log(Level.INFO, "Table signatures not available, comparing the columns: {0}", ex.getMessage());
+			catalogSignals = false;
+			for (TableState state : current.values()) state.ddlTimestamp = null;
+			return false;
+		}
+	}
+
+	private void readSignals(ResultSet rs, Map<String, TableState> current) throws SQLException {
+		while(rs.next()) {
+			TableState state = current.get(rs.getString(1));
+			if(state != null) state.ddlTimestamp = rs.getString(2);
+		}
+	}
+
+	private void readColumns(DatabaseMetaData databaseMetaData, String tableNamePattern,
+							 Map<String, TableState> current) throws SQLException {
+
+		try (ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, tableNamePattern, "%")) {
+			while(rs.next()) {
+				String tableName = rs.getString("TABLE_NAME");
+				//'_' in a table name works as wildcard, the other matches are not for this call
+				if(!"%".equals(tableNamePattern) && !tableNamePattern.equals(tableName)) continue;
+				TableState state = current.get(tableName);
+				if(state != null) {
+					state.columns.put(rs.getString("COLUMN_NAME"),
+							rs.getString("TYPE_NAME") + "(" + rs.getString("COLUMN_SIZE") + "," + rs.getString("DECIMAL_DIGITS") + ")" +
+							" nullable=" + rs.getString("NULLABLE") + " default=" + rs.getString("COLUMN_DEF"));
+				}
+			}
+		}
+	}
+
+	private List<ColumnChange> columnChanges(Map<String, String> oldColumns, Map<String, String> newColumns) {
+
+		List<ColumnChange> changes = new ArrayList<>();
+		for (Map.Entry<String, String> entry : newColumns.entrySet()) {
+			String oldSignature = oldColumns.get(entry.getKey());
+			if(oldSignature == null)
+				changes.add(new ColumnChange(ColumnChangeType.COLUMN_ADDED, entry.getKey(), null, entry.getValue()));
+			else if(!oldSignature.equals(entry.getValue()))
+				changes.add(new ColumnChange(ColumnChangeType.COLUMN_MODIFIED, entry.getKey(), oldSignature, entry.getValue()));
+		}
+		for (Map.Entry<String, String> entry : oldColumns.entrySet()) {
+			if(!newColumns.containsKey(entry.getKey()))
+				changes.add(new ColumnChange(ColumnChangeType.COLUMN_DROPPED, entry.getKey(), entry.getValue(), null));
+		}
+		return changes;
+	}
+
+	private static final class TableState {
+
+		private String ddlTimestamp;
+		private Map<String, String> columns = new HashMap<>();
+
+		boolean sameAs(TableState other) {
+			return Objects.equals(ddlTimestamp, other.ddlTimestamp) && columns.equals(other.columns);
+		}
+	}
+}
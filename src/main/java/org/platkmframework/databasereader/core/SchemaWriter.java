@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.IOException;
+
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Receives the tables one by one, see DatabaseReader.exportDatabase. The
+ * writer must not keep the tables, they are released after writeTable.
+ * Only tables reach the writer: the routines, sequences, synonyms and
+ * check constraints of a DataBase are not written.
+ */
+public interface SchemaWriter {
+
+	void begin(String databaseName) throws IOException;
+
+	void writeTable(Table table) throws IOException;
+
+	void finish() throws IOException;
+
+	/**
+	 * The writing failed before finish, releases what the writer holds, e.g.
+	 * its temporary files. The output given to the writer is not closed.
+	 */
+	default void abort() {
+	}
+
+	/**
+	 * Writes a DataBase already in memory
+	 * @param dataBase
+	 * @throws IOException
+	 */
+	default void write(DataBase dataBase) throws IOException {
+		boolean finished = false;
+		try {
+			begin(dataBase.getName());
+			if(dataBase.getTables() != null) {
+				for (Table table : dataBase.getTables()) writeTable(table);
+			}
+			finish();
+			finished = true;
+		} finally {
+			if(!finished) abort();
+		}
+	}
+}
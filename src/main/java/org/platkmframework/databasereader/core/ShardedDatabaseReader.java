@@ -0,0 +1,453 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.platkmframework.databasereader.core.ScanCheckpoint.TableFailure;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Reads one logical schema through several endpoints with the same
+ * structure, as read replicas. Every endpoint has its own workers and
+ * connections; the workers take the next table from a shared queue, so a
+ * faster endpoint reads more tables. The time per table of every endpoint
+ * is measured and kept between reads: at the end of the queue a slower
+ * endpoint leaves a table to a faster one when the faster one would finish
+ * it first, the read does not wait for the slowest endpoint. A table that
+ * fails on one endpoint goes
+ * back to the queue for the others, it fails only when every endpoint
+ * failed it. The tables are merged into one DataBase in the order of the
+ * table list.
+ *
+ * With a limiter factory every endpoint gets one AdaptiveLimiter, shared by
+ * all of its workers, so the concurrency of each database adapts to its own
+ * latency.
+ */
+public class ShardedDatabaseReader {
+
+	private final List<Endpoint> endpoints = new ArrayList<>();
+	private int workersPerEndpoint = 1;
+	private List<String> excludedTables;
+	private Supplier<AdaptiveLimiter> limiterFactory;
+
+	private final List<TableFailure> failures = Collections.synchronizedList(new ArrayList<>());
+
+	/**
+	 *
+	 * @param connectionSources one per endpoint, the first one also reads the table list
+	 */
+	public ShardedDatabaseReader(List<ConnectionSource> connectionSources) {
+		if(connectionSources == null || connectionSources.isEmpty())
+			throw new IllegalArgumentException("At least one connection source is required");
+		for (int i = 0; i < connectionSources.size(); i++) {
+			endpoints.add(new Endpoint(i, connectionSources.get(i)));
+		}
+	}
+
+	/**
+	 *
+	 * @param catalogo
+	 * @param esquema
+	 * @param tabla
+	 * @param types
+	 * @param listSelectedTablesNames the tables to read, null or empty reads the table list from the first endpoint
+	 * @return
+	 * @throws DataBaseReaderException when no endpoint can be opened or the read is interrupted
+	 */
+	public DataBase processDatabase(String catalogo, String esquema, String tabla, String[] types,
+									List<String> listSelectedTablesNames) throws DataBaseReaderException {
+
+		failures.clear();
+		for (Endpoint endpoint : endpoints) endpoint.reset();
+
+		List<Table> listTablesName = tableList(catalogo, esquema, tabla, types, listSelectedTablesNames);
+		Scheduler scheduler = new Scheduler(listTablesName);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(endpoints.size() * workersPerEndpoint, (r) -> {
+			Thread thread = new Thread(r, "sharded-database-reader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (Endpoint endpoint : endpoints) {
+				for (int i = 0; i < workersPerEndpoint; i++) {
+					futures.add(executorService.submit(() -> work(endpoint, scheduler, catalogo)));
+				}
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataBaseReaderException("Sharded read interrupted");
+		} catch (ExecutionException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e.getCause());
+			throw new DataBaseReaderException(String.valueOf(e.getCause().getMessage()));
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		if(scheduler.result.length > 0 && endpoints.stream().allMatch((e) -> e.dead))
+			throw new DataBaseReaderException("No endpoint could be opened");
+
+		List<Table> tables = new ArrayList<>();
+		for (Table table : scheduler.result) {
+			if(table != null) tables.add(table);
+		}
+		DataBase dataBase = new DataBase(catalogo);
+		dataBase.setTables(tables);
+		return dataBase;
+	}
+
+	private List<Table> tableList(String catalogo, String esquema, String tabla, String[] types,
+								  List<String> listSelectedTablesNames) throws DataBaseReaderException {
+
+		List<Table> listTablesName = new ArrayList<>();
+		if(listSelectedTablesNames != null && !listSelectedTablesNames.isEmpty()) {
+			for (String tableName : listSelectedTablesNames) {
+				Table table = new Table();
+				table.setName(tableName);
+				table.setType("TABLE");
+				listTablesName.add(table);
+			}
+			return listTablesName;
+		}
+
+		for (Endpoint endpoint : endpoints) {
+			try (Connection con = endpoint.connectionSource.getConnection()) {
+				return reader(endpoint, con).readTablesName(con, catalogo, esquema, tabla, types, excludedTables);
+			} catch (SQLException e) {
+				Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+			}
+		}
+		throw new DataBaseReaderException("No endpoint could be opened to read the table list");
+	}
+
+	private void work(Endpoint endpoint, Scheduler scheduler, String catalogo) {
+
+		Connection con = null;
+		DatabaseReader reader = null;
+		try {
+			Task task;
+			while((task = scheduler.next(endpoint)) != null) {
+				try {
+					if(con == null || !con.isValid(5)) {
+						close(con);
+						con = endpoint.connectionSource.getConnection();
+						reader = reader(endpoint, con);
+					}
+				} catch (SQLException e) {
+					Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+					endpoint.dead = true;
+					scheduler.failed(task, endpoint, e.getMessage());
+					return;
+				}
+
+				long start = System.nanoTime();
+				try {
+					DatabaseMetaData databaseMetaData = con.getMetaData();
+					Table table = new Table();
+					table.setName(task.table.getName());
+					table.setType(task.table.getType());
+					table = reader.tableProcess(databaseMetaData, table);
+					endpoint.record(System.nanoTime() - start);
+					scheduler.done(task, table);
+				} catch (SQLException | RuntimeException e) {
+					Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+					scheduler.failed(task, endpoint, e.getMessage());
+				}
+			}
+		} finally {
+			close(con);
+			scheduler.left(endpoint);
+		}
+	}
+
+	/**
+	 * Reader of one worker, subclasses can set the limiter, index reader and
+	 * the other options of DatabaseReader
+	 * @param con
+	 * @return
+	 */
+	protected DatabaseReader newReader(Connection con) {
+		return new DatabaseReader(con, excludedTables == null ? null : new ArrayList<>(excludedTables));
+	}
+
+	private DatabaseReader reader(Endpoint endpoint, Connection con) {
+		DatabaseReader reader = newReader(con);
+		if(reader.getLimiter() == null) reader.setLimiter(endpoint.limiter(limiterFactory));
+		return reader;
+	}
+
+	private void close(Connection con) {
+		if(con == null) return;
+		try {
+			con.close();
+		} catch (SQLException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.FINE, null, e);
+		}
+	}
+
+	/**
+	 * Tables that failed on every endpoint in the last processDatabase
+	 * @return
+	 */
+	public List<TableFailure> getFailures() {
+		synchronized (failures) {
+			return new ArrayList<>(failures);
+		}
+	}
+
+	/**
+	 * Tables per second of every endpoint in the last processDatabase, in the
+	 * order of the connection sources
+	 * @return
+	 */
+	public List<Double> getThroughputs() {
+		List<Double> throughputs = new ArrayList<>();
+		for (Endpoint endpoint : endpoints) throughputs.add(endpoint.getThroughput());
+		return throughputs;
+	}
+
+	/**
+	 * Tables read by every endpoint in the last processDatabase, in the order
+	 * of the connection sources
+	 * @return
+	 */
+	public List<Integer> getTablesRead() {
+		List<Integer> tablesRead = new ArrayList<>();
+		for (Endpoint endpoint : endpoints) tablesRead.add(endpoint.tables);
+		return tablesRead;
+	}
+
+	public int getWorkersPerEndpoint() {
+		return workersPerEndpoint;
+	}
+
+	public void setWorkersPerEndpoint(int workersPerEndpoint) {
+		if(workersPerEndpoint <= 0) throw new IllegalArgumentException("workersPerEndpoint must be greater than 0");
+		this.workersPerEndpoint = workersPerEndpoint;
+	}
+
+	public List<String> getExcludedTables() {
+		return excludedTables;
+	}
+
+	public void setExcludedTables(List<String> excludedTables) {
+		this.excludedTables = excludedTables;
+	}
+
+	public Supplier<AdaptiveLimiter> getLimiterFactory() {
+		return limiterFactory;
+	}
+
+	/**
+	 * Called once per endpoint, the limiter is kept between calls to
+	 * processDatabase. null (default) does not limit the workers
+	 * @param limiterFactory
+	 */
+	public void setLimiterFactory(Supplier<AdaptiveLimiter> limiterFactory) {
+		this.limiterFactory = limiterFactory;
+	}
+
+	private static final class Endpoint {
+
+		private final int index;
+		private final ConnectionSource connectionSource;
+
+		private volatile boolean dead;
+		private volatile int tables;
+		private volatile long busyNanos;
+		/** moving average of the time per table, kept between reads, 0 until the first table */
+		private volatile double nanosPerTable;
+		private AdaptiveLimiter limiter;
+
+		Endpoint(int index, ConnectionSource connectionSource) {
+			this.index = index;
+			this.connectionSource = connectionSource;
+		}
+
+		synchronized void reset() {
+			dead = false;
+			tables = 0;
+			busyNanos = 0;
+		}
+
+		synchronized void record(long nanos) {
+			tables++;
+			busyNanos += nanos;
+			nanosPerTable = nanosPerTable == 0 ? nanos : nanosPerTable * 0.8 + nanos * 0.2;
+		}
+
+		synchronized AdaptiveLimiter limiter(Supplier<AdaptiveLimiter> limiterFactory) {
+			if(limiter == null && limiterFactory != null) limiter = limiterFactory.get();
+			return limiter;
+		}
+
+		double getThroughput() {
+			long nanos = busyNanos;
+			return nanos == 0 ? 0 : tables * 1_000_000_000d / nanos;
+		}
+	}
+
+	private static final class Task {
+
+		private final int position;
+		private final Table table;
+		private final Set<Integer> failedOn = new HashSet<>();
+		private String message;
+
+		Task(int position, Table table) {
+			this.position = position;
+			this.table = table;
+		}
+	}
+
+	/**
+	 * Shared queue of the workers
+	 */
+	private final class Scheduler {
+
+		private final LinkedList<Task> pending = new LinkedList<>();
+		private final Table[] result;
+		private int inFlight;
+
+		Scheduler(List<Table> listTablesName) {
+			result = new Table[listTablesName.size()];
+			for (int i = 0; i < listTablesName.size(); i++) {
+				pending.add(new Task(i, listTablesName.get(i)));
+			}
+		}
+
+		/**
+		 * Next table that did not fail on the endpoint. Waits while the only
+		 * tables left are in flight, they can come back after a failure.
+		 * @param endpoint
+		 * @return null when there is nothing left for the endpoint
+		 */
+		synchronized Task next(Endpoint endpoint) {
+			while(true) {
+				if(endpoint.dead || Thread.currentThread().isInterrupted()) return null;
+				boolean left = false;
+				for (Iterator<Task> iterator = pending.iterator(); iterator.hasNext();) {
+					Task task = iterator.next();
+					if(task.failedOn.contains(endpoint.index)) continue;
+					if(fasterEndpointFor(endpoint, task)) {
+						left = true;
+						continue;
+					}
+					iterator.remove();
+					inFlight++;
+					return task;
+				}
+				if(inFlight == 0 && !left) return null;
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return null;
+				}
+			}
+		}
+
+		synchronized void done(Task task, Table table) {
+			result[task.position] = table;
+			inFlight--;
+			notifyAll();
+		}
+
+		synchronized void failed(Task task, Endpoint endpoint, String message) {
+			inFlight--;
+			task.failedOn.add(endpoint.index);
+			task.message = message;
+			if(hasEndpointFor(task)) pending.addFirst(task);
+			else fail(task);
+			notifyAll();
+		}
+
+		/**
+		 * A worker has finished, the tables that only it could still read fail
+		 * @param endpoint
+		 */
+		synchronized void left(Endpoint endpoint) {
+			for (Iterator<Task> iterator = pending.iterator(); iterator.hasNext();) {
+				Task task = iterator.next();
+				if(!hasEndpointFor(task)) {
+					iterator.remove();
+					fail(task);
+				}
+			}
+			notifyAll();
+		}
+
+		/**
+		 * Another endpoint that can read the task would finish it before this
+		 * one: with its workers it reads the pending tables, and the one in
+		 * hand, in less time than this endpoint needs for one table
+		 * @param endpoint
+		 * @param task
+		 * @return
+		 */
+		private boolean fasterEndpointFor(Endpoint endpoint, Task task) {
+			double own = endpoint.nanosPerTable;
+			if(own == 0) return false;
+			int rounds = (pending.size() + workersPerEndpoint - 1) / workersPerEndpoint + 1;
+			for (Endpoint other : endpoints) {
+				if(other == endpoint || other.dead || task.failedOn.contains(other.index)) continue;
+				double theirs = other.nanosPerTable;
+				if(theirs > 0 && theirs * rounds < own) return true;
+			}
+			return false;
+		}
+
+		private boolean hasEndpointFor(Task task) {
+			for (Endpoint endpoint : endpoints) {
+				if(!endpoint.dead && !task.failedOn.contains(endpoint.index)) return true;
+			}
+			return false;
+		}
+
+		private void fail(Task task) {
+			failures.add(new TableFailure(task.table.getName(), task.failedOn.size(), task.message));
+		}
+	}
+}
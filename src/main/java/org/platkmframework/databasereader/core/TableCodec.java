@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Compact binary form of the table model, used by the journals and snapshots.
+ * The model classes are not Serializable, every field is written by hand.
+ */
+public final class TableCodec {
+
+	public static final int VERSION = 2;
+
+	private TableCodec() {
+	}
+
+	public static void writeTable(DataOutput out, Table table) throws IOException {
+
+		writeString(out, table.getName());
+		writeString(out, table.getType());
+		writeString(out, table.getComment());
+
+		PkContraint pk = table.getPkContraint();
+		out.writeBoolean(pk != null);
+		if(pk != null) {
+			writeString(out, pk.getName());
+			writeStrings(out, pk.getListField());
+		}
+
+		out.writeInt(table.getColumn().size());
+		for (Column column : table.getColumn()) {
+			writeColumn(out, column);
+		}
+
+		out.writeInt(table.getIndexContraint().size());
+		for (IndexContraint index : table.getIndexContraint()) {
+			writeString(out, index.getName());
+			writeString(out, index.getType());
+			writeString(out, index.getOrderType());
+			writeStrings(out, index.getColumns());
+		}
+
+		out.writeInt(table.getFkContraint().size());
+		for (FkContraint fk : table.getFkContraint()) {
+			writeString(out, fk.getFkName());
+			writeString(out, fk.getFkTableName());
+			writeString(out, fk.getPkTableName());
+			out.writeInt(fk.getImportedKey().size());
+			for (ImportedKey key : fk.getImportedKey()) {
+				writeString(out, key.getPkTableName());
+				writeString(out, key.getPkColumnName());
+				writeString(out, key.getFkColumnName());
+				writeString(out, key.getKeySeq());
+				writeString(out, key.getUpdateRule());
+				writeString(out, key.getDeleteRule());
+				out.writeBoolean(key.isNullable());
+				out.writeBoolean(key.isUnique());
+				out.writeBoolean(key.isPk());
+			}
+		}
+	}
+
+	public static Table readTable(DataInput in) throws IOException {
+
+		Table table = new Table();
+		table.setName(readString(in));
+		table.setType(readString(in));
+		table.setComment(readString(in));
+
+		if(in.readBoolean()) {
+			PkContraint pk = new PkContraint();
+			pk.setName(readString(in));
+			readStrings(in, pk.getListField());
+			table.setPkContraint(pk);
+		}
+
+		int columns = in.readInt();
+		for (int i = 0; i < columns; i++) {
+			table.getColumn().add(readColumn(in));
+		}
+
+		int indexes = in.readInt();
+		for (int i = 0; i < indexes; i++) {
+			IndexContraint index = new IndexContraint();
+			index.setName(readString(in));
+			index.setType(readString(in));
+			index.setOrderType(readString(in));
+			readStrings(in, index.getColumns());
+			table.getIndexContraint().add(index);
+		}
+
+		int fks = in.readInt();
+		for (int i = 0; i < fks; i++) {
+			FkContraint fk = new FkContraint();
+			fk.setFkName(readString(in));
+			fk.setFkTableName(readString(in));
+			fk.setPkTableName(readString(in));
+			int keys = in.readInt();
+			for (int j = 0; j < keys; j++) {
+				ImportedKey key = new ImportedKey();
+				key.setPkTableName(readString(in));
+				key.setPkColumnName(readString(in));
+				key.setFkColumnName(readString(in));
+				key.setKeySeq(readString(in));
+				key.setUpdateRule(readString(in));
+				key.setDeleteRule(readString(in));
+				key.setNullable(in.readBoolean());
+				key.setUnique(in.readBoolean());
+				key.setPk(in.readBoolean());
+				fk.getImportedKey().add(key);
+			}
+			table.getFkContraint().add(fk);
+		}
+		return table;
+	}
+
+	public static void writeColumn(DataOutput out, Column column) throws IOException {
+		writeString(out, column.getName());
+		writeString(out, column.getLabel());
+		writeString(out, column.getTable());
+		writeString(out, column.getType());
+		writeString(out, column.getJavaType());
+		out.writeInt(column.getJavaSqlType());
+		out.writeInt(column.getPrecision());
+		out.writeInt(column.getScale());
+		out.writeBoolean(column.isNullable());
+		out.writeBoolean(column.isPk());
+		out.writeBoolean(column.isFk());
+		out.writeBoolean(column.isUnique());
+		out.writeBoolean(column.isAutoIncrement());
+		writeString(out, column.getFktablename());
+		writeString(out, column.getComment());
+		writeString(out, column.getDefaultValue());
+	}
+
+	public static Column readColumn(DataInput in) throws IOException {
+		Column column = new Column();
+		column.setName(readString(in));
+		column.setLabel(readString(in));
+		column.setTable(readString(in));
+		column.setType(readString(in));
+		column.setJavaType(readString(in));
+		column.setJavaSqlType(in.readInt());
+		column.setPrecision(in.readInt());
+		column.setScale(in.readInt());
+		column.setNullable(in.readBoolean());
+		column.setPk(in.readBoolean());
+		column.setFk(in.readBoolean());
+		column.setUnique(in.readBoolean());
+		column.setAutoIncrement(in.readBoolean());
+		column.setFktablename(readString(in));
+		column.setComment(readString(in));
+		column.setDefaultValue(readString(in));
+		return column;
+	}
+
+	/**
+	 * Length and UTF-8 bytes. writeUTF is limited to 64 KB and a long
+	 * comment or default value would fail.
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	public static void writeString(DataOutput out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if(value != null) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	public static String readString(DataInput in) throws IOException {
+		if(!in.readBoolean()) return null;
+		int length = in.readInt();
+		if(length < 0) throw new IOException("Invalid string length " + length);
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			writeString(out, value);
+		}
+	}
+
+	private static void readStrings(DataInput in, List<String> values) throws IOException {
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			values.add(readString(in));
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Flight Recorder event of a step of DatabaseReader over a table: the
+ * probe query (SELECT * ... WHERE 1=2), readBasicTableInfo and
+ * getTableColumnMetaData. rowCount is the number of columns of the probe
+ * and getTableColumnMetaData and the number of tables of
+ * readBasicTableInfo.
+ */
+@Name("org.platkmframework.databasereader.TableRead")
+@Label("Table Read")
+@Category({"PlatKM", "Database Reader"})
+@Description("Probe query and table reads of DatabaseReader")
+@StackTrace(false)
+@Threshold("10 ms")
+public class TableReadEvent extends Event {
+
+	public static final String PROBE                     = "probe";
+	public static final String READ_BASIC_TABLE_INFO     = "readBasicTableInfo";
+	public static final String GET_TABLE_COLUMN_METADATA = "getTableColumnMetaData";
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Table")
+	String tableName;
+
+	@Label("Rows")
+	long rowCount;
+
+	/**
+	 * Event already begun
+	 * @param operation
+	 * @param tableName
+	 * @return
+	 */
+	static TableReadEvent start(String operation, String tableName) {
+		TableReadEvent event = new TableReadEvent();
+		if(event.isEnabled()) {
+			event.operation = operation;
+			event.tableName = tableName;
+			event.begin();
+		}
+		return event;
+	}
+
+	/**
+	 * Ends the event and commits it when it is over the threshold
+	 * @param rows
+	 */
+	void finish(long rows) {
+		if(!isEnabled()) return;
+		end();
+		if(shouldCommit()) {
+			rowCount = rows;
+			commit();
+		}
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public long getRowCount() {
+		return rowCount;
+	}
+}
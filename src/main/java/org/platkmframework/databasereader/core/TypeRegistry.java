@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.JDBCType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * SQL types of a driver, loaded once from DatabaseMetaData.getTypeInfo().
+ * The type name of every java.sql.Types code is in an array indexed by the
+ * code, so resolving a column is an array read instead of a
+ * getColumnTypeName call to the driver.
+ *
+ * The java class is the one of the driver: getColumnClassName is asked
+ * once per type code and type name and kept, the columns read without a
+ * ResultSetMetaData (getColumns) take the kept one, or the class of the
+ * JDBC specification while no column of the type was probed. The java
+ * class of a type code or of a type name can be overridden.
+ */
+public class TypeRegistry {
+
+	private static final int MIN_CODE = -200;
+	private static final int MAX_CODE = 2100;
+
+	/** Type code with more than one type name, the name has to come from the driver */
+	private static final String AMBIGUOUS = new String("");
+
+	private static final Map<String, TypeRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+	private final Map<String, Integer> typeCodes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final Map<String, String> nameOverrides = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+	/** overrides by type code, null when the code has none */
+	private volatile String[] javaTypes = new String[MAX_CODE - MIN_CODE + 1];
+	private final String[] typeNames = new String[MAX_CODE - MIN_CODE + 1];
+	private final Map<Integer, String> otherJavaTypes = new ConcurrentHashMap<>();
+	private final Map<Integer, String> otherTypeNames = new HashMap<>();
+	/** getColumnClassName of the driver by type code and type name */
+	private final Map<String, String> driverJavaTypes = new ConcurrentHashMap<>();
+
+	protected TypeRegistry() {
+	}
+
+	/**
+	 * The registry of the driver of the connection, it is loaded the first time
+	 * and shared by every connection with the same driver and database version
+	 * @param con
+	 * @return
+	 * @throws SQLException
+	 */
+	public static TypeRegistry of(Connection con) throws SQLException {
+		DatabaseMetaData databaseMetaData = con.getMetaData();
+		String key = databaseMetaData.getDriverName() + "|" + databaseMetaData.getDriverVersion() + "|" +
+					 databaseMetaData.getDatabaseProductName() + "|" + databaseMetaData.getDatabaseProductVersion();
+		TypeRegistry registry = REGISTRIES.get(key);
+		if(registry == null) {
+			registry = load(databaseMetaData);
+			TypeRegistry previous = REGISTRIES.putIfAbsent(key, registry);
+			if(previous != null) registry = previous;
+		}
+		return registry;
+	}
+
+	/**
+	 * New registry, not shared
+	 * @param databaseMetaData
+	 * @return
+	 * @throws SQLException
+	 */
+	public static TypeRegistry load(DatabaseMetaData databaseMetaData) throws SQLException {
+		TypeRegistry registry = new TypeRegistry();
+		try (ResultSet rs = databaseMetaData.getTypeInfo()) {
+			while(rs.next()) {
+				registry.addType(rs.getString("TYPE_NAME"), rs.getInt("DATA_TYPE"));
+			}
+		}
+		return registry;
+	}
+
+	/**
+	 * Removes the shared registries, the next of() loads again
+	 */
+	public static void clear() {
+		REGISTRIES.clear();
+	}
+
+	protected synchronized void addType(String typeName, int sqlType) {
+		if(typeName == null) return;
+		typeCodes.putIfAbsent(typeName, sqlType);
+		String current = sqlType >= MIN_CODE && sqlType <= MAX_CODE ? typeNames[sqlType - MIN_CODE] : otherTypeNames.get(sqlType);
+		String name = current == null ? typeName : (current.equalsIgnoreCase(typeName) ? current : AMBIGUOUS);
+		if(sqlType >= MIN_CODE && sqlType <= MAX_CODE) typeNames[sqlType - MIN_CODE] = name;
+		else otherTypeNames.put(sqlType, name);
+	}
+
+	/**
+	 * Java class name of a type code, the override or the class of the JDBC
+	 * specification
+	 * @param sqlType java.sql.Types or a vendor code
+	 * @return
+	 */
+	public String javaType(int sqlType) {
+		String javaType = overridden(sqlType);
+		return javaType != null ? javaType : defaultJavaType(sqlType);
+	}
+
+	/**
+	 * Java class name of a column without ResultSetMetaData: the overrides,
+	 * then the class the driver gave for the same type, then the class of the
+	 * JDBC specification
+	 * @param sqlType
+	 * @param typeName
+	 * @return
+	 */
+	public String javaType(int sqlType, String typeName) {
+		String javaType = overridden(sqlType, typeName);
+		if(javaType != null) return javaType;
+		javaType = driverJavaTypes.get(driverKey(sqlType, typeName));
+		return javaType != null ? javaType : defaultJavaType(sqlType);
+	}
+
+	/**
+	 * Java class name of a column of a probe query: the overrides, then
+	 * getColumnClassName of the driver, asked once per type code and name
+	 * @param sqlType
+	 * @param typeName
+	 * @param resultSetMetaData
+	 * @param column
+	 * @return
+	 * @throws SQLException
+	 */
+	public String javaType(int sqlType, String typeName, ResultSetMetaData resultSetMetaData, int column) throws SQLException {
+		String javaType = overridden(sqlType, typeName);
+		if(javaType != null) return javaType;
+		String key = driverKey(sqlType, typeName);
+		javaType = driverJavaTypes.get(key);
+		if(javaType == null) {
+			javaType = resultSetMetaData.getColumnClassName(column);
+			if(javaType == null) return defaultJavaType(sqlType);
+			driverJavaTypes.putIfAbsent(key, javaType);
+		}
+		return javaType;
+	}
+
+	private String overridden(int sqlType, String typeName) {
+		if(typeName != null && !nameOverrides.isEmpty()) {
+			String javaType;
+			synchronized (this) {
+				javaType = nameOverrides.get(typeName);
+			}
+			if(javaType != null) return javaType;
+		}
+		return overridden(sqlType);
+	}
+
+	private String overridden(int sqlType) {
+		if(sqlType >= MIN_CODE && sqlType <= MAX_CODE) return javaTypes[sqlType - MIN_CODE];
+		return otherJavaTypes.get(sqlType);
+	}
+
+	private static String driverKey(int sqlType, String typeName) {
+		return typeName == null ? String.valueOf(sqlType) : sqlType + "|" + typeName.toUpperCase();
+	}
+
+	/**
+	 * The type name of a type code when the driver has only one name for it
+	 * @param sqlType
+	 * @return the name, null when the code has none or many names
+	 */
+	public synchronized String typeName(int sqlType) {
+		String name = sqlType >= MIN_CODE && sqlType <= MAX_CODE ? typeNames[sqlType - MIN_CODE] : otherTypeNames.get(sqlType);
+		return name == AMBIGUOUS ? null : name;
+	}
+
+	/**
+	 * Type code of a type name, Types.OTHER when it is unknown
+	 * @param typeName
+	 * @return
+	 */
+	public synchronized int sqlType(String typeName) {
+		if(typeName == null) return Types.OTHER;
+		Integer code = typeCodes.get(typeName);
+		if(code != null) return code;
+		try {
+			return JDBCType.valueOf(typeName.toUpperCase().replace(' ', '_')).getVendorTypeNumber();
+		} catch (IllegalArgumentException e) {
+			return Types.OTHER;
+		}
+	}
+
+	/**
+	 * Java class for every column with the type code
+	 * @param sqlType
+	 * @param javaType
+	 * @return
+	 */
+	public synchronized TypeRegistry override(int sqlType, String javaType) {
+		if(sqlType >= MIN_CODE && sqlType <= MAX_CODE) {
+			String[] table = Arrays.copyOf(javaTypes, javaTypes.length);
+			table[sqlType - MIN_CODE] = javaType;
+			javaTypes = table;
+		}else {
+			otherJavaTypes.put(sqlType, javaType);
+		}
+		return this;
+	}
+
+	/**
+	 * Java class for every column with the type name, it goes before the code
+	 * @param typeName
+	 * @param javaType
+	 * @return
+	 */
+	public synchronized TypeRegistry override(String typeName, String javaType) {
+		nameOverrides.put(typeName, javaType);
+		return this;
+	}
+
+	/**
+	 * Java class of a java.sql.Types code, JDBC specification table B-3
+	 * @param sqlType
+	 * @return
+	 */
+	public static String defaultJavaType(int sqlType) {
+
+		switch (sqlType) {
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.LONGVARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.LONGNVARCHAR:
+			return String.class.getName();
+		case Types.NUMERIC:
+		case Types.DECIMAL:
+			return java.math.BigDecimal.class.getName();
+		case Types.BIT:
+		case Types.BOOLEAN:
+			return Boolean.class.getName();
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+			return Integer.class.getName();
+		case Types.BIGINT:
+			return Long.class.getName();
+		case Types.REAL:
+			return Float.class.getName();
+		case Types.FLOAT:
+		case Types.DOUBLE:
+			return Double.class.getName();
+		case Types.BINARY:
+		case Types.VARBINARY:
+		case Types.LONGVARBINARY:
+			return byte[].class.getName();
+		case Types.DATE:
+			return java.sql.Date.class.getName();
+		case Types.TIME:
+			return java.sql.Time.class.getName();
+		case Types.TIMESTAMP:
+			return java.sql.Timestamp.class.getName();
+		case Types.TIME_WITH_TIMEZONE:
+			return java.time.OffsetTime.class.getName();
+		case Types.TIMESTAMP_WITH_TIMEZONE:
+			return java.time.OffsetDateTime.class.getName();
+		case Types.CLOB:
+			return java.sql.Clob.class.getName();
+		case Types.NCLOB:
+			return java.sql.NClob.class.getName();
+		case Types.BLOB:
+			return java.sql.Blob.class.getName();
+		case Types.ARRAY:
+			return java.sql.Array.class.getName();
+		case Types.SQLXML:
+			return java.sql.SQLXML.class.getName();
+		default:
+			return Object.class.getName();
+		}
+	}
+}
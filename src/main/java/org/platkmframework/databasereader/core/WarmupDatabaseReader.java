@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * IDatabaseReader decorator that preloads the tables in background at
+ * startup. The tables are loaded by access frequency, the counters of the
+ * previous runs are kept in a properties file. A request for a table not
+ * loaded yet moves it to the front of the queue and waits only for it.
+ *
+ * Tables out of the warm-up list, and tables whose load failed, are read
+ * with the connection of the caller. A loaded table older than ttlMillis is
+ * read again with the connection of the caller. The callers get a copy of
+ * the loaded tables.
+ *
+ * The access counters are saved on stop and, with a statistics interval,
+ * periodically while the reader runs.
+ *
+ * The warm-up workers use the limiter of the wrapped reader, give the
+ * DatabaseReader an AdaptiveLimiter to bound them together with the other
+ * readers of the database. The limiter of this class only covers the read
+ * of the table list.
+ */
+public class WarmupDatabaseReader implements IDatabaseReader {
+
+	private final IDatabaseReader databaseReader;
+	private final ConnectionSource connectionSource;
+	private final Path statisticsFile;
+	private int threads = 1;
+	private long ttlMillis = 0;
+	private long statisticsIntervalMillis = 0;
+	private AdaptiveLimiter limiter;
+
+	private final Map<String, AtomicLong> accessCount = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	/** the key is the name of the warm-up list, the queue holds the same names */
+	private final TreeMap<String, CompletableFuture<List<Table>>> loads = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	/** System.currentTimeMillis of the load, guarded by loads */
+	private final Map<String, Long> loadedAt = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final LinkedBlockingDeque<String> queue = new LinkedBlockingDeque<>();
+	private ExecutorService executorService;
+	private ScheduledExecutorService statisticsExecutor;
+
+	/**
+	 *
+	 * @param databaseReader reader of each table
+	 * @param connectionSource connections of the warm-up workers
+	 * @param statisticsFile access counters, null does not keep them between runs
+	 */
+	public WarmupDatabaseReader(IDatabaseReader databaseReader, ConnectionSource connectionSource, Path statisticsFile) {
+		this.databaseReader = databaseReader;
+		this.connectionSource = connectionSource;
+		this.statisticsFile = statisticsFile;
+		loadStatistics();
+	}
+
+	/**
+	 * Starts the warm-up in background
+	 * @param tableNames tables to preload, null or empty preloads every table of the connection
+	 * @throws DataBaseReaderException when the table list can not be read
+	 */
+	public synchronized void start(Collection<String> tableNames) throws DataBaseReaderException {
+
+		if(executorService != null) return;
+		List<String> names = tableNames == null || tableNames.isEmpty() ? readTableNames() : new ArrayList<>(tableNames);
+
+		//the most accessed first, the order of the list for the same count
+		List<String> ordered = new ArrayList<>(names);
+		ordered.sort(Comparator.comparingLong((String name) -> count(name)).reversed());
+
+		synchronized (loads) {
+			for (String name : ordered) {
+				if(loads.putIfAbsent(name, new CompletableFuture<>()) == null) queue.addLast(name);
+			}
+		}
+
+		executorService = Executors.newFixedThreadPool(threads, (r) -> {
+			Thread thread = new Thread(r, "metadata-warmup");
+			thread.setDaemon(true);
+			return thread;
+		});
+		for (int i = 0; i < threads; i++) {
+			executorService.submit(this::work);
+		}
+
+		if(statisticsFile != null && statisticsIntervalMillis > 0) {
+			statisticsExecutor = Executors.newSingleThreadScheduledExecutor((r) -> {
+				Thread thread = new Thread(r, "metadata-warmup-statistics");
+				thread.setDaemon(true);
+				return thread;
+			});
+			statisticsExecutor.scheduleWithFixedDelay(this::saveStatistics, statisticsIntervalMillis, statisticsIntervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Stops the workers and saves the access counters. The tables not loaded
+	 * yet are read with the connection of the caller.
+	 */
+	public synchronized void stop() {
+		if(executorService != null) {
+			executorService.shutdownNow();
+			executorService = null;
+		}
+		if(statisticsExecutor != null) {
+			statisticsExecutor.shutdownNow();
+			statisticsExecutor = null;
+		}
+		queue.clear();
+		synchronized (loads) {
+			for (CompletableFuture<List<Table>> load : loads.values()) load.complete(null);
+		}
+		saveStatistics();
+	}
+
+	/**
+	 * Waits until every table of the warm-up is loaded
+	 * @param timeout
+	 * @param unit
+	 * @return false when the time ran out
+	 * @throws InterruptedException
+	 */
+	public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		CompletableFuture<?>[] all;
+		synchronized (loads) {
+			all = loads.values().toArray(new CompletableFuture<?>[0]);
+		}
+		try {
+			CompletableFuture.allOf(all).get(timeout, unit);
+			return true;
+		} catch (TimeoutException e) {
+			return false;
+		} catch (ExecutionException e) {
+			return true;
+		}
+	}
+
+	public int getPending() {
+		return queue.size();
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * Limiter of the table list query, null (default) does not limit it
+	 * @param limiter
+	 */
+	public void setLimiter(AdaptiveLimiter limiter) {
+		this.limiter = limiter;
+	}
+
+	@Override
+	public List<Table> getMetadata(Connection con) {
+		return databaseReader.getMetadata(con);
+	}
+
+	@Override
+	public List<Table> getMetadata(Connection con, String table) {
+
+		if(table == null) return databaseReader.getMetadata(con, null);
+		recordAccess(table);
+
+		CompletableFuture<List<Table>> load;
+		String queued;
+		synchronized (loads) {
+			load = loads.get(table);
+			queued = loads.ceilingKey(table);
+		}
+		if(load == null) return databaseReader.getMetadata(con, table);
+
+		//the queue compares with equals, it has the name as it was listed
+		if(!load.isDone() && queue.remove(queued)) queue.addFirst(queued);
+		List<Table> tables;
+		try {
+			tables = load.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return databaseReader.getMetadata(con, table);
+		} catch (ExecutionException e) {
+			tables = null;
+		}
+		if(tables == null) return databaseReader.getMetadata(con, table);
+		if(isExpired(table)) {
+			tables = databaseReader.getMetadata(con, table);
+			loaded(table, CompletableFuture.completedFuture(tables));
+		}
+		return CachingDatabaseReader.copyTables(tables);
+	}
+
+	@Override
+	public List<String> getTablePksContraints(Connection con, String table) {
+		List<String> list = new ArrayList<>();
+		for (Table found : getMetadata(con, table)) {
+			if(found.getPkContraint() != null) list.addAll(found.getPkContraint().getListField());
+		}
+		return list;
+	}
+
+	@Override
+	public List<Column> getTableColumnMetaData(Connection con, String tablename) {
+		List<Column> columns = new ArrayList<>();
+		for (Table table : getMetadata(con, tablename)) {
+			columns.addAll(table.getColumn());
+		}
+		return columns;
+	}
+
+	private void work() {
+
+		Connection con = null;
+		try {
+			while(!Thread.currentThread().isInterrupted()) {
+				String table = queue.pollFirst(1, TimeUnit.SECONDS);
+				if(table == null) {
+					if(queue.isEmpty()) return;
+					continue;
+				}
+				CompletableFuture<List<Table>> load;
+				synchronized (loads) {
+					load = loads.get(table);
+				}
+				if(load.isDone()) continue;
+				try {
+					if(con == null || !con.isValid(5)) {
+						close(con);
+						con = connectionSource.getConnection();
+					}
+					List<Table> tables = databaseReader.getMetadata(con, table);
+					synchronized (loads) {
+						loadedAt.put(table, System.currentTimeMillis());
+					}
+					load.complete(tables);
+				} catch (SQLException | RuntimeException e) {
+					Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+					load.complete(null);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			close(con);
+		}
+	}
+
+	private boolean isExpired(String table) {
+		if(ttlMillis <= 0) return false;
+		synchronized (loads) {
+			Long time = loadedAt.get(table);
+			return time != null && System.currentTimeMillis() - time > ttlMillis;
+		}
+	}
+
+	private void loaded(String table, CompletableFuture<List<Table>> load) {
+		synchronized (loads) {
+			loads.put(table, load);
+			loadedAt.put(table, System.currentTimeMillis());
+		}
+	}
+
+	private List<String> readTableNames() throws DataBaseReaderException {
+		List<String> names = new ArrayList<>();
+		try (Connection con = connectionSource.getConnection()) {
+			DatabaseMetaData databaseMetaData = con.getMetaData();
+			String catalog = con.getCatalog();
+			try (ResultSet rs = AdaptiveLimiter.execute(limiter, "getTables", () -> databaseMetaData.getTables(catalog, null, "%", new String[]{"TABLE"}))) {
+				while(rs.next()) {
+					names.add(rs.getString(3));
+				}
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, null, e);
+			throw new DataBaseReaderException(e.getMessage());
+		}
+		return names;
+	}
+
+	private void close(Connection con) {
+		if(con == null) return;
+		try {
+			con.close();
+		} catch (SQLException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.FINE, null, e);
+		}
+	}
+
+	private void recordAccess(String table) {
+		AtomicLong counter;
+		synchronized (accessCount) {
+			counter = accessCount.computeIfAbsent(table, (k) -> new AtomicLong());
+		}
+		counter.incrementAndGet();
+	}
+
+	private long count(String table) {
+		synchronized (accessCount) {
+			AtomicLong counter = accessCount.get(table);
+			return counter == null ? 0 : counter.get();
+		}
+	}
+
+	private void loadStatistics() {
+		if(statisticsFile == null || !Files.exists(statisticsFile)) return;
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(statisticsFile)) {
+			properties.load(in);
+		} catch (IOException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.WARNING, null, e);
+			return;
+		}
+		synchronized (accessCount) {
+			for (String name : properties.stringPropertyNames()) {
+				try {
+					accessCount.put(name, new AtomicLong(Long.parseLong(properties.getProperty(name).trim())));
+				} catch (NumberFormatException e) {
+					//entry ignored
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the access counters, the previous runs plus this one
+	 */
+	public void saveStatistics() {
+		if(statisticsFile == null) return;
+		Properties properties = new Properties();
+		synchronized (accessCount) {
+			for (Map.Entry<String, AtomicLong> entry : accessCount.entrySet()) {
+				properties.setProperty(entry.getKey(), String.valueOf(entry.getValue().get()));
+			}
+		}
+		try {
+			Path parent = statisticsFile.toAbsolutePath().getParent();
+			if(parent != null) Files.createDirectories(parent);
+			Path temp = statisticsFile.resolveSibling(statisticsFile.getFileName() + ".tmp");
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				properties.store(out, "table access count");
+			}
+			Files.move(temp, statisticsFile, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Logger.getLogger(this.getClass().getName()).log(Level.WARNING, null, e);
+		}
+	}
+
+	public long getTtlMillis() {
+		return ttlMillis;
+	}
+
+	/**
+	 * Time to live of a loaded table, 0 or less never expires
+	 * @param ttlMillis
+	 */
+	public void setTtlMillis(long ttlMillis) {
+		this.ttlMillis = ttlMillis;
+	}
+
+	public long getStatisticsIntervalMillis() {
+		return statisticsIntervalMillis;
+	}
+
+	/**
+	 * Period of the save of the access counters while the reader runs, 0 or
+	 * less saves them only on stop. Set it before start.
+	 * @param statisticsIntervalMillis
+	 */
+	public void setStatisticsIntervalMillis(long statisticsIntervalMillis) {
+		this.statisticsIntervalMillis = statisticsIntervalMillis;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Workers of the warm-up, each one with its connection. Set it before start.
+	 * @param threads
+	 */
+	public void setThreads(int threads) {
+		if(threads <= 0) throw new IllegalArgumentException("threads must be greater than 0");
+		this.threads = threads;
+	}
+}
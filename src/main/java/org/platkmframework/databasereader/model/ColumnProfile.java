@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.model;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Data profile of a column over the rows read: nulls, approximate distinct
+ * values, min and max, and the distribution of the value length.
+ */
+public class ColumnProfile {
+
+	private String tableName;
+	private String columnName;
+	private long rowCount;
+	private long nullCount;
+	private long distinctCount;
+	private String min;
+	private String max;
+	private long minLength;
+	private long maxLength;
+	private double avgLength;
+	private long medianLength;
+	private long p90Length;
+	private long p99Length;
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public void setTableName(String tableName) {
+		this.tableName = tableName;
+	}
+
+	public String getColumnName() {
+		return columnName;
+	}
+
+	public void setColumnName(String columnName) {
+		this.columnName = columnName;
+	}
+
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	public void setRowCount(long rowCount) {
+		this.rowCount = rowCount;
+	}
+
+	public long getNullCount() {
+		return nullCount;
+	}
+
+	public void setNullCount(long nullCount) {
+		this.nullCount = nullCount;
+	}
+
+	public double getNullRatio() {
+		return rowCount == 0 ? 0 : (double) nullCount / rowCount;
+	}
+
+	/**
+	 * HyperLogLog estimate
+	 * @return
+	 */
+	public long getDistinctCount() {
+		return distinctCount;
+	}
+
+	public void setDistinctCount(long distinctCount) {
+		this.distinctCount = distinctCount;
+	}
+
+	public String getMin() {
+		return min;
+	}
+
+	public void setMin(String min) {
+		this.min = min;
+	}
+
+	public String getMax() {
+		return max;
+	}
+
+	public void setMax(String max) {
+		this.max = max;
+	}
+
+	public long getMinLength() {
+		return minLength;
+	}
+
+	public void setMinLength(long minLength) {
+		this.minLength = minLength;
+	}
+
+	public long getMaxLength() {
+		return maxLength;
+	}
+
+	public void setMaxLength(long maxLength) {
+		this.maxLength = maxLength;
+	}
+
+	public double getAvgLength() {
+		return avgLength;
+	}
+
+	public void setAvgLength(double avgLength) {
+		this.avgLength = avgLength;
+	}
+
+	public long getMedianLength() {
+		return medianLength;
+	}
+
+	public void setMedianLength(long medianLength) {
+		this.medianLength = medianLength;
+	}
+
+	public long getP90Length() {
+		return p90Length;
+	}
+
+	public void setP90Length(long p90Length) {
+		this.p90Length = p90Length;
+	}
+
+	public long getP99Length() {
+		return p99Length;
+	}
+
+	public void setP99Length(long p99Length) {
+		this.p99Length = p99Length;
+	}
+
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.model;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Immutable copy of a Column, it can be shared between threads and
+ * snapshots without copying.
+ */
+public final class ColumnSnapshot {
+
+	private final String name;
+	private final String label;
+	private final String type;
+	private final String javaType;
+	private final String comment;
+	private final String defaultValue;
+	private final String table;
+	private final String fktablename;
+	private final boolean nullable;
+	private final boolean pk;
+	private final boolean fk;
+	private final boolean unique;
+	private final boolean autoIncrement;
+	private final int javaSqlType;
+	private final int precision;
+	private final int scale;
+
+	public ColumnSnapshot(Column column) {
+		this.name = column.getName();
+		this.label = column.getLabel();
+		this.type = column.getType();
+		this.javaType = column.getJavaType();
+		this.comment = column.getComment();
+		this.defaultValue = column.getDefaultValue();
+		this.table = column.getTable();
+		this.fktablename = column.getFktablename();
+		this.nullable = column.isNullable();
+		this.pk = column.isPk();
+		this.fk = column.isFk();
+		this.unique = column.isUnique();
+		this.autoIncrement = column.isAutoIncrement();
+		this.javaSqlType = column.getJavaSqlType();
+		this.precision = column.getPrecision();
+		this.scale = column.getScale();
+	}
+
+	public static ColumnSnapshot of(Column column) {
+		return new ColumnSnapshot(column);
+	}
+
+	/**
+	 * Mutable copy
+	 * @return
+	 */
+	public Column toColumn() {
+		Column column = new Column();
+		column.setName(name);
+		column.setLabel(label);
+		column.setType(type);
+		column.setJavaType(javaType);
+		column.setComment(comment);
+		column.setDefaultValue(defaultValue);
+		column.setTable(table);
+		column.setFktablename(fktablename);
+		column.setNullable(nullable);
+		column.setPk(pk);
+		column.setFk(fk);
+		column.setUnique(unique);
+		column.setAutoIncrement(autoIncrement);
+		column.setJavaSqlType(javaSqlType);
+		column.setPrecision(precision);
+		column.setScale(scale);
+		return column;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getJavaType() {
+		return javaType;
+	}
+
+	public String getComment() {
+		return comment;
+	}
+
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+	public String getTable() {
+		return table;
+	}
+
+	public String getFktablename() {
+		return fktablename;
+	}
+
+	public boolean isNullable() {
+		return nullable;
+	}
+
+	public boolean isPk() {
+		return pk;
+	}
+
+	public boolean isFk() {
+		return fk;
+	}
+
+	public boolean isUnique() {
+		return unique;
+	}
+
+	public boolean isAutoIncrement() {
+		return autoIncrement;
+	}
+
+	public int getJavaSqlType() {
+		return javaSqlType;
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	public int getScale() {
+		return scale;
+	}
+
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Stored procedure or function with its parameters in position order.
+ * specificName tells apart the overloads of the same name.
+ */
+public class RoutineInfo {
+
+	public static final String PROCEDURE = "PROCEDURE";
+	public static final String FUNCTION  = "FUNCTION";
+
+	private String name;
+	private String specificName;
+	private String kind;
+	private String remarks;
+	private List<RoutineParameter> parameters = new ArrayList<>();
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getSpecificName() {
+		return specificName;
+	}
+
+	public void setSpecificName(String specificName) {
+		this.specificName = specificName;
+	}
+
+	/**
+	 * PROCEDURE or FUNCTION
+	 * @return
+	 */
+	public String getKind() {
+		return kind;
+	}
+
+	public void setKind(String kind) {
+		this.kind = kind;
+	}
+
+	public String getRemarks() {
+		return remarks;
+	}
+
+	public void setRemarks(String remarks) {
+		this.remarks = remarks;
+	}
+
+	public List<RoutineParameter> getParameters() {
+		return parameters;
+	}
+
+	public void setParameters(List<RoutineParameter> parameters) {
+		this.parameters = parameters;
+	}
+
+}
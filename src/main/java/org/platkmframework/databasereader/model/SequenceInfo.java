@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.model;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Sequence of the schema. Values that do not fit in a long (Oracle
+ * MAX_VALUE) are kept as Long.MAX_VALUE or Long.MIN_VALUE, the values the
+ * database does not give are null.
+ */
+public class SequenceInfo {
+
+	private String name;
+	private Long startValue;
+	private Long increment;
+	private Long minValue;
+	private Long maxValue;
+	private boolean cycle;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Long getStartValue() {
+		return startValue;
+	}
+
+	public void setStartValue(Long startValue) {
+		this.startValue = startValue;
+	}
+
+	public Long getIncrement() {
+		return increment;
+	}
+
+	public void setIncrement(Long increment) {
+		this.increment = increment;
+	}
+
+	public Long getMinValue() {
+		return minValue;
+	}
+
+	public void setMinValue(Long minValue) {
+		this.minValue = minValue;
+	}
+
+	public Long getMaxValue() {
+		return maxValue;
+	}
+
+	public void setMaxValue(Long maxValue) {
+		this.maxValue = maxValue;
+	}
+
+	public boolean isCycle() {
+		return cycle;
+	}
+
+	public void setCycle(boolean cycle) {
+		this.cycle = cycle;
+	}
+
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Data profile of a table. sampled tells that the rows are a sample of the
+ * table, complete is false when the time budget ended before the last row.
+ */
+public class TableProfile {
+
+	private String tableName;
+	private long rowsRead;
+	private boolean sampled;
+	private boolean complete;
+	private String error;
+	private List<ColumnProfile> columns = new ArrayList<>();
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public void setTableName(String tableName) {
+		this.tableName = tableName;
+	}
+
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	public void setRowsRead(long rowsRead) {
+		this.rowsRead = rowsRead;
+	}
+
+	public boolean isSampled() {
+		return sampled;
+	}
+
+	public void setSampled(boolean sampled) {
+		this.sampled = sampled;
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public void setComplete(boolean complete) {
+		this.complete = complete;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	public List<ColumnProfile> getColumns() {
+		return columns;
+	}
+
+	public void setColumns(List<ColumnProfile> columns) {
+		this.columns = columns;
+	}
+
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Immutable copy of a Table with its columns, primary key, indexes and
+ * foreign keys. The lists are unmodifiable.
+ */
+public final class TableSnapshot {
+
+	private final String name;
+	private final String type;
+	private final String comment;
+	private final String pkName;
+	private final List<String> pkColumns;
+	private final List<ColumnSnapshot> columns;
+	private final List<IndexSnapshot> indexes;
+	private final List<ForeignKeySnapshot> foreignKeys;
+
+	public TableSnapshot(Table table) {
+		this.name = table.getName();
+		this.type = table.getType();
+		this.comment = table.getComment();
+		PkContraint pk = table.getPkContraint();
+		this.pkName = pk == null ? null : pk.getName();
+		this.pkColumns = pk == null ? Collections.emptyList() : unmodifiable(new ArrayList<>(pk.getListField()));
+
+		List<ColumnSnapshot> columnList = new ArrayList<>();
+		for (Column column : table.getColumn()) columnList.add(new ColumnSnapshot(column));
+		this.columns = unmodifiable(columnList);
+
+		List<IndexSnapshot> indexList = new ArrayList<>();
+		for (IndexContraint index : table.getIndexContraint()) indexList.add(new IndexSnapshot(index));
+		this.indexes = unmodifiable(indexList);
+
+		List<ForeignKeySnapshot> fkList = new ArrayList<>();
+		for (FkContraint fk : table.getFkContraint()) fkList.add(new ForeignKeySnapshot(fk));
+		this.foreignKeys = unmodifiable(fkList);
+	}
+
+	public static TableSnapshot of(Table table) {
+		return new TableSnapshot(table);
+	}
+
+	/**
+	 * Mutable copy
+	 * @return
+	 */
+	public Table toTable() {
+		Table table = new Table();
+		table.setName(name);
+		table.setType(type);
+		table.setComment(comment);
+		if(pkName != null || !pkColumns.isEmpty()) {
+			PkContraint pk = new PkContraint();
+			pk.setName(pkName);
+			pk.getListField().addAll(pkColumns);
+			table.setPkContraint(pk);
+		}
+		for (ColumnSnapshot column : columns) table.getColumn().add(column.toColumn());
+		for (IndexSnapshot index : indexes) table.getIndexContraint().add(index.toIndexContraint());
+		for (ForeignKeySnapshot fk : foreignKeys) table.getFkContraint().add(fk.toFkContraint());
+		return table;
+	}
+
+	/**
+	 *
+	 * @param columnName
+	 * @return the column, null when the table does not have it
+	 */
+	public ColumnSnapshot getColumn(String columnName) {
+		for (ColumnSnapshot column : columns) {
+			if(column.getName() != null && column.getName().equalsIgnoreCase(columnName)) return column;
+		}
+		return null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getComment() {
+		return comment;
+	}
+
+	public String getPkName() {
+		return pkName;
+	}
+
+	public List<String> getPkColumns() {
+		return pkColumns;
+	}
+
+	public List<ColumnSnapshot> getColumns() {
+		return columns;
+	}
+
+	public List<IndexSnapshot> getIndexes() {
+		return indexes;
+	}
+
+	public List<ForeignKeySnapshot> getForeignKeys() {
+		return foreignKeys;
+	}
+
+	private static <T> List<T> unmodifiable(List<T> list) {
+		return list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * Immutable IndexContraint
+	 */
+	public static final class IndexSnapshot {
+
+		private final String name;
+		private final String type;
+		private final String orderType;
+		private final List<String> columns;
+
+		public IndexSnapshot(IndexContraint index) {
+			this.name = index.getName();
+			this.type = index.getType();
+			this.orderType = index.getOrderType();
+			this.columns = unmodifiable(new ArrayList<>(index.getColumns()));
+		}
+
+		public IndexContraint toIndexContraint() {
+			IndexContraint index = new IndexContraint();
+			index.setName(name);
+			index.setType(type);
+			index.setOrderType(orderType);
+			index.getColumns().addAll(columns);
+			return index;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public String getOrderType() {
+			return orderType;
+		}
+
+		public List<String> getColumns() {
+			return columns;
+		}
+	}
+
+	/**
+	 * Immutable FkContraint
+	 */
+	public static final class ForeignKeySnapshot {
+
+		private final String fkName;
+		private final String fkTableName;
+		private final String pkTableName;
+		private final List<KeyColumnSnapshot> keyColumns;
+
+		public ForeignKeySnapshot(FkContraint fk) {
+			this.fkName = fk.getFkName();
+			this.fkTableName = fk.getFkTableName();
+			this.pkTableName = fk.getPkTableName();
+			List<KeyColumnSnapshot> list = new ArrayList<>();
+			for (ImportedKey importedKey : fk.getImportedKey()) list.add(new KeyColumnSnapshot(importedKey));
+			this.keyColumns = unmodifiable(list);
+		}
+
+		public FkContraint toFkContraint() {
+			FkContraint fk = new FkContraint();
+			fk.setFkName(fkName);
+			fk.setFkTableName(fkTableName);
+			fk.setPkTableName(pkTableName);
+			for (KeyColumnSnapshot keyColumn : keyColumns) fk.getImportedKey().add(keyColumn.toImportedKey());
+			return fk;
+		}
+
+		public String getFkName() {
+			return fkName;
+		}
+
+		public String getFkTableName() {
+			return fkTableName;
+		}
+
+		public String getPkTableName() {
+			return pkTableName;
+		}
+
+		public List<KeyColumnSnapshot> getKeyColumns() {
+			return keyColumns;
+		}
+	}
+
+	/**
+	 * Immutable ImportedKey
+	 */
+	public static final class KeyColumnSnapshot {
+
+		private final String pkTableName;
+		private final String fkColumnName;
+		private final String pkColumnName;
+		private final String keySeq;
+		private final String updateRule;
+		private final String deleteRule;
+		private final boolean nullable;
+		private final boolean unique;
+		private final boolean pk;
+
+		public KeyColumnSnapshot(ImportedKey importedKey) {
+			this.pkTableName = importedKey.getPkTableName();
+			this.fkColumnName = importedKey.getFkColumnName();
+			this.pkColumnName = importedKey.getPkColumnName();
+			this.keySeq = importedKey.getKeySeq();
+			this.updateRule = importedKey.getUpdateRule();
+			this.deleteRule = importedKey.getDeleteRule();
+			this.nullable = importedKey.isNullable();
+			this.unique = importedKey.isUnique();
+			this.pk = importedKey.isPk();
+		}
+
+		public ImportedKey toImportedKey() {
+			ImportedKey importedKey = new ImportedKey();
+			importedKey.setPkTableName(pkTableName);
+			importedKey.setFkColumnName(fkColumnName);
+			importedKey.setPkColumnName(pkColumnName);
+			importedKey.setKeySeq(keySeq);
+			importedKey.setUpdateRule(updateRule);
+			importedKey.setDeleteRule(deleteRule);
+			importedKey.setNullable(nullable);
+			importedKey.setUnique(unique);
+			importedKey.setPk(pk);
+			return importedKey;
+		}
+
+		public String getPkTableName() {
+			return pkTableName;
+		}
+
+		public String getFkColumnName() {
+			return fkColumnName;
+		}
+
+		public String getPkColumnName() {
+			return pkColumnName;
+		}
+
+		public String getKeySeq() {
+			return keySeq;
+		}
+
+		public String getUpdateRule() {
+			return updateRule;
+		}
+
+		public String getDeleteRule() {
+			return deleteRule;
+		}
+
+		public boolean isNullable() {
+			return nullable;
+		}
+
+		public boolean isUnique() {
+			return unique;
+		}
+
+		public boolean isPk() {
+			return pk;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class AdaptiveLimiterTest {
+
+	@Test
+	public void callsDirectlyWithoutLimiter() throws SQLException {
+		assertEquals("a", AdaptiveLimiter.execute(null, "getColumns", () -> "a"));
+	}
+
+	@Test
+	public void keepsOneBaselinePerKind() throws SQLException {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(4, 100, 0);
+		limiter.setLatencyTolerance(5);
+		for (int i = 0; i < 10; i++) {
+			limiter.execute("fast", () -> sleep(1));
+			limiter.execute("slow", () -> sleep(30));
+		}
+		assertTrue(limiter.getBaselineNanos("slow") >= TimeUnit.MILLISECONDS.toNanos(30));
+		assertTrue(limiter.getBaselineNanos("fast") < limiter.getBaselineNanos("slow"));
+		assertEquals(-1, limiter.getBaselineNanos("other"));
+		//the slow calls are not compared with the fast ones, the limit only grows
+		assertTrue(limiter.getLimit() > 4, "limit " + limiter.getLimit());
+	}
+
+	@Test
+	public void backsOffOnFailure() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(10, 100, 0);
+		for (int i = 0; i < 5; i++) {
+			assertThrows(SQLException.class, () -> limiter.execute("getTables", () -> { throw new SQLException("down"); }));
+		}
+		assertTrue(limiter.getLimit() < 10);
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	public void neverGoesOverMaxInFlight() throws Exception {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(2, 2, 0);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger highest = new AtomicInteger();
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				futures.add(executorService.submit(() -> limiter.execute("getColumns", () -> {
+					highest.accumulateAndGet(running.incrementAndGet(), Math::max);
+					sleep(2);
+					running.decrementAndGet();
+					return null;
+				})));
+			}
+			for (Future<?> future : futures) future.get(10, TimeUnit.SECONDS);
+		} finally {
+			executorService.shutdownNow();
+		}
+		assertTrue(highest.get() <= 2, "highest " + highest.get());
+		assertEquals(2, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	private static Object sleep(long millis) {
+		try {
+			TimeUnit.MILLISECONDS.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+}
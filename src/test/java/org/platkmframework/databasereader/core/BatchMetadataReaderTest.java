@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class BatchMetadataReaderTest {
+
+	private static final String[] KEYS = {"FKTABLE_NAME", "FKCOLUMN_NAME", "PKTABLE_NAME", "PKCOLUMN_NAME", "KEY_SEQ",
+			"FK_NAME", "UPDATE_RULE", "DELETE_RULE"};
+
+	@Test
+	public void longTextPrecisionIsClamped() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc().query("FROM INFORMATION_SCHEMA.COLUMNS", (parameters) -> FakeJdbc.rows(FakeJdbc.COLUMNS,
+				new Object[] {"posts", "id", 1, "bigint", 19L, 0, "NO", "YES", null, null},
+				new Object[] {"posts", "body", 2, "longtext", 4294967295L, null, "YES", "NO", null, null}));
+		jdbc.productName = "MySQL";
+
+		Map<String, List<Column>> columns = new BatchMetadataReader().readColumns(jdbc.connection(), "blog", null, Arrays.asList("posts"));
+
+		List<Column> posts = columns.get("posts");
+		assertEquals(2, posts.size());
+		assertEquals(19, posts.get(0).getPrecision());
+		assertEquals(Integer.MAX_VALUE, posts.get(1).getPrecision());
+	}
+
+	@Test
+	public void exportedKeysWithTheSameNameStayApart() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc().query("pg_constraint", (parameters) -> FakeJdbc.rows(KEYS,
+				new Object[] {"orders", "user_id", "users", "id", 1, "fk_user", "CASCADE", "NO ACTION"},
+				new Object[] {"posts", "author_id", "users", "id", 1, "fk_user", "NO ACTION", "SET NULL"}));
+		jdbc.productName = "PostgreSQL";
+
+		List<FkContraint> fks = new BatchMetadataReader().readExportedKeys(jdbc.connection(), null, "public", Arrays.asList("users")).get("users");
+
+		assertEquals(2, fks.size());
+		assertEquals("orders", fks.get(0).getFkTableName());
+		assertEquals(Arrays.asList("user_id"), fkColumns(fks.get(0)));
+		assertEquals(String.valueOf(DatabaseMetaData.importedKeyCascade), fks.get(0).getImportedKey().get(0).getUpdateRule());
+		assertEquals("posts", fks.get(1).getFkTableName());
+		assertEquals(Arrays.asList("author_id"), fkColumns(fks.get(1)));
+		assertEquals(String.valueOf(DatabaseMetaData.importedKeySetNull), fks.get(1).getImportedKey().get(0).getDeleteRule());
+	}
+
+	private static List<String> fkColumns(FkContraint fk) {
+		List<String> columns = new ArrayList<>();
+		for (ImportedKey key : fk.getImportedKey()) columns.add(key.getFkColumnName());
+		return columns;
+	}
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class CachingDatabaseReaderTest {
+
+	private final AtomicInteger reads = new AtomicInteger();
+	private boolean failing;
+
+	private final IDatabaseReader reader = new IDatabaseReader() {
+
+		@Override
+		public List<Table> getMetadata(Connection con) {
+			return getMetadata(con, null);
+		}
+
+		@Override
+		public List<Table> getMetadata(Connection con, String table) {
+			reads.incrementAndGet();
+			if(failing) return new ArrayList<>();
+			Table t = new Table();
+			t.setName(table == null ? "T" : table);
+			t.getColumn().add(column("ID"));
+			return new ArrayList<>(Collections.singletonList(t));
+		}
+
+		@Override
+		public List<String> getTablePksContraints(Connection con, String table) {
+			reads.incrementAndGet();
+			return new ArrayList<>(Collections.singletonList("ID"));
+		}
+
+		@Override
+		public List<Column> getTableColumnMetaData(Connection con, String tablename) {
+			reads.incrementAndGet();
+			return failing ? new ArrayList<>() : new ArrayList<>(Collections.singletonList(column("ID")));
+		}
+	};
+
+	private static Column column(String name) {
+		Column column = new Column();
+		column.setName(name);
+		column.setType("INTEGER");
+		return column;
+	}
+
+	@Test
+	public void hitDoesNotTouchTheConnection() {
+		FakeJdbc jdbc = new FakeJdbc();
+		Connection con = jdbc.connection();
+		CachingDatabaseReader caching = new CachingDatabaseReader(reader);
+		caching.getTableColumnMetaData(con, "T");
+		for (int i = 0; i < 5; i++) caching.getTableColumnMetaData(con, "T");
+		assertEquals(1, reads.get());
+		assertEquals(1, jdbc.calls("getSchema"));
+		assertEquals(1, jdbc.calls("getMetaData"));
+	}
+
+	@Test
+	public void connectionChangedReadsTheKeyAgain() {
+		FakeJdbc jdbc = new FakeJdbc();
+		Connection con = jdbc.connection();
+		CachingDatabaseReader caching = new CachingDatabaseReader(reader);
+		caching.getTableColumnMetaData(con, "T");
+		jdbc.schema = "OTHER";
+		caching.connectionChanged(con);
+		caching.getTableColumnMetaData(con, "T");
+		assertEquals(2, reads.get());
+	}
+
+	@Test
+	public void emptyResultIsCachedForTheNegativeTtl() throws InterruptedException {
+		Connection con = new FakeJdbc().connection();
+		CachingDatabaseReader caching = new CachingDatabaseReader(reader);
+		caching.setNegativeTtlMillis(20);
+		failing = true;
+		assertEquals(0, caching.getMetadata(con, "T").size());
+		assertEquals(0, caching.getMetadata(con, "T").size());
+		assertEquals(1, reads.get());
+		failing = false;
+		Thread.sleep(40);
+		assertEquals(1, caching.getMetadata(con, "T").size());
+		caching.getMetadata(con, "T");
+		assertEquals(2, reads.get());
+	}
+
+	@Test
+	public void failedCheckedReadIsNotCached() {
+		FakeJdbc jdbc = new FakeJdbc();
+		AtomicInteger pkReads = new AtomicInteger();
+		jdbc.metaData("getPrimaryKeys", (args) -> {
+			pkReads.incrementAndGet();
+			return FakeJdbc.rows(new String[] {"TABLE_NAME", "COLUMN_NAME", "KEY_SEQ", "PK_NAME"});
+		});
+		Connection con = jdbc.connection();
+		List<String> failures = new ArrayList<>();
+		CachingDatabaseReader caching = new CachingDatabaseReader(new DatabaseReader(con) {
+			@Override
+			public void readFailed(String tableName, SQLException ex) {
+				failures.add(tableName);
+			}
+		});
+
+		jdbc.broken = true;
+		assertEquals(0, caching.getTablePksContraints(con, "T").size());
+		assertEquals(Collections.singletonList("T"), failures);
+		assertEquals(0, caching.size());
+
+		//a table without pk is an answer, it is kept
+		jdbc.broken = false;
+		assertEquals(0, caching.getTablePksContraints(con, "T").size());
+		assertEquals(0, caching.getTablePksContraints(con, "T").size());
+		assertEquals(1, pkReads.get());
+		assertEquals(1, failures.size());
+	}
+
+	@Test
+	public void failedCheckedBatchIsNotCached() {
+		FakeJdbc jdbc = new FakeJdbc();
+		Connection con = jdbc.connection();
+		CachingDatabaseReader caching = new CachingDatabaseReader(new DatabaseReader(con) {
+			@Override
+			public void readFailed(String tableName, SQLException ex) {
+			}
+		});
+		jdbc.broken = true;
+		Map<String, List<Column>> columns = caching.getTableColumnMetaData(con, Arrays.asList("A", "B"));
+		assertEquals(2, columns.size());
+		assertTrue(columns.get("A").isEmpty());
+		assertEquals(0, caching.size());
+	}
+
+	@Test
+	public void callersGetTheirOwnCopies() {
+		Connection con = new FakeJdbc().connection();
+		CachingDatabaseReader caching = new CachingDatabaseReader(reader);
+
+		List<Table> first = caching.getMetadata(con, "T");
+		first.get(0).setName("CHANGED");
+		first.get(0).getColumn().get(0).setName("CHANGED");
+		List<Table> second = caching.getMetadata(con, "T");
+		assertEquals("T", second.get(0).getName());
+		assertEquals("ID", second.get(0).getColumn().get(0).getName());
+		assertNotSame(first.get(0), second.get(0));
+
+		List<Column> columns = caching.getTableColumnMetaData(con, "T");
+		columns.get(0).setType("CHANGED");
+		assertEquals("INTEGER", caching.getTableColumnMetaData(con, "T").get(0).getType());
+	}
+
+	@Test
+	public void batchReadsOnlyTheMissingTables() {
+		Connection con = new FakeJdbc().connection();
+		CachingDatabaseReader caching = new CachingDatabaseReader(reader);
+		caching.getTableColumnMetaData(con, "A");
+		Map<String, List<Column>> columns = caching.getTableColumnMetaData(con, Arrays.asList("A", "B"));
+		assertEquals(2, columns.size());
+		assertEquals(2, reads.get());
+	}
+}
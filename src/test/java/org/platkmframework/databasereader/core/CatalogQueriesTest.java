@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class CatalogQueriesTest {
+
+	private static final DatabaseDialect[] DIALECTS = {DatabaseDialect.H2, DatabaseDialect.POSTGRESQL,
+			DatabaseDialect.MYSQL, DatabaseDialect.ORACLE, DatabaseDialect.SQLSERVER};
+
+	@Test
+	public void columnsGiveTheValuesOfGetColumns() {
+		String postgresql = CatalogQueries.columns(DatabaseDialect.POSTGRESQL);
+		assertTrue(postgresql.contains("numeric_precision_radix = 2"), postgresql);
+		assertTrue(postgresql.contains("col_description("), postgresql);
+
+		String oracle = CatalogQueries.columns(DatabaseDialect.ORACLE);
+		assertTrue(oracle.contains("c.IDENTITY_COLUMN, c.DATA_DEFAULT"), oracle);
+		assertFalse(oracle.contains("'NO', NULL"), oracle);
+
+		String sqlServer = CatalogQueries.columns(DatabaseDialect.SQLSERVER);
+		assertTrue(sqlServer.contains("'MS_Description'"), sqlServer);
+	}
+
+	@Test
+	public void postgresqlKeysComeFromPgConstraint() {
+		String imported = CatalogQueries.importedKeys(DatabaseDialect.POSTGRESQL);
+		assertTrue(imported.contains("unnest(con.conkey, con.confkey) WITH ORDINALITY"), imported);
+		assertTrue(imported.endsWith("fn.nspname = ? AND ft.relname IN (" + CatalogQueries.IN_LIST + ")"), imported);
+		assertFalse(imported.contains("INFORMATION_SCHEMA"), imported);
+
+		String exported = CatalogQueries.exportedKeys(DatabaseDialect.POSTGRESQL);
+		assertTrue(exported.endsWith("pn.nspname = ? AND pt.relname IN (" + CatalogQueries.IN_LIST + ")"), exported);
+
+		assertTrue(CatalogQueries.importedKeys(DatabaseDialect.H2).contains("INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS"));
+	}
+
+	@Test
+	public void chunkQueriesFilterTheTables() {
+		IndexReader indexReader = new IndexReader();
+		for (DatabaseDialect dialect : DIALECTS) {
+			assertTrue(CatalogQueries.tableComments(dialect).contains(CatalogQueries.IN_LIST), dialect.name());
+			assertTrue(indexReader.tableIndexQuery(dialect).contains(CatalogQueries.IN_LIST), dialect.name());
+			assertEquals(1, count(CatalogQueries.expand(CatalogQueries.tableComments(dialect), 1), '?') - 1, dialect.name());
+		}
+	}
+
+	@Test
+	public void expandGivesOnePlaceholderPerTable() {
+		assertEquals("SELECT 1 WHERE S = ? AND T IN (?, ?, ?)",
+				CatalogQueries.expand("SELECT 1 WHERE S = ? AND T IN (" + CatalogQueries.IN_LIST + ")", 3));
+	}
+
+	@Test
+	public void unknownDialectHasNoQuery() {
+		for (DatabaseDialect dialect : DatabaseDialect.values()) {
+			boolean known = false;
+			for (DatabaseDialect d : DIALECTS) known |= d == dialect;
+			if(known) continue;
+			assertNull(CatalogQueries.columns(dialect));
+			assertNull(CatalogQueries.tableComments(dialect));
+		}
+	}
+
+	private static int count(String sql, char c) {
+		return (int) sql.chars().filter((x) -> x == c).count();
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.IndexInfo;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class ColumnarCatalogTest {
+
+	@Test
+	public void filtersCombineTheBitsets() {
+		ColumnarCatalog catalog = ColumnarCatalog.of(dataBase(orders()));
+
+		assertEquals(Arrays.asList("ORDERS.ID"), catalog.qualifiedNames(ColumnFilter.pk()));
+		assertEquals(Arrays.asList("ORDERS.NOTE", "ORDERS.CUSTOMER"), catalog.qualifiedNames(ColumnFilter.nullable()));
+		assertEquals(Arrays.asList("ORDERS.NOTE"), catalog.qualifiedNames(ColumnFilter.and(ColumnFilter.nullable(), ColumnFilter.sqlType(Types.VARCHAR))));
+		assertEquals(Arrays.asList("ORDERS.ID", "ORDERS.CODE"), catalog.qualifiedNames(ColumnFilter.not(ColumnFilter.nullable())));
+		assertEquals(4, catalog.count(ColumnFilter.or(ColumnFilter.pk(), ColumnFilter.nullable(), ColumnFilter.unique())));
+	}
+
+	@Test
+	public void indexedCountsThePkAndTheUniqueIndexesOfTheModel() {
+		ColumnarCatalog catalog = ColumnarCatalog.of(dataBase(orders()));
+
+		assertEquals(Arrays.asList("ORDERS.ID", "ORDERS.CODE"), catalog.qualifiedNames(ColumnFilter.indexed()));
+	}
+
+	@Test
+	public void indexedCountsTheNonUniqueIndexesReadApart() {
+		IndexInfo index = new IndexInfo();
+		index.setTableName("orders");
+		index.setName("IX_ORDERS_CUSTOMER");
+		index.setUnique(false);
+		index.getColumns().add("customer");
+		index.getColumns().add("NOTE");
+		Map<String, List<IndexInfo>> indexes = new HashMap<>();
+		indexes.put("orders", Arrays.asList(index));
+
+		ColumnarCatalog catalog = ColumnarCatalog.of(dataBase(orders()), indexes);
+
+		//only the leading column of the index
+		assertEquals(Arrays.asList("ORDERS.ID", "ORDERS.CODE", "ORDERS.CUSTOMER"), catalog.qualifiedNames(ColumnFilter.indexed()));
+		assertFalse(catalog.isIndexed(2));
+	}
+
+	@Test
+	public void rowsCrossWordsAndSegments() {
+		Table table = new Table();
+		table.setName("WIDE");
+		int size = ColumnarCatalog.SEGMENT_WORDS * 64 + 130;
+		for (int i = 0; i < size; i++) {
+			table.getColumn().add(column("C" + i, Types.INTEGER, i % 3 == 0));
+		}
+		ColumnarCatalog catalog = ColumnarCatalog.of(dataBase(table));
+
+		assertEquals(size, catalog.size());
+		int[] rows = catalog.rows(ColumnFilter.nullable());
+		assertEquals((size + 2) / 3, rows.length);
+		for (int i = 0; i < rows.length; i++) assertEquals(i * 3, rows[i]);
+		assertEquals(size - rows.length, catalog.count(ColumnFilter.not(ColumnFilter.nullable())));
+		assertTrue(catalog.isNullable(size - 1 - (size - 1) % 3));
+	}
+
+	private static Table orders() {
+		Table table = new Table();
+		table.setName("ORDERS");
+		Column id = column("ID", Types.INTEGER, false);
+		id.setPk(true);
+		table.getColumn().add(id);
+		Column code = column("CODE", Types.CHAR, false);
+		code.setUnique(true);
+		table.getColumn().add(code);
+		table.getColumn().add(column("NOTE", Types.VARCHAR, true));
+		table.getColumn().add(column("CUSTOMER", Types.INTEGER, true));
+
+		PkContraint pk = new PkContraint();
+		pk.getListField().add("ID");
+		table.setPkContraint(pk);
+		IndexContraint unique = new IndexContraint();
+		unique.setName("UQ_ORDERS_CODE");
+		unique.getColumns().add("code");
+		table.getIndexContraint().add(unique);
+		return table;
+	}
+
+	private static Column column(String name, int sqlType, boolean nullable) {
+		Column column = new Column();
+		column.setName(name);
+		column.setJavaSqlType(sqlType);
+		column.setNullable(nullable);
+		return column;
+	}
+
+	private static DataBase dataBase(Table... tables) {
+		DataBase dataBase = new DataBase("CATALOG");
+		dataBase.setTables(new ArrayList<>(Arrays.asList(tables)));
+		return dataBase;
+	}
+}
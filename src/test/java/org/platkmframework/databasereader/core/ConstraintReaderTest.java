@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.ConstraintInfo;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class ConstraintReaderTest {
+
+	private static final String[] COLUMNS = {"TABLE_NAME", "CONSTRAINT_NAME", "CONSTRAINT_TYPE", "COLUMN_NAME", "POSITION", "EXPRESSION"};
+
+	@Test
+	public void rowsAreGroupedByConstraint() {
+		List<Object> parameters = new ArrayList<>();
+		FakeJdbc jdbc = new FakeJdbc();
+		jdbc.productName = "PostgreSQL";
+		jdbc.query("pg_constraint", (params) -> {
+			parameters.addAll(params);
+			return FakeJdbc.rows(COLUMNS,
+					new Object[] {"orders", "uq_orders_number", "UNIQUE", "year", 2, null},
+					new Object[] {"orders", "uq_orders_number", "UNIQUE", "number", 1, null},
+					new Object[] {"orders", "ck_orders_total", "CHECK", "total", 1, "CHECK ((total >= 0))"},
+					new Object[] {"items", "ck_items", "CHECK", null, 0, "CHECK (qty > 0 AND price > 0)"});
+		});
+
+		Map<String, List<ConstraintInfo>> constraints = new ConstraintReader().readSchemaConstraints(jdbc.connection(), null, "sales");
+
+		assertEquals(Arrays.asList("sales"), parameters);
+		List<ConstraintInfo> orders = constraints.get("ORDERS");
+		assertEquals(2, orders.size());
+		assertEquals("ck_orders_total", orders.get(0).getName());
+		assertEquals(ConstraintInfo.CHECK, orders.get(0).getType());
+		assertEquals("((total >= 0))", orders.get(0).getExpression());
+		assertEquals(Arrays.asList("total"), orders.get(0).getColumns());
+		assertEquals("uq_orders_number", orders.get(1).getName());
+		assertEquals(Arrays.asList("number", "year"), orders.get(1).getColumns());
+		assertNull(orders.get(1).getExpression());
+
+		ConstraintInfo items = constraints.get("items").get(0);
+		assertTrue(items.getColumns().isEmpty());
+		assertEquals("(qty > 0 AND price > 0)", items.getExpression());
+	}
+
+	@Test
+	public void oracleNotNullChecksAreLeftOut() {
+		FakeJdbc jdbc = new FakeJdbc();
+		jdbc.productName = "Oracle";
+		jdbc.query("ALL_CONSTRAINTS", (params) -> FakeJdbc.rows(COLUMNS,
+				new Object[] {"ORDERS", "SYS_C001", "CHECK", "ID", null, "\"ID\" IS NOT NULL"},
+				new Object[] {"ORDERS", "CK_STATUS", "CHECK", "STATUS", null, "STATUS IN ('N', 'P')"}));
+
+		ConstraintReader reader = new ConstraintReader();
+		List<ConstraintInfo> orders = reader.readSchemaConstraints(jdbc.connection(), null, "SALES").get("ORDERS");
+		assertEquals(1, orders.size());
+		assertEquals("CK_STATUS", orders.get(0).getName());
+
+		reader.setIncludeNotNullChecks(true);
+		orders = reader.readSchemaConstraints(jdbc.connection(), null, "SALES").get("ORDERS");
+		assertEquals(Arrays.asList("CK_STATUS", "SYS_C001"), Arrays.asList(orders.get(0).getName(), orders.get(1).getName()));
+	}
+
+	@Test
+	public void everyParameterIsTheResolvedSchema() {
+		List<Object> parameters = new ArrayList<>();
+		FakeJdbc jdbc = new FakeJdbc();
+		jdbc.productName = "Microsoft SQL Server";
+		jdbc.schema = "dbo";
+		jdbc.query("sys.key_constraints", (params) -> {
+			parameters.addAll(params);
+			return FakeJdbc.rows(COLUMNS);
+		});
+
+		assertTrue(new ConstraintReader().readSchemaConstraints(jdbc.connection(), null, null).isEmpty());
+		assertEquals(Arrays.asList("dbo", "dbo"), parameters);
+	}
+
+	@Test
+	public void uniqueConstraintsOnlyWhenTheConstraintsQueryFails() {
+		FakeJdbc jdbc = new FakeJdbc();
+		//only the INFORMATION_SCHEMA unique query is answered, the other one fails
+		jdbc.query("CONSTRAINT_TYPE = 'UNIQUE'", (params) -> FakeJdbc.rows(COLUMNS,
+				new Object[] {"ORDERS", "UQ_ORDERS_NUMBER", "UNIQUE", "NUMBER", 1, null}));
+
+		Map<String, List<ConstraintInfo>> constraints = new ConstraintReader().readSchemaConstraints(jdbc.connection(), null, null);
+
+		assertEquals(2, jdbc.executed.size());
+		assertTrue(jdbc.executed.get(0).contains("CHECK_CONSTRAINTS"));
+		assertEquals(ConstraintInfo.UNIQUE, constraints.get("ORDERS").get(0).getType());
+		assertEquals(Arrays.asList("NUMBER"), constraints.get("ORDERS").get(0).getColumns());
+	}
+
+	@Test
+	public void emptyWhenNoQueryWorks() {
+		FakeJdbc jdbc = new FakeJdbc();
+		jdbc.productName = "SQLite";
+		assertTrue(new ConstraintReader().readSchemaConstraints(jdbc.connection(), null, null).isEmpty());
+		assertEquals(0, jdbc.executed.size());
+
+		jdbc.productName = "H2";
+		assertTrue(new ConstraintReader().readSchemaConstraints(jdbc.connection(), null, null).isEmpty());
+	}
+}
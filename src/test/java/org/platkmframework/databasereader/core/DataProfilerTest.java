@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.ColumnProfile;
+import org.platkmframework.databasereader.model.Table;
+import org.platkmframework.databasereader.model.TableProfile;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class DataProfilerTest {
+
+	@Test
+	public void columnsAreProfiledFromOneQuery() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc().query("FROM \"ORDERS\"", (params) -> FakeJdbc.rows(new String[] {"ID", "STATUS"},
+				new Object[] {1, "NEW"},
+				new Object[] {2, null},
+				new Object[] {3, "PAID"},
+				new Object[] {4, "NEW"}));
+
+		TableProfile profile = new DataProfiler(jdbc::connection).profile(jdbc.connection(), orders(), Long.MAX_VALUE);
+
+		//the lob column is not read
+		assertEquals(Arrays.asList("SELECT \"ID\", \"STATUS\" FROM \"ORDERS\""), jdbc.executed);
+		assertEquals(4, profile.getRowsRead());
+		assertTrue(profile.isComplete());
+		assertFalse(profile.isSampled());
+		assertEquals(2, profile.getColumns().size());
+
+		ColumnProfile id = profile.getColumns().get(0);
+		assertEquals(4, id.getDistinctCount());
+		assertEquals("1", id.getMin());
+		assertEquals("4", id.getMax());
+
+		ColumnProfile status = profile.getColumns().get(1);
+		assertEquals(1, status.getNullCount());
+		assertEquals(2, status.getDistinctCount());
+		assertEquals("NEW", status.getMin());
+		assertEquals("PAID", status.getMax());
+		assertEquals(3, status.getMinLength());
+		assertEquals(4, status.getMaxLength());
+	}
+
+	@Test
+	public void sampleClauseOfTheDialect() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc().query("ORDERS", (params) -> FakeJdbc.rows(new String[] {"ID", "STATUS"}));
+		jdbc.productName = "PostgreSQL";
+		DataProfiler profiler = new DataProfiler(jdbc::connection);
+
+		assertTrue(profiler.profile(jdbc.connection(), orders(), Long.MAX_VALUE).isSampled());
+		assertTrue(jdbc.executed.get(0).endsWith(" TABLESAMPLE SYSTEM (10.0)"), jdbc.executed.get(0));
+
+		profiler.setSamplePercent(100);
+		assertFalse(profiler.profile(jdbc.connection(), orders(), Long.MAX_VALUE).isSampled());
+		assertTrue(jdbc.executed.get(1).endsWith("FROM \"ORDERS\""), jdbc.executed.get(1));
+	}
+
+	@Test
+	public void failedTableHasTheErrorAndConnectionsAreClosed() throws Exception {
+		AtomicInteger opened = new AtomicInteger();
+		FakeJdbc jdbc = new FakeJdbc().query("ORDERS", (params) -> FakeJdbc.rows(new String[] {"ID", "STATUS"}, new Object[] {1, "NEW"}));
+		Table missing = new Table();
+		missing.setName("MISSING");
+		missing.getColumn().add(column("ID", Types.INTEGER));
+		DataBase dataBase = new DataBase("CATALOG");
+		dataBase.setTables(new ArrayList<>(Arrays.asList(orders(), missing)));
+
+		DataProfiler profiler = new DataProfiler(() -> {
+			opened.incrementAndGet();
+			return jdbc.connection();
+		});
+		profiler.setThreads(2);
+		List<TableProfile> profiles = profiler.profile(dataBase);
+
+		assertEquals("ORDERS", profiles.get(0).getTableName());
+		assertNull(profiles.get(0).getError());
+		assertEquals(1, profiles.get(0).getRowsRead());
+		assertEquals("MISSING", profiles.get(1).getTableName());
+		assertTrue(profiles.get(1).getError().startsWith("Unknown query"), profiles.get(1).getError());
+		assertEquals(opened.get(), jdbc.calls("close"));
+	}
+
+	private static Table orders() {
+		Table table = new Table();
+		table.setName("ORDERS");
+		table.getColumn().add(column("ID", Types.INTEGER));
+		table.getColumn().add(column("STATUS", Types.VARCHAR));
+		table.getColumn().add(column("NOTES", Types.CLOB));
+		return table;
+	}
+
+	private static Column column(String name, int sqlType) {
+		Column column = new Column();
+		column.setName(name);
+		column.setJavaSqlType(sqlType);
+		return column;
+	}
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class DatabaseReaderScanTest {
+
+	@Test
+	public void failedReadClosesTheConnectionAndFinishesTheScan() {
+		FakeJdbc jdbc = new FakeJdbc();
+		jdbc.broken = true;
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		List<String> events = new ArrayList<>();
+		reader.addScanListener(listener(events));
+
+		assertThrows(Exception.class, () -> reader.processDatabase("CAT", "PUBLIC", null, new String[] {"TABLE"}, Arrays.asList("A")));
+		assertTrue(jdbc.closed);
+		assertEquals("scanStarted", events.get(0));
+		assertEquals("scanFinished", events.get(events.size() - 1));
+	}
+
+	@Test
+	public void readClosesTheConnectionOnce() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc();
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		assertTrue(reader.processDatabase("CAT", "PUBLIC", null, new String[] {"TABLE"}, null).getTables().isEmpty());
+		assertTrue(jdbc.closed);
+		assertEquals(1, jdbc.calls("close"));
+	}
+
+	@Test
+	public void failedExportAbortsTheWriter() {
+		FakeJdbc jdbc = new FakeJdbc()
+				.metaData("getTables", (args) -> FakeJdbc.rows(new String[] {"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE", "REMARKS"},
+						new Object[] {"CAT", "PUBLIC", "A", "TABLE", null}));
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		List<String> calls = new ArrayList<>();
+		SchemaWriter writer = new SchemaWriter() {
+			@Override
+			public void begin(String databaseName) {
+				calls.add("begin");
+			}
+			@Override
+			public void writeTable(Table table) {
+				calls.add("writeTable");
+			}
+			@Override
+			public void finish() {
+				calls.add("finish");
+			}
+			@Override
+			public void abort() {
+				calls.add("abort");
+			}
+		};
+
+		//no query of the chunk is known, the first one fails
+		assertThrows(DataBaseReaderException.class, () -> reader.exportDatabase("CAT", "PUBLIC", null, new String[] {"TABLE"}, writer));
+		assertEquals(Arrays.asList("begin", "abort"), calls);
+	}
+
+	@Test
+	public void chunkIsCancelledBetweenTheBulkQueries() {
+		ScanProgress[] scan = new ScanProgress[1];
+		FakeJdbc jdbc = new FakeJdbc()
+				.query("FROM INFORMATION_SCHEMA.TABLES", (parameters) -> {
+					scan[0].cancel();
+					return existing(parameters);
+				})
+				.query("", (parameters) -> FakeJdbc.rows(new String[0]));
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		reader.addScanListener(new ScanListener() {
+			@Override
+			public void scanStarted(ScanProgress progress) {
+				scan[0] = progress;
+			}
+		});
+
+		assertThrows(DataBaseReaderException.class, () -> reader.selectedTablesProcess(tables("A", "B"), "CAT", "PUBLIC"));
+		assertEquals(1, jdbc.executed.size());
+	}
+
+	@Test
+	public void tablesOfTheChunkShareTheTimeOfTheQueries() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc()
+				.query("FROM INFORMATION_SCHEMA.TABLES", (parameters) -> existing(parameters))
+				.query("FROM INFORMATION_SCHEMA.COLUMNS", (parameters) -> {
+					try {
+						Thread.sleep(40);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return FakeJdbc.rows(new String[0]);
+				})
+				.query("", (parameters) -> FakeJdbc.rows(new String[0]));
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		List<Long> durations = new ArrayList<>();
+		reader.addScanListener(new ScanListener() {
+			@Override
+			public void tableFinished(ScanProgress progress, String tableName, long durationNanos) {
+				durations.add(durationNanos);
+			}
+		});
+
+		assertEquals(2, reader.selectedTablesProcess(tables("A", "B"), "CAT", "PUBLIC").size());
+		assertEquals(2, durations.size());
+		for (long duration : durations) assertTrue(duration >= TimeUnit.MILLISECONDS.toNanos(20), String.valueOf(duration));
+	}
+
+	@Test
+	public void readTablesInformsThePhasesWithProgress() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc();
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		List<String> events = new ArrayList<>();
+		reader.addScanListener(listener(events));
+
+		assertTrue(reader.readTables(null, "%", null, new String[] {"TABLE"}).isEmpty());
+		assertTrue(events.contains("phaseChanged"));
+		assertEquals("scanFinished", events.get(events.size() - 1));
+	}
+
+	/**
+	 * Every requested table exists, without comment
+	 */
+	private static ResultSet existing(List<Object> parameters) {
+		List<Object[]> rows = new ArrayList<>();
+		for (Object name : parameters.subList(1, parameters.size())) rows.add(new Object[] {name, null});
+		return FakeJdbc.rows(new String[] {"TABLE_NAME", "REMARKS"}, rows);
+	}
+
+	private static List<Table> tables(String... names) {
+		List<Table> tables = new ArrayList<>();
+		for (String name : names) {
+			Table table = new Table();
+			table.setName(name);
+			table.setType("TABLE");
+			tables.add(table);
+		}
+		return tables;
+	}
+
+	private static ScanListener listener(List<String> events) {
+		return new ScanListener() {
+			@Override
+			public void scanStarted(ScanProgress progress) {
+				events.add("scanStarted");
+			}
+			@Override
+			public void phaseChanged(ScanProgress progress, String phase) {
+				assertNotNull(progress);
+				events.add("phaseChanged");
+			}
+			@Override
+			public void scanFinished(ScanProgress progress) {
+				events.add("scanFinished");
+			}
+		};
+	}
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class DdlSchemaWriterTest {
+
+	@Test
+	public void reservedAndCaseSensitiveNamesAreQuoted() {
+		DdlSchemaWriter postgresql = new DdlSchemaWriter(new StringWriter(), DatabaseDialect.POSTGRESQL);
+		assertEquals("orders", postgresql.quote("orders"));
+		assertEquals("\"Orders\"", postgresql.quote("Orders"));
+		assertEquals("\"order\"", postgresql.quote("order"));
+		assertEquals("\"my table\"", postgresql.quote("my table"));
+
+		DdlSchemaWriter oracle = new DdlSchemaWriter(new StringWriter(), DatabaseDialect.ORACLE);
+		assertEquals("ORDERS", oracle.quote("ORDERS"));
+		assertEquals("\"orders\"", oracle.quote("orders"));
+		assertEquals("\"LEVEL\"", oracle.quote("LEVEL"));
+
+		DdlSchemaWriter mysql = new DdlSchemaWriter(new StringWriter(), DatabaseDialect.MYSQL);
+		assertEquals("Orders", mysql.quote("Orders"));
+		assertEquals("`key`", mysql.quote("key"));
+		assertEquals("[user]", new DdlSchemaWriter(new StringWriter(), DatabaseDialect.SQLSERVER).quote("user"));
+	}
+
+	@Test
+	public void autoIncrementTypesUseTheIdentityOfTheDialect() throws Exception {
+		StringWriter out = new StringWriter();
+		DdlSchemaWriter writer = new DdlSchemaWriter(out, DatabaseDialect.POSTGRESQL);
+		writer.begin("DB");
+		writer.writeTable(table("t", column("id", "bigserial", Types.BIGINT, 19, true, null),
+									 column("code", "int identity", Types.INTEGER, 10, true, null)));
+		writer.finish();
+
+		String ddl = out.toString();
+		assertTrue(ddl.contains("id bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL"), ddl);
+		assertTrue(ddl.contains("code int GENERATED BY DEFAULT AS IDENTITY NOT NULL"), ddl);
+	}
+
+	@Test
+	public void textDefaultsAreQuoted() {
+		DdlSchemaWriter writer = new DdlSchemaWriter(new StringWriter(), DatabaseDialect.MYSQL);
+		assertEquals("'active'", writer.defaultValue("active"));
+		assertEquals("'it''s'", writer.defaultValue("it's"));
+		assertEquals("0", writer.defaultValue("0"));
+		assertEquals("-1.5", writer.defaultValue("-1.5"));
+		assertEquals("CURRENT_TIMESTAMP", writer.defaultValue("CURRENT_TIMESTAMP"));
+		assertEquals("'abc'", writer.defaultValue("'abc'"));
+		assertEquals("b'1'", writer.defaultValue("b'1'"));
+		assertEquals("nextval('seq'::regclass)", writer.defaultValue("nextval('seq'::regclass)"));
+		assertEquals("((0))", writer.defaultValue("((0))"));
+	}
+
+	@Test
+	public void tablesKeysAndForeignKeysAfterTheTables() throws Exception {
+		StringWriter out = new StringWriter();
+		DdlSchemaWriter writer = new DdlSchemaWriter(out, DatabaseDialect.H2);
+
+		writer.begin("DB");
+		writer.writeTable(child());
+		writer.writeTable(table("PARENT", column("ID", "INTEGER", Types.INTEGER, 32, false, null)));
+		writer.finish();
+
+		String ddl = out.toString();
+		assertTrue(ddl.contains("CREATE TABLE CHILD (\n\tID INTEGER NOT NULL,\n\tPARENT_ID INTEGER NOT NULL,\n\t" +
+								"NAME VARCHAR(50) DEFAULT 'none',\n\tPRIMARY KEY (ID)\n);"), ddl);
+		assertTrue(ddl.indexOf("ALTER TABLE CHILD ADD CONSTRAINT FK_PARENT FOREIGN KEY (PARENT_ID) REFERENCES PARENT (ID);") >
+				   ddl.indexOf("CREATE TABLE PARENT"), ddl);
+	}
+
+	@Test
+	public void abortDeletesTheForeignKeysFile() throws Exception {
+		Path tmp = Paths.get(System.getProperty("java.io.tmpdir"));
+		Set<Path> before = foreignKeysFiles(tmp);
+		DdlSchemaWriter writer = new DdlSchemaWriter(new StringWriter(), DatabaseDialect.H2);
+		writer.begin("DB");
+		writer.writeTable(child());
+		assertEquals(before.size() + 1, foreignKeysFiles(tmp).size());
+
+		writer.abort();
+		assertEquals(before, foreignKeysFiles(tmp));
+	}
+
+	private static Set<Path> foreignKeysFiles(Path dir) throws IOException {
+		Set<Path> files = new HashSet<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "platkm-fk*.sql")) {
+			for (Path file : stream) files.add(file);
+		}
+		return files;
+	}
+
+	/**
+	 * CHILD with a foreign key to PARENT
+	 */
+	private static Table child() {
+		Table child = table("CHILD", column("ID", "INTEGER", Types.INTEGER, 32, false, null),
+									 column("PARENT_ID", "INTEGER", Types.INTEGER, 32, false, null),
+									 column("NAME", "VARCHAR", Types.VARCHAR, 50, false, "none"));
+		FkContraint fk = new FkContraint();
+		fk.setFkName("FK_PARENT");
+		fk.setPkTableName("PARENT");
+		ImportedKey key = new ImportedKey();
+		key.setFkColumnName("PARENT_ID");
+		key.setPkTableName("PARENT");
+		key.setPkColumnName("ID");
+		key.setKeySeq("1");
+		fk.getImportedKey().add(key);
+		child.getFkContraint().add(fk);
+		return child;
+	}
+
+	private static Table table(String name, Column... columns) {
+		Table table = new Table();
+		table.setName(name);
+		table.setType("TABLE");
+		for (Column column : columns) table.getColumn().add(column);
+		PkContraint pk = new PkContraint();
+		pk.getListField().add(columns[0].getName());
+		table.setPkContraint(pk);
+		return table;
+	}
+
+	private static Column column(String name, String type, int sqlType, int precision, boolean autoIncrement, String defaultValue) {
+		Column column = new Column();
+		column.setName(name);
+		column.setType(type);
+		column.setJavaSqlType(sqlType);
+		column.setPrecision(precision);
+		column.setAutoIncrement(autoIncrement);
+		column.setNullable(defaultValue != null);
+		column.setDefaultValue(defaultValue);
+		return column;
+	}
+}
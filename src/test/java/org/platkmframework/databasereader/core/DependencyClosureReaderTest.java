@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class DependencyClosureReaderTest {
+
+	private static final String[] KEYS = {"PKTABLE_NAME", "PKCOLUMN_NAME", "FKTABLE_NAME", "FKCOLUMN_NAME", "KEY_SEQ", "UPDATE_RULE", "DELETE_RULE", "FK_NAME"};
+
+	/** fk table, fk column, pk table */
+	private static final String[][] FKS = {
+			{"ORDERS", "CUSTOMER_ID", "CUSTOMER"},
+			{"CUSTOMER", "COUNTRY_ID", "COUNTRY"},
+			{"ITEMS", "ORDER_ID", "ORDERS"},
+			{"ITEMS", "PRODUCT_ID", "PRODUCT"}};
+
+	@Test
+	public void closureFollowsTheImportedKeys() throws Exception {
+		DependencyClosureReader reader = new DependencyClosureReader(schema().connection());
+
+		assertEquals(Arrays.asList("ORDERS", "CUSTOMER", "COUNTRY"), reader.getClosure("CATALOG", "PUBLIC", Arrays.asList("ORDERS"), -1));
+		assertEquals(Arrays.asList("ORDERS", "CUSTOMER"), reader.getClosure("CATALOG", "PUBLIC", Arrays.asList("ORDERS"), 1));
+		assertEquals(Arrays.asList("ORDERS"), reader.getClosure("CATALOG", "PUBLIC", Arrays.asList("ORDERS", "orders"), 0));
+	}
+
+	@Test
+	public void exportedKeysAddTheReferencingTables() throws Exception {
+		DependencyClosureReader reader = new DependencyClosureReader(schema().connection());
+		reader.setFollowExportedKeys(true);
+		reader.setChunkSize(1);
+
+		assertEquals(Arrays.asList("ORDERS", "CUSTOMER", "ITEMS", "COUNTRY", "PRODUCT"),
+				reader.getClosure("CATALOG", "PUBLIC", Arrays.asList("ORDERS"), -1));
+	}
+
+	@Test
+	public void closureTablesHaveColumnsAndKeys() throws Exception {
+		Schema schema = schema();
+		DependencyClosureReader reader = new DependencyClosureReader(schema.connection());
+		reader.setParallelism(2);
+		reader.setChunkSize(1);
+
+		DataBase dataBase = reader.readClosure("CATALOG", "PUBLIC", Arrays.asList("ORDERS"), -1);
+
+		List<String> names = new ArrayList<>();
+		for (Table table : dataBase.getTables()) names.add(table.getName());
+		assertEquals(Arrays.asList("ORDERS", "CUSTOMER", "COUNTRY"), names);
+
+		Table orders = dataBase.getTables().get(0);
+		assertEquals(Arrays.asList("ID"), orders.getPkContraint().getListField());
+		assertEquals("CUSTOMER", orders.getFkContraint().get(0).getPkTableName());
+		Column id = orders.getColumn().get(0);
+		assertTrue(id.isPk());
+		assertFalse(id.isFk());
+		Column customerId = orders.getColumn().get(1);
+		assertTrue(customerId.isFk());
+		assertEquals("CUSTOMER", customerId.getFktablename());
+		assertTrue(dataBase.getTables().get(2).getFkContraint().isEmpty());
+
+		//every connection taken is closed at the end
+		assertTrue(schema.opened.get() > 0);
+		assertEquals(schema.opened.get(), schema.jdbc.calls("close"));
+	}
+
+	private static Schema schema() {
+		FakeJdbc jdbc = new FakeJdbc();
+		jdbc.productName = "SQLite";
+		jdbc.metaData("getImportedKeys", (args) -> keys((String) args[2], false))
+			.metaData("getExportedKeys", (args) -> keys((String) args[2], true))
+			.metaData("getPrimaryKeys", (args) -> FakeJdbc.rows(new String[] {"TABLE_NAME", "COLUMN_NAME", "KEY_SEQ", "PK_NAME"},
+					new Object[] {args[2], "ID", 1, "PK_" + args[2]}))
+			.metaData("getColumns", (args) -> {
+				List<Object[]> rows = new ArrayList<>();
+				rows.add(new Object[] {args[2], "ID", "INTEGER", Types.INTEGER, 10, 0, "NO", "NO", null, null, 1});
+				for (String[] fk : FKS) {
+					if(fk[0].equals(args[2])) rows.add(new Object[] {args[2], fk[1], "INTEGER", Types.INTEGER, 10, 0, "YES", "NO", null, null, rows.size() + 1});
+				}
+				return FakeJdbc.rows(new String[] {"TABLE_NAME", "COLUMN_NAME", "TYPE_NAME", "DATA_TYPE", "COLUMN_SIZE", "DECIMAL_DIGITS",
+						"IS_NULLABLE", "IS_AUTOINCREMENT", "COLUMN_DEF", "REMARKS", "ORDINAL_POSITION"}, rows);
+			});
+		return new Schema(jdbc);
+	}
+
+	private static java.sql.ResultSet keys(String tableName, boolean exported) {
+		List<Object[]> rows = new ArrayList<>();
+		for (String[] fk : FKS) {
+			if((exported ? fk[2] : fk[0]).equals(tableName)) {
+				rows.add(new Object[] {fk[2], "ID", fk[0], fk[1], "1", "3", "3", "FK_" + fk[0] + "_" + fk[2]});
+			}
+		}
+		return FakeJdbc.rows(KEYS, rows);
+	}
+
+	private static final class Schema {
+
+		private final FakeJdbc jdbc;
+		private final AtomicInteger opened = new AtomicInteger();
+
+		Schema(FakeJdbc jdbc) {
+			this.jdbc = jdbc;
+		}
+
+		ConnectionSource connection() {
+			return () -> {
+				opened.incrementAndGet();
+				return jdbc.connection();
+			};
+		}
+	}
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * In memory Connection, DatabaseMetaData and ResultSet proxies for the
+ * tests. The metadata methods and the queries answer the rows given to
+ * them, every call is counted by method name or sql.
+ */
+final class FakeJdbc {
+
+	/** header of the INFORMATION_SCHEMA.COLUMNS query of BatchMetadataReader */
+	static final String[] COLUMNS = {"TABLE_NAME", "COLUMN_NAME", "ORDINAL_POSITION", "DATA_TYPE", "PRECISION",
+			"NUMERIC_SCALE", "IS_NULLABLE", "IS_IDENTITY", "COLUMN_DEFAULT", "REMARKS"};
+
+	final Map<String, Function<Object[], ResultSet>> metaDataResults = new HashMap<>();
+	final Map<String, Function<List<Object>, ResultSet>> queryResults = new LinkedHashMap<>();
+	final Map<String, AtomicInteger> calls = new HashMap<>();
+	final List<String> executed = new ArrayList<>();
+
+	String url = "jdbc:fake:test";
+	String productName = "H2";
+	String catalog = "CATALOG";
+	String schema = "PUBLIC";
+	boolean closed;
+	/** every metadata and query call fails, like a dropped connection */
+	boolean broken;
+
+	/**
+	 * Answer of a DatabaseMetaData method, any arguments
+	 */
+	FakeJdbc metaData(String method, Function<Object[], ResultSet> result) {
+		metaDataResults.put(method, result);
+		return this;
+	}
+
+	/**
+	 * Answer of every query that contains the text
+	 */
+	FakeJdbc query(String contains, Function<List<Object>, ResultSet> result) {
+		queryResults.put(contains, result);
+		return this;
+	}
+
+	int calls(String name) {
+		AtomicInteger count = calls.get(name);
+		return count == null ? 0 : count.get();
+	}
+
+	private void count(String name) {
+		calls.computeIfAbsent(name, (k) -> new AtomicInteger()).incrementAndGet();
+	}
+
+	Connection connection() {
+		return (Connection) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+			String name = method.getName();
+			count(name);
+			switch (name) {
+			case "getMetaData":        return metaData((Connection) proxy);
+			case "getCatalog":         return catalog;
+			case "getSchema":          return schema;
+			case "setSchema":          schema = (String) args[0]; return null;
+			case "isClosed":           return closed;
+			case "isValid":            return !closed && !broken;
+			case "close":              closed = true; return null;
+			case "prepareStatement":   return statement((Connection) proxy, (String) args[0]);
+			case "createStatement":    return statement((Connection) proxy, null);
+			case "getAutoCommit":      return true;
+			case "hashCode":           return System.identityHashCode(proxy);
+			case "equals":             return proxy == args[0];
+			case "toString":           return "FakeConnection";
+			default:                   return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	private DatabaseMetaData metaData(Connection con) {
+		return (DatabaseMetaData) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {DatabaseMetaData.class}, (proxy, method, args) -> {
+			String name = method.getName();
+			count(name);
+			if(broken && ResultSet.class.equals(method.getReturnType())) throw new SQLException("Connection reset");
+			Function<Object[], ResultSet> result = metaDataResults.get(name);
+			if(result != null) return result.apply(args);
+			switch (name) {
+			case "getURL":                   return url;
+			case "getUserName":              return "sa";
+			case "getConnection":            return con;
+			case "getDatabaseProductName":   return productName;
+			case "getDriverName":            return productName + " driver";
+			case "getDriverVersion":         return "1.0";
+			case "getDatabaseProductVersion":return "1.0";
+			case "getIdentifierQuoteString": return "\"";
+			case "storesUpperCaseIdentifiers": return true;
+			case "hashCode":                 return System.identityHashCode(proxy);
+			case "equals":                   return proxy == args[0];
+			case "toString":                 return "FakeDatabaseMetaData";
+			default:
+				if(ResultSet.class.equals(method.getReturnType())) return rows(new String[0]);
+				return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	private Object statement(Connection con, String preparedSql) {
+		List<Object> parameters = new ArrayList<>();
+		Class<?> type = preparedSql == null ? Statement.class : PreparedStatement.class;
+		return Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+			String name = method.getName();
+			if(name.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer) {
+				int index = (Integer) args[0];
+				while(parameters.size() < index) parameters.add(null);
+				parameters.set(index - 1, args[1]);
+				return null;
+			}
+			switch (name) {
+			case "executeQuery":
+				String sql = preparedSql != null ? preparedSql : (String) args[0];
+				if(broken) throw new SQLException("Connection reset");
+				executed.add(sql);
+				count("executeQuery");
+				for (Map.Entry<String, Function<List<Object>, ResultSet>> entry : queryResults.entrySet()) {
+					if(sql.contains(entry.getKey())) return entry.getValue().apply(new ArrayList<>(parameters));
+				}
+				throw new SQLException("Unknown query: " + sql);
+			case "getMetaData":
+				//shape of a prepared statement, from the rows of its query
+				if(preparedSql == null) return null;
+				count("PreparedStatement.getMetaData");
+				for (Map.Entry<String, Function<List<Object>, ResultSet>> entry : queryResults.entrySet()) {
+					if(preparedSql.contains(entry.getKey())) return entry.getValue().apply(new ArrayList<>(parameters)).getMetaData();
+				}
+				throw new SQLException("Unknown query: " + preparedSql);
+			case "getConnection": return con;
+			case "close":         return null;
+			case "hashCode":      return System.identityHashCode(proxy);
+			case "equals":        return proxy == args[0];
+			case "toString":      return "FakeStatement";
+			default:              return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	/**
+	 * Result set of the rows, the values by position of the columns
+	 * @param columns
+	 * @param rows
+	 * @return
+	 */
+	static ResultSet rows(String[] columns, Object[]... rows) {
+		return rows(columns, Arrays.asList(rows));
+	}
+
+	/**
+	 * Row of COLUMNS with scale 0, not identity, without default and comment
+	 */
+	static Object[] column(Object tableName, String columnName, int position, String type, int precision, boolean nullable) {
+		return new Object[] {tableName, columnName, position, type, precision, 0, nullable ? "YES" : "NO", "NO", null, null};
+	}
+
+	static ResultSet rows(String[] columns, List<Object[]> rows) {
+
+		Map<String, Integer> index = new HashMap<>();
+		for (int i = 0; i < columns.length; i++) index.put(columns[i].toUpperCase(), i);
+		int[] position = {-1};
+		boolean[] wasNull = {false};
+
+		InvocationHandler handler = (proxy, method, args) -> {
+			String name = method.getName();
+			switch (name) {
+			case "next":      return ++position[0] < rows.size();
+			case "close":     return null;
+			case "isClosed":  return false;
+			case "wasNull":   return wasNull[0];
+			case "findColumn":return index.get(((String) args[0]).toUpperCase()) + 1;
+			case "getMetaData": return resultSetMetaData(columns);
+			case "hashCode":  return System.identityHashCode(proxy);
+			case "equals":    return proxy == args[0];
+			case "toString":  return "FakeResultSet";
+			default:
+			}
+			if(name.startsWith("get") && args != null && args.length >= 1) {
+				Integer column = args[0] instanceof Integer ? (Integer) args[0] - 1 : index.get(((String) args[0]).toUpperCase());
+				if(column == null) throw new SQLException("Unknown column " + args[0]);
+				Object value = rows.get(position[0])[column];
+				wasNull[0] = value == null;
+				return convert(value, method.getReturnType());
+			}
+			return defaultValue(method.getReturnType());
+		};
+		return (ResultSet) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {ResultSet.class}, handler);
+	}
+
+	private static ResultSetMetaData resultSetMetaData(String[] columns) {
+		return (ResultSetMetaData) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {ResultSetMetaData.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "getColumnCount": return columns.length;
+			case "getColumnName":
+			case "getColumnLabel": return columns[(Integer) args[0] - 1];
+			default:               return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	private static Object convert(Object value, Class<?> type) throws SQLException {
+		if(type == String.class) return value == null ? null : value.toString();
+		if(type == Object.class) return value;
+		if(value == null) return defaultValue(type);
+		if(type == int.class) {
+			//as the drivers do, not a silent overflow
+			long number = ((Number) value).longValue();
+			if(number != (int) number) throw new SQLException("Value '" + value + "' is outside of valid range for type int");
+			return (int) number;
+		}
+		if(type == long.class) return ((Number) value).longValue();
+		if(type == short.class) return ((Number) value).shortValue();
+		if(type == double.class) return ((Number) value).doubleValue();
+		if(type == boolean.class) return value instanceof Boolean ? value : ((Number) value).intValue() != 0;
+		return value;
+	}
+
+	static Object defaultValue(Class<?> type) {
+		if(!type.isPrimitive() || type == void.class) return null;
+		if(type == boolean.class) return false;
+		if(type == long.class) return 0L;
+		if(type == double.class) return 0d;
+		if(type == float.class) return 0f;
+		if(type == short.class) return (short) 0;
+		if(type == byte.class) return (byte) 0;
+		if(type == char.class) return (char) 0;
+		return 0;
+	}
+}
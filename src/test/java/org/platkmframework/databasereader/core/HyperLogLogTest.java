@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class HyperLogLogTest {
+
+	@Test
+	public void estimateIsWithinTheStandardError() {
+		HyperLogLog hll = new HyperLogLog();
+		for (int i = 0; i < 200_000; i++) hll.add("value-" + i);
+
+		//1.04 / sqrt(2^14) is 0.8%, three times that
+		assertWithin(200_000, hll.estimate(), 0.025);
+	}
+
+	@Test
+	public void smallCardinalitiesUseLinearCounting() {
+		HyperLogLog hll = new HyperLogLog();
+		for (int i = 0; i < 100; i++) hll.add(i);
+
+		assertWithin(100, hll.estimate(), 0.03);
+		assertEquals(0, new HyperLogLog().estimate());
+	}
+
+	@Test
+	public void duplicatesAndNullsAreNotCounted() {
+		HyperLogLog hll = new HyperLogLog();
+		for (int repeat = 0; repeat < 50; repeat++) {
+			for (int i = 0; i < 1000; i++) hll.add("v" + i);
+			hll.add(null);
+		}
+
+		assertWithin(1000, hll.estimate(), 0.03);
+	}
+
+	@Test
+	public void mergeIsTheUnion() {
+		HyperLogLog left = new HyperLogLog();
+		HyperLogLog right = new HyperLogLog();
+		HyperLogLog all = new HyperLogLog();
+		for (int i = 0; i < 60_000; i++) {
+			(i % 2 == 0 ? left : right).add(i);
+			all.add(i);
+		}
+		//overlapping values
+		for (int i = 0; i < 10_000; i++) left.add(i + 1);
+
+		left.merge(right);
+		assertEquals(all.estimate(), left.estimate());
+		assertWithin(60_000, left.estimate(), 0.025);
+	}
+
+	@Test
+	public void precisionIsChecked() {
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+	}
+
+	private static void assertWithin(long expected, long actual, double error) {
+		assertTrue(Math.abs(actual - expected) <= expected * error, "expected about " + expected + " but was " + actual);
+	}
+}
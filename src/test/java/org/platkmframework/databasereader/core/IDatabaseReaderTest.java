@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class IDatabaseReaderTest {
+
+	private final IDatabaseReader reader = new IDatabaseReader() {
+
+		@Override
+		public List<Table> getMetadata(Connection con) {
+			List<Table> tables = new ArrayList<>();
+			for (String name : new String[] {"A", "B"}) {
+				Table table = new Table();
+				table.setName(name);
+				tables.add(table);
+			}
+			return tables;
+		}
+
+		@Override
+		public List<String> getTablePksContraints(Connection con, String table) {
+			return new ArrayList<>();
+		}
+
+		@Override
+		public List<Column> getTableColumnMetaData(Connection con, String tablename) {
+			if(!"A".equals(tablename)) return new ArrayList<>();
+			Column column = new Column();
+			column.setName("ID");
+			return new ArrayList<>(Collections.singletonList(column));
+		}
+	};
+
+	@Test
+	public void batchColumnsDefaultKeepsEveryTableInOrder() {
+		Map<String, List<Column>> columns = reader.getTableColumnMetaData(null, Arrays.asList("B", "A", "C"));
+		assertEquals(Arrays.asList("B", "A", "C"), new ArrayList<>(columns.keySet()));
+		assertEquals("ID", columns.get("A").get(0).getName());
+		assertTrue(columns.get("C").isEmpty());
+	}
+
+	@Test
+	public void metadataDefaultFiltersByName() {
+		assertEquals(1, reader.getMetadata(null, "a").size());
+		assertEquals(2, reader.getMetadata(null, null).size());
+	}
+}
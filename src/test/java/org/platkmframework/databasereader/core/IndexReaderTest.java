@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.IndexInfo;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class IndexReaderTest {
+
+	private static final String[] INDEX_INFO = {"TABLE_NAME", "NON_UNIQUE", "INDEX_NAME", "TYPE", "ORDINAL_POSITION", "COLUMN_NAME", "ASC_OR_DESC"};
+	private static final String[] INDEX_COLUMNS = {"TABLE_NAME", "INDEX_NAME", "IS_UNIQUE", "COLUMN_NAME", "ORDINAL_POSITION", "ORDERING_SPECIFICATION"};
+
+	@Test
+	public void getIndexInfoRowsAreGroupedByIndex() throws Exception {
+		List<Object[]> calls = new ArrayList<>();
+		FakeJdbc jdbc = new FakeJdbc().metaData("getIndexInfo", (args) -> {
+			calls.add(args);
+			return FakeJdbc.rows(INDEX_INFO,
+					new Object[] {"ORDERS", false, null, (int) DatabaseMetaData.tableIndexStatistic, 0, null, null},
+					new Object[] {"ORDERS", false, "UQ_ORDERS", (int) DatabaseMetaData.tableIndexOther, 2, "NUMBER", "D"},
+					new Object[] {"ORDERS", false, "UQ_ORDERS", (int) DatabaseMetaData.tableIndexOther, 1, "YEAR", "A"});
+		});
+
+		List<IndexInfo> indexes = new IndexReader().readIndexes(jdbc.connection(), "CATALOG", "PUBLIC", "ORDERS");
+
+		assertEquals(1, indexes.size());
+		assertEquals("UQ_ORDERS", indexes.get(0).getName());
+		assertTrue(indexes.get(0).isUnique());
+		assertEquals(Arrays.asList("YEAR", "NUMBER"), indexes.get(0).getColumns());
+		assertEquals(Arrays.asList(true, false), indexes.get(0).getAscending());
+		//unique only and approximate by default
+		assertEquals(Arrays.asList("CATALOG", "PUBLIC", "ORDERS", true, true), Arrays.asList(calls.get(0)));
+	}
+
+	@Test
+	public void schemaIndexesAreReadWithOneQuery() throws Exception {
+		List<Object> parameters = new ArrayList<>();
+		FakeJdbc jdbc = new FakeJdbc().query("INFORMATION_SCHEMA.INDEX_COLUMNS", (params) -> {
+			parameters.addAll(params);
+			return FakeJdbc.rows(INDEX_COLUMNS,
+					new Object[] {"ORDERS", "PK_ORDERS", "TRUE", "ID", 1, "ASC"},
+					new Object[] {"ORDERS", "IX_ORDERS_DATE", "FALSE", "CREATED", 1, "DESC"},
+					new Object[] {"ITEMS", "PK_ITEMS", "TRUE", "ORDER_ID", 1, "ASC"},
+					new Object[] {"ITEMS", "PK_ITEMS", "TRUE", "LINE", 2, "ASC"});
+		});
+
+		Map<String, List<IndexInfo>> unique = new IndexReader().readSchemaIndexes(jdbc.connection(), "CATALOG", null);
+		assertEquals(Arrays.asList("PUBLIC"), parameters);
+		assertEquals(1, unique.get("ORDERS").size());
+		assertEquals(Arrays.asList("ORDER_ID", "LINE"), unique.get("ITEMS").get(0).getColumns());
+
+		Map<String, List<IndexInfo>> all = new IndexReader(true).readSchemaIndexes(jdbc.connection(), "CATALOG", null);
+		IndexInfo date = all.get("ORDERS").get(1);
+		assertEquals("IX_ORDERS_DATE", date.getName());
+		assertFalse(date.isUnique());
+		assertEquals(Arrays.asList(false), date.getAscending());
+		assertEquals(2, jdbc.calls("executeQuery"));
+		assertEquals(0, jdbc.calls("getIndexInfo"));
+	}
+
+	@Test
+	public void otherDatabasesReadEachTable() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc()
+				.metaData("getTables", (args) -> FakeJdbc.rows(new String[] {"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME"},
+						new Object[] {"CATALOG", "PUBLIC", "A"}, new Object[] {"CATALOG", "PUBLIC", "B"}))
+				.metaData("getIndexInfo", (args) -> FakeJdbc.rows(INDEX_INFO,
+						new Object[] {args[2], false, "UQ_" + args[2], (int) DatabaseMetaData.tableIndexOther, 1, "ID", "A"}));
+		jdbc.productName = "SQLite";
+
+		Map<String, List<IndexInfo>> indexes = new IndexReader().readSchemaIndexes(jdbc.connection(), "CATALOG", "PUBLIC");
+
+		assertEquals(Arrays.asList("A", "B"), new ArrayList<>(indexes.keySet()));
+		assertEquals("UQ_B", indexes.get("B").get(0).getName());
+		assertEquals(2, jdbc.calls("getIndexInfo"));
+		assertEquals(0, jdbc.calls("executeQuery"));
+	}
+
+	@Test
+	public void selectedTablesAreAllInTheResult() throws Exception {
+		List<Object> parameters = new ArrayList<>();
+		FakeJdbc jdbc = new FakeJdbc().query("INFORMATION_SCHEMA.INDEX_COLUMNS", (params) -> {
+			parameters.addAll(params);
+			return FakeJdbc.rows(INDEX_COLUMNS, new Object[] {"ORDERS", "PK_ORDERS", "TRUE", "ID", 1, "ASC"});
+		});
+
+		Map<String, List<IndexInfo>> indexes = new IndexReader().readIndexes(jdbc.connection(), "CATALOG", null, Arrays.asList("orders", "ITEMS"));
+
+		//the names as given and in the case the database stores them
+		assertEquals(Arrays.asList("PUBLIC", "orders", "ORDERS", "ITEMS"), parameters);
+		assertEquals(Arrays.asList("orders", "ITEMS"), new ArrayList<>(indexes.keySet()));
+		assertEquals("PK_ORDERS", indexes.get("orders").get(0).getName());
+		assertTrue(indexes.get("ITEMS").isEmpty());
+	}
+
+	@Test
+	public void orderTypeOfTheModel() {
+		IndexInfo index = new IndexInfo();
+		index.setName("IX");
+		index.getColumns().addAll(Arrays.asList("A", "B"));
+		index.getAscending().addAll(Arrays.asList(true, true));
+		assertEquals("ASC", IndexReader.toIndexContraint(index).getOrderType());
+
+		index.getAscending().set(0, false);
+		index.getAscending().set(1, false);
+		assertEquals("DESC", IndexReader.toIndexContraint(index).getOrderType());
+
+		index.getAscending().set(1, true);
+		IndexContraint indexContraint = IndexReader.toIndexContraint(index);
+		assertEquals("DESC,ASC", indexContraint.getOrderType());
+		assertEquals(Arrays.asList("A", "B"), indexContraint.getColumns());
+	}
+}
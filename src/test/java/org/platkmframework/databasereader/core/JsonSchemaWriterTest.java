@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class JsonSchemaWriterTest {
+
+	@Test
+	public void emptyDataBase() throws Exception {
+		StringWriter out = new StringWriter();
+		DataBase dataBase = new DataBase("DB");
+		dataBase.setTables(new ArrayList<>());
+		new JsonSchemaWriter(out).write(dataBase);
+		assertEquals("{\"name\":\"DB\",\"tables\":[\n]}\n", out.toString());
+	}
+
+	@Test
+	public void tablesAreSeparatedAndTextIsEscaped() throws Exception {
+		Column column = new Column();
+		column.setName("ID");
+		column.setType("INTEGER");
+		column.setJavaSqlType(Types.INTEGER);
+		column.setComment("say \"hi\"\n\\");
+		Table first = new Table();
+		first.setName("A");
+		first.getColumn().add(column);
+		PkContraint pk = new PkContraint();
+		pk.getListField().add("ID");
+		first.setPkContraint(pk);
+		Table second = new Table();
+		second.setName("B");
+
+		StringWriter out = new StringWriter();
+		DataBase dataBase = new DataBase("DB");
+		dataBase.setTables(new ArrayList<>(Arrays.asList(first, second)));
+		new JsonSchemaWriter(out).write(dataBase);
+
+		String json = out.toString();
+		assertTrue(json.startsWith("{\"name\":\"DB\",\"tables\":[\n{\"name\":\"A\",\"primaryKey\":{\"columns\":[\"ID\"]},\"columns\":[{\"name\":\"ID\",\"javaSqlType\":4,"), json);
+		assertTrue(json.contains("\"comment\":\"say \\\"hi\\\"\\n\\\\\""), json);
+		assertTrue(json.contains("]},\n{\"name\":\"B\",\"columns\":[],\"indexes\":[],\"foreignKeys\":[]}"), json);
+		//null values are left out
+		assertFalse(json.contains(":null"), json);
+	}
+}
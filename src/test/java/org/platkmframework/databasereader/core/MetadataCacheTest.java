@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class MetadataCacheTest {
+
+	@Test
+	public void loadsOnceAndCountsHits() {
+		MetadataCache<String, String> cache = new MetadataCache<>(0, 10);
+		AtomicInteger loads = new AtomicInteger();
+		assertEquals("a", cache.get("k", () -> "a" + (loads.incrementAndGet() > 1 ? "x" : "")));
+		assertEquals("a", cache.get("k", () -> "b"));
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		MetadataCache<String, String> cache = new MetadataCache<>(0, 2);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.getIfPresent("a");
+		cache.put("c", "3");
+		assertEquals("1", cache.getIfPresent("a"));
+		assertNull(cache.getIfPresent("b"));
+		assertEquals(1, cache.getEvictions());
+	}
+
+	@Test
+	public void expiresAfterTtl() throws InterruptedException {
+		MetadataCache<String, String> cache = new MetadataCache<>(20, 10);
+		cache.put("a", "1");
+		Thread.sleep(40);
+		assertNull(cache.getIfPresent("a"));
+		assertEquals("2", cache.get("a", () -> "2"));
+	}
+
+	@Test
+	public void entryKeepsItsOwnTtl() throws InterruptedException {
+		MetadataCache<String, String> cache = new MetadataCache<>(0, 10);
+		assertEquals("", cache.get("empty", () -> "", (value) -> true, (value) -> value.isEmpty() ? 20 : 0));
+		assertEquals("x", cache.get("full", () -> "x", (value) -> true, (value) -> value.isEmpty() ? 20 : 0));
+		cache.put("put", "1", 20);
+		Thread.sleep(40);
+		assertNull(cache.getIfPresent("empty"));
+		assertNull(cache.getIfPresent("put"));
+		assertEquals("x", cache.getIfPresent("full"));
+	}
+
+	@Test
+	public void notCacheableValueIsNotKept() {
+		MetadataCache<String, String> cache = new MetadataCache<>(0, 10);
+		assertEquals("", cache.get("k", () -> "", (value) -> !value.isEmpty()));
+		assertEquals(0, cache.size());
+		assertEquals("x", cache.get("k", () -> "x", (value) -> !value.isEmpty()));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void failedLoadIsNotCached() {
+		MetadataCache<String, String> cache = new MetadataCache<>(0, 10);
+		assertThrows(IllegalStateException.class, () -> cache.get("k", () -> { throw new IllegalStateException(); }));
+		assertEquals("ok", cache.get("k", () -> "ok"));
+	}
+
+	@Test
+	public void errorInLoaderReleasesWaiters() throws Exception {
+
+		MetadataCache<String, String> cache = new MetadataCache<>(0, 10);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> owner = executor.submit(() -> cache.get("k", () -> {
+				loading.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				throw new AssertionError("loader");
+			}));
+			loading.await();
+			Future<?> waiter = executor.submit(() -> cache.get("k", () -> "never"));
+			Thread.sleep(20);
+			release.countDown();
+
+			Throwable ownerError = assertThrows(java.util.concurrent.ExecutionException.class, () -> owner.get(5, TimeUnit.SECONDS)).getCause();
+			Throwable waiterError = assertThrows(java.util.concurrent.ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause();
+			assertEquals(AssertionError.class, ownerError.getClass());
+			assertSame(ownerError, waiterError);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Table;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class MetadataCallRecorderTest {
+
+	private static final String[] TABLES = {"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE", "REMARKS"};
+
+	@Test
+	public void wrapIsIdempotent() throws Exception {
+		Connection con = MetadataCallRecorder.wrap(new FakeJdbc().connection());
+		assertSame(con, MetadataCallRecorder.wrap(con));
+		assertSame(con.getMetaData().getClass(), MetadataCallRecorder.wrap(con.getMetaData()).getClass());
+	}
+
+	@Test
+	public void readersOfTheBatchPathAreRecorded() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc()
+				.metaData("getTables", (args) -> FakeJdbc.rows(TABLES, new Object[] {"CAT", "PUBLIC", "T", "TABLE", null}));
+		//without catalog queries every kind is a DatabaseMetaData call
+		jdbc.productName = "Generic";
+		Table table = new Table();
+		table.setName("T");
+		table.setType("TABLE");
+
+		Path file = Files.createTempFile("metadata", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("org.platkmframework.databasereader.MetadataCall").withThreshold(Duration.ZERO);
+			recording.start();
+			new DatabaseReader(jdbc.connection()).selectedTablesProcess(Arrays.asList(table), "CAT", "PUBLIC");
+			recording.stop();
+			recording.dump(file);
+		}
+
+		Set<String> methods = new HashSet<>();
+		for (RecordedEvent event : RecordingFile.readAllEvents(file)) methods.add(event.getString("method"));
+		Files.deleteIfExists(file);
+		assertTrue(methods.containsAll(Arrays.asList("getTables", "getColumns", "getPrimaryKeys", "getImportedKeys", "getIndexInfo")), methods.toString());
+	}
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class MetadataServerTest {
+
+	@Test
+	public void clientReadsTheSchemaOfTheServer() throws Exception {
+		Server server = new Server();
+		server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+		try {
+			MetadataClient client = new MetadataClient(server.url());
+
+			List<Table> tables = client.getMetadata(null);
+			assertEquals(Arrays.asList("CUSTOMER", "ORDERS"), Arrays.asList(tables.get(0).getName(), tables.get(1).getName()));
+			assertEquals(Arrays.asList("ID"), client.getTablePksContraints(null, "orders"));
+
+			Map<String, List<Column>> columns = client.getTableColumnMetaData(null, Arrays.asList("ORDERS", "MISSING"));
+			Column customerId = columns.get("ORDERS").get(1);
+			assertTrue(customerId.isFk());
+			assertEquals("CUSTOMER", customerId.getFktablename());
+			assertTrue(columns.get("MISSING").isEmpty());
+			assertTrue(client.getMetadata(null, "MISSING").isEmpty());
+
+			//the schema is read once for every request
+			assertEquals(1, server.reads.get());
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void matchingEtagGetsNotModified() throws Exception {
+		Server server = new Server();
+		server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1);
+		try {
+			HttpURLConnection first = (HttpURLConnection) new URL(server.url() + "/tables/ORDERS").openConnection();
+			assertEquals(200, first.getResponseCode());
+			assertEquals(MetadataServer.CONTENT_TYPE, first.getContentType());
+			String etag = first.getHeaderField("ETag");
+			first.getInputStream().close();
+
+			HttpURLConnection second = (HttpURLConnection) new URL(server.url() + "/tables/ORDERS").openConnection();
+			second.setRequestProperty("If-None-Match", etag);
+			assertEquals(304, second.getResponseCode());
+
+			//a change of other table keeps the etag of this one
+			server.extraColumn = true;
+			server.refresh();
+			HttpURLConnection third = (HttpURLConnection) new URL(server.url() + "/tables/ORDERS").openConnection();
+			third.setRequestProperty("If-None-Match", etag);
+			assertEquals(304, third.getResponseCode());
+			HttpURLConnection database = (HttpURLConnection) new URL(server.url() + "/database").openConnection();
+			database.setRequestProperty("If-None-Match", etag);
+			assertEquals(200, database.getResponseCode());
+			assertNotEquals(etag, database.getHeaderField("ETag"));
+			database.getInputStream().close();
+
+			HttpURLConnection post = (HttpURLConnection) new URL(server.url() + "/database").openConnection();
+			post.setRequestMethod("POST");
+			assertEquals(405, post.getResponseCode());
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void gzipBodyHasItsOwnEtag() throws Exception {
+		Server server = new Server();
+		server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1);
+		try {
+			HttpURLConnection identity = (HttpURLConnection) new URL(server.url() + "/tables/ORDERS").openConnection();
+			assertEquals(200, identity.getResponseCode());
+			String etag = identity.getHeaderField("ETag");
+			identity.getInputStream().close();
+
+			HttpURLConnection gzip = (HttpURLConnection) new URL(server.url() + "/tables/ORDERS").openConnection();
+			gzip.setRequestProperty("Accept-Encoding", "gzip");
+			assertEquals(200, gzip.getResponseCode());
+			assertEquals("gzip", gzip.getContentEncoding());
+			String gzipEtag = gzip.getHeaderField("ETag");
+			gzip.getInputStream().close();
+			assertEquals(etag.substring(0, etag.length() - 1) + "-gz\"", gzipEtag);
+
+			//either form is the same structure
+			HttpURLConnection second = (HttpURLConnection) new URL(server.url() + "/tables/ORDERS").openConnection();
+			second.setRequestProperty("Accept-Encoding", "gzip");
+			second.setRequestProperty("If-None-Match", etag);
+			assertEquals(304, second.getResponseCode());
+			assertEquals(gzipEtag, second.getHeaderField("ETag"));
+			HttpURLConnection third = (HttpURLConnection) new URL(server.url() + "/tables/ORDERS").openConnection();
+			third.setRequestProperty("If-None-Match", gzipEtag);
+			assertEquals(304, third.getResponseCode());
+			assertEquals(etag, third.getHeaderField("ETag"));
+		} finally {
+			server.stop();
+		}
+	}
+
+	/**
+	 * Server with a fixed schema instead of a database
+	 */
+	private static final class Server extends MetadataServer {
+
+		private final AtomicInteger reads = new AtomicInteger();
+		private volatile boolean extraColumn;
+
+		Server() {
+			super(() -> new FakeJdbc().connection(), "CATALOG", "PUBLIC", null, "metadata");
+		}
+
+		String url() {
+			return "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + getPort() + "/metadata";
+		}
+
+		@Override
+		protected DatabaseReader newReader(Connection con) {
+			return new DatabaseReader(con) {
+				@Override
+				public DataBase processDatabase(String catalogo, String esquema, String tabla, String[] types, List<String> listSelectedTablesNames) {
+					reads.incrementAndGet();
+					Table customer = table("CUSTOMER", "ID", "NAME");
+					if(extraColumn) customer.getColumn().add(column("CUSTOMER", "EMAIL"));
+					Table orders = table("ORDERS", "ID", "CUSTOMER_ID");
+					FkContraint fk = new FkContraint();
+					fk.setFkName("FK_ORDERS_CUSTOMER");
+					fk.setFkTableName("ORDERS");
+					fk.setPkTableName("CUSTOMER");
+					ImportedKey key = new ImportedKey();
+					key.setPkTableName("CUSTOMER");
+					key.setPkColumnName("ID");
+					key.setFkColumnName("CUSTOMER_ID");
+					fk.getImportedKey().add(key);
+					orders.getFkContraint().add(fk);
+
+					DataBase dataBase = new DataBase(catalogo);
+					dataBase.setTables(new ArrayList<>(Arrays.asList(customer, orders)));
+					return dataBase;
+				}
+			};
+		}
+	}
+
+	private static Table table(String name, String... columns) {
+		Table table = new Table();
+		table.setName(name);
+		table.setType("TABLE");
+		PkContraint pk = new PkContraint();
+		pk.setName("PK_" + name);
+		pk.getListField().add(columns[0]);
+		table.setPkContraint(pk);
+		for (String column : columns) table.getColumn().add(column(name, column));
+		return table;
+	}
+
+	private static Column column(String tableName, String name) {
+		Column column = new Column();
+		column.setTable(tableName);
+		column.setName(name);
+		column.setType("INTEGER");
+		column.setJavaSqlType(Types.INTEGER);
+		return column;
+	}
+}
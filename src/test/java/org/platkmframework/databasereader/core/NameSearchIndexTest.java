@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class NameSearchIndexTest {
+
+	@Test
+	public void prefixReturnsTheShortestNamesFirst() {
+		NameSearchIndex index = index();
+
+		//the column CUSTOMER_ID is also under its own name, shorter than CUSTOMER.NAME
+		assertEquals(Arrays.asList("CUSTOMER", "CUSTOMER.ID", "ORDERS.CUSTOMER_ID", "CUSTOMER.NAME", "CUSTOMER_ADDRESS",
+				"CUSTOMER_ADDRESS.ID", "CUSTOMER_ADDRESS.CITY"), names(index.prefix("Customer", 10)));
+		assertEquals(1.0, index.prefix("customer", 1).get(0).getScore(), 0.0001);
+		assertEquals(Arrays.asList("CUSTOMER"), names(index.prefix("cus", 1)));
+		assertEquals(Arrays.asList("ORDERS.ID", "ORDERS.ITEMS"), names(index.prefix("orders.i", 10)));
+		assertTrue(index.prefix("invoice", 10).isEmpty());
+	}
+
+	@Test
+	public void fuzzyFindsTheClosestNamesWithinTheEdits() {
+		NameSearchIndex index = index();
+
+		List<NameSearchIndex.Hit> hits = index.fuzzy("custmer", 1, 10);
+		assertEquals(Arrays.asList("CUSTOMER"), names(hits));
+		assertEquals(1, hits.get(0).getDistance());
+		assertTrue(hits.get(0).isTable());
+
+		//a transposition is two edits
+		assertTrue(index.fuzzy("ordres", 1, 10).isEmpty());
+		assertEquals(Arrays.asList("ORDERS"), names(index.fuzzy("ordres", 2, 10)));
+		assertEquals(Arrays.asList("ORDERS.ITEMS"), names(index.fuzzy("orders.itme", 2, 10)));
+		assertTrue(index.fuzzy("xyz", 1, 10).isEmpty());
+	}
+
+	@Test
+	public void searchAddsFuzzyHitsAfterThePrefixHits() {
+		NameSearchIndex index = index();
+
+		List<NameSearchIndex.Hit> hits = index.search("orderz", 10);
+		assertEquals("ORDERS", hits.get(0).toString());
+		assertTrue(hits.get(0).getScore() <= 0.5);
+		//too short for fuzzy
+		assertTrue(index.search("zz", 10).isEmpty());
+	}
+
+	@Test
+	public void updateReplacesAndRemoveDropsTheTable() {
+		NameSearchIndex index = index();
+		int size = index.size();
+
+		index.update("ORDERS", Arrays.asList("ID", "TOTAL"));
+		assertEquals(size - 1, index.size());
+		assertTrue(index.prefix("orders.items", 10).isEmpty());
+		assertEquals(Arrays.asList("ORDERS.TOTAL"), names(index.prefix("orders.t", 10)));
+
+		index.remove("orders");
+		assertEquals(size - 4, index.size());
+		assertTrue(index.prefix("orders", 10).isEmpty());
+		assertTrue(index.fuzzy("ordres", 2, 10).stream().noneMatch((hit) -> hit.getTableName().equals("ORDERS")));
+	}
+
+	@Test
+	public void manyUpdatesCompactTheTree() {
+		NameSearchIndex index = index();
+		for (int i = 0; i < 3000; i++) {
+			index.update("ORDERS", Arrays.asList("ID", "ITEMS", "V" + i));
+		}
+
+		assertEquals(3 + 3 + 4, index.size());
+		assertEquals(Arrays.asList("ORDERS.V2999"), names(index.prefix("orders.v", 10)));
+		assertEquals(Arrays.asList("CUSTOMER"), names(index.fuzzy("custmer", 1, 10)));
+	}
+
+	private static NameSearchIndex index() {
+		NameSearchIndex index = new NameSearchIndex();
+		index.update("CUSTOMER", Arrays.asList("ID", "NAME"));
+		index.update("CUSTOMER_ADDRESS", Arrays.asList("ID", "CITY"));
+		index.update("ORDERS", Arrays.asList("ID", "ITEMS", "CUSTOMER_ID"));
+		return index;
+	}
+
+	private static List<String> names(List<NameSearchIndex.Hit> hits) {
+		List<String> names = new ArrayList<>();
+		for (NameSearchIndex.Hit hit : hits) names.add(hit.toString());
+		return names;
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class PersistentMapTest {
+
+	@Test
+	public void putKeepsThePreviousVersion() {
+		PersistentMap<String, Integer> first = PersistentMap.<String, Integer>empty().put("A", 1);
+		PersistentMap<String, Integer> second = first.put("A", 2).put("B", 3);
+
+		assertEquals(Integer.valueOf(1), first.get("A"));
+		assertFalse(first.containsKey("B"));
+		assertEquals(1, first.size());
+		assertEquals(Integer.valueOf(2), second.get("A"));
+		assertEquals(Integer.valueOf(3), second.get("B"));
+		assertEquals(2, second.size());
+	}
+
+	@Test
+	public void manyKeysAndRemove() {
+		PersistentMap<String, Integer> map = PersistentMap.empty();
+		for (int i = 0; i < 5000; i++) map = map.put("T" + i, i);
+		assertEquals(5000, map.size());
+		for (int i = 0; i < 5000; i++) assertEquals(Integer.valueOf(i), map.get("T" + i));
+
+		PersistentMap<String, Integer> removed = map;
+		for (int i = 0; i < 5000; i += 2) removed = removed.remove("T" + i);
+		assertEquals(2500, removed.size());
+		assertNull(removed.get("T0"));
+		assertEquals(Integer.valueOf(1), removed.get("T1"));
+		assertEquals(Integer.valueOf(0), map.get("T0"));
+
+		Map<String, Integer> visited = new HashMap<>();
+		removed.forEach(visited::put);
+		assertEquals(2500, visited.size());
+	}
+
+	@Test
+	public void collidingHashes() {
+		//"Aa" and "BB" have the same hashCode
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().put("Aa", 1).put("BB", 2);
+		assertEquals(Integer.valueOf(1), map.get("Aa"));
+		assertEquals(Integer.valueOf(2), map.get("BB"));
+		assertEquals(Integer.valueOf(2), map.remove("Aa").get("BB"));
+		assertNull(map.remove("Aa").get("Aa"));
+		assertEquals(1, map.remove("BB").size());
+	}
+
+	@Test
+	public void removeOfMissingKeyIsTheSameMap() {
+		PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().put("A", 1);
+		assertSame(map, map.remove("B"));
+		assertTrue(PersistentMap.empty().isEmpty());
+	}
+}
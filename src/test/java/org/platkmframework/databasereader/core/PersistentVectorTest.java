@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class PersistentVectorTest {
+
+	@Test
+	public void appendOverSeveralLevels() {
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		for (int i = 0; i < 40000; i++) vector = vector.append(i);
+		assertEquals(40000, vector.size());
+		for (int i = 0; i < 40000; i += 7) assertEquals(Integer.valueOf(i), vector.get(i));
+
+		List<Integer> iterated = new ArrayList<>();
+		for (Integer value : vector) iterated.add(value);
+		assertEquals(vector.asList(), iterated);
+	}
+
+	@Test
+	public void setKeepsThePreviousVersion() {
+		PersistentVector<String> first = PersistentVector.of(Arrays.asList("A", "B", "C"));
+		PersistentVector<String> second = first.set(1, "X");
+		assertEquals(Arrays.asList("A", "B", "C"), first.asList());
+		assertEquals(Arrays.asList("A", "X", "C"), second.asList());
+	}
+
+	@Test
+	public void outOfRange() {
+		PersistentVector<String> vector = PersistentVector.of(Arrays.asList("A"));
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.get(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.set(-1, "B"));
+		assertThrows(UnsupportedOperationException.class, () -> vector.asList().add("B"));
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class QuantileSketchTest {
+
+	@Test
+	public void quantilesAreWithinTheRelativeAccuracy() {
+		QuantileSketch sketch = new QuantileSketch(0.02);
+		Random random = new Random(7);
+		long[] values = new long[50_000];
+		for (int i = 0; i < values.length; i++) {
+			//skewed, from 1 to about 10^6
+			values[i] = 1 + (long) Math.exp(random.nextDouble() * 14);
+			sketch.add(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double q : new double[] {0, 0.01, 0.25, 0.5, 0.9, 0.99, 1}) {
+			long exact = values[(int) Math.floor(q * (values.length - 1))];
+			long estimate = sketch.quantile(q);
+			assertTrue(Math.abs(estimate - exact) <= Math.max(1, exact * 0.02), "q " + q + " expected about " + exact + " but was " + estimate);
+		}
+		assertEquals(values[0], sketch.getMin());
+		assertEquals(values[values.length - 1], sketch.getMax());
+	}
+
+	@Test
+	public void zerosAndSmallValues() {
+		QuantileSketch sketch = new QuantileSketch();
+		for (int i = 0; i < 10; i++) sketch.add(0);
+		for (int i = 0; i < 10; i++) sketch.add(1);
+
+		assertEquals(0, sketch.quantile(0.4));
+		assertEquals(1, sketch.quantile(0.6));
+		assertEquals(0, sketch.getMin());
+		assertEquals(1, sketch.getMax());
+		assertEquals(0.5, sketch.getMean(), 0.0001);
+		assertEquals(20, sketch.getCount());
+	}
+
+	@Test
+	public void emptyAndInvalidValues() {
+		QuantileSketch sketch = new QuantileSketch();
+		assertEquals(0, sketch.quantile(0.5));
+		assertEquals(0, sketch.getMin());
+		assertEquals(0, sketch.getMax());
+
+		sketch.add(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, sketch.quantile(0.5));
+
+		assertThrows(IllegalArgumentException.class, () -> sketch.add(-1));
+		assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0));
+		assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(1));
+	}
+}
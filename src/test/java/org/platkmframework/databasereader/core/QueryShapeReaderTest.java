@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.sql.Connection;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class QueryShapeReaderTest {
+
+	@Test
+	public void normalizesWhiteSpaceAndCommentsOutOfLiterals() {
+		assertEquals("SELECT a FROM t WHERE b = ' x  y '",
+				QueryShapeReader.normalize("SELECT  a -- name\n FROM /* table */ t\n WHERE b = ' x  y ';"));
+	}
+
+	@Test
+	public void readsTheConnectionKeyOncePerConnection() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc().query("FROM ORDERS", (parameters) -> FakeJdbc.rows(new String[] {"ID", "TOTAL"}));
+		Connection con = jdbc.connection();
+		QueryShapeReader reader = new QueryShapeReader();
+
+		List<Column> first = reader.getQueryColumnMetaData(con, "SELECT ID, TOTAL FROM ORDERS");
+		List<Column> second = reader.getQueryColumnMetaData(con, "SELECT ID,  TOTAL\nFROM ORDERS");
+
+		assertEquals(2, second.size());
+		assertEquals("TOTAL", second.get(1).getName());
+		assertNotSame(first.get(0), second.get(0));
+		assertEquals(1, reader.getHits());
+		assertEquals(1, jdbc.calls("PreparedStatement.getMetaData"));
+		assertEquals(1, jdbc.calls("getSchema"));
+	}
+
+	@Test
+	public void changedConnectionReadsItsKeyAgain() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc().query("FROM ORDERS", (parameters) -> FakeJdbc.rows(new String[] {"ID"}));
+		Connection con = jdbc.connection();
+		QueryShapeReader reader = new QueryShapeReader();
+
+		reader.getQueryColumnMetaData(con, "SELECT ID FROM ORDERS");
+		con.setSchema("OTHER");
+		reader.connectionChanged(con);
+		reader.getQueryColumnMetaData(con, "SELECT ID FROM ORDERS");
+
+		assertEquals(2, reader.getMisses());
+		assertEquals(2, jdbc.calls("PreparedStatement.getMetaData"));
+	}
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Round trip budgets of the reads for schemas of several sizes. The batch
+ * paths must not grow with the number of tables beyond one round of queries
+ * per chunk, the per table path grows linearly.
+ */
+public class RoundTripBudgetTest {
+
+	private static final String[] TABLES = {"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE", "REMARKS"};
+
+	@Test
+	public void metadataAndStatementsGiveTheWrappedConnection() throws Exception {
+		RoundTripRecorder recorder = new RoundTripRecorder();
+		Connection con = recorder.wrap(new FakeJdbc().query("SELECT", (parameters) -> FakeJdbc.rows(new String[0])).connection());
+		assertSame(con, con.getMetaData().getConnection());
+		assertSame(con, con.createStatement().getConnection());
+		assertSame(con, con.prepareStatement("SELECT 1").getConnection());
+	}
+
+	@Test
+	public void preparedStatementIsOneRoundTrip() throws Exception {
+		RoundTripRecorder recorder = new RoundTripRecorder();
+		Connection con = recorder.wrap(new FakeJdbc().query("SELECT", (parameters) -> FakeJdbc.rows(new String[0])).connection());
+		try (PreparedStatement ps = con.prepareStatement("SELECT 1");
+			 ResultSet rs = ps.executeQuery()) {
+			rs.next();
+		}
+		assertEquals(1, recorder.getRoundTrips());
+		assertEquals("PreparedStatement.executeQuery", recorder.getCalls().get(0).getMethod());
+	}
+
+	@Test
+	public void exportStaysWithinOneRoundOfQueriesPerChunk() throws Exception {
+		for (int size : new int[] {10, 100, 1000}) {
+			RoundTripRecorder recorder = new RoundTripRecorder();
+			DatabaseReader reader = new DatabaseReader(recorder.wrap(schema(size).connection()));
+			reader.setExportChunkSize(100);
+			CountingWriter writer = new CountingWriter();
+			reader.exportDatabase("CATALOG", "PUBLIC", null, new String[] {"TABLE"}, writer);
+			assertEquals(size, writer.tables);
+
+			//table list and type info, then comments, columns, keys and indexes per chunk
+			recorder.checkBudget(2 + 5 * chunks(size, 100));
+		}
+	}
+
+	@Test
+	public void selectedTablesStayWithinOneRoundOfQueries() throws Exception {
+		for (int size : new int[] {10, 100, 1000}) {
+			RoundTripRecorder recorder = new RoundTripRecorder();
+			DatabaseReader reader = new DatabaseReader(recorder.wrap(schema(size).connection()));
+			reader.selectedTablesProcess(tables(size), "CATALOG", "PUBLIC");
+
+			//type info, then comments, columns, keys and indexes per chunk
+			recorder.checkBudget(1 + 5 * chunks(size, BatchMetadataReader.DEFAULT_CHUNK_SIZE));
+		}
+	}
+
+	@Test
+	public void perTableReadIsLinear() throws Exception {
+		for (int size : new int[] {10, 100}) {
+			RoundTripRecorder recorder = new RoundTripRecorder();
+			DatabaseReader reader = new DatabaseReader(recorder.wrap(schema(size).connection()));
+			reader.tablesProcess(tables(size), "CATALOG");
+
+			//probe, comment, primary key, indexes and foreign keys of every table
+			recorder.checkBudget(1 + 5 * size);
+			assertEquals(Integer.valueOf(size), recorder.countByMethod().get("DatabaseMetaData.getPrimaryKeys"));
+		}
+	}
+
+	@Test
+	public void perTableReadGoesOverTheBatchBudget() throws Exception {
+		RoundTripRecorder recorder = new RoundTripRecorder(1, TimeUnit.MILLISECONDS);
+		DatabaseReader reader = new DatabaseReader(recorder.wrap(schema(20).connection()));
+		long start = System.nanoTime();
+		reader.tablesProcess(tables(20), "CATALOG");
+		long elapsed = System.nanoTime() - start;
+		assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(recorder.getRoundTrips()));
+		assertThrows(IllegalStateException.class, () -> recorder.checkBudget(1 + 5 * chunks(20, BatchMetadataReader.DEFAULT_CHUNK_SIZE)));
+	}
+
+	private static int chunks(int size, int chunkSize) {
+		return (size + chunkSize - 1) / chunkSize;
+	}
+
+	private static FakeJdbc schema(int size) {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < size; i++) rows.add(new Object[] {"CATALOG", "PUBLIC", "T" + i, "TABLE", null});
+		return new FakeJdbc()
+				.metaData("getTables", (args) -> FakeJdbc.rows(TABLES, rows))
+				.query("FROM INFORMATION_SCHEMA.TABLES", (parameters) -> existing(parameters))
+				.query("", (parameters) -> FakeJdbc.rows(new String[0]));
+	}
+
+	/**
+	 * Every requested table exists, without comment
+	 */
+	private static ResultSet existing(List<Object> parameters) {
+		List<Object[]> rows = new ArrayList<>();
+		for (Object name : parameters.subList(1, parameters.size())) rows.add(new Object[] {name, null});
+		return FakeJdbc.rows(new String[] {"TABLE_NAME", "REMARKS"}, rows);
+	}
+
+	private static List<Table> tables(int size) {
+		List<Table> tables = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Table table = new Table();
+			table.setName("T" + i);
+			table.setType("TABLE");
+			tables.add(table);
+		}
+		return tables;
+	}
+
+	private static final class CountingWriter implements SchemaWriter {
+		private int tables;
+		@Override
+		public void begin(String databaseName) throws IOException {
+		}
+		@Override
+		public void writeTable(Table table) throws IOException {
+			tables++;
+		}
+		@Override
+		public void finish() throws IOException {
+		}
+	}
+}
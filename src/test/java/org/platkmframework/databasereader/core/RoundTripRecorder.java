@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ *
+ * Connection wrapper for the tests that records every round trip (metadata
+ * calls that return a ResultSet and statement executions) and adds a fixed
+ * latency to each one. It reproduces the cost of a WAN link and lets a test
+ * check that a read stays within a round trip budget, so an N+1 regression
+ * shows up as a failed budget.
+ *
+ * prepareStatement is not a round trip, the statement is counted once when
+ * it is executed. getConnection of the wrapped metadata and statements gives
+ * the wrapped connection, the calls made through it are recorded too.
+ */
+final class RoundTripRecorder {
+
+	private final long latencyNanos;
+	private final List<RoundTrip> calls = Collections.synchronizedList(new ArrayList<>());
+
+	RoundTripRecorder() {
+		this(0, TimeUnit.MILLISECONDS);
+	}
+
+	RoundTripRecorder(long latency, TimeUnit unit) {
+		this.latencyNanos = unit.toNanos(latency);
+	}
+
+	Connection wrap(Connection con) {
+		return proxy(Connection.class, con);
+	}
+
+	ConnectionSource wrap(ConnectionSource connectionSource) {
+		return () -> wrap(connectionSource.getConnection());
+	}
+
+	int getRoundTrips() {
+		return calls.size();
+	}
+
+	List<RoundTrip> getCalls() {
+		synchronized (calls) {
+			return new ArrayList<>(calls);
+		}
+	}
+
+	/**
+	 *
+	 * @return method name, number of calls
+	 */
+	Map<String, Integer> countByMethod() {
+		Map<String, Integer> count = new TreeMap<>();
+		synchronized (calls) {
+			for (RoundTrip call : calls) {
+				count.merge(call.getMethod(), 1, Integer::sum);
+			}
+		}
+		return count;
+	}
+
+	void reset() {
+		calls.clear();
+	}
+
+	/**
+	 * Fails when the recorded round trips are more than the budget
+	 * @param maxRoundTrips
+	 * @throws IllegalStateException
+	 */
+	void checkBudget(int maxRoundTrips) {
+		int roundTrips = getRoundTrips();
+		if(roundTrips > maxRoundTrips)
+			throw new IllegalStateException("Round trip budget exceeded: " + roundTrips + " > " + maxRoundTrips + " " + countByMethod());
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(Class<T> type, T target) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new RecordingHandler(target));
+	}
+
+	private boolean isRoundTrip(Object target, Method method) {
+		if(target instanceof DatabaseMetaData) return ResultSet.class.equals(method.getReturnType());
+		if(target instanceof Statement) return method.getName().startsWith("execute");
+		return false;
+	}
+
+	private final class RecordingHandler implements InvocationHandler {
+
+		private final Object target;
+		/** proxy of the connection, null for the connection itself */
+		private final Connection connection;
+
+		RecordingHandler(Object target) {
+			this(target, null);
+		}
+
+		RecordingHandler(Object target, Connection connection) {
+			this.target = target;
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			Connection owner = connection != null ? connection : (Connection) proxy;
+			if(method.getName().equals("getConnection") && Connection.class.equals(method.getReturnType())) return owner;
+
+			boolean roundTrip = isRoundTrip(target, method);
+			long start = System.nanoTime();
+			Object result;
+			try {
+				if(roundTrip && latencyNanos > 0) TimeUnit.NANOSECONDS.sleep(latencyNanos);
+				result = method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			} finally {
+				if(roundTrip) calls.add(new RoundTrip(method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+						args == null ? "" : Arrays.toString(args), System.nanoTime() - start));
+			}
+
+			Class<?> returnType = method.getReturnType();
+			if(result != null && returnType.isInterface() &&
+					(DatabaseMetaData.class.equals(returnType) || Statement.class.isAssignableFrom(returnType))) {
+				return Proxy.newProxyInstance(returnType.getClassLoader(), new Class<?>[]{returnType}, new RecordingHandler(result, owner));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * One recorded call
+	 */
+	static final class RoundTrip {
+
+		private final String method;
+		private final String arguments;
+		private final long durationNanos;
+
+		RoundTrip(String method, String arguments, long durationNanos) {
+			this.method = method;
+			this.arguments = arguments;
+			this.durationNanos = durationNanos;
+		}
+
+		String getMethod() {
+			return method;
+		}
+
+		String getArguments() {
+			return arguments;
+		}
+
+		long getDurationNanos() {
+			return durationNanos;
+		}
+
+		@Override
+		public String toString() {
+			return method + arguments;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.RoutineInfo;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class RoutineReaderTest {
+
+	@Test
+	public void routinesAreReadFromTheSchemaOfTheConnection() throws Exception {
+		List<Object> schemas = new ArrayList<>();
+		FakeJdbc jdbc = new FakeJdbc();
+		for (String method : new String[] {"getProcedures", "getFunctions", "getProcedureColumns", "getFunctionColumns"}) {
+			jdbc.metaData(method, (args) -> {
+				schemas.add(args[1]);
+				return FakeJdbc.rows(new String[0]);
+			});
+		}
+		new RoutineReader().readRoutines(jdbc.connection(), "CATALOG", null);
+		assertEquals(Arrays.asList("PUBLIC", "PUBLIC", "PUBLIC", "PUBLIC"), schemas);
+	}
+
+	@Test
+	public void functionInBothCallsIsReadOnce() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc()
+				.metaData("getProcedures", (args) -> FakeJdbc.rows(new String[] {"PROCEDURE_NAME", "PROCEDURE_TYPE", "REMARKS", "SPECIFIC_NAME"},
+						new Object[] {"TOTAL", DatabaseMetaData.procedureReturnsResult, null, "TOTAL_1"}))
+				.metaData("getFunctions", (args) -> FakeJdbc.rows(new String[] {"FUNCTION_NAME", "REMARKS", "SPECIFIC_NAME"},
+						new Object[] {"TOTAL", null, "TOTAL_1"}));
+		List<RoutineInfo> routines = new RoutineReader().readRoutines(jdbc.connection(), "CATALOG", null);
+		assertEquals(1, routines.size());
+		assertEquals(RoutineInfo.FUNCTION, routines.get(0).getKind());
+	}
+
+	@Test
+	public void givenSchemaIsKept() throws Exception {
+		List<Object> schemas = new ArrayList<>();
+		FakeJdbc jdbc = new FakeJdbc().metaData("getProcedures", (args) -> {
+			schemas.add(args[1]);
+			return FakeJdbc.rows(new String[0]);
+		});
+		new RoutineReader().readRoutines(jdbc.connection(), "CATALOG", "SALES");
+		assertEquals(Arrays.asList("SALES"), schemas);
+	}
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class ScanCheckpointTest {
+
+	private static final ScanCheckpoint.Scan SCAN = scan("jdbc:fake:test", "PUBLIC", "A", "B", "C");
+
+	private Path journal;
+
+	@BeforeEach
+	public void createJournal() throws IOException {
+		journal = Files.createTempFile("scan-checkpoint", ".journal");
+		Files.delete(journal);
+	}
+
+	@AfterEach
+	public void deleteJournal() throws IOException {
+		Files.deleteIfExists(journal);
+	}
+
+	@Test
+	public void resumesTheCompletedTablesAndIgnoresATornRecord() throws Exception {
+
+		ScanCheckpoint checkpoint = new ScanCheckpoint(journal);
+		checkpoint.open(SCAN, false);
+		checkpoint.append(TableCodecTest.table("A"));
+		checkpoint.append(TableCodecTest.table("B"));
+		checkpoint.close(false);
+
+		//crash in the middle of the third record
+		try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+			file.seek(file.length());
+			file.writeInt(1000);
+			file.write(new byte[10]);
+		}
+
+		ScanCheckpoint resumed = new ScanCheckpoint(journal);
+		Map<String, Table> completed = resumed.loadCompleted(SCAN);
+		assertEquals(Arrays.asList("A", "B"), new ArrayList<>(completed.keySet()));
+	}
+
+	@Test
+	public void journalOfAnotherScanIsDiscarded() throws Exception {
+		ScanCheckpoint checkpoint = new ScanCheckpoint(journal);
+		checkpoint.open(SCAN, false);
+		checkpoint.append(TableCodecTest.table("A"));
+		checkpoint.close(false);
+
+		assertEquals(1, new ScanCheckpoint(journal).loadCompleted(scan("jdbc:fake:test", "PUBLIC", "C", "B", "A")).size());
+		assertTrue(new ScanCheckpoint(journal).loadCompleted(scan("jdbc:fake:other", "PUBLIC", "A", "B", "C")).isEmpty());
+		assertTrue(new ScanCheckpoint(journal).loadCompleted(scan("jdbc:fake:test", "SALES", "A", "B", "C")).isEmpty());
+		assertTrue(new ScanCheckpoint(journal).loadCompleted(scan("jdbc:fake:test", "PUBLIC", "A", "B")).isEmpty());
+		assertTrue(new ScanCheckpoint(journal).loadCompleted(new ScanCheckpoint.Scan("jdbc:fake:test", "other", null, "PUBLIC",
+				Arrays.asList("A", "B", "C"))).isEmpty());
+	}
+
+	@Test
+	public void readerDoesNotReplayTheJournalOfAnotherSchema() throws Exception {
+		ScanCheckpoint checkpoint = new ScanCheckpoint(journal);
+		checkpoint.open(scan("jdbc:fake:test", "SALES", "A", "B", "C"), false);
+		checkpoint.append(TableCodecTest.table("A"));
+		checkpoint.close(false);
+
+		FakeJdbc jdbc = new FakeJdbc().query("WHERE 1=2", (parameters) -> FakeJdbc.rows(new String[0]));
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		reader.setCheckpoint(checkpoint);
+		List<Table> read = reader.tablesProcess(tables("A", "B", "C"), null, "PUBLIC");
+
+		//the stale A has columns, the database has none
+		assertEquals(3, read.size());
+		assertTrue(read.get(0).getColumn().isEmpty());
+	}
+
+	@Test
+	public void brokenScanKeepsTheJournal() throws Exception {
+		ScanCheckpoint checkpoint = new ScanCheckpoint(journal);
+		checkpoint.open(SCAN, false);
+		checkpoint.append(TableCodecTest.table("A"));
+		checkpoint.close(false);
+		assertTrue(Files.exists(journal));
+
+		checkpoint.open(SCAN, true);
+		checkpoint.close(true);
+		assertFalse(Files.exists(journal));
+	}
+
+	@Test
+	public void brokenConnectionIsReplacedOnTheFirstFailure() throws Exception {
+
+		FakeJdbc broken = new FakeJdbc();
+		broken.broken = true;
+		FakeJdbc good = new FakeJdbc().query("WHERE 1=2", (parameters) -> FakeJdbc.rows(new String[0]));
+		List<Connection> opened = new ArrayList<>();
+
+		ScanCheckpoint checkpoint = new ScanCheckpoint(journal);
+		//no retry rounds, the tables must be read in the first pass
+		checkpoint.setMaxRetries(0);
+		checkpoint.setConnectionSource(() -> {
+			Connection con = good.connection();
+			opened.add(con);
+			return con;
+		});
+
+		DatabaseReader reader = new DatabaseReader(broken.connection());
+		reader.setCheckpoint(checkpoint);
+
+		List<Table> read = reader.tablesProcess(tables("A", "B", "C"), "CAT");
+		assertEquals(3, read.size());
+		assertEquals(1, opened.size());
+		assertTrue(checkpoint.getFailures().isEmpty());
+	}
+
+	private static List<Table> tables(String... names) {
+		List<Table> tables = new ArrayList<>();
+		for (String name : names) {
+			Table table = new Table();
+			table.setName(name);
+			table.setType("TABLE");
+			tables.add(table);
+		}
+		return tables;
+	}
+
+	private static ScanCheckpoint.Scan scan(String url, String schema, String... tableNames) {
+		return new ScanCheckpoint.Scan(url, "sa", null, schema, Arrays.asList(tableNames));
+	}
+}
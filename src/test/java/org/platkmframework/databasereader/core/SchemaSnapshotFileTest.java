@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class SchemaSnapshotFileTest {
+
+	private static final String[] COLUMNS = {"TABLE_NAME", "COLUMN_NAME", "DATA_TYPE", "IS_NULLABLE", "COLUMN_SIZE"};
+
+	@Test
+	public void fingerprintDoesNotDependOnTheDatabase() throws Exception {
+		FakeJdbc h2 = new FakeJdbc().metaData("getColumns", (args) -> FakeJdbc.rows(COLUMNS,
+				new Object[] {"ORDERS", "ID", Types.BIGINT, "NO", 64},
+				new Object[] {"ORDERS", "CODE", Types.VARCHAR, "YES", 20},
+				new Object[] {"ORDERS", "NOTES", Types.CLOB, "YES", 1000000000}));
+		FakeJdbc postgresql = new FakeJdbc().metaData("getColumns", (args) -> FakeJdbc.rows(COLUMNS,
+				new Object[] {"orders", "notes", Types.VARCHAR, "YES", Integer.MAX_VALUE},
+				new Object[] {"orders", "code", Types.VARCHAR, "YES", 20},
+				new Object[] {"orders", "id", Types.NUMERIC, "NO", 19}));
+		postgresql.productName = "PostgreSQL";
+
+		assertEquals(SchemaSnapshotFile.fingerprint(h2.connection(), null, null),
+					 SchemaSnapshotFile.fingerprint(postgresql.connection(), null, null));
+	}
+
+	@Test
+	public void fingerprintChangesWithTheColumns() {
+		String line = SchemaSnapshotFile.fingerprintLine("T", "CODE", Types.VARCHAR, true, 20);
+		assertNotEquals(line, SchemaSnapshotFile.fingerprintLine("T", "CODE", Types.VARCHAR, false, 20));
+		assertNotEquals(line, SchemaSnapshotFile.fingerprintLine("T", "CODE", Types.VARCHAR, true, 30));
+		assertNotEquals(line, SchemaSnapshotFile.fingerprintLine("T", "CODE", Types.INTEGER, true, 20));
+		assertNotEquals(line, SchemaSnapshotFile.fingerprintLine("T", "NAME", Types.VARCHAR, true, 20));
+		assertEquals(SchemaSnapshotFile.fingerprintLine("T", "N", Types.INTEGER, true, 10),
+					 SchemaSnapshotFile.fingerprintLine("t", "n", Types.DECIMAL, true, 22));
+	}
+
+	@Test
+	public void snapshotIsCurrentWhileTheColumnsAreTheSame() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc().metaData("getColumns", (args) -> FakeJdbc.rows(COLUMNS,
+				new Object[] {"T", "ID", Types.INTEGER, "NO", 10}));
+		DataBase dataBase = new DataBase("DB");
+		dataBase.setTables(new ArrayList<>(Arrays.asList(table("T"))));
+		SchemaSnapshotFile snapshot = new SchemaSnapshotFile(dataBase, null, null, SchemaSnapshotFile.fingerprint(jdbc.connection(), null, null));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.write(out);
+		SchemaSnapshotFile read = SchemaSnapshotFile.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals("T", read.getDataBase().getTables().get(0).getName());
+		assertTrue(read.isCurrent(jdbc.connection()));
+
+		FakeJdbc changed = new FakeJdbc().metaData("getColumns", (args) -> FakeJdbc.rows(COLUMNS,
+				new Object[] {"T", "ID", Types.INTEGER, "YES", 10}));
+		assertFalse(read.isCurrent(changed.connection()));
+	}
+
+	private static Table table(String name) {
+		Table table = new Table();
+		table.setName(name);
+		table.setType("TABLE");
+		Column column = new Column();
+		column.setName("ID");
+		table.getColumn().add(column);
+		return table;
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class SchemaSnapshotTest {
+
+	@Test
+	public void withTableSharesTheOtherTables() {
+		SchemaSnapshot first = SchemaSnapshot.empty("DB").withTable(table("A", "ID")).withTable(table("B", "ID"));
+		SchemaSnapshot second = first.withTable(table("b", "CODE"));
+
+		assertEquals(2, second.size());
+		assertSame(first.getTable("A"), second.getTable("A"));
+		assertEquals("ID", first.getTable("B").getColumns().get(0).getName());
+		assertEquals("CODE", second.getTable("B").getColumns().get(0).getName());
+
+		SchemaSnapshot third = second.withoutTable("A");
+		assertNull(third.getTable("A"));
+		assertSame(second.getTable("B"), third.getTable("B"));
+	}
+
+	@Test
+	public void refreshReadsOnlyTheChangedTables() throws Exception {
+		List<List<Object>> columnReads = new ArrayList<>();
+		FakeJdbc jdbc = new FakeJdbc()
+				.query("FROM INFORMATION_SCHEMA.TABLES", (parameters) -> {
+					List<Object[]> rows = new ArrayList<>();
+					for (Object name : parameters.subList(1, parameters.size())) rows.add(new Object[] {name, null});
+					return FakeJdbc.rows(new String[] {"TABLE_NAME", "REMARKS"}, rows);
+				})
+				.query("FROM INFORMATION_SCHEMA.COLUMNS", (parameters) -> {
+					columnReads.add(parameters);
+					List<Object[]> rows = new ArrayList<>();
+					for (Object name : parameters.subList(1, parameters.size())) rows.add(FakeJdbc.column(name, "NEW", 1, "INTEGER", 32, false));
+					return FakeJdbc.rows(FakeJdbc.COLUMNS, rows);
+				})
+				.query("", (parameters) -> FakeJdbc.rows(new String[0]));
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+
+		SchemaSnapshot snapshot = SchemaSnapshot.empty("DB").withTable(table("A", "ID")).withTable(table("B", "ID")).withTable(table("C", "ID"));
+		SchemaSnapshot refreshed = reader.refreshSnapshot(snapshot, "CAT", "PUBLIC", Arrays.asList(
+				new SchemaChangeEvent(SchemaChangeEvent.Type.TABLE_ALTERED, "B", null),
+				new SchemaChangeEvent(SchemaChangeEvent.Type.TABLE_DROPPED, "C", null),
+				new SchemaChangeEvent(SchemaChangeEvent.Type.TABLE_ADDED, "D", null)));
+
+		assertEquals(1, columnReads.size());
+		assertEquals(Arrays.asList("PUBLIC", "B", "D"), columnReads.get(0));
+		assertEquals(3, refreshed.size());
+		assertSame(snapshot.getTable("A"), refreshed.getTable("A"));
+		assertNotSame(snapshot.getTable("B"), refreshed.getTable("B"));
+		assertEquals("NEW", refreshed.getTable("B").getColumns().get(0).getName());
+		assertNull(refreshed.getTable("C"));
+		assertEquals("NEW", refreshed.getTable("D").getColumns().get(0).getName());
+
+		assertSame(refreshed, reader.refreshSnapshot(refreshed, "CAT", "PUBLIC", Collections.emptyList()));
+	}
+
+	private static Table table(String name, String columnName) {
+		Table table = new Table();
+		table.setName(name);
+		table.setType("TABLE");
+		Column column = new Column();
+		column.setName(columnName);
+		table.getColumn().add(column);
+		return table;
+	}
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class SchemaSnapshotToolTest {
+
+	@Test
+	public void optionsAreNameValuePairs() {
+		Map<String, String> options = SchemaSnapshotTool.options(new String[] {"--url=jdbc:h2:mem:build;MODE=PostgreSQL",
+				"--init=a.sql,b.sql", "--password="});
+
+		assertEquals(Arrays.asList("url", "init", "password"), Arrays.asList(options.keySet().toArray()));
+		//only the first = separates the name
+		assertEquals("jdbc:h2:mem:build;MODE=PostgreSQL", options.get("url"));
+		assertEquals("", options.get("password"));
+
+		assertThrows(IllegalArgumentException.class, () -> SchemaSnapshotTool.options(new String[] {"url=jdbc:h2:mem:build"}));
+		assertThrows(IllegalArgumentException.class, () -> SchemaSnapshotTool.options(new String[] {"--url"}));
+	}
+
+	@Test
+	public void urlIsRequired() {
+		Map<String, String> options = new HashMap<>();
+		options.put("schema", "PUBLIC");
+
+		DataBaseReaderException e = assertThrows(DataBaseReaderException.class, () -> SchemaSnapshotTool.generate(options));
+		assertEquals("url is required", e.getMessage());
+	}
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class SchemaValidatorTest {
+
+	@Test
+	public void nullabilityIsNotCheckedByDefault() throws Exception {
+		SchemaValidator validator = new SchemaValidator();
+		SchemaValidationReport report = validator.validate(schema().connection(), "CAT", "PUBLIC", Arrays.asList(expected("T", "NAME", Types.VARCHAR, 20)));
+		assertTrue(report.isValid(), report.toString());
+
+		validator.setCheckNullability(true);
+		report = validator.validate(schema().connection(), "CAT", "PUBLIC", Arrays.asList(expected("T", "NAME", Types.VARCHAR, 20)));
+		assertEquals(SchemaValidationReport.Kind.NULLABILITY_MISMATCH, report.getMismatches().get(0).getKind());
+	}
+
+	@Test
+	public void mismatchesOfTheExpectedModel() throws Exception {
+		Table table = expected("T", "NAME", Types.VARCHAR, 100);
+		table.getColumn().addAll(expected("T", "MISSING", Types.VARCHAR, 0).getColumn());
+		table.getColumn().addAll(expected("T", "ID", Types.VARCHAR, 0).getColumn());
+		SchemaValidationReport report = new SchemaValidator().validate(schema().connection(), "CAT", "PUBLIC", Arrays.asList(
+				table, expected("OTHER", "ID", Types.INTEGER, 0)));
+
+		List<SchemaValidationReport.Kind> kinds = new ArrayList<>();
+		for (SchemaValidationReport.Mismatch mismatch : report.getMismatches()) kinds.add(mismatch.getKind());
+		assertEquals(Arrays.asList(SchemaValidationReport.Kind.LENGTH_TOO_SHORT, SchemaValidationReport.Kind.MISSING_COLUMN,
+				SchemaValidationReport.Kind.TYPE_MISMATCH, SchemaValidationReport.Kind.MISSING_TABLE), kinds);
+	}
+
+	/**
+	 * Table T with ID INTEGER NOT NULL and NAME VARCHAR(50) NULL
+	 */
+	private static FakeJdbc schema() {
+		return new FakeJdbc()
+				.query("FROM INFORMATION_SCHEMA.COLUMNS", (parameters) -> {
+					List<Object[]> rows = new ArrayList<>();
+					if(parameters.contains("T")) {
+						rows.add(FakeJdbc.column("T", "ID", 1, "INTEGER", 32, false));
+						rows.add(FakeJdbc.column("T", "NAME", 2, "VARCHAR", 50, true));
+					}
+					return FakeJdbc.rows(FakeJdbc.COLUMNS, rows);
+				})
+				.query("", (parameters) -> FakeJdbc.rows(new String[0]));
+	}
+
+	/**
+	 * Table with one expected column
+	 */
+	private static Table expected(String tableName, String columnName, int sqlType, int precision) {
+		Table table = new Table();
+		table.setName(tableName);
+		Column column = new Column();
+		column.setName(columnName);
+		column.setJavaSqlType(sqlType);
+		column.setPrecision(precision);
+		table.getColumn().add(column);
+		return table;
+	}
+}
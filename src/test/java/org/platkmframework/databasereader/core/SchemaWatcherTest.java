@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class SchemaWatcherTest {
+
+	private static final String[] COLUMNS = {"TABLE_NAME", "COLUMN_NAME", "TYPE_NAME", "COLUMN_SIZE", "DECIMAL_DIGITS", "NULLABLE", "COLUMN_DEF"};
+
+	/** table -> column -> type */
+	private final Map<String, Map<String, String>> schema = new LinkedHashMap<>();
+
+	private FakeJdbc jdbc(boolean signatures) {
+		FakeJdbc jdbc = new FakeJdbc()
+			.metaData("getTables", (args) -> {
+				List<Object[]> rows = new ArrayList<>();
+				for (String table : schema.keySet()) rows.add(new Object[] {null, "PUBLIC", table});
+				return FakeJdbc.rows(new String[] {"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME"}, rows);
+			})
+			.metaData("getColumns", (args) -> columns((String) args[2]));
+		if(signatures) jdbc.query("LISTAGG", (parameters) -> {
+			List<Object[]> rows = new ArrayList<>();
+			for (Map.Entry<String, Map<String, String>> table : schema.entrySet()) rows.add(new Object[] {table.getKey(), table.getValue().toString()});
+			return FakeJdbc.rows(new String[] {"TABLE_NAME", "SIGNATURE"}, rows);
+		});
+		return jdbc;
+	}
+
+	private ResultSet columns(String tablePattern) {
+		List<Object[]> rows = new ArrayList<>();
+		for (Map.Entry<String, Map<String, String>> table : schema.entrySet()) {
+			if(!"%".equals(tablePattern) && !table.getKey().equals(tablePattern)) continue;
+			for (Map.Entry<String, String> column : table.getValue().entrySet())
+				rows.add(new Object[] {table.getKey(), column.getKey(), column.getValue(), 10, 0, 1, null});
+		}
+		return FakeJdbc.rows(COLUMNS, rows);
+	}
+
+	private void table(String name, String... columns) {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (String column : columns) map.put(column, "VARCHAR");
+		schema.put(name, map);
+	}
+
+	@Test
+	public void signalsReadOnlyTheChangedTables() throws Exception {
+
+		table("A", "ID");
+		table("B", "ID");
+		FakeJdbc jdbc = jdbc(true);
+		SchemaWatcher watcher = new SchemaWatcher(jdbc::connection, null, null, null);
+
+		assertTrue(watcher.poll().isEmpty());
+		assertEquals(1, jdbc.calls("getColumns"));
+
+		assertTrue(watcher.poll().isEmpty());
+		assertEquals(1, jdbc.calls("getColumns"));
+
+		schema.get("B").put("NAME", "VARCHAR");
+		List<SchemaChangeEvent> events = watcher.poll();
+		assertEquals(2, jdbc.calls("getColumns"));
+		assertEquals(1, events.size());
+		assertEquals(SchemaChangeEvent.Type.TABLE_ALTERED, events.get(0).getType());
+		assertEquals("B", events.get(0).getTableName());
+		assertEquals(SchemaChangeEvent.ColumnChangeType.COLUMN_ADDED, events.get(0).getColumnChanges().get(0).getType());
+	}
+
+	@Test
+	public void withoutSignalsEveryColumnIsCompared() throws Exception {
+
+		table("A", "ID");
+		FakeJdbc jdbc = jdbc(false);
+		SchemaWatcher watcher = new SchemaWatcher(jdbc::connection, null, null, null);
+		watcher.poll();
+		schema.remove("A");
+		table("C", "ID");
+		List<SchemaChangeEvent> events = watcher.poll();
+		assertEquals(2, events.size());
+		assertEquals(2, jdbc.calls("getColumns"));
+		assertFalse(watcher.isCatalogSignals());
+	}
+
+	@Test
+	public void runtimeExceptionDoesNotStopThePolling() throws Exception {
+
+		table("A", "ID");
+		FakeJdbc jdbc = jdbc(true);
+		AtomicInteger attempts = new AtomicInteger();
+		CountDownLatch recovered = new CountDownLatch(1);
+		SchemaWatcher watcher = new SchemaWatcher(() -> {
+			if(attempts.incrementAndGet() == 1) throw new IllegalStateException("pool closed");
+			recovered.countDown();
+			return jdbc.connection();
+		}, null, null, null);
+
+		watcher.start(5, TimeUnit.MILLISECONDS);
+		try {
+			assertTrue(recovered.await(5, TimeUnit.SECONDS));
+			assertTrue(watcher.isRunning());
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	public void stopDoesNotWaitForThePoll() throws Exception {
+
+		table("A", "ID");
+		FakeJdbc jdbc = jdbc(true);
+		CountDownLatch polling = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		SchemaWatcher watcher = new SchemaWatcher(() -> {
+			polling.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return jdbc.connection();
+		}, null, null, null);
+
+		watcher.start(1, TimeUnit.HOURS);
+		assertTrue(polling.await(5, TimeUnit.SECONDS));
+		long start = System.nanoTime();
+		watcher.stop();
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+		assertFalse(watcher.isRunning());
+		release.countDown();
+	}
+}
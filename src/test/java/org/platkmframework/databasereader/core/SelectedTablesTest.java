@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class SelectedTablesTest {
+
+	@Test
+	public void missingTableIsAnError() {
+		DatabaseReader reader = new DatabaseReader(schema("A").query("", (parameters) -> FakeJdbc.rows(new String[0])).connection());
+		DataBaseReaderException e = assertThrows(DataBaseReaderException.class,
+				() -> reader.selectedTablesProcess(tables("A", "B"), "CAT", "PUBLIC"));
+		assertTrue(e.getMessage().contains("B"), e.getMessage());
+	}
+
+	@Test
+	public void indexesAndCommentsAreReadForTheRequestedTablesOnly() throws Exception {
+		List<List<Object>> indexParameters = new ArrayList<>();
+		FakeJdbc jdbc = schema("A", "B")
+				.query("INDEX_COLUMNS", (parameters) -> {
+					indexParameters.add(parameters);
+					return FakeJdbc.rows(new String[0]);
+				})
+				.query("", (parameters) -> FakeJdbc.rows(new String[0]));
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		List<Table> result = reader.selectedTablesProcess(tables("A"), "CAT", "PUBLIC");
+
+		assertEquals(1, result.size());
+		assertEquals("comment of A", result.get(0).getComment());
+		assertEquals("ID", result.get(0).getColumn().get(0).getName());
+		assertEquals(1, indexParameters.size());
+		assertEquals(Arrays.asList("PUBLIC", "A"), indexParameters.get(0));
+	}
+
+	@Test
+	public void exportReadsTheIndexesOfEachChunkOnly() throws Exception {
+		String[] names = new String[25];
+		for (int i = 0; i < names.length; i++) names[i] = "T" + i;
+		List<Integer> indexTables = new ArrayList<>();
+		FakeJdbc jdbc = schema(names)
+				.metaData("getTables", (args) -> {
+					List<Object[]> rows = new ArrayList<>();
+					for (String name : names) rows.add(new Object[] {"CAT", "PUBLIC", name, "TABLE", null});
+					return FakeJdbc.rows(new String[] {"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE", "REMARKS"}, rows);
+				})
+				.query("INDEX_COLUMNS", (parameters) -> {
+					indexTables.add(parameters.size() - 1);
+					return FakeJdbc.rows(new String[0]);
+				})
+				.query("", (parameters) -> FakeJdbc.rows(new String[0]));
+		DatabaseReader reader = new DatabaseReader(jdbc.connection());
+		reader.setExportChunkSize(10);
+		List<String> written = new ArrayList<>();
+		reader.exportDatabase("CAT", "PUBLIC", null, new String[] {"TABLE"}, new SchemaWriter() {
+			@Override
+			public void begin(String databaseName) {
+			}
+			@Override
+			public void writeTable(Table table) {
+				written.add(table.getName());
+			}
+			@Override
+			public void finish() {
+			}
+		});
+
+		assertEquals(25, written.size());
+		assertEquals(Arrays.asList(10, 10, 5), indexTables);
+	}
+
+	/**
+	 * Schema with the given tables, each one with an ID column. The caller
+	 * adds the handlers of the other queries.
+	 */
+	private static FakeJdbc schema(String... names) {
+		List<String> existing = Arrays.asList(names);
+		return new FakeJdbc()
+				.query("FROM INFORMATION_SCHEMA.TABLES", (parameters) -> {
+					List<Object[]> rows = new ArrayList<>();
+					for (Object name : parameters.subList(1, parameters.size())) {
+						if(existing.contains(name)) rows.add(new Object[] {name, "comment of " + name});
+					}
+					return FakeJdbc.rows(new String[] {"TABLE_NAME", "REMARKS"}, rows);
+				})
+				.query("FROM INFORMATION_SCHEMA.COLUMNS", (parameters) -> {
+					List<Object[]> rows = new ArrayList<>();
+					for (Object name : parameters.subList(1, parameters.size())) {
+						if(existing.contains(name)) rows.add(FakeJdbc.column(name, "ID", 1, "INTEGER", 32, false));
+					}
+					return FakeJdbc.rows(FakeJdbc.COLUMNS, rows);
+				});
+	}
+
+	private static List<Table> tables(String... names) {
+		List<Table> tables = new ArrayList<>();
+		for (String name : names) {
+			Table table = new Table();
+			table.setName(name);
+			table.setType("TABLE");
+			tables.add(table);
+		}
+		return tables;
+	}
+}
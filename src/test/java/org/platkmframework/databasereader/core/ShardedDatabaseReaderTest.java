@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class ShardedDatabaseReaderTest {
+
+	@Test
+	public void slowEndpointLeavesTheLastTablesToTheFastOne() throws Exception {
+		FakeJdbc fast = endpoint(1);
+		FakeJdbc slow = endpoint(100);
+		ShardedDatabaseReader reader = new ShardedDatabaseReader(Arrays.asList(fast::connection, slow::connection));
+
+		//the first read measures both endpoints
+		assertEquals(30, reader.processDatabase("CATALOG", "PUBLIC", null, null, names(30)).getTables().size());
+		assertTrue(reader.getTablesRead().get(1) > 0);
+
+		List<Table> tables = reader.processDatabase("CATALOG", "PUBLIC", null, null, names(3)).getTables();
+		assertEquals(Arrays.asList("T0", "T1", "T2"), Arrays.asList(tables.get(0).getName(), tables.get(1).getName(), tables.get(2).getName()));
+		assertEquals(Arrays.asList(3, 0), reader.getTablesRead());
+	}
+
+	@Test
+	public void tableFailedOnOneEndpointIsReadOnTheOther() throws Exception {
+		FakeJdbc good = endpoint(0);
+		FakeJdbc broken = endpoint(new FakeJdbc().query("T1 WHERE", (parameters) -> {
+			throw new IllegalStateException("no T1 here");
+		}), 0);
+		ShardedDatabaseReader reader = new ShardedDatabaseReader(Arrays.asList(broken::connection, good::connection));
+
+		assertEquals(4, reader.processDatabase("CATALOG", "PUBLIC", null, null, names(4)).getTables().size());
+		assertTrue(reader.getFailures().isEmpty());
+	}
+
+	private static FakeJdbc endpoint(long millis) {
+		return endpoint(new FakeJdbc(), millis);
+	}
+
+	private static FakeJdbc endpoint(FakeJdbc jdbc, long millis) {
+		return jdbc.query("WHERE 1=2", (parameters) -> {
+			try {
+				TimeUnit.MILLISECONDS.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return FakeJdbc.rows(new String[] {"ID"});
+		});
+	}
+
+	private static List<String> names(int size) {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < size; i++) names.add("T" + i);
+		return names;
+	}
+}
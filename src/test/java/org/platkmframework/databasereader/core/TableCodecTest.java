@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Types;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.FkContraint;
+import org.platkmframework.databasereader.model.ImportedKey;
+import org.platkmframework.databasereader.model.IndexContraint;
+import org.platkmframework.databasereader.model.PkContraint;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class TableCodecTest {
+
+	static Table table(String name) {
+
+		Table table = new Table();
+		table.setName(name);
+		table.setType("TABLE");
+		table.setComment("Orders of the customers");
+
+		Column id = new Column();
+		id.setName("ID");
+		id.setType("BIGINT");
+		id.setJavaType("java.lang.Long");
+		id.setJavaSqlType(Types.BIGINT);
+		id.setPrecision(19);
+		id.setPk(true);
+		id.setAutoIncrement(true);
+		table.getColumn().add(id);
+
+		Column customer = new Column();
+		customer.setName("CUSTOMER_ID");
+		customer.setType("BIGINT");
+		customer.setJavaSqlType(Types.BIGINT);
+		customer.setFk(true);
+		customer.setNullable(true);
+		customer.setFktablename("CUSTOMER");
+		customer.setDefaultValue("0");
+		table.getColumn().add(customer);
+
+		PkContraint pk = new PkContraint();
+		pk.setName("PK_" + name);
+		pk.getListField().add("ID");
+		table.setPkContraint(pk);
+
+		IndexContraint index = new IndexContraint();
+		index.setName("IX_CUSTOMER");
+		index.setType("UNIQUE");
+		index.getColumns().add("CUSTOMER_ID");
+		table.getIndexContraint().add(index);
+
+		FkContraint fk = new FkContraint();
+		fk.setFkName("FK_CUSTOMER");
+		fk.setFkTableName(name);
+		fk.setPkTableName("CUSTOMER");
+		ImportedKey key = new ImportedKey();
+		key.setPkTableName("CUSTOMER");
+		key.setPkColumnName("ID");
+		key.setFkColumnName("CUSTOMER_ID");
+		key.setKeySeq("1");
+		key.setDeleteRule("0");
+		fk.getImportedKey().add(key);
+		table.getFkContraint().add(fk);
+		return table;
+	}
+
+	private static Table roundTrip(Table table) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		TableCodec.writeTable(new DataOutputStream(buffer), table);
+		return TableCodec.readTable(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+	}
+
+	@Test
+	public void roundTripKeepsEveryField() throws IOException {
+
+		Table read = roundTrip(table("ORDERS"));
+		assertEquals("ORDERS", read.getName());
+		assertEquals("TABLE", read.getType());
+		assertEquals("Orders of the customers", read.getComment());
+		assertEquals("PK_ORDERS", read.getPkContraint().getName());
+		assertEquals("ID", read.getPkContraint().getListField().get(0));
+		assertEquals(2, read.getColumn().size());
+
+		Column id = read.getColumn().get(0);
+		assertEquals(Types.BIGINT, id.getJavaSqlType());
+		assertEquals(19, id.getPrecision());
+		assertEquals(true, id.isPk());
+		assertEquals(true, id.isAutoIncrement());
+		assertEquals("java.lang.Long", id.getJavaType());
+		assertNull(id.getComment());
+
+		Column customer = read.getColumn().get(1);
+		assertEquals(true, customer.isNullable());
+		assertEquals("CUSTOMER", customer.getFktablename());
+		assertEquals("0", customer.getDefaultValue());
+
+		assertEquals("IX_CUSTOMER", read.getIndexContraint().get(0).getName());
+		assertEquals("CUSTOMER_ID", read.getIndexContraint().get(0).getColumns().get(0));
+		ImportedKey key = read.getFkContraint().get(0).getImportedKey().get(0);
+		assertEquals("CUSTOMER_ID", key.getFkColumnName());
+		assertEquals("1", key.getKeySeq());
+		assertEquals("0", key.getDeleteRule());
+	}
+
+	@Test
+	public void stringsOver64KbAndSupplementaryCharacters() throws IOException {
+
+		StringBuilder comment = new StringBuilder();
+		while(comment.length() < 200_000) comment.append("comentario \u00e1\u00e9 \ud83d\ude00 ");
+		Table table = table("T");
+		table.setComment(comment.toString());
+		table.getColumn().get(0).setDefaultValue(comment.toString());
+
+		Table read = roundTrip(table);
+		assertEquals(comment.toString(), read.getComment());
+		assertEquals(comment.toString(), read.getColumn().get(0).getDefaultValue());
+	}
+
+	@Test
+	public void nullAndEmptyStrings() throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(buffer);
+		TableCodec.writeString(out, null);
+		TableCodec.writeString(out, "");
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+		assertNull(TableCodec.readString(in));
+		assertEquals("", TableCodec.readString(in));
+	}
+}
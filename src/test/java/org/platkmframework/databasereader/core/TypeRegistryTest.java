@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class TypeRegistryTest {
+
+	@Test
+	public void keepsTheClassOfTheDriverPerType() throws Exception {
+		TypeRegistry registry = new TypeRegistry();
+		AtomicInteger asked = new AtomicInteger();
+		ResultSetMetaData resultSetMetaData = classNames(asked, "java.lang.Byte");
+
+		//the specification says Integer, the driver says Byte
+		assertEquals(Integer.class.getName(), registry.javaType(Types.TINYINT, "TINYINT"));
+		assertEquals("java.lang.Byte", registry.javaType(Types.TINYINT, "TINYINT", resultSetMetaData, 1));
+		assertEquals("java.lang.Byte", registry.javaType(Types.TINYINT, "tinyint", resultSetMetaData, 2));
+		assertEquals("java.lang.Byte", registry.javaType(Types.TINYINT, "TINYINT"));
+		assertEquals(1, asked.get());
+	}
+
+	@Test
+	public void overridesGoBeforeTheDriver() throws Exception {
+		TypeRegistry registry = new TypeRegistry();
+		AtomicInteger asked = new AtomicInteger();
+		registry.override(Types.NUMERIC, Long.class.getName());
+		registry.override("MONEY", "java.math.BigDecimal");
+
+		assertEquals(Long.class.getName(), registry.javaType(Types.NUMERIC, "NUMBER", classNames(asked, "java.math.BigDecimal"), 1));
+		assertEquals("java.math.BigDecimal", registry.javaType(Types.NUMERIC, "MONEY"));
+		assertEquals(0, asked.get());
+	}
+
+	@Test
+	public void driverWithoutClassUsesTheSpecification() throws Exception {
+		TypeRegistry registry = new TypeRegistry();
+		AtomicInteger asked = new AtomicInteger();
+		assertEquals(String.class.getName(), registry.javaType(Types.VARCHAR, "VARCHAR", classNames(asked, null), 1));
+		assertEquals(String.class.getName(), registry.javaType(Types.VARCHAR, "VARCHAR", classNames(asked, null), 1));
+		assertEquals(2, asked.get());
+	}
+
+	@Test
+	public void typeNameOnlyWhenTheCodeHasOne() {
+		TypeRegistry registry = new TypeRegistry();
+		registry.addType("INTEGER", Types.INTEGER);
+		registry.addType("VARCHAR", Types.VARCHAR);
+		registry.addType("VARCHAR_IGNORECASE", Types.VARCHAR);
+		assertEquals("INTEGER", registry.typeName(Types.INTEGER));
+		assertNull(registry.typeName(Types.VARCHAR));
+		assertEquals(Types.VARCHAR, registry.sqlType("varchar_ignorecase"));
+		assertEquals(Types.OTHER, registry.sqlType("GEOMETRY"));
+	}
+
+	private static ResultSetMetaData classNames(AtomicInteger asked, String className) {
+		return (ResultSetMetaData) Proxy.newProxyInstance(TypeRegistryTest.class.getClassLoader(), new Class<?>[] {ResultSetMetaData.class}, (proxy, method, args) -> {
+			if(method.getName().equals("getColumnClassName")) {
+				asked.incrementAndGet();
+				return className;
+			}
+			return FakeJdbc.defaultValue(method.getReturnType());
+		});
+	}
+}
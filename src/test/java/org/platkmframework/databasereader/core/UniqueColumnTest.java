@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class UniqueColumnTest {
+
+	private static final String[] INDEX_INFO = {"TABLE_NAME", "INDEX_NAME", "NON_UNIQUE", "TYPE", "COLUMN_NAME", "ORDINAL_POSITION", "ASC_OR_DESC"};
+
+	@Test
+	public void onlySingleColumnUniqueIndexesMarkTheColumn() throws Exception {
+		FakeJdbc jdbc = new FakeJdbc()
+				.query("WHERE 1=2", (parameters) -> FakeJdbc.rows(new String[] {"A", "B", "C"}))
+				.metaData("getIndexInfo", (args) -> FakeJdbc.rows(INDEX_INFO,
+						new Object[] {"T", "UK_AB", false, (int) DatabaseMetaData.tableIndexOther, "A", 1, "A"},
+						new Object[] {"T", "UK_AB", false, (int) DatabaseMetaData.tableIndexOther, "B", 2, "A"},
+						new Object[] {"T", "UK_C", false, (int) DatabaseMetaData.tableIndexOther, "C", 1, "A"}));
+		Connection con = jdbc.connection();
+		DatabaseReader reader = new DatabaseReader(con);
+
+		Table table = new Table();
+		table.setName("T");
+		table.setType("TABLE");
+		table = reader.tableProcess(con.getMetaData(), table);
+
+		assertEquals(2, table.getIndexContraint().size());
+		assertFalse(column(table, "A").isUnique());
+		assertFalse(column(table, "B").isUnique());
+		assertTrue(column(table, "C").isUnique());
+	}
+
+	private static Column column(Table table, String name) {
+		for (Column column : table.getColumn()) {
+			if(column.getName().equals(name)) return column;
+		}
+		throw new AssertionError("No column " + name);
+	}
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright(c) 2023 the original author Eduardo Iglesias Taylor.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	 https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ * 	Eduardo Iglesias Taylor - initial API and implementation
+ *******************************************************************************/
+package org.platkmframework.databasereader.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.platkmframework.databasereader.model.Column;
+import org.platkmframework.databasereader.model.Table;
+
+/**
+ *   Author:
+ *     Eduardo Iglesias
+ *   Contributors:
+ *   	Eduardo Iglesias - initial API and implementation
+ */
+public class WarmupDatabaseReaderTest {
+
+	private final AtomicInteger reads = new AtomicInteger();
+
+	private final IDatabaseReader reader = new IDatabaseReader() {
+
+		@Override
+		public List<Table> getMetadata(Connection con) {
+			return getMetadata(con, null);
+		}
+
+		@Override
+		public List<Table> getMetadata(Connection con, String table) {
+			reads.incrementAndGet();
+			Table t = new Table();
+			t.setName(table);
+			Column column = new Column();
+			column.setName("ID");
+			t.getColumn().add(column);
+			return new ArrayList<>(Collections.singletonList(t));
+		}
+
+		@Override
+		public List<String> getTablePksContraints(Connection con, String table) {
+			return new ArrayList<>();
+		}
+
+		@Override
+		public List<Column> getTableColumnMetaData(Connection con, String tablename) {
+			return new ArrayList<>();
+		}
+	};
+
+	@Test
+	public void callersGetTheirOwnCopies() throws Exception {
+		WarmupDatabaseReader warmup = new WarmupDatabaseReader(reader, () -> new FakeJdbc().connection(), null);
+		warmup.start(Arrays.asList("T"));
+		assertTrue(warmup.awaitCompletion(5, TimeUnit.SECONDS));
+		Connection con = new FakeJdbc().connection();
+
+		List<Table> first = warmup.getMetadata(con, "T");
+		first.get(0).setName("CHANGED");
+		first.get(0).getColumn().get(0).setName("CHANGED");
+		List<Table> second = warmup.getMetadata(con, "T");
+		assertEquals("T", second.get(0).getName());
+		assertEquals("ID", second.get(0).getColumn().get(0).getName());
+		assertEquals(1, reads.get());
+		warmup.stop();
+	}
+
+	@Test
+	public void expiredTableIsReadAgain() throws Exception {
+		WarmupDatabaseReader warmup = new WarmupDatabaseReader(reader, () -> new FakeJdbc().connection(), null);
+		warmup.setTtlMillis(20);
+		warmup.start(Arrays.asList("T"));
+		assertTrue(warmup.awaitCompletion(5, TimeUnit.SECONDS));
+		Connection con = new FakeJdbc().connection();
+
+		warmup.getMetadata(con, "T");
+		assertEquals(1, reads.get());
+		Thread.sleep(50);
+		warmup.getMetadata(con, "T");
+		warmup.getMetadata(con, "T");
+		assertEquals(2, reads.get());
+		warmup.stop();
+	}
+
+	@Test
+	public void requestInAnotherCaseMovesTheTableToTheFront() throws Exception {
+
+		CountDownLatch loadingFirst = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		IDatabaseReader blocking = new IDatabaseReader() {
+
+			@Override
+			public List<Table> getMetadata(Connection con) {
+				return getMetadata(con, null);
+			}
+
+			@Override
+			public List<Table> getMetadata(Connection con, String table) {
+				if(order.isEmpty()) {
+					loadingFirst.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				order.add(table);
+				return reader.getMetadata(con, table);
+			}
+
+			@Override
+			public List<String> getTablePksContraints(Connection con, String table) {
+				return new ArrayList<>();
+			}
+
+			@Override
+			public List<Column> getTableColumnMetaData(Connection con, String tablename) {
+				return new ArrayList<>();
+			}
+		};
+
+		WarmupDatabaseReader warmup = new WarmupDatabaseReader(blocking, () -> new FakeJdbc().connection(), null);
+		warmup.start(Arrays.asList("A", "B", "C"));
+		assertTrue(loadingFirst.await(5, TimeUnit.SECONDS));
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<List<Table>> request = executor.submit(() -> warmup.getMetadata(new FakeJdbc().connection(), "c"));
+			Thread.sleep(50);
+			release.countDown();
+			assertEquals("C", request.get(5, TimeUnit.SECONDS).get(0).getName());
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(warmup.awaitCompletion(5, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("A", "C", "B"), order);
+		assertEquals(3, reads.get());
+		warmup.stop();
+	}
+
+	@Test
+	public void statisticsAreSavedWhileRunning() throws Exception {
+		Path file = Files.createTempDirectory("warmup").resolve("statistics.properties");
+		WarmupDatabaseReader warmup = new WarmupDatabaseReader(reader, () -> new FakeJdbc().connection(), file);
+		warmup.setStatisticsIntervalMillis(10);
+		warmup.start(Arrays.asList("T"));
+		warmup.getMetadata(new FakeJdbc().connection(), "T");
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while(read(file).getProperty("T") == null && System.currentTimeMillis() < deadline) Thread.sleep(10);
+		assertEquals("1", read(file).getProperty("T"));
+		warmup.stop();
+	}
+
+	private static Properties read(Path file) throws Exception {
+		Properties properties = new Properties();
+		if(!Files.exists(file)) return properties;
+		try (InputStream in = Files.newInputStream(file)) {
+			properties.load(in);
+		}
+		return properties;
+	}
+}